@@ -30,7 +30,7 @@ mvn clean compile
 
 if %errorlevel% equ 0 (
     echo 编译成功，正在启动应用...
-    mvn spring-boot:run
+    mvn -pl xfyun-webapi spring-boot:run
 ) else (
     echo 编译失败，请检查代码
     pause
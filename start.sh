@@ -27,7 +27,7 @@ mvn clean compile
 
 if [ $? -eq 0 ]; then
     echo "编译成功，正在启动应用..."
-    mvn spring-boot:run
+    mvn -pl xfyun-webapi spring-boot:run
 else
     echo "编译失败，请检查代码"
     exit 1
@@ -0,0 +1,65 @@
+package com.xfyun.webapi.sign;
+
+import java.util.Objects;
+
+/**
+ * 一组讯飞应用凭证的不可变快照
+ *
+ * RTASR 只使用 appId 与 apiKey，此时 apiSecret 为 null。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class Credential {
+
+    private final String appId;
+    private final String apiKey;
+    private final String apiSecret;
+    private final int hash;
+
+    public Credential(String appId, String apiKey, String apiSecret) {
+        this.appId = appId;
+        this.apiKey = apiKey;
+        this.apiSecret = apiSecret;
+        this.hash = Objects.hash(appId, apiKey, apiSecret);
+    }
+
+    public String getAppId() {
+        return appId;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public String getApiSecret() {
+        return apiSecret;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Credential)) {
+            return false;
+        }
+        Credential that = (Credential) o;
+        return hash == that.hash
+                && Objects.equals(appId, that.appId)
+                && Objects.equals(apiKey, that.apiKey)
+                && Objects.equals(apiSecret, that.apiSecret);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        // 不输出密钥
+        return "Credential{appId=" + appId + "}";
+    }
+}
@@ -0,0 +1,312 @@
+package com.xfyun.webapi.sign;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 单个服务的加权凭证池
+ *
+ * 每个成员带权重与并发上限。签名URL交给客户端自行建连，服务端看不到会话结束，
+ * 因此以"最近 {@code leaseSeconds} 秒内签出的次数"近似成员的在途会话数。
+ * 选择过程只用原子变量，不加锁：
+ * <ul>
+ *   <li>{@link Strategy#ROUND_ROBIN}：按权重轮询，轮到的成员已满时顺延</li>
+ *   <li>{@link Strategy#LEAST_OUTSTANDING}：取 (在途数+1)/权重 最小的成员，平局按轮询起点打散</li>
+ * </ul>
+ * 并发上限为软上限：多个线程同时检查同一成员时可能短暂超出少量。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class CredentialPool {
+
+    /**
+     * 成员选择策略
+     */
+    public enum Strategy {
+        /** 加权轮询 */
+        ROUND_ROBIN,
+        /** 加权最少在途 */
+        LEAST_OUTSTANDING
+    }
+
+    /** 在途统计的时间分桶数 */
+    private static final int BUCKETS = 8;
+    /** 分桶计数在打包值中占用的低位数 */
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final SignService service;
+    private final Strategy strategy;
+    private final Clock clock;
+    private final int bucketSeconds;
+    private final Member[] members;
+    // 权重前缀和，cumulative[i] 为前 i+1 个成员的权重之和
+    private final long[] cumulative;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * @param service 服务类型
+     * @param specs 成员定义，至少一个
+     * @param strategy 选择策略
+     * @param leaseSeconds 一次签出计为在途的秒数
+     * @param clock 时间来源
+     */
+    public CredentialPool(SignService service, List<Spec> specs, Strategy strategy, int leaseSeconds, Clock clock) {
+        if (specs.isEmpty()) {
+            throw new IllegalArgumentException("凭证池至少需要一个成员: " + service.tag());
+        }
+        if (leaseSeconds < 1) {
+            throw new IllegalArgumentException("凭证租用时长须大于0: " + leaseSeconds);
+        }
+        this.service = service;
+        this.strategy = strategy;
+        this.clock = clock;
+        this.bucketSeconds = (leaseSeconds + BUCKETS - 1) / BUCKETS;
+        this.members = new Member[specs.size()];
+        this.cumulative = new long[specs.size()];
+        long total = 0;
+        for (int i = 0; i < members.length; i++) {
+            Spec spec = specs.get(i);
+            members[i] = new Member(new TenantCredentials.Prepared(service, spec.credential), spec.weight, spec.maxConcurrency);
+            total += spec.weight;
+            cumulative[i] = total;
+        }
+    }
+
+    /**
+     * 单成员、不限并发的凭证池
+     *
+     * @param service 服务类型
+     * @param credential 凭证
+     * @param clock 时间来源
+     * @return 凭证池
+     */
+    public static CredentialPool single(SignService service, Credential credential, Clock clock) {
+        return new CredentialPool(service, Collections.singletonList(new Spec(credential, 1, 0)),
+                Strategy.LEAST_OUTSTANDING, 60, clock);
+    }
+
+    /**
+     * 选出一个成员并计入在途
+     *
+     * 单成员且不限并发时无可选择也无需限流，直接返回该成员，不计入在途。
+     *
+     * @return 选中的成员
+     * @throws CredentialPoolExhaustedException 所有成员均已达并发上限
+     */
+    public Member select() {
+        if (members.length == 1) {
+            Member only = members[0];
+            if (only.maxConcurrency == 0 || only.tryAcquire(clock.millis() / 1000 / bucketSeconds)) {
+                return only;
+            }
+            throw new CredentialPoolExhaustedException(service);
+        }
+        long epoch = clock.millis() / 1000 / bucketSeconds;
+        Member chosen = strategy == Strategy.ROUND_ROBIN ? selectRoundRobin(epoch) : selectLeastOutstanding(epoch);
+        if (chosen == null) {
+            throw new CredentialPoolExhaustedException(service);
+        }
+        return chosen;
+    }
+
+    /**
+     * 首个成员，用于预签名等只需一份凭证的场景
+     *
+     * @return 首个成员
+     */
+    public Member primary() {
+        return members[0];
+    }
+
+    public int size() {
+        return members.length;
+    }
+
+    public List<Member> members() {
+        List<Member> list = new ArrayList<>(members.length);
+        Collections.addAll(list, members);
+        return Collections.unmodifiableList(list);
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * 成员当前在途数
+     *
+     * @param member 本池成员
+     * @return 最近租用时长内的签出次数
+     */
+    public int outstanding(Member member) {
+        return member.outstanding(clock.millis() / 1000 / bucketSeconds);
+    }
+
+    private Member selectRoundRobin(long epoch) {
+        long slot = Math.floorMod(cursor.getAndIncrement(), cumulative[cumulative.length - 1]);
+        int index = 0;
+        while (cumulative[index] <= slot) {
+            index++;
+        }
+        for (int i = 0; i < members.length; i++) {
+            Member member = members[(index + i) % members.length];
+            if (member.tryAcquire(epoch)) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    private Member selectLeastOutstanding(long epoch) {
+        int start = (int) Math.floorMod(cursor.getAndIncrement(), (long) members.length);
+        // 已满的成员在 tryAcquire 失败后排除，最多尝试成员数次
+        boolean[] skipped = null;
+        for (int attempt = 0; attempt < members.length; attempt++) {
+            Member best = null;
+            long bestLoad = 0;
+            int bestIndex = -1;
+            for (int i = 0; i < members.length; i++) {
+                int index = (start + i) % members.length;
+                if (skipped != null && skipped[index]) {
+                    continue;
+                }
+                Member member = members[index];
+                long load = member.outstanding(epoch);
+                if (member.maxConcurrency > 0 && load >= member.maxConcurrency) {
+                    continue;
+                }
+                // (load+1)/weight < (bestLoad+1)/best.weight，交叉相乘避免浮点
+                if (best == null || (load + 1) * best.weight < (bestLoad + 1) * member.weight) {
+                    best = member;
+                    bestLoad = load;
+                    bestIndex = index;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            if (best.tryAcquire(epoch)) {
+                return best;
+            }
+            if (skipped == null) {
+                skipped = new boolean[members.length];
+            }
+            skipped[bestIndex] = true;
+        }
+        return null;
+    }
+
+    /**
+     * 凭证池成员定义
+     */
+    public static final class Spec {
+
+        private final Credential credential;
+        private final int weight;
+        private final int maxConcurrency;
+
+        /**
+         * @param credential 凭证
+         * @param weight 权重，须大于0
+         * @param maxConcurrency 并发上限，0 表示不限
+         */
+        public Spec(Credential credential, int weight, int maxConcurrency) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("凭证权重须大于0: " + weight);
+            }
+            if (maxConcurrency < 0) {
+                throw new IllegalArgumentException("并发上限不能为负数: " + maxConcurrency);
+            }
+            this.credential = credential;
+            this.weight = weight;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public Credential getCredential() {
+            return credential;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+    }
+
+    /**
+     * 凭证池成员：已准备的凭证及其在途统计
+     *
+     * 在途数按时间分桶计数，每个桶把"桶序号"与"计数"打包在一个 long 中，
+     * 桶过期时以 CAS 原子地整体重置，计数不会丢失。
+     */
+    public static final class Member {
+
+        private final TenantCredentials.Prepared prepared;
+        private final int weight;
+        private final int maxConcurrency;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        Member(TenantCredentials.Prepared prepared, int weight, int maxConcurrency) {
+            this.prepared = prepared;
+            this.weight = weight;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public TenantCredentials.Prepared getPrepared() {
+            return prepared;
+        }
+
+        public Credential getCredential() {
+            return prepared.getCredential();
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        boolean tryAcquire(long epoch) {
+            if (maxConcurrency > 0 && outstanding(epoch) >= maxConcurrency) {
+                return false;
+            }
+            int index = (int) (epoch % BUCKETS);
+            while (true) {
+                long packed = buckets.get(index);
+                long next;
+                if ((packed >>> COUNT_BITS) != epoch) {
+                    next = (epoch << COUNT_BITS) | 1;
+                } else if ((packed & COUNT_MASK) == COUNT_MASK) {
+                    return true;
+                } else {
+                    next = packed + 1;
+                }
+                if (buckets.compareAndSet(index, packed, next)) {
+                    return true;
+                }
+            }
+        }
+
+        int outstanding(long epoch) {
+            long sum = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long packed = buckets.get(i);
+                if (epoch - (packed >>> COUNT_BITS) < BUCKETS) {
+                    sum += packed & COUNT_MASK;
+                }
+            }
+            return (int) sum;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.xfyun.webapi.sign;
+
+/**
+ * 凭证池中所有成员均已达到并发上限
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public class CredentialPoolExhaustedException extends IllegalStateException {
+
+    private final SignService service;
+
+    public CredentialPoolExhaustedException(SignService service) {
+        super("凭证池已满: " + service.tag());
+        this.service = service;
+    }
+
+    public SignService getService() {
+        return service;
+    }
+}
@@ -0,0 +1,81 @@
+package com.xfyun.webapi.sign;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 多租户凭证注册表
+ *
+ * 所有租户保存在一份不可变快照中，通过 volatile 发布；查找是一次 volatile 读加一次 HashMap 访问，
+ * 无锁、无竞争。更新时整体构建新快照后替换（写时复制），读线程看到的要么是旧快照要么是新快照。
+ *
+ * 单租户的原有配置即 {@value #DEFAULT_TENANT} 租户。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class CredentialRegistry {
+
+    /** 默认租户，对应 xfyun.iat/tts/rtasr/dts 配置 */
+    public static final String DEFAULT_TENANT = "default";
+
+    private volatile Map<String, TenantCredentials> tenants;
+
+    /**
+     * @param tenants 租户快照，必须包含默认租户
+     */
+    public CredentialRegistry(Map<String, TenantCredentials> tenants) {
+        this.tenants = snapshotOf(tenants);
+    }
+
+    /**
+     * 按租户标识查找
+     *
+     * @param tenantId 租户标识，为空时取默认租户
+     * @return 租户凭证，未知租户返回 null
+     */
+    public TenantCredentials get(String tenantId) {
+        return tenants.get(tenantId == null || tenantId.isEmpty() ? DEFAULT_TENANT : tenantId);
+    }
+
+    /**
+     * 默认租户
+     *
+     * @return 默认租户凭证
+     */
+    public TenantCredentials getDefault() {
+        return tenants.get(DEFAULT_TENANT);
+    }
+
+    /**
+     * 以新快照整体替换
+     *
+     * @param tenants 新的租户集合，必须包含默认租户
+     */
+    public void replace(Map<String, TenantCredentials> tenants) {
+        this.tenants = snapshotOf(tenants);
+    }
+
+    /**
+     * 当前快照中的租户标识
+     *
+     * @return 只读集合
+     */
+    public Set<String> tenantIds() {
+        return tenants.keySet();
+    }
+
+    public int size() {
+        return tenants.size();
+    }
+
+    private static Map<String, TenantCredentials> snapshotOf(Map<String, TenantCredentials> tenants) {
+        if (!tenants.containsKey(DEFAULT_TENANT)) {
+            throw new IllegalArgumentException("缺少默认租户: " + DEFAULT_TENANT);
+        }
+        return Collections.unmodifiableMap(new HashMap<>(tenants));
+    }
+}
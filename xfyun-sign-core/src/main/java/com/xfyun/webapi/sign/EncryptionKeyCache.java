@@ -0,0 +1,231 @@
+package com.xfyun.webapi.sign;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 响应加密密钥缓存
+ *
+ * 以授权令牌为键缓存派生出的 AES 密钥与已 init 的 {@link Cipher}，同一令牌重复请求时
+ * 跳过 MD5 派生和 {@code Cipher.getInstance/init}。条目写入后 {@code ttlMillis} 过期；
+ * 超过 {@code maxSize} 时由单个线程按最近访问时间淘汰最旧条目（近似LRU），其余线程不等待。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class EncryptionKeyCache {
+
+    /** 响应加密算法 */
+    public static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, EncryptionKey> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize 条目上限
+     * @param ttlMillis 条目存活时间（毫秒）
+     * @param clock 时间来源
+     */
+    public EncryptionKeyCache(int maxSize, long ttlMillis, Clock clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("密钥缓存容量须大于0: " + maxSize);
+        }
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("密钥缓存存活时间须大于0: " + ttlMillis);
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取授权头对应的加密密钥，未命中或过期时派生
+     *
+     * @param authorizationHeader 授权头，可带 {@code Bearer } 前缀
+     * @return 加密密钥
+     * @throws GeneralSecurityException 密钥派生或 Cipher 初始化失败
+     */
+    public EncryptionKey get(String authorizationHeader) throws GeneralSecurityException {
+        String token = tokenOf(authorizationHeader);
+        long now = clock.millis();
+        EncryptionKey key = entries.get(token);
+        if (key != null && now < key.expiresAt) {
+            key.lastAccess = now;
+            hits.increment();
+            return key;
+        }
+        misses.increment();
+        EncryptionKey created = new EncryptionKey(deriveKey(token), now + ttlMillis);
+        created.lastAccess = now;
+        entries.put(token, created);
+        if (entries.size() > maxSize) {
+            evict(now);
+        }
+        return created;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 先清理过期条目，仍超出上限时淘汰最久未访问的条目；同一时刻只有一个线程执行
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(key -> now >= key.expiresAt);
+            int excess = entries.size() - maxSize;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<String, EncryptionKey>> snapshot = new ArrayList<>(entries.entrySet());
+            snapshot.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (int i = 0; i < excess && i < snapshot.size(); i++) {
+                Map.Entry<String, EncryptionKey> oldest = snapshot.get(i);
+                entries.remove(oldest.getKey(), oldest.getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 从授权头提取令牌
+     *
+     * @param authorizationHeader 授权头
+     * @return 去掉 Bearer 前缀的令牌，缺失时为空串
+     */
+    static String tokenOf(String authorizationHeader) {
+        if (authorizationHeader == null) {
+            return "";
+        }
+        return authorizationHeader.startsWith("Bearer ") ? authorizationHeader.substring(7) : authorizationHeader;
+    }
+
+    /**
+     * 派生AES密钥：令牌 MD5 的十六进制前16位
+     *
+     * @param token 令牌
+     * @return 16位密钥
+     * @throws GeneralSecurityException MD5 不可用
+     */
+    static String deriveKey(String token) throws GeneralSecurityException {
+        byte[] digest = MessageDigest.getInstance("MD5").digest(token.getBytes(StandardCharsets.UTF_8));
+        return SignEncoder.hex(digest).substring(0, 16);
+    }
+
+    /**
+     * 派生好的密钥及可复用的 Cipher
+     *
+     * Cipher 非线程安全，借出时取走空闲实例，并发时临时新建，归还时只保留一个。
+     */
+    public static final class EncryptionKey {
+
+        private final String key16;
+        private final SecretKeySpec keySpec;
+        private final long expiresAt;
+        private final AtomicReference<Cipher> idle = new AtomicReference<>();
+        private volatile long lastAccess;
+
+        EncryptionKey(String key16, long expiresAt) throws GeneralSecurityException {
+            this.key16 = key16;
+            this.keySpec = new SecretKeySpec(key16.getBytes(StandardCharsets.UTF_8), "AES");
+            this.expiresAt = expiresAt;
+            idle.set(newCipher());
+        }
+
+        /**
+         * 16位AES密钥
+         *
+         * @return 密钥
+         */
+        public String getKey16() {
+            return key16;
+        }
+
+        /**
+         * 加密为十六进制
+         *
+         * @param plaintext 明文
+         * @return 密文十六进制
+         * @throws GeneralSecurityException 加密异常
+         */
+        public String encryptToHex(String plaintext) throws GeneralSecurityException {
+            return SignEncoder.hex(encrypt(plaintext.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        /**
+         * 加密为Base64
+         *
+         * @param plaintext 明文
+         * @return 密文Base64
+         * @throws GeneralSecurityException 加密异常
+         */
+        public String encryptToBase64(byte[] plaintext) throws GeneralSecurityException {
+            return Base64.getEncoder().encodeToString(encrypt(plaintext));
+        }
+
+        /**
+         * 加密字节
+         *
+         * @param plaintext 明文
+         * @return 密文
+         * @throws GeneralSecurityException 加密异常
+         */
+        public byte[] encrypt(byte[] plaintext) throws GeneralSecurityException {
+            Cipher cipher = idle.getAndSet(null);
+            if (cipher == null) {
+                cipher = newCipher();
+            }
+            SignTrace.Stage stage = SignTrace.begin(SignTrace.AES);
+            // ECB 模式 doFinal 后回到 init 状态，可直接复用
+            byte[] encrypted = cipher.doFinal(plaintext);
+            SignTrace.end(stage, plaintext.length);
+            idle.compareAndSet(null, cipher);
+            return encrypted;
+        }
+
+        private Cipher newCipher() throws GeneralSecurityException {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+            return cipher;
+        }
+    }
+}
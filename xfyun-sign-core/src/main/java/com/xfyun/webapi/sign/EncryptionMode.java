@@ -0,0 +1,20 @@
+package com.xfyun.webapi.sign;
+
+/**
+ * 响应加密模式
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public enum EncryptionMode {
+
+    /** 不加密 */
+    NONE,
+
+    /** 逐字段加密，每个字段值单独 AES 后转十六进制，兼容旧客户端 */
+    FIELD,
+
+    /** 整体信封：签名结果序列化为 JSON 后只做一次 AES，Base64 放在 {@code envelope} 字段 */
+    ENVELOPE
+}
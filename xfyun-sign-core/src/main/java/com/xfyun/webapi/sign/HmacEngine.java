@@ -0,0 +1,107 @@
+package com.xfyun.webapi.sign;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * 预初始化的 HMAC 签名引擎
+ *
+ * 每个引擎绑定一个算法和一份密钥，构造时完成 {@link Mac#getInstance} 与 {@link Mac#init}，
+ * 之后每个线程通过 {@link Mac#clone()} 获得一份已带密钥的副本并复用，
+ * 请求路径上不再有 Provider 查找和密钥调度的开销。
+ *
+ * 引擎本身不可变、线程安全；密钥变化时随 {@link TenantCredentials} 整体重建。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class HmacEngine {
+
+    public static final String HMAC_SHA256 = "HmacSHA256";
+    public static final String HMAC_SHA1 = "HmacSHA1";
+
+    private final String algorithm;
+    private final String secret;
+    private final Mac prototype;
+    private final ThreadLocal<Mac> localMac;
+
+    private HmacEngine(String algorithm, String secret) throws GeneralSecurityException {
+        this.algorithm = algorithm;
+        this.secret = secret;
+        this.prototype = newKeyedMac(algorithm, secret);
+        this.localMac = ThreadLocal.withInitial(this::copyPrototype);
+    }
+
+    /**
+     * 创建引擎
+     *
+     * @param algorithm HMAC算法，如 {@link #HMAC_SHA256}
+     * @param secret 密钥
+     * @return 已初始化的引擎
+     * @throws GeneralSecurityException 算法不可用或密钥无效
+     */
+    public static HmacEngine create(String algorithm, String secret) throws GeneralSecurityException {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException(algorithm + " 密钥未配置");
+        }
+        return new HmacEngine(algorithm, secret);
+    }
+
+    /**
+     * 计算HMAC
+     *
+     * @param data 待签名数据
+     * @return 原始摘要字节
+     */
+    public byte[] sign(byte[] data) {
+        // doFinal 完成后 Mac 自动重置为初始化状态，可直接复用
+        return localMac.get().doFinal(data);
+    }
+
+    /**
+     * 计算HMAC并Base64编码
+     *
+     * @param data 待签名数据(UTF-8)
+     * @return Base64编码的签名
+     */
+    public String signBase64(String data) {
+        return Base64.getEncoder().encodeToString(sign(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 当前线程持有的已带密钥 Mac，供需要分段 update 的调用方使用。
+     * 调用方必须以 doFinal 结束，不得在线程间传递。
+     *
+     * @return 已初始化的 Mac
+     */
+    public Mac mac() {
+        return localMac.get();
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    private Mac copyPrototype() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // 部分 Provider 不支持克隆，退化为重新初始化（每线程仅一次）
+            try {
+                return newKeyedMac(algorithm, secret);
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException(algorithm + " 初始化失败: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private static Mac newKeyedMac(String algorithm, String secret) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
+        return mac;
+    }
+}
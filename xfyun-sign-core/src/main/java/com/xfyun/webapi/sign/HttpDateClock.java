@@ -0,0 +1,130 @@
+package com.xfyun.webapi.sign;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * 按秒缓存的HTTP日期时钟
+ *
+ * 当前秒及其GMT日期字符串（RFC1123，如 {@code Mon, 01 Jan 2024 12:00:00 GMT}）每秒只格式化一次，
+ * 通过 volatile 发布给所有签名流程；跨秒时由首个读到新秒的线程重新格式化，无锁。
+ *
+ * 构造时传入的 {@link Clock} 即测试入口，可用可调时钟驱动缓存与时钟偏差相关的测试。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class HttpDateClock {
+
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+    private final Clock clock;
+    private volatile Tick current;
+
+    /**
+     * @param clock 时间来源
+     */
+    public HttpDateClock(Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("clock 不能为空");
+        }
+        this.clock = clock;
+        long second = clock.millis() / 1000;
+        this.current = new Tick(second, format(second));
+    }
+
+    /**
+     * 系统UTC时钟
+     *
+     * @return 时钟实例
+     */
+    public static HttpDateClock systemUTC() {
+        return new HttpDateClock(Clock.systemUTC());
+    }
+
+    /**
+     * 当前秒与对应日期
+     *
+     * @return 同一秒内返回同一实例
+     */
+    public Tick tick() {
+        long second = clock.millis() / 1000;
+        Tick tick = current;
+        if (tick.epochSecond == second) {
+            return tick;
+        }
+        // 多个线程同时跨秒时各自格式化一次，结果相同，后写覆盖即可
+        tick = new Tick(second, format(second));
+        current = tick;
+        return tick;
+    }
+
+    /**
+     * 当前秒
+     *
+     * @return 纪元秒
+     */
+    public long epochSecond() {
+        return tick().epochSecond;
+    }
+
+    /**
+     * 指定秒的日期字符串；与最近一次缓存的秒相同时直接复用
+     *
+     * @param epochSecond 纪元秒
+     * @return GMT日期
+     */
+    public String dateOf(long epochSecond) {
+        Tick tick = current;
+        return tick.epochSecond == epochSecond ? tick.date : format(epochSecond);
+    }
+
+    /**
+     * 底层时间来源
+     *
+     * @return 时钟
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * 格式化为GMT日期（RFC1123，日为两位）
+     *
+     * @param epochSecond 纪元秒
+     * @return GMT日期
+     */
+    public static String format(long epochSecond) {
+        SignTrace.Stage stage = SignTrace.begin(SignTrace.DATE);
+        String date = HTTP_DATE.format(Instant.ofEpochSecond(epochSecond));
+        SignTrace.end(stage, date.length());
+        return date;
+    }
+
+    /**
+     * 某一秒的快照
+     */
+    public static final class Tick {
+
+        private final long epochSecond;
+        private final String date;
+
+        Tick(long epochSecond, String date) {
+            this.epochSecond = epochSecond;
+            this.date = date;
+        }
+
+        public long getEpochSecond() {
+            return epochSecond;
+        }
+
+        public String getDate() {
+            return date;
+        }
+    }
+}
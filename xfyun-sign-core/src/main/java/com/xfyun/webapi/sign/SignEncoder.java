@@ -0,0 +1,437 @@
+package com.xfyun.webapi.sign;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * 签名URL编码器
+ *
+ * 签名原文、authorization 原文、Base64、百分号编码与十六进制都写入当前线程复用的缓冲区，
+ * 不经过 String.format、字符串拼接和 URLEncoder，最终URL只分配一次 String。
+ *
+ * 使用方式（同一线程内连续调用，不得跨线程传递实例）：
+ * <pre>
+ * SignEncoder enc = SignEncoder.get().authorize(mac, host, date, "GET", path, apiKey);
+ * String url = enc.authorizedUrl(baseUrl, date, host);
+ * </pre>
+ *
+ * 百分号编码与 {@link java.net.URLEncoder#encode(String, String)}（UTF-8）结果一致。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class SignEncoder {
+
+    private static final ThreadLocal<SignEncoder> LOCAL = ThreadLocal.withInitial(SignEncoder::new);
+
+    private static final byte[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final char[] HEX_LOWER = "0123456789abcdef".toCharArray();
+    private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+
+    /** URLEncoder 不编码的字符：字母、数字与 .-*_ */
+    private static final boolean[] UNRESERVED = new boolean[128];
+
+    static {
+        for (int c = 'a'; c <= 'z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (int c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (int c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        UNRESERVED['.'] = true;
+        UNRESERVED['-'] = true;
+        UNRESERVED['*'] = true;
+        UNRESERVED['_'] = true;
+    }
+
+    private static final byte[] AUTH_PREFIX = ascii("api_key=\"");
+    private static final byte[] AUTH_MIDDLE = ascii("\", algorithm=\"hmac-sha256\", headers=\"host date request-line\", signature=\"");
+    private static final byte[] HOST_PREFIX = ascii("host: ");
+    private static final byte[] DATE_PREFIX = ascii("\ndate: ");
+    private static final byte[] HTTP_SUFFIX = ascii(" HTTP/1.1");
+
+    // 原文缓冲（签名原文、authorization 原文、RTASR 的 appId+ts）
+    private byte[] text = new byte[256];
+    private int textLength;
+    // Base64 结果缓冲（authorization 或 signa）
+    private byte[] encoded = new byte[512];
+    private int encodedLength;
+    // URL 输出缓冲
+    private char[] url = new char[1024];
+    private int urlLength;
+
+    private final byte[] digest = new byte[64];
+    private final byte[] md5Hex = new byte[32];
+    private final MessageDigest md5;
+
+    private SignEncoder() {
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 不可用", e);
+        }
+    }
+
+    /**
+     * 获取当前线程的编码器
+     *
+     * @return 编码器
+     */
+    public static SignEncoder get() {
+        return LOCAL.get();
+    }
+
+    /**
+     * 计算 hmac-sha256 authorization（IAT/TTS/DTS），结果保存在内部缓冲
+     *
+     * authorization = Base64(api_key="..", algorithm="hmac-sha256", headers="host date request-line", signature="Base64(HMAC)")
+     *
+     * @param mac 已带密钥的 HmacSHA256，仅在当前线程使用
+     * @param host 主机
+     * @param date 签名日期
+     * @param method HTTP方法
+     * @param path 请求路径
+     * @param apiKey API Key
+     * @return this
+     */
+    public SignEncoder authorize(Mac mac, String host, String date, String method, String path, String apiKey) {
+        // 签名原文：host: {host}\ndate: {date}\n{method} {path} HTTP/1.1
+        textLength = 0;
+        appendText(HOST_PREFIX);
+        appendText(host);
+        appendText(DATE_PREFIX);
+        appendText(date);
+        appendText('\n');
+        appendText(method);
+        appendText(' ');
+        appendText(path);
+        appendText(HTTP_SUFFIX);
+        SignTrace.Stage stage = SignTrace.begin(SignTrace.HMAC);
+        int macLength = doFinal(mac, text, textLength);
+        SignTrace.end(stage, textLength);
+
+        // authorization 原文，signature 的 Base64 直接写在原文中
+        stage = SignTrace.begin(SignTrace.BASE64);
+        textLength = 0;
+        appendText(AUTH_PREFIX);
+        appendText(apiKey);
+        appendText(AUTH_MIDDLE);
+        ensureText(textLength + base64Length(macLength) + 1);
+        textLength = base64(digest, macLength, text, textLength);
+        appendText('"');
+
+        ensureEncoded(base64Length(textLength));
+        encodedLength = base64(text, textLength, encoded, 0);
+        SignTrace.end(stage, macLength + textLength);
+        return this;
+    }
+
+    /**
+     * 以 {@link #authorize} 的结果构建URL
+     *
+     * {baseUrl}?authorization={enc(authorization)}&amp;date={enc(date)}&amp;host={host}
+     *
+     * @param baseUrl 不含查询参数的地址
+     * @param date 签名日期
+     * @param host 主机
+     * @return 完整URL
+     */
+    public String authorizedUrl(String baseUrl, String date, String host) {
+        SignTrace.Stage stage = SignTrace.begin(SignTrace.URL_ENCODE);
+        urlLength = 0;
+        appendUrl(baseUrl);
+        appendUrl("?authorization=");
+        appendUrlEncoded(encoded, encodedLength);
+        appendUrl("&date=");
+        appendUrlEncoded(date);
+        appendUrl("&host=");
+        appendUrl(host);
+        SignTrace.end(stage, urlLength);
+        return new String(url, 0, urlLength);
+    }
+
+    /**
+     * {@link #authorize} 得到的 authorization（Base64）
+     *
+     * @return authorization 字符串
+     */
+    public String authorization() {
+        return new String(encoded, 0, encodedLength, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 计算 RTASR 签名 signa = Base64(HmacSHA1(MD5Hex(appId + ts)))，结果保存在内部缓冲
+     *
+     * @param mac 已带 apiKey 的 HmacSHA1，仅在当前线程使用
+     * @param appId 应用ID
+     * @param ts 时间戳（秒）
+     * @return this
+     */
+    public SignEncoder rtasrSigna(Mac mac, String appId, long ts) {
+        SignTrace.Stage stage = SignTrace.begin(SignTrace.MD5);
+        textLength = 0;
+        appendText(appId);
+        appendText(ts);
+        md5.update(text, 0, textLength);
+        try {
+            md5.digest(digest, 0, 16);
+        } catch (java.security.DigestException e) {
+            throw new IllegalStateException("MD5计算失败: " + e.getMessage(), e);
+        }
+        for (int i = 0; i < 16; i++) {
+            md5Hex[i * 2] = (byte) HEX_LOWER[(digest[i] >>> 4) & 0xf];
+            md5Hex[i * 2 + 1] = (byte) HEX_LOWER[digest[i] & 0xf];
+        }
+        SignTrace.end(stage, textLength);
+        stage = SignTrace.begin(SignTrace.HMAC);
+        int macLength = doFinal(mac, md5Hex, md5Hex.length);
+        SignTrace.end(stage, md5Hex.length);
+        stage = SignTrace.begin(SignTrace.BASE64);
+        encodedLength = base64(digest, macLength, encoded, 0);
+        SignTrace.end(stage, macLength);
+        return this;
+    }
+
+    /**
+     * {@link #rtasrSigna} 得到的 signa
+     *
+     * @return signa 字符串
+     */
+    public String signa() {
+        return new String(encoded, 0, encodedLength, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 以 {@link #rtasrSigna} 的结果构建URL
+     *
+     * {baseUrl}?appid={enc(appId)}&amp;ts={ts}&amp;signa={enc(signa)}&amp;pd=edu
+     *
+     * @param baseUrl 不含查询参数的地址
+     * @param appId 应用ID
+     * @param ts 时间戳（秒）
+     * @return 完整URL
+     */
+    public String rtasrUrl(String baseUrl, String appId, long ts) {
+        SignTrace.Stage stage = SignTrace.begin(SignTrace.URL_ENCODE);
+        urlLength = 0;
+        appendUrl(baseUrl);
+        appendUrl("?appid=");
+        appendUrlEncoded(appId);
+        appendUrl("&ts=");
+        appendUrl(ts);
+        appendUrl("&signa=");
+        appendUrlEncoded(encoded, encodedLength);
+        appendUrl("&pd=edu");
+        SignTrace.end(stage, urlLength);
+        return new String(url, 0, urlLength);
+    }
+
+    /**
+     * URL编码（UTF-8，与 URLEncoder 一致）
+     *
+     * @param value 待编码值
+     * @return 编码后的值
+     */
+    public String urlEncode(String value) {
+        urlLength = 0;
+        appendUrlEncoded(value);
+        return new String(url, 0, urlLength);
+    }
+
+    /**
+     * 字节数组转小写十六进制
+     *
+     * @param bytes 字节数组
+     * @return 十六进制字符串
+     */
+    public static String hex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = HEX_LOWER[(bytes[i] >>> 4) & 0xf];
+            out[i * 2 + 1] = HEX_LOWER[bytes[i] & 0xf];
+        }
+        return new String(out);
+    }
+
+    private int doFinal(Mac mac, byte[] input, int length) {
+        mac.update(input, 0, length);
+        try {
+            mac.doFinal(digest, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(mac.getAlgorithm() + " 计算失败: " + e.getMessage(), e);
+        }
+        return mac.getMacLength();
+    }
+
+    private static int base64Length(int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    /**
+     * 标准 Base64（含填充）编码 src[0, length) 到 dst[offset...]
+     *
+     * @return 写入后的结束位置
+     */
+    private static int base64(byte[] src, int length, byte[] dst, int offset) {
+        int d = offset;
+        int full = length - length % 3;
+        for (int s = 0; s < full; s += 3) {
+            int bits = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8 | (src[s + 2] & 0xff);
+            dst[d++] = BASE64[(bits >>> 18) & 0x3f];
+            dst[d++] = BASE64[(bits >>> 12) & 0x3f];
+            dst[d++] = BASE64[(bits >>> 6) & 0x3f];
+            dst[d++] = BASE64[bits & 0x3f];
+        }
+        int remaining = length - full;
+        if (remaining > 0) {
+            int bits = (src[full] & 0xff) << 16 | (remaining == 2 ? (src[full + 1] & 0xff) << 8 : 0);
+            dst[d++] = BASE64[(bits >>> 18) & 0x3f];
+            dst[d++] = BASE64[(bits >>> 12) & 0x3f];
+            dst[d++] = remaining == 2 ? BASE64[(bits >>> 6) & 0x3f] : (byte) '=';
+            dst[d++] = '=';
+        }
+        return d;
+    }
+
+    private void appendText(byte[] bytes) {
+        ensureText(textLength + bytes.length);
+        System.arraycopy(bytes, 0, text, textLength, bytes.length);
+        textLength += bytes.length;
+    }
+
+    private void appendText(char c) {
+        ensureText(textLength + 1);
+        text[textLength++] = (byte) c;
+    }
+
+    /**
+     * 按 UTF-8 写入文本；签名参数通常为 ASCII，走单字节快速路径
+     */
+    private void appendText(String value) {
+        int length = value.length();
+        ensureText(textLength + length * 3);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                text[textLength++] = (byte) c;
+            } else {
+                byte[] utf8 = value.substring(i).getBytes(StandardCharsets.UTF_8);
+                ensureText(textLength + utf8.length);
+                System.arraycopy(utf8, 0, text, textLength, utf8.length);
+                textLength += utf8.length;
+                return;
+            }
+        }
+    }
+
+    private void appendText(long value) {
+        ensureText(textLength + 20);
+        textLength = writeDecimal(value, text, textLength);
+    }
+
+    private void appendUrl(String value) {
+        int length = value.length();
+        ensureUrl(urlLength + length);
+        value.getChars(0, length, url, urlLength);
+        urlLength += length;
+    }
+
+    private void appendUrl(long value) {
+        // 复用原文缓冲的尾部做数字转换，避免 Long.toString
+        ensureText(textLength + 20);
+        int end = writeDecimal(value, text, textLength);
+        ensureUrl(urlLength + end - textLength);
+        for (int i = textLength; i < end; i++) {
+            url[urlLength++] = (char) text[i];
+        }
+    }
+
+    private void appendUrlEncoded(byte[] ascii, int length) {
+        ensureUrl(urlLength + length * 3);
+        for (int i = 0; i < length; i++) {
+            appendEncodedByte(ascii[i] & 0xff);
+        }
+    }
+
+    private void appendUrlEncoded(String value) {
+        int length = value.length();
+        ensureUrl(urlLength + length * 9);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                appendEncodedByte(c);
+            } else {
+                // 非 ASCII 按 UTF-8 字节编码，代理对需成对处理
+                int end = Character.isHighSurrogate(c) && i + 1 < length ? i + 2 : i + 1;
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    appendEncodedByte(b & 0xff);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private void appendEncodedByte(int b) {
+        if (b < 0x80 && UNRESERVED[b]) {
+            url[urlLength++] = (char) b;
+        } else if (b == ' ') {
+            url[urlLength++] = '+';
+        } else {
+            url[urlLength++] = '%';
+            url[urlLength++] = HEX_UPPER[(b >>> 4) & 0xf];
+            url[urlLength++] = HEX_UPPER[b & 0xf];
+        }
+    }
+
+    private static int writeDecimal(long value, byte[] dst, int offset) {
+        if (value == 0) {
+            dst[offset] = '0';
+            return offset + 1;
+        }
+        if (value < 0) {
+            byte[] digits = Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(digits, 0, dst, offset, digits.length);
+            return offset + digits.length;
+        }
+        int digits = 0;
+        for (long v = value; v > 0; v /= 10) {
+            digits++;
+        }
+        int end = offset + digits;
+        for (int i = end - 1; i >= offset; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private void ensureText(int capacity) {
+        if (capacity > text.length) {
+            text = Arrays.copyOf(text, Math.max(capacity, text.length * 2));
+        }
+    }
+
+    private void ensureEncoded(int capacity) {
+        if (capacity > encoded.length) {
+            encoded = Arrays.copyOf(encoded, Math.max(capacity, encoded.length * 2));
+        }
+    }
+
+    private void ensureUrl(int capacity) {
+        if (capacity > url.length) {
+            url = Arrays.copyOf(url, Math.max(capacity, url.length * 2));
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
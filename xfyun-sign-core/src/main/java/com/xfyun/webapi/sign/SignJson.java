@@ -0,0 +1,102 @@
+package com.xfyun.webapi.sign;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 签名结果的最小 JSON 序列化
+ *
+ * 签名结果只含字符串、数字、布尔值与嵌套的 Map，核心库不引入 JSON 依赖，在此直接拼写。
+ * 输出与 Jackson 对同一 Map 的默认序列化一致（按 Map 迭代顺序、不转义非 ASCII 字符）。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class SignJson {
+
+    private SignJson() {
+    }
+
+    /**
+     * 序列化为 UTF-8 字节
+     *
+     * @param value Map、字符串、数字、布尔值或 null
+     * @return JSON 字节
+     */
+    public static byte[] toBytes(Object value) {
+        return toString(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 序列化为字符串
+     *
+     * @param value Map、字符串、数字、布尔值或 null
+     * @return JSON 文本
+     */
+    public static String toString(Object value) {
+        StringBuilder out = new StringBuilder(256);
+        write(out, value);
+        return out.toString();
+    }
+
+    private static void write(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                write(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else {
+            writeString(out, value.toString());
+        }
+    }
+
+    private static void writeString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\b':
+                    out.append("\\b");
+                    break;
+                case '\f':
+                    out.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04X", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
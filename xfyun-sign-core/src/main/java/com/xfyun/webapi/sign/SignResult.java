@@ -0,0 +1,278 @@
+package com.xfyun.webapi.sign;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 签名结果的不可变类型化模型
+ *
+ * 各服务的字段由子类以类型化 getter 暴露；同时实现只读 {@link Map} 视图，加密、批量与 Jackson
+ * 序列化等按 Map 处理的路径无需改动。签名结果在缓存与预签名窗口内共享，
+ * {@link #responseBytes()} 首次调用时序列化整条成功响应并随结果一起缓存，窗口内的重复命中不再序列化。
+ *
+ * 每个结果都带 issuedAt/expiresAt（毫秒时间戳）：讯飞接受与其服务端相差 ±{@value #VALIDITY_SECONDS} 秒内的签名时间，
+ * 客户端在 expiresAt 之前可重复使用同一 URL 建连。{@link #getEtag()} 由服务、签名秒与凭证摘要构成，
+ * 不随加密与序列化变化，用于 HTTP 条件请求。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public abstract class SignResult extends AbstractMap<String, Object> {
+
+    /** 签名有效期，即讯飞服务端允许的请求日期偏差 */
+    public static final int VALIDITY_SECONDS = SignatureCache.UPSTREAM_CLOCK_SKEW_SECONDS;
+
+    private static final char ETAG_SEPARATOR = '.';
+
+    private static final byte[] RESPONSE_PREFIX = "{\"errorCode\":0,\"data\":".getBytes(StandardCharsets.UTF_8);
+
+    private final String[] names;
+    private final Object[] values;
+    private final long issuedAt;
+    private final long expiresAt;
+    private final String etag;
+    // 序列化后的成功响应，并发首次调用时可能重复计算，结果相同
+    private volatile byte[] responseBytes;
+
+    /**
+     * @param names 字段名，末尾两个为 issuedAt、expiresAt
+     * @param values 字段值，末尾两个位置由本构造器填充
+     * @param issuedAtSecond 签名时间（秒）
+     * @param etag 签名标识，见 {@link #etagOf(SignService, Credential, long)}
+     */
+    SignResult(String[] names, Object[] values, long issuedAtSecond, String etag) {
+        this.names = names;
+        this.values = values;
+        this.issuedAt = TimeUnit.SECONDS.toMillis(issuedAtSecond);
+        this.expiresAt = TimeUnit.SECONDS.toMillis(issuedAtSecond + VALIDITY_SECONDS);
+        this.etag = etag;
+        values[values.length - 2] = issuedAt;
+        values[values.length - 1] = expiresAt;
+    }
+
+    /**
+     * 计算签名标识：{@code 服务标签.签名秒.摘要}
+     *
+     * 摘要为服务标签、签名秒与完整凭证的 SHA-256 前 8 字节，不可由标识反推密钥；凭证轮换后标识随之变化。
+     *
+     * @param service 服务类型
+     * @param credential 签名使用的凭证
+     * @param issuedAtSecond 签名时间（秒）
+     * @return 不含引号的标识
+     */
+    static String etagOf(SignService service, Credential credential, long issuedAtSecond) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        String material = service.tag() + '\n' + issuedAtSecond + '\n' + credential.getAppId()
+                + '\n' + credential.getApiKey() + '\n' + credential.getApiSecret();
+        byte[] hash = digest.digest(material.getBytes(StandardCharsets.UTF_8));
+        byte[] prefix = new byte[8];
+        System.arraycopy(hash, 0, prefix, 0, prefix.length);
+        return service.tag() + ETAG_SEPARATOR + issuedAtSecond + ETAG_SEPARATOR + SignUtils.bytesToHex(prefix);
+    }
+
+    /**
+     * 从签名标识中取出签名时间
+     *
+     * @param service 服务类型
+     * @param etag 不含引号的标识
+     * @return 签名时间（秒），格式不符或服务不同时为 -1
+     */
+    static long issuedAtSecondOf(SignService service, String etag) {
+        int first = etag.indexOf(ETAG_SEPARATOR);
+        int last = etag.lastIndexOf(ETAG_SEPARATOR);
+        if (first <= 0 || last <= first || !service.tag().equals(etag.substring(0, first))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(etag.substring(first + 1, last));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public String getUrl() {
+        return valueAt(0);
+    }
+
+    public String getAppId() {
+        return valueAt(1);
+    }
+
+    /**
+     * 签名时间
+     *
+     * @return 毫秒时间戳
+     */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * 签名失效时间，超过后讯飞会拒绝该签名
+     *
+     * @return 毫秒时间戳
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * 签名标识，同一 (服务, 凭证, 签名秒) 相同
+     *
+     * @return 不含引号的标识
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    String valueAt(int index) {
+        return (String) values[index];
+    }
+
+    /**
+     * 统一格式的成功响应 {@code {"errorCode":0,"data":{...}}} 的 UTF-8 字节
+     *
+     * @return 响应字节，调用方不得修改
+     */
+    public byte[] responseBytes() {
+        byte[] bytes = responseBytes;
+        if (bytes == null) {
+            SignTrace.Stage stage = SignTrace.begin(SignTrace.SERIALIZE);
+            byte[] data = SignJson.toBytes(this);
+            bytes = new byte[RESPONSE_PREFIX.length + data.length + 1];
+            System.arraycopy(RESPONSE_PREFIX, 0, bytes, 0, RESPONSE_PREFIX.length);
+            System.arraycopy(data, 0, bytes, RESPONSE_PREFIX.length, data.length);
+            bytes[bytes.length - 1] = '}';
+            SignTrace.end(stage, bytes.length);
+            responseBytes = bytes;
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object get(Object key) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (String name : names) {
+            if (name.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < names.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (index >= names.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Object> entry = new SimpleImmutableEntry<>(names[index], values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+        };
+    }
+
+    /**
+     * IAT/TTS 的 WebSocket 签名：url、appId、issuedAt、expiresAt
+     */
+    public static final class Ws extends SignResult {
+
+        private static final String[] NAMES = {"url", "appId", "issuedAt", "expiresAt"};
+
+        public Ws(String url, String appId, long issuedAtSecond, String etag) {
+            super(NAMES, new Object[]{url, appId, null, null}, issuedAtSecond, etag);
+        }
+    }
+
+    /**
+     * RTASR 签名：url、appId、ts、signa、issuedAt、expiresAt
+     */
+    public static final class Rtasr extends SignResult {
+
+        private static final String[] NAMES = {"url", "appId", "ts", "signa", "issuedAt", "expiresAt"};
+
+        public Rtasr(String url, String appId, String ts, String signa, long issuedAtSecond, String etag) {
+            super(NAMES, new Object[]{url, appId, ts, signa, null, null}, issuedAtSecond, etag);
+        }
+
+        public String getTs() {
+            return valueAt(2);
+        }
+
+        public String getSigna() {
+            return valueAt(3);
+        }
+    }
+
+    /**
+     * DTS 签名：url、appId、host、date、authorization、issuedAt、expiresAt
+     */
+    public static final class Dts extends SignResult {
+
+        private static final String[] NAMES = {"url", "appId", "host", "date", "authorization", "issuedAt", "expiresAt"};
+
+        public Dts(String url, String appId, String host, String date, String authorization, long issuedAtSecond, String etag) {
+            super(NAMES, new Object[]{url, appId, host, date, authorization, null, null}, issuedAtSecond, etag);
+        }
+
+        public String getHost() {
+            return valueAt(2);
+        }
+
+        public String getDate() {
+            return valueAt(3);
+        }
+
+        public String getAuthorization() {
+            return valueAt(4);
+        }
+    }
+}
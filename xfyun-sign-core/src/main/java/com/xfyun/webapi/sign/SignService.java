@@ -0,0 +1,72 @@
+package com.xfyun.webapi.sign;
+
+/**
+ * 讯飞签名服务类型
+ *
+ * {@link #tag()} 用于配置、缓存键与监控标签。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public enum SignService {
+
+    /** 语音听写 */
+    IAT("iat"),
+    /** 语音合成 */
+    TTS("tts"),
+    /** 实时语音转写 */
+    RTASR("rtasr"),
+    /** 长文本语音合成-创建任务 */
+    DTS_CREATE("dts-create"),
+    /** 长文本语音合成-查询任务 */
+    DTS_QUERY("dts-query");
+
+    private final String tag;
+
+    SignService(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * 签名使用的HMAC算法：RTASR 为 HmacSHA1，其余为 HmacSHA256
+     *
+     * @return 算法名
+     */
+    public String hmacAlgorithm() {
+        return this == RTASR ? HmacEngine.HMAC_SHA1 : HmacEngine.HMAC_SHA256;
+    }
+
+    /**
+     * HMAC密钥：RTASR 为 apiKey，其余为 apiSecret
+     *
+     * @param credential 凭证
+     * @return 密钥，未配置时为 null
+     */
+    public String signingKey(Credential credential) {
+        return this == RTASR ? credential.getApiKey() : credential.getApiSecret();
+    }
+
+    /**
+     * 按标签解析服务类型，兼容大小写与下划线写法
+     *
+     * @param value 标签，如 iat、dts-create、DTS_CREATE
+     * @return 服务类型
+     * @throws IllegalArgumentException 未知服务
+     */
+    public static SignService fromTag(String value) {
+        if (value != null) {
+            String normalized = value.trim().toLowerCase().replace('_', '-');
+            for (SignService service : values()) {
+                if (service.tag.equals(normalized)) {
+                    return service;
+                }
+            }
+        }
+        throw new IllegalArgumentException("未知的签名服务: " + value);
+    }
+}
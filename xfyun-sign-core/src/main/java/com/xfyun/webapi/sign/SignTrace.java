@@ -0,0 +1,109 @@
+package com.xfyun.webapi.sign;
+
+/**
+ * 签名步骤的 JFR 埋点入口
+ *
+ * 事件类 {@code SignStageEvent} 依赖 {@code jdk.jfr}，放在单独的源码目录 {@code src/main/jfr} 中编译，本类只按类名反射加载；
+ * 运行环境没有 {@code jdk.jfr}（如早期 JDK 8）时 {@link #begin} 恒返回 null，事件类不会被加载。
+ * 有 JFR 但事件未启用时只做一次开关检查。用法：
+ * <pre>
+ * SignTrace.Stage stage = SignTrace.begin(SignTrace.HMAC);
+ * ...
+ * SignTrace.end(stage, length);
+ * </pre>
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class SignTrace {
+
+    /** 签名步骤事件的 JFR 事件名，录制时以此启用 */
+    public static final String EVENT_NAME = "com.xfyun.sign.Stage";
+
+    static final String SIGN = "sign";
+    static final String DATE = "date";
+    static final String HMAC = "hmac";
+    static final String MD5 = "md5";
+    static final String BASE64 = "base64";
+    static final String URL_ENCODE = "url-encode";
+    static final String AES = "aes";
+    static final String SERIALIZE = "serialize";
+
+    private static final String PROBE_CLASS = "com.xfyun.webapi.sign.SignStageEvent$Probe";
+
+    private static final Probe PROBE = loadProbe();
+
+    private SignTrace() {
+    }
+
+    /**
+     * 开始一个步骤
+     *
+     * @param stage 步骤名
+     * @return 步骤，未启用时为 null
+     */
+    static Stage begin(String stage) {
+        return PROBE != null ? PROBE.start(stage, null) : null;
+    }
+
+    /**
+     * 开始一次整体签名（含预签名与缓存查找）
+     *
+     * @param service 服务类型
+     * @return 步骤，未启用时为 null
+     */
+    static Stage beginSign(SignService service) {
+        return PROBE != null ? PROBE.start(SIGN, service.tag()) : null;
+    }
+
+    /**
+     * 结束步骤并提交事件
+     *
+     * @param stage {@link #begin} 的返回值
+     * @param bytes 本步骤处理的字节数
+     */
+    static void end(Stage stage, int bytes) {
+        if (stage != null) {
+            stage.finish(bytes);
+        }
+    }
+
+    private static Probe loadProbe() {
+        try {
+            Class.forName("jdk.jfr.Event", false, SignTrace.class.getClassLoader());
+            return (Probe) Class.forName(PROBE_CLASS, true, SignTrace.class.getClassLoader())
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * 进行中的步骤
+     */
+    interface Stage {
+
+        /**
+         * 结束步骤，达到录制阈值时提交事件
+         *
+         * @param bytes 本步骤处理的字节数
+         */
+        void finish(int bytes);
+    }
+
+    /**
+     * 步骤的创建入口，由 {@code src/main/jfr} 中的事件类实现
+     */
+    interface Probe {
+
+        /**
+         * 开始一个步骤
+         *
+         * @param stage   步骤名
+         * @param service 整体签名步骤的服务标签，其他步骤为 null
+         * @return 步骤，事件未启用时为 null
+         */
+        Stage start(String stage, String service);
+    }
+}
@@ -0,0 +1,97 @@
+package com.xfyun.webapi.sign;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * 签名流程中的各个基础步骤
+ *
+ * MD5、Base64、URL编码、十六进制与AES加密，
+ * 由签名服务组合使用，也作为基准测试的独立测量点。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class SignUtils {
+
+    private SignUtils() {
+    }
+
+    /**
+     * MD5哈希
+     *
+     * @param data 待哈希数据
+     * @return MD5哈希值
+     * @throws Exception 哈希异常
+     */
+    public static String md5(String data) throws Exception {
+        char md5String[] = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+        try {
+            byte[] btInput = data.getBytes();
+            MessageDigest mdInst = MessageDigest.getInstance("MD5");
+            mdInst.update(btInput);
+            byte[] md = mdInst.digest();
+            int j = md.length;
+            char str[] = new char[j * 2];
+            int k = 0;
+            for (int i = 0; i < j; i++) {
+                byte byte0 = md[i];
+                str[k++] = md5String[byte0 >>> 4 & 0xf];
+                str[k++] = md5String[byte0 & 0xf];
+            }
+            return new String(str);
+        } catch (Exception e) {
+            throw new Exception("MD5计算失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Base64编码UTF-8文本
+     *
+     * @param text 文本
+     * @return Base64字符串
+     */
+    public static String base64(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * AES加密为十六进制
+     *
+     * @param plaintext 明文
+     * @param key16 16位密钥
+     * @return 加密后的十六进制字符串
+     * @throws Exception 加密异常
+     */
+    public static String aesEncryptToHex(String plaintext, String key16) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        SecretKeySpec keySpec = new SecretKeySpec(key16.getBytes(StandardCharsets.UTF_8), "AES");
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+        byte[] encrypted = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+        return bytesToHex(encrypted);
+    }
+
+    /**
+     * 字节数组转十六进制
+     *
+     * @param bytes 字节数组
+     * @return 十六进制字符串
+     */
+    public static String bytesToHex(byte[] bytes) {
+        return SignEncoder.hex(bytes);
+    }
+
+    /**
+     * URL编码（UTF-8，与 URLEncoder 结果一致）
+     *
+     * @param value 待编码值
+     * @return 编码后的值
+     */
+    public static String urlEncode(String value) {
+        return SignEncoder.get().urlEncode(value);
+    }
+}
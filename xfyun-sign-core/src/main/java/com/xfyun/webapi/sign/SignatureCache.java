@@ -0,0 +1,185 @@
+package com.xfyun.webapi.sign;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按时间桶缓存的签名结果
+ *
+ * 签名对于同一 (服务, 凭证, 日期秒) 是确定的。缓存以 {@code reuseWindowSeconds} 为桶宽，
+ * 每个桶只计算一次，结果为不可变 Map，在线程间直接共享。未命中时经 {@link SingleFlight} 合并：
+ * 同一 (服务, 凭证, 桶) 的并发请求等待同一次计算，计算在锁外执行，不同键互不阻塞。
+ * 桶内返回的签名日期为桶起始时间，因此窗口必须远小于讯飞允许的时钟偏差
+ * （±{@value #UPSTREAM_CLOCK_SKEW_SECONDS} 秒），上限为 {@value #MAX_REUSE_WINDOW_SECONDS} 秒。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class SignatureCache {
+
+    /** 讯飞服务端允许的请求日期偏差 */
+    public static final int UPSTREAM_CLOCK_SKEW_SECONDS = 300;
+
+    /** 复用窗口上限，为客户端拿到URL后建连保留足够余量 */
+    public static final int MAX_REUSE_WINDOW_SECONDS = 60;
+
+    /**
+     * 签名计算回调
+     */
+    @FunctionalInterface
+    public interface Signer {
+
+        /**
+         * 以给定秒为签名时间计算结果
+         *
+         * @param epochSecond 签名时间（桶起始秒）
+         * @return 不可变的签名结果
+         * @throws Exception 签名异常
+         */
+        Map<String, Object> sign(long epochSecond) throws Exception;
+    }
+
+    private final int reuseWindowSeconds;
+    private final ConcurrentHashMap<Key, Map<String, Object>> entries = new ConcurrentHashMap<>();
+    private final SingleFlight<Key, Map<String, Object>> flights = new SingleFlight<>();
+    private final AtomicLong sweptBucket = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SignatureCache(int reuseWindowSeconds) {
+        if (reuseWindowSeconds < 1 || reuseWindowSeconds > MAX_REUSE_WINDOW_SECONDS) {
+            throw new IllegalArgumentException("签名复用窗口须在 1~" + MAX_REUSE_WINDOW_SECONDS + " 秒之间: " + reuseWindowSeconds);
+        }
+        this.reuseWindowSeconds = reuseWindowSeconds;
+    }
+
+    /**
+     * 获取签名，桶内首次访问时计算
+     *
+     * @param service 服务类型
+     * @param credential 凭证
+     * @param epochSecond 当前时间（秒）
+     * @param signer 签名计算回调
+     * @return 共享的签名结果
+     * @throws Exception 签名异常
+     */
+    public Map<String, Object> get(SignService service, Credential credential, long epochSecond, Signer signer) throws Exception {
+        long bucket = bucketOf(epochSecond);
+        Key key = new Key(service, credential, bucket);
+        Map<String, Object> cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        sweep(bucket);
+        return flights.execute(key, () -> {
+            // 上一次合并的计算可能已在本线程查找之后写入
+            Map<String, Object> computed = entries.get(key);
+            if (computed == null) {
+                misses.increment();
+                computed = signer.sign(bucket);
+                entries.put(key, computed);
+            }
+            return computed;
+        });
+    }
+
+    /**
+     * 合并同一秒的并发签名但不缓存，签名缓存关闭时使用
+     *
+     * @param service 服务类型
+     * @param credential 凭证
+     * @param epochSecond 签名时间（秒）
+     * @param signer 签名计算回调
+     * @return 签名结果，并发的相同请求共享同一实例
+     * @throws Exception 签名异常
+     */
+    public Map<String, Object> coalesce(SignService service, Credential credential, long epochSecond, Signer signer) throws Exception {
+        return flights.execute(new Key(service, credential, epochSecond), () -> signer.sign(epochSecond));
+    }
+
+    /**
+     * 计算时间所属桶的起始秒
+     *
+     * @param epochSecond 时间（秒）
+     * @return 桶起始秒
+     */
+    public long bucketOf(long epochSecond) {
+        return epochSecond - Math.floorMod(epochSecond, (long) reuseWindowSeconds);
+    }
+
+    public int getReuseWindowSeconds() {
+        return reuseWindowSeconds;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 等待其他线程在途计算的次数
+     *
+     * @return 合并次数
+     */
+    public long coalescedCount() {
+        return flights.sharedCount();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 清空缓存，凭证轮换后调用
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 桶前进时清理过期条目，每个桶只由一个线程执行一次
+     */
+    private void sweep(long bucket) {
+        long swept = sweptBucket.get();
+        if (swept < bucket && sweptBucket.compareAndSet(swept, bucket)) {
+            entries.keySet().removeIf(k -> k.bucket < bucket);
+        }
+    }
+
+    private static final class Key {
+        private final SignService service;
+        private final Credential credential;
+        private final long bucket;
+
+        Key(SignService service, Credential credential, long bucket) {
+            this.service = service;
+            this.credential = credential;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return bucket == key.bucket && service == key.service && credential.equals(key.credential);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(service, credential, bucket);
+        }
+    }
+}
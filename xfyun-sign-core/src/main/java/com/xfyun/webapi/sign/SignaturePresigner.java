@@ -0,0 +1,201 @@
+package com.xfyun.webapi.sign;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 后台预签名调度器
+ *
+ * 定时为每个服务计算当前及未来若干个时间桶的签名，以不可变窗口的形式
+ * 通过 {@link AtomicReferenceArray} 发布。请求路径只做一次 volatile 读和数组下标访问，
+ * 跨秒边界时不再由第一个请求承担签名开销。
+ *
+ * 时间桶宽度与 {@link SignatureCache} 的复用窗口一致。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class SignaturePresigner {
+
+    private static final Logger log = Logger.getLogger(SignaturePresigner.class.getName());
+
+    /**
+     * 单个服务的预签名任务
+     */
+    public static final class Task {
+        private final SignService service;
+        private final Credential credential;
+        private final int aheadSeconds;
+        private final SignatureCache.Signer signer;
+
+        public Task(SignService service, Credential credential, int aheadSeconds, SignatureCache.Signer signer) {
+            this.service = service;
+            this.credential = credential;
+            this.aheadSeconds = aheadSeconds;
+            this.signer = signer;
+        }
+    }
+
+    /**
+     * 已发布的签名窗口，覆盖 [firstBucket, firstBucket + signed.length * bucketSeconds)
+     */
+    private static final class Window {
+        private final Credential credential;
+        private final long firstBucket;
+        private final Map<String, Object>[] signed;
+
+        Window(Credential credential, long firstBucket, Map<String, Object>[] signed) {
+            this.credential = credential;
+            this.firstBucket = firstBucket;
+            this.signed = signed;
+        }
+    }
+
+    private final Clock clock;
+    private final int bucketSeconds;
+    private final Supplier<List<Task>> tasks;
+    private final AtomicReferenceArray<Window> windows = new AtomicReferenceArray<>(SignService.values().length);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile ScheduledExecutorService executor;
+
+    /**
+     * @param clock 时间来源
+     * @param bucketSeconds 时间桶宽度（秒）
+     * @param tasks 每轮刷新时获取当前任务列表，凭证变化会在下一轮生效
+     */
+    public SignaturePresigner(Clock clock, int bucketSeconds, Supplier<List<Task>> tasks) {
+        if (bucketSeconds < 1) {
+            throw new IllegalArgumentException("时间桶宽度必须大于0: " + bucketSeconds);
+        }
+        this.clock = clock;
+        this.bucketSeconds = bucketSeconds;
+        this.tasks = tasks;
+    }
+
+    /**
+     * 启动后台刷新，立即执行首轮
+     *
+     * @param intervalMillis 刷新间隔（毫秒），应小于桶宽
+     */
+    public synchronized void start(long intervalMillis) {
+        if (executor != null) {
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "xfyun-presigner");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        executor = scheduler;
+    }
+
+    /**
+     * 停止后台刷新
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * 执行一轮预签名：补齐每个服务从当前桶起的窗口，复用上一窗口中仍有效的签名
+     */
+    public void refresh() {
+        long current = bucketOf(clock.millis() / 1000);
+        for (Task task : tasks.get()) {
+            try {
+                publish(task, current);
+            } catch (Exception e) {
+                log.warning("预签名失败: " + task.service.tag() + ", 错误: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 查找已预签名的结果
+     *
+     * @param service 服务类型
+     * @param credential 当前凭证，与预签名时不一致视为未命中
+     * @param epochSecond 当前时间（秒）
+     * @return 签名结果，未命中返回 null
+     */
+    public Map<String, Object> lookup(SignService service, Credential credential, long epochSecond) {
+        Window window = windows.get(service.ordinal());
+        if (window != null && window.credential.equals(credential)) {
+            long index = (bucketOf(epochSecond) - window.firstBucket) / bucketSeconds;
+            if (index >= 0 && index < window.signed.length) {
+                hits.increment();
+                return window.signed[(int) index];
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 丢弃全部已发布窗口，凭证轮换后调用
+     */
+    public void clear() {
+        for (int i = 0; i < windows.length(); i++) {
+            windows.set(i, null);
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void publish(Task task, long current) throws Exception {
+        int count = 1 + (task.aheadSeconds + bucketSeconds - 1) / bucketSeconds;
+        Window previous = windows.get(task.service.ordinal());
+        boolean reusable = previous != null && previous.credential.equals(task.credential);
+        if (reusable && previous.firstBucket == current && previous.signed.length == count) {
+            return;
+        }
+        Map<String, Object>[] signed = new Map[count];
+        for (int i = 0; i < count; i++) {
+            long bucket = current + (long) i * bucketSeconds;
+            Map<String, Object> existing = null;
+            if (reusable) {
+                long index = (bucket - previous.firstBucket) / bucketSeconds;
+                if (index >= 0 && index < previous.signed.length) {
+                    existing = previous.signed[(int) index];
+                }
+            }
+            signed[i] = existing != null ? existing : task.signer.sign(bucket);
+        }
+        windows.set(task.service.ordinal(), new Window(task.credential, current, signed));
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Throwable e) {
+            // 异常不能抛出，否则调度线程会停止后续执行
+            log.log(Level.SEVERE, "预签名刷新异常: " + e.getMessage(), e);
+        }
+    }
+
+    private long bucketOf(long epochSecond) {
+        return epochSecond - Math.floorMod(epochSecond, (long) bucketSeconds);
+    }
+}
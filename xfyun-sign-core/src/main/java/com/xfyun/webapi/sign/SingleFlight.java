@@ -0,0 +1,92 @@
+package com.xfyun.webapi.sign;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并发相同请求合并（single-flight）
+ *
+ * 同一键同时只有一个线程执行计算，其余线程等待并共享其结果或异常；计算结束即移除，不缓存结果。
+ * 登记在途计算只用 {@link ConcurrentHashMap#putIfAbsent}，计算本身在任何锁之外执行，不同键互不阻塞。
+ *
+ * @param <K> 键类型，须正确实现 equals/hashCode
+ * @param <V> 结果类型，在线程间共享，须不可变
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * 执行计算，已有同键计算在途时等待其结果
+     *
+     * @param key 键
+     * @param call 计算
+     * @return 计算结果，合并时与执行线程拿到同一实例
+     * @throws Exception 计算异常，合并的线程收到同一异常
+     */
+    public V execute(K key, Callable<V> call) throws Exception {
+        CompletableFuture<V> inFlight = calls.get(key);
+        if (inFlight == null) {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            inFlight = calls.putIfAbsent(key, created);
+            if (inFlight == null) {
+                return run(key, created, call);
+            }
+        }
+        shared.increment();
+        return await(inFlight);
+    }
+
+    /**
+     * 等待其他线程计算结果的次数
+     *
+     * @return 合并次数
+     */
+    public long sharedCount() {
+        return shared.sum();
+    }
+
+    /**
+     * 当前在途计算数
+     *
+     * @return 在途数
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private V run(K key, CompletableFuture<V> future, Callable<V> call) throws Exception {
+        try {
+            V value = call.call();
+            future.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, future);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
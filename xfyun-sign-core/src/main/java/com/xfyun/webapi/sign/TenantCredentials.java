@@ -0,0 +1,143 @@
+package com.xfyun.webapi.sign;
+
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * 单个租户的凭证与预先准备好的签名状态
+ *
+ * 每个服务对应一个 {@link CredentialPool}，构造时为池中每个已配置密钥的凭证创建 {@link HmacEngine}，
+ * 之后不可变，可在线程间直接共享。未配置密钥的服务在取引擎时按原逻辑报错。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class TenantCredentials {
+
+    private static final Logger log = Logger.getLogger(TenantCredentials.class.getName());
+
+    private final String tenantId;
+    private final CredentialPool[] pools = new CredentialPool[SignService.values().length];
+
+    /**
+     * 每个服务一份凭证
+     *
+     * @param tenantId 租户标识
+     * @param credentials 各服务凭证，未列出的服务视为未配置
+     * @param clock 时间来源
+     */
+    public TenantCredentials(String tenantId, Map<SignService, Credential> credentials, Clock clock) {
+        this.tenantId = tenantId;
+        for (SignService service : SignService.values()) {
+            Credential credential = credentials.get(service);
+            pools[service.ordinal()] = CredentialPool.single(service,
+                    credential == null ? new Credential(null, null, null) : credential, clock);
+        }
+    }
+
+    /**
+     * 每个服务一个凭证池
+     *
+     * @param tenantId 租户标识
+     * @param specs 各服务的凭证池成员，未列出或为空的服务视为未配置
+     * @param strategy 成员选择策略
+     * @param leaseSeconds 一次签出计为在途的秒数
+     * @param clock 时间来源
+     */
+    public TenantCredentials(String tenantId, Map<SignService, List<CredentialPool.Spec>> specs,
+                             CredentialPool.Strategy strategy, int leaseSeconds, Clock clock) {
+        this.tenantId = tenantId;
+        for (SignService service : SignService.values()) {
+            List<CredentialPool.Spec> members = specs.get(service);
+            if (members == null || members.isEmpty()) {
+                members = Collections.singletonList(new CredentialPool.Spec(new Credential(null, null, null), 1, 0));
+            }
+            pools[service.ordinal()] = new CredentialPool(service, members, strategy, leaseSeconds, clock);
+        }
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * 服务凭证池中的首个凭证
+     *
+     * @param service 服务类型
+     * @return 已准备的凭证，不为 null
+     */
+    public Prepared get(SignService service) {
+        return pools[service.ordinal()].primary().getPrepared();
+    }
+
+    /**
+     * 服务对应的凭证池
+     *
+     * @param service 服务类型
+     * @return 凭证池，不为 null
+     */
+    public CredentialPool pool(SignService service) {
+        return pools[service.ordinal()];
+    }
+
+    /**
+     * 凭证及其已初始化的HMAC引擎
+     */
+    public static final class Prepared {
+
+        private final SignService service;
+        private final Credential credential;
+        private final HmacEngine engine;
+
+        Prepared(SignService service, Credential credential) {
+            this.service = service;
+            this.credential = credential;
+            this.engine = prepareEngine(service, credential);
+        }
+
+        public Credential getCredential() {
+            return credential;
+        }
+
+        /**
+         * 凭证是否完整，可用于签名
+         *
+         * @return 已配置 appId 与签名密钥时返回 true
+         */
+        public boolean isConfigured() {
+            return credential.getAppId() != null && engine != null;
+        }
+
+        /**
+         * 已带密钥的HMAC引擎
+         *
+         * @return 引擎
+         * @throws GeneralSecurityException 密钥未配置或无效
+         */
+        public HmacEngine engine() throws GeneralSecurityException {
+            if (engine != null) {
+                return engine;
+            }
+            // 未能预先创建时按原逻辑重试，以抛出具体原因
+            return HmacEngine.create(service.hmacAlgorithm(), service.signingKey(credential));
+        }
+
+        private static HmacEngine prepareEngine(SignService service, Credential credential) {
+            String key = service.signingKey(credential);
+            if (key == null || key.isEmpty()) {
+                return null;
+            }
+            try {
+                return HmacEngine.create(service.hmacAlgorithm(), key);
+            } catch (Exception e) {
+                log.warning("HMAC引擎预初始化失败: " + service.tag() + ", 错误: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package com.xfyun.webapi.sign;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 讯飞签名入口（不依赖 Spring）
+ *
+ * 组合凭证注册表、秒级日期时钟、签名缓存、后台预签名与响应加密，提供 IAT/TTS/RTASR/DTS 签名。
+ * 线程安全，单实例即可服务全部请求；Spring 应用通过 starter 自动装配，其他进程直接 new 即可：
+ * <pre>
+ * XfyunSigner signer = new XfyunSigner(registry, HttpDateClock.systemUTC(),
+ *         new SignatureCache(1), new EncryptionKeyCache(1024, 600_000, Clock.systemUTC()));
+ * Map&lt;String, Object&gt; signed = signer.sign(null, SignService.IAT);
+ * </pre>
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class XfyunSigner {
+
+    private static final Logger log = Logger.getLogger(XfyunSigner.class.getName());
+
+    // 协议常量
+    private static final String WSS_KEY = "wss://";
+    private static final String HTTPS_KEY = "https://";
+
+    // IAT配置
+    private static final String IAT_HOST = "iat-api.xfyun.cn";
+    private static final String IAT_PATH = "/v2/iat";
+
+    // TTS配置
+    private static final String TTS_HOST = "tts-api.xfyun.cn";
+    private static final String TTS_PATH = "/v2/tts";
+
+    // RTASR配置
+    private static final String RTASR_HOST = "rtasr.xfyun.cn";
+    private static final String RTASR_PATH = "/v1/ws";
+
+    // DTS配置
+    private static final String DTS_HOST = "api-dx.xf-yun.com";
+    private static final String DTS_CREATE_PATH = "/v1/private/dts_create";
+    private static final String DTS_QUERY_PATH = "/v1/private/dts_query";
+
+    // 不含查询参数的完整地址（编译期常量）
+    private static final String IAT_URL = WSS_KEY + IAT_HOST + IAT_PATH;
+    private static final String TTS_URL = WSS_KEY + TTS_HOST + TTS_PATH;
+    private static final String RTASR_URL = WSS_KEY + RTASR_HOST + RTASR_PATH;
+    private static final String DTS_CREATE_URL = HTTPS_KEY + DTS_HOST + DTS_CREATE_PATH;
+    private static final String DTS_QUERY_URL = HTTPS_KEY + DTS_HOST + DTS_QUERY_PATH;
+
+    private final CredentialRegistry credentialRegistry;
+    private final HttpDateClock httpDateClock;
+    private final SignatureCache signatureCache;
+    private final EncryptionKeyCache encryptionKeyCache;
+    private volatile boolean cacheEnabled = true;
+    // 后台预签名器，未启动时为 null
+    private volatile SignaturePresigner presigner;
+
+    /**
+     * @param credentialRegistry 多租户凭证
+     * @param httpDateClock 签名时间与日期来源
+     * @param signatureCache 签名结果缓存
+     * @param encryptionKeyCache 响应加密密钥缓存
+     */
+    public XfyunSigner(CredentialRegistry credentialRegistry, HttpDateClock httpDateClock,
+                       SignatureCache signatureCache, EncryptionKeyCache encryptionKeyCache) {
+        this.credentialRegistry = credentialRegistry;
+        this.httpDateClock = httpDateClock;
+        this.signatureCache = signatureCache;
+        this.encryptionKeyCache = encryptionKeyCache;
+    }
+
+    /**
+     * 启动后台预签名（仅默认租户的单凭证服务）
+     *
+     * @param aheadSeconds 各服务提前签好的秒数，每轮刷新时读取，0 表示不预签名
+     * @param refreshIntervalMillis 刷新间隔（毫秒）
+     * @return 已启动的预签名器
+     */
+    public synchronized SignaturePresigner startPresigner(ToIntFunction<SignService> aheadSeconds, long refreshIntervalMillis) {
+        if (presigner == null) {
+            SignaturePresigner created = new SignaturePresigner(httpDateClock.getClock(),
+                    signatureCache.getReuseWindowSeconds(), () -> presignTasks(aheadSeconds));
+            created.start(refreshIntervalMillis);
+            presigner = created;
+        }
+        return presigner;
+    }
+
+    /**
+     * 停止后台预签名
+     */
+    public synchronized void stop() {
+        if (presigner != null) {
+            presigner.stop();
+        }
+    }
+
+    /**
+     * 后台预签名器
+     *
+     * @return 预签名器，未启动时为 null
+     */
+    public SignaturePresigner getPresigner() {
+        return presigner;
+    }
+
+    /**
+     * 是否使用签名缓存，关闭时每次重新计算
+     *
+     * @param cacheEnabled 开启为 true
+     */
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public HttpDateClock getHttpDateClock() {
+        return httpDateClock;
+    }
+
+    public CredentialRegistry getCredentialRegistry() {
+        return credentialRegistry;
+    }
+
+    /**
+     * 为指定租户生成签名
+     *
+     * @param tenantId 租户标识，为空时使用默认租户
+     * @param service 服务类型
+     * @return 不可变的签名结果，appId 为选中的凭证
+     * @throws Exception 签名异常，未知租户抛出 IllegalArgumentException，凭证池已满抛出 {@link CredentialPoolExhaustedException}
+     */
+    public Map<String, Object> sign(String tenantId, SignService service) throws Exception {
+        return signCached(tenantOf(tenantId), service, httpDateClock.epochSecond());
+    }
+
+    /**
+     * 以服务的首个凭证重新计算签名，不经过凭证池选择、预签名与缓存，不计入凭证在途数
+     *
+     * 用于启动预热与诊断。
+     *
+     * @param tenantId 租户标识，为空时使用默认租户
+     * @param service 服务类型
+     * @return 不可变的签名结果
+     * @throws Exception 签名异常，未知租户抛出 IllegalArgumentException
+     */
+    public Map<String, Object> signUncached(String tenantId, SignService service) throws Exception {
+        TenantCredentials.Prepared prepared = tenantOf(tenantId).pool(service).primary().getPrepared();
+        return signerOf(service, prepared).sign(httpDateClock.epochSecond());
+    }
+
+    /**
+     * 以服务凭证池中指定 appId 的凭证签名，经过签名缓存，不经过凭证池选择、不计入凭证在途数
+     *
+     * 用于须与先前请求使用同一凭证的后续请求，如查询以该 appId 创建的 DTS 任务。
+     *
+     * @param tenantId 租户标识，为空时使用默认租户
+     * @param service 服务类型
+     * @param appId 凭证的 appId
+     * @return 不可变的签名结果
+     * @throws Exception 签名异常，未知租户或该服务没有此 appId 的凭证时抛出 IllegalArgumentException
+     */
+    public Map<String, Object> signWith(String tenantId, SignService service, String appId) throws Exception {
+        for (CredentialPool.Member member : tenantOf(tenantId).pool(service).members()) {
+            Credential credential = member.getCredential();
+            if (credential.getAppId().equals(appId)) {
+                SignatureCache.Signer signer = signerOf(service, member.getPrepared());
+                long now = httpDateClock.epochSecond();
+                return cacheEnabled
+                        ? signatureCache.get(service, credential, now, signer)
+                        : signatureCache.coalesce(service, credential, now, signer);
+            }
+        }
+        throw new IllegalArgumentException("未配置的凭证: " + service.tag() + "/" + appId);
+    }
+
+    /**
+     * 为指定租户批量生成签名，所有服务共用同一签名时间
+     *
+     * @param tenantId 租户标识，为空时使用默认租户
+     * @param services 服务类型，按顺序返回
+     * @return 以服务标签为键的签名结果
+     * @throws Exception 签名异常，未知租户抛出 IllegalArgumentException
+     */
+    public Map<String, Map<String, Object>> signBatch(String tenantId, Collection<SignService> services) throws Exception {
+        TenantCredentials tenant = tenantOf(tenantId);
+        long now = httpDateClock.epochSecond();
+        Map<String, Map<String, Object>> signed = new LinkedHashMap<>();
+        for (SignService service : services) {
+            signed.put(service.tag(), signCached(tenant, service, now));
+        }
+        return signed;
+    }
+
+    /**
+     * 按模式加密签名结果
+     *
+     * @param data 签名结果
+     * @param authorizationHeader 授权头，用于派生密钥
+     * @param mode 加密模式
+     * @return 加密后的结果，NONE 时原样返回
+     * @throws Exception 加密异常
+     */
+    public Map<String, Object> encrypt(Map<String, Object> data, String authorizationHeader, EncryptionMode mode) throws Exception {
+        if (mode == EncryptionMode.NONE) {
+            return data;
+        }
+        return encrypt(data, encryptionKeyCache.get(authorizationHeader), mode);
+    }
+
+    /**
+     * 按模式加密批量签名结果，只取一次密钥；信封模式下每个服务各自成一个信封
+     *
+     * @param signed 以服务标签为键的签名结果，原地替换为加密结果
+     * @param authorizationHeader 授权头，用于派生密钥
+     * @param mode 加密模式
+     * @return 传入的 signed
+     * @throws Exception 加密异常
+     */
+    public Map<String, Map<String, Object>> encryptBatch(Map<String, Map<String, Object>> signed, String authorizationHeader, EncryptionMode mode) throws Exception {
+        if (mode == EncryptionMode.NONE) {
+            return signed;
+        }
+        EncryptionKeyCache.EncryptionKey key = encryptionKeyCache.get(authorizationHeader);
+        for (Map.Entry<String, Map<String, Object>> entry : signed.entrySet()) {
+            entry.setValue(encrypt(entry.getValue(), key, mode));
+        }
+        return signed;
+    }
+
+    /**
+     * 以新快照整体替换租户凭证
+     *
+     * 注册表为写时复制，签名线程不会阻塞；旧凭证的预签名窗口随之丢弃，
+     * 签名缓存清空（其键包含凭证，旧条目本就不会被新凭证命中，清空只为及时释放）。
+     *
+     * @param tenants 新的租户快照，必须包含默认租户
+     */
+    public void replaceCredentials(Map<String, TenantCredentials> tenants) {
+        credentialRegistry.replace(tenants);
+        SignaturePresigner current = presigner;
+        if (current != null) {
+            current.clear();
+        }
+        signatureCache.clear();
+    }
+
+    /**
+     * 租户是否存在
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @return 存在返回 true
+     */
+    public boolean hasTenant(String tenantId) {
+        return credentialRegistry.get(tenantId) != null;
+    }
+
+    /**
+     * 客户端持有的签名在扣除安全余量后的剩余有效秒数
+     *
+     * 按签名标识中的签名秒，用租户该服务凭证池中的每个凭证重算标识比对，不计算签名、不占用凭证池在途数；
+     * 凭证轮换或从池中移除后，旧签名视为无效。
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param service 服务类型
+     * @param etag 不含引号的签名标识
+     * @param marginSeconds 安全余量（秒），为客户端建连保留
+     * @return 剩余秒数，标识无效或已不足余量时返回 0
+     */
+    public long remainingValidity(String tenantId, SignService service, String etag, int marginSeconds) {
+        return remainingValidity(tenantId, service, null, etag, marginSeconds);
+    }
+
+    /**
+     * 客户端持有的签名在扣除安全余量后的剩余有效秒数，只认指定 appId 的凭证签发的签名
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param service 服务类型
+     * @param appId 凭证的 appId，为空时不限
+     * @param etag 不含引号的签名标识
+     * @param marginSeconds 安全余量（秒），为客户端建连保留
+     * @return 剩余秒数，标识无效、不是该凭证签发或已不足余量时返回 0
+     */
+    public long remainingValidity(String tenantId, SignService service, String appId, String etag, int marginSeconds) {
+        TenantCredentials tenant = credentialRegistry.get(tenantId);
+        long issuedAt = SignResult.issuedAtSecondOf(service, etag);
+        if (tenant == null || issuedAt < 0) {
+            return 0;
+        }
+        long remaining = remainingSeconds(issuedAt, marginSeconds);
+        if (remaining <= 0) {
+            return 0;
+        }
+        for (CredentialPool.Member member : tenant.pool(service).members()) {
+            if (member.getPrepared().isConfigured() && (appId == null || appId.equals(member.getCredential().getAppId()))
+                    && etag.equals(SignResult.etagOf(service, member.getCredential(), issuedAt))) {
+                return remaining;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 签名在扣除安全余量后的剩余有效秒数
+     *
+     * @param issuedAtSecond 签名时间（秒）
+     * @param marginSeconds 安全余量（秒）
+     * @return 剩余秒数，可能为负
+     */
+    public long remainingSeconds(long issuedAtSecond, int marginSeconds) {
+        return issuedAtSecond + SignResult.VALIDITY_SECONDS - marginSeconds - httpDateClock.epochSecond();
+    }
+
+    /**
+     * 查找租户
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @return 租户凭证
+     */
+    private TenantCredentials tenantOf(String tenantId) {
+        TenantCredentials tenant = credentialRegistry.get(tenantId);
+        if (tenant == null) {
+            throw new IllegalArgumentException("未知的租户: " + tenantId);
+        }
+        return tenant;
+    }
+
+    /**
+     * 创建服务的签名计算回调
+     *
+     * @param service 服务类型
+     * @param prepared 租户下该服务的凭证与HMAC引擎
+     * @return 以签名秒为参数的计算回调
+     * @throws GeneralSecurityException 密钥未配置或无效
+     */
+    private SignatureCache.Signer signerOf(SignService service, TenantCredentials.Prepared prepared) throws GeneralSecurityException {
+        Credential credential = prepared.getCredential();
+        String appId = credential.getAppId();
+        String apiKey = credential.getApiKey();
+        HmacEngine mac = prepared.engine();
+        switch (service) {
+            case IAT: {
+                return second -> signWs(IAT_HOST, IAT_PATH, IAT_URL, apiKey, mac, appId, httpDateClock.dateOf(second),
+                        second, SignResult.etagOf(service, credential, second));
+            }
+            case TTS: {
+                return second -> signWs(TTS_HOST, TTS_PATH, TTS_URL, apiKey, mac, appId, httpDateClock.dateOf(second),
+                        second, SignResult.etagOf(service, credential, second));
+            }
+            case RTASR: {
+                return second -> signRtasr(appId, mac, second, SignResult.etagOf(service, credential, second));
+            }
+            case DTS_CREATE: {
+                return second -> signDts(DTS_HOST, DTS_CREATE_PATH, "POST", apiKey, mac, appId, DTS_CREATE_URL, httpDateClock.dateOf(second),
+                        second, SignResult.etagOf(service, credential, second));
+            }
+            default: {
+                return second -> signDts(DTS_HOST, DTS_QUERY_PATH, "POST", apiKey, mac, appId, DTS_QUERY_URL, httpDateClock.dateOf(second),
+                        second, SignResult.etagOf(service, credential, second));
+            }
+        }
+    }
+
+    /**
+     * 当前需要预签名的任务，每轮刷新时调用
+     *
+     * @param aheadSeconds 各服务提前签好的秒数
+     * @return 已配置单个凭证且开启预签名的服务任务，多凭证的池按请求选择，不预签名
+     */
+    private List<SignaturePresigner.Task> presignTasks(ToIntFunction<SignService> aheadSeconds) {
+        TenantCredentials tenant = credentialRegistry.getDefault();
+        List<SignaturePresigner.Task> tasks = new ArrayList<>();
+        for (SignService service : SignService.values()) {
+            int ahead = aheadSeconds.applyAsInt(service);
+            if (ahead <= 0) {
+                continue;
+            }
+            CredentialPool pool = tenant.pool(service);
+            TenantCredentials.Prepared prepared = pool.primary().getPrepared();
+            if (pool.size() > 1 || !prepared.isConfigured()) {
+                continue;
+            }
+            try {
+                tasks.add(new SignaturePresigner.Task(service, prepared.getCredential(), ahead, signerOf(service, prepared)));
+            } catch (GeneralSecurityException e) {
+                log.warning("预签名任务创建失败: " + service.tag() + ", 错误: " + e.getMessage());
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * 计算WebSocket签名
+     *
+     * @param host 主机地址
+     * @param path 路径
+     * @param baseUrl 不含查询参数的wss地址
+     * @param apiKey API密钥
+     * @param mac 以apiSecret为密钥的HMAC-SHA256引擎
+     * @param appId 应用ID
+     * @param date 签名时间对应的GMT日期
+     * @param second 签名时间（秒）
+     * @param etag 签名标识
+     * @return 不可变的签名结果
+     */
+    private static SignResult signWs(String host, String path, String baseUrl, String apiKey, HmacEngine mac, String appId, String date,
+                                     long second, String etag) {
+        String url = SignEncoder.get()
+                .authorize(mac.mac(), host, date, "GET", path, apiKey)
+                .authorizedUrl(baseUrl, date, host);
+
+        return new SignResult.Ws(url, appId, second, etag);
+    }
+
+    /**
+     * 计算RTASR签名
+     *
+     * @param appId 应用ID
+     * @param mac 以apiKey为密钥的HMAC-SHA1引擎
+     * @param ts 签名时间（秒）
+     * @param etag 签名标识
+     * @return 不可变的签名结果
+     */
+    private static SignResult signRtasr(String appId, HmacEngine mac, long ts, String etag) {
+        SignEncoder encoder = SignEncoder.get().rtasrSigna(mac.mac(), appId, ts);
+
+        return new SignResult.Rtasr(encoder.rtasrUrl(RTASR_URL, appId, ts), appId, String.valueOf(ts), encoder.signa(), ts, etag);
+    }
+
+    /**
+     * 计算DTS签名
+     *
+     * @param host 主机地址
+     * @param path 路径
+     * @param method HTTP方法
+     * @param apiKey API密钥
+     * @param mac 以apiSecret为密钥的HMAC-SHA256引擎
+     * @param appId 应用ID
+     * @param baseUrl 基础URL
+     * @param date 签名时间对应的GMT日期，与官方demo格式一致
+     * @param second 签名时间（秒）
+     * @param etag 签名标识
+     * @return 不可变的签名结果
+     */
+    private static SignResult signDts(String host, String path, String method, String apiKey, HmacEngine mac, String appId, String baseUrl, String date,
+                                      long second, String etag) {
+        SignEncoder encoder = SignEncoder.get().authorize(mac.mac(), host, date, method, path, apiKey);
+        String fullUrl = encoder.authorizedUrl(baseUrl, date, host);
+        String authB64 = encoder.authorization();
+
+        if (log.isLoggable(Level.FINE)) {
+            log.fine("DTS签名调试信息: 原始日期=" + date + ", 请求行=" + method + " " + path
+                    + ", authorization=" + authB64 + ", 完整URL=" + fullUrl);
+        }
+
+        return new SignResult.Dts(fullUrl, appId, host, date, authB64, second, etag);
+    }
+
+    /**
+     * 获取当前时间桶的签名
+     *
+     * 先从服务的凭证池中选出一个凭证，再依次查找预签名窗口（仅默认租户的单凭证服务）与签名缓存，
+     * 均未命中时才计算，同一键的并发请求合并为一次计算；缓存关闭时只合并同一秒的并发请求、不保留结果。结果中的 appId 即选中凭证的 appId。
+     *
+     * @param tenant 租户
+     * @param service 服务类型
+     * @param now 当前时间（秒）
+     * @return 不可变的签名结果
+     * @throws Exception 签名异常，凭证池已满时抛出 {@link CredentialPoolExhaustedException}
+     */
+    private Map<String, Object> signCached(TenantCredentials tenant, SignService service, long now) throws Exception {
+        SignTrace.Stage stage = SignTrace.beginSign(service);
+        try {
+            return lookup(tenant, service, now);
+        } finally {
+            SignTrace.end(stage, 0);
+        }
+    }
+
+    private Map<String, Object> lookup(TenantCredentials tenant, SignService service, long now) throws Exception {
+        CredentialPool pool = tenant.pool(service);
+        TenantCredentials.Prepared prepared = pool.select().getPrepared();
+        Credential credential = prepared.getCredential();
+        SignaturePresigner current = presigner;
+        if (current != null && pool.size() == 1 && CredentialRegistry.DEFAULT_TENANT.equals(tenant.getTenantId())) {
+            Map<String, Object> presigned = current.lookup(service, credential, now);
+            if (presigned != null) {
+                return presigned;
+            }
+        }
+        SignatureCache.Signer signer = signerOf(service, prepared);
+        if (!cacheEnabled) {
+            return signatureCache.coalesce(service, credential, now, signer);
+        }
+        return signatureCache.get(service, credential, now, signer);
+    }
+
+    /**
+     * 按模式加密签名结果
+     *
+     * @param data 原始数据
+     * @param key 授权令牌对应的加密密钥
+     * @param mode 加密模式（非 NONE）
+     * @return 加密后的数据
+     * @throws Exception 加密异常
+     */
+    private static Map<String, Object> encrypt(Map<String, Object> data, EncryptionKeyCache.EncryptionKey key, EncryptionMode mode) throws Exception {
+        if (mode == EncryptionMode.ENVELOPE) {
+            return encryptEnvelope(data, key);
+        }
+        return encryptResponseFields(data, key);
+    }
+
+    /**
+     * 整体信封加密：JSON 序列化后一次 AES，结果 Base64
+     *
+     * @param src 源数据
+     * @param key 授权令牌对应的加密密钥
+     * @return 仅含 envelope 字段的结果
+     * @throws Exception 加密异常
+     */
+    private static Map<String, Object> encryptEnvelope(Map<String, Object> src, EncryptionKeyCache.EncryptionKey key) throws Exception {
+        return Collections.singletonMap("envelope", key.encryptToBase64(SignJson.toBytes(src)));
+    }
+
+    /**
+     * 加密响应字段
+     *
+     * @param src 源数据
+     * @param key 授权令牌对应的加密密钥
+     * @return 加密后的数据
+     */
+    private static Map<String, Object> encryptResponseFields(Map<String, Object> src, EncryptionKeyCache.EncryptionKey key) {
+        Map<String, Object> ret = new HashMap<>();
+
+        for (Map.Entry<String, Object> entry : src.entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+
+            if (value == null || value instanceof Number) {
+                // issuedAt/expiresAt 不敏感，保持明文供客户端判断是否复用
+                ret.put(name, value);
+            } else {
+                try {
+                    ret.put(name, key.encryptToHex(value.toString()));
+                } catch (Exception e) {
+                    log.warning("加密字段失败: " + name + ", 错误: " + e.getMessage());
+                    ret.put(name, null);
+                }
+            }
+        }
+
+        return ret;
+    }
+}
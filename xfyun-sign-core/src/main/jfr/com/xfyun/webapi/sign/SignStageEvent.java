@@ -0,0 +1,70 @@
+package com.xfyun.webapi.sign;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 签名热路径单个步骤的 JFR 事件
+ *
+ * 默认关闭，只有在录制配置中启用 {@value SignTrace#EVENT_NAME} 时才记录；关闭时 {@link #start} 只做一次开关检查。
+ * 不直接使用，由 {@link SignTrace} 经 {@link Probe} 反射加载，运行环境没有 JFR 时不会加载本类。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Name(SignTrace.EVENT_NAME)
+@Label("Xfyun Sign Stage")
+@Category({"Xfyun", "Sign"})
+@Description("签名步骤耗时：整体签名、日期格式化、HMAC、MD5、Base64、URL编码、AES")
+@Enabled(false)
+@StackTrace(false)
+final class SignStageEvent extends Event implements SignTrace.Stage {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Service")
+    @Description("整体签名步骤的服务标签，其他步骤为空")
+    String service;
+
+    @Label("Bytes")
+    @Description("本步骤处理的字节数")
+    int bytes;
+
+    static SignStageEvent start(String stage, String service) {
+        SignStageEvent event = new SignStageEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.stage = stage;
+        event.service = service;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void finish(int bytes) {
+        end();
+        if (shouldCommit()) {
+            this.bytes = bytes;
+            commit();
+        }
+    }
+
+    /**
+     * {@link SignTrace} 反射创建的入口
+     */
+    static final class Probe implements SignTrace.Probe {
+
+        @Override
+        public SignTrace.Stage start(String stage, String service) {
+            return SignStageEvent.start(stage, service);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CredentialPoolTests {
+
+    private static final Credential A = new Credential("app-a", "key-a", "secret-a");
+    private static final Credential B = new Credential("app-b", "key-b", "secret-b");
+    private static final Credential C = new Credential("app-c", "key-c", "secret-c");
+
+    @Test
+    void selectionFollowsWeightsForBothStrategies() {
+        for (CredentialPool.Strategy strategy : CredentialPool.Strategy.values()) {
+            CredentialPool pool = new CredentialPool(SignService.IAT, Arrays.asList(
+                    new CredentialPool.Spec(A, 3, 0),
+                    new CredentialPool.Spec(B, 1, 0)), strategy, 60, new MutableClock(1_000_000L));
+
+            Map<String, Integer> counts = new HashMap<>();
+            for (int i = 0; i < 400; i++) {
+                counts.merge(pool.select().getCredential().getAppId(), 1, Integer::sum);
+            }
+
+            assertEquals(300, counts.get("app-a"), strategy.name());
+            assertEquals(100, counts.get("app-b"), strategy.name());
+        }
+    }
+
+    @Test
+    void fullMembersAreSkippedUntilTheirLeaseExpires() {
+        MutableClock clock = new MutableClock(1_000_000L);
+        CredentialPool pool = new CredentialPool(SignService.TTS, Arrays.asList(
+                new CredentialPool.Spec(A, 1, 2),
+                new CredentialPool.Spec(B, 1, 1)), CredentialPool.Strategy.LEAST_OUTSTANDING, 8, clock);
+
+        for (int i = 0; i < 3; i++) {
+            pool.select();
+        }
+        List<CredentialPool.Member> members = pool.members();
+        assertEquals(2, pool.outstanding(members.get(0)));
+        assertEquals(1, pool.outstanding(members.get(1)));
+        CredentialPoolExhaustedException e = assertThrows(CredentialPoolExhaustedException.class, pool::select);
+        assertEquals("凭证池已满: tts", e.getMessage());
+
+        clock.advance(9_000);
+        assertEquals(0, pool.outstanding(members.get(0)));
+        assertEquals("app-a", pool.select().getCredential().getAppId());
+    }
+
+    @Test
+    void singleUnlimitedMemberIsReturnedWithoutCounting() {
+        CredentialPool pool = CredentialPool.single(SignService.IAT, A, new MutableClock(1_000_000L));
+        for (int i = 0; i < 3; i++) {
+            assertEquals("app-a", pool.select().getCredential().getAppId());
+        }
+        assertEquals(0, pool.outstanding(pool.primary()));
+    }
+
+    @Test
+    void concurrentSelectionNeverExceedsLimitsByMuch() throws Exception {
+        MutableClock clock = new MutableClock(1_000_000L);
+        CredentialPool pool = new CredentialPool(SignService.RTASR, Arrays.asList(
+                new CredentialPool.Spec(A, 2, 2_000),
+                new CredentialPool.Spec(B, 1, 1_000),
+                new CredentialPool.Spec(C, 1, 1_000)), CredentialPool.Strategy.LEAST_OUTSTANDING, 60, clock);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < 500; i++) {
+                            try {
+                                counts.computeIfAbsent(pool.select().getCredential().getAppId(), k -> new LongAdder()).increment();
+                            } catch (CredentialPoolExhaustedException e) {
+                                rejected.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        long accepted = counts.values().stream().mapToLong(LongAdder::sum).sum();
+        assertEquals(threads * 500, accepted + rejected.get());
+        // 软上限：并发检查时每个成员最多超出线程数
+        assertTrue(counts.get("app-a").sum() <= 2_000 + threads, counts.toString());
+        assertTrue(counts.get("app-b").sum() <= 1_000 + threads, counts.toString());
+        assertTrue(counts.get("app-c").sum() <= 1_000 + threads, counts.toString());
+        assertTrue(accepted >= 4_000, counts.toString());
+    }
+}
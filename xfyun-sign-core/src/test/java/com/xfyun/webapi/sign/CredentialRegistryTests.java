@@ -0,0 +1,62 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CredentialRegistryTests {
+
+    @Test
+    void lookupFallsBackToDefaultTenantAndPreparesEnginesPerTenant() throws Exception {
+        Map<String, TenantCredentials> tenants = new HashMap<>();
+        tenants.put(CredentialRegistry.DEFAULT_TENANT, tenant(CredentialRegistry.DEFAULT_TENANT, "default-app", "default-secret"));
+        tenants.put("acme", tenant("acme", "acme-app", "acme-secret"));
+        CredentialRegistry registry = new CredentialRegistry(tenants);
+
+        assertSame(registry.getDefault(), registry.get(null));
+        assertSame(registry.getDefault(), registry.get(""));
+        assertNull(registry.get("unknown"));
+
+        TenantCredentials.Prepared acme = registry.get("acme").get(SignService.IAT);
+        assertTrue(acme.isConfigured());
+        assertEquals("acme-app", acme.getCredential().getAppId());
+        assertSame(acme.engine(), acme.engine());
+        assertEquals(HmacEngine.create(HmacEngine.HMAC_SHA256, "acme-secret").signBase64("x"), acme.engine().signBase64("x"));
+
+        TenantCredentials.Prepared missing = registry.get("acme").get(SignService.TTS);
+        assertFalse(missing.isConfigured());
+        assertThrows(IllegalArgumentException.class, missing::engine);
+    }
+
+    @Test
+    void replaceSwapsWholeSnapshotAndRequiresDefaultTenant() {
+        CredentialRegistry registry = new CredentialRegistry(Collections.singletonMap(CredentialRegistry.DEFAULT_TENANT,
+                tenant(CredentialRegistry.DEFAULT_TENANT, "old", "old-secret")));
+
+        Map<String, TenantCredentials> next = new HashMap<>();
+        next.put(CredentialRegistry.DEFAULT_TENANT, tenant(CredentialRegistry.DEFAULT_TENANT, "new", "new-secret"));
+        registry.replace(next);
+        next.clear();
+
+        assertEquals("new", registry.getDefault().get(SignService.IAT).getCredential().getAppId());
+        assertEquals(1, registry.size());
+        assertThrows(IllegalArgumentException.class, () -> registry.replace(Collections.emptyMap()));
+        assertEquals("new", registry.getDefault().get(SignService.IAT).getCredential().getAppId());
+    }
+
+    private static TenantCredentials tenant(String id, String appId, String secret) {
+        Map<SignService, Credential> credentials = new EnumMap<>(SignService.class);
+        credentials.put(SignService.IAT, new Credential(appId, "key", secret));
+        return new TenantCredentials(id, credentials, new MutableClock(1_000_000L));
+    }
+}
@@ -0,0 +1,58 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EncryptionKeyCacheTests {
+
+    @Test
+    void repeatedTokenReusesDerivedKeyAndMatchesUncachedEncryption() throws Exception {
+        EncryptionKeyCache cache = new EncryptionKeyCache(16, 60_000, new MutableClock(0));
+
+        EncryptionKeyCache.EncryptionKey key = cache.get("Bearer token-a");
+        assertSame(key, cache.get("token-a"));
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+
+        String key16 = EncryptionKeyCache.deriveKey("token-a");
+        assertEquals(key16, key.getKey16());
+        for (String plaintext : new String[]{"", "wss://iat-api.xfyun.cn/v2/iat?authorization=abc", "中文"}) {
+            assertEquals(SignUtils.aesEncryptToHex(plaintext, key16), key.encryptToHex(plaintext));
+        }
+    }
+
+    @Test
+    void entriesExpireAfterTtl() throws Exception {
+        MutableClock clock = new MutableClock(0);
+        EncryptionKeyCache cache = new EncryptionKeyCache(16, 1_000, clock);
+
+        EncryptionKeyCache.EncryptionKey first = cache.get("token");
+        clock.advance(999);
+        assertSame(first, cache.get("token"));
+        clock.advance(1);
+        assertNotSame(first, cache.get("token"));
+    }
+
+    @Test
+    void sizeCapEvictsLeastRecentlyUsed() throws Exception {
+        MutableClock clock = new MutableClock(0);
+        EncryptionKeyCache cache = new EncryptionKeyCache(2, 60_000, clock);
+
+        EncryptionKeyCache.EncryptionKey a = cache.get("a");
+        clock.advance(1);
+        cache.get("b");
+        clock.advance(1);
+        assertSame(a, cache.get("a"));
+        clock.advance(1);
+        cache.get("c");
+
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get("a"));
+        long misses = cache.missCount();
+        cache.get("b");
+        assertEquals(misses + 1, cache.missCount());
+    }
+}
@@ -0,0 +1,27 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HmacEngineTests {
+
+    @Test
+    void signMatchesFreshMacAcrossRepeatedCalls() throws Exception {
+        HmacEngine engine = HmacEngine.create(HmacEngine.HMAC_SHA256, "secret");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(reference(HmacEngine.HMAC_SHA256, "secret", "data" + i), engine.signBase64("data" + i));
+        }
+    }
+
+    private static String reference(String algorithm, String secret, String data) throws Exception {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
+        return Base64.getEncoder().encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
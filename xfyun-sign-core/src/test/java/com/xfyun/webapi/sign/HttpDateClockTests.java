@@ -0,0 +1,44 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HttpDateClockTests {
+
+    @Test
+    void formatMatchesLegacyGmtFormat() {
+        SimpleDateFormat legacy = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+        legacy.setTimeZone(TimeZone.getTimeZone("GMT"));
+        for (long second = 0; second < 4_000_000_000L; second += 7_777_777L) {
+            assertEquals(legacy.format(new Date(second * 1000)), HttpDateClock.format(second));
+        }
+        assertEquals("Mon, 01 Jan 2024 12:00:00 GMT", HttpDateClock.format(1704110400L));
+    }
+
+    @Test
+    void tickIsFormattedOncePerSecond() {
+        MutableClock clock = new MutableClock(1704110400_000L);
+        HttpDateClock dates = new HttpDateClock(clock);
+
+        HttpDateClock.Tick first = dates.tick();
+        clock.advance(999);
+        assertSame(first, dates.tick());
+        assertSame(first.getDate(), dates.dateOf(1704110400L));
+
+        clock.advance(1);
+        HttpDateClock.Tick next = dates.tick();
+        assertNotSame(first, next);
+        assertEquals(1704110401L, next.getEpochSecond());
+        assertEquals("Mon, 01 Jan 2024 12:00:01 GMT", next.getDate());
+        // 非当前秒（预签名的未来秒）单独格式化
+        assertEquals("Mon, 01 Jan 2024 12:00:03 GMT", dates.dateOf(1704110403L));
+    }
+}
@@ -0,0 +1,61 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SignEncoderTests {
+
+    private static final String DATE = "Mon, 01 Jan 2024 12:00:00 GMT";
+
+    @Test
+    void authorizedUrlMatchesStringBasedConstruction() throws Exception {
+        HmacEngine mac = HmacEngine.create(HmacEngine.HMAC_SHA256, "secret");
+        for (String apiKey : new String[]{"key", "k e+y/=", "密钥-ключ-😀"}) {
+            SignEncoder encoder = SignEncoder.get().authorize(mac.mac(), "iat-api.xfyun.cn", DATE, "GET", "/v2/iat", apiKey);
+
+            String origin = "host: iat-api.xfyun.cn\ndate: " + DATE + "\nGET /v2/iat HTTP/1.1";
+            String authorizationOrigin = "api_key=\"" + apiKey + "\", algorithm=\"hmac-sha256\", headers=\"host date request-line\", signature=\"" + mac.signBase64(origin) + "\"";
+            String authorization = Base64.getEncoder().encodeToString(authorizationOrigin.getBytes(StandardCharsets.UTF_8));
+
+            assertEquals(authorization, encoder.authorization());
+            assertEquals("wss://iat-api.xfyun.cn/v2/iat?authorization=" + URLEncoder.encode(authorization, "UTF-8")
+                            + "&date=" + URLEncoder.encode(DATE, "UTF-8") + "&host=iat-api.xfyun.cn",
+                    encoder.authorizedUrl("wss://iat-api.xfyun.cn/v2/iat", DATE, "iat-api.xfyun.cn"));
+        }
+    }
+
+    @Test
+    void rtasrSignaMatchesStringBasedConstruction() throws Exception {
+        HmacEngine mac = HmacEngine.create(HmacEngine.HMAC_SHA1, "api-key");
+        for (long ts : new long[]{0L, 7L, 1704110400L}) {
+            SignEncoder encoder = SignEncoder.get().rtasrSigna(mac.mac(), "app id", ts);
+
+            byte[] md5 = MessageDigest.getInstance("MD5").digest(("app id" + ts).getBytes(StandardCharsets.UTF_8));
+            String signa = mac.signBase64(SignUtils.bytesToHex(md5));
+
+            assertEquals(signa, encoder.signa());
+            assertEquals("wss://rtasr.xfyun.cn/v1/ws?appid=app+id&ts=" + ts + "&signa=" + URLEncoder.encode(signa, "UTF-8") + "&pd=edu",
+                    encoder.rtasrUrl("wss://rtasr.xfyun.cn/v1/ws", "app id", ts));
+        }
+    }
+
+    @Test
+    void urlEncodeAndHexMatchJdk() throws Exception {
+        String all = "azAZ09.-*_ ~!@#$%^&()+=,/?:;'\"<>[]{}|\\`\t\n中文😀";
+        assertEquals(URLEncoder.encode(all, "UTF-8"), SignEncoder.get().urlEncode(all));
+
+        byte[] bytes = new byte[256];
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+            expected.append(String.format("%02x", bytes[i]));
+        }
+        assertEquals(expected.toString(), SignEncoder.hex(bytes));
+    }
+}
@@ -0,0 +1,86 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignResultTests {
+
+    @Test
+    void typedFieldsMatchTheMapView() {
+        SignResult.Dts dts = new SignResult.Dts("https://api-dx.xf-yun.com/v1/private/dts_create?a=1", "app",
+                "api-dx.xf-yun.com", "Mon, 01 Jan 2024 12:00:00 GMT", "auth", 1704110400L, "dts-create.1704110400.00");
+
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("url", "https://api-dx.xf-yun.com/v1/private/dts_create?a=1");
+        expected.put("appId", "app");
+        expected.put("host", "api-dx.xf-yun.com");
+        expected.put("date", "Mon, 01 Jan 2024 12:00:00 GMT");
+        expected.put("authorization", "auth");
+        expected.put("issuedAt", 1704110400_000L);
+        expected.put("expiresAt", 1704110700_000L);
+        assertEquals(expected, dts);
+        assertEquals(expected.keySet().toString(), dts.keySet().toString());
+        assertEquals("app", dts.getAppId());
+        assertEquals("Mon, 01 Jan 2024 12:00:00 GMT", dts.getDate());
+        assertEquals(1704110700_000L, dts.getExpiresAt());
+        assertTrue(dts.containsKey("host"));
+        assertFalse(dts.containsKey("ts"));
+
+        SignResult.Rtasr rtasr = new SignResult.Rtasr("wss://rtasr.xfyun.cn/v1/ws?appid=app", "app", "1704110400", "s/+=", 1704110400L, "");
+        assertEquals("1704110400", rtasr.get("ts"));
+        assertEquals("s/+=", rtasr.getSigna());
+    }
+
+    @Test
+    void etagIdentifiesServiceSecondAndCredential() {
+        Credential credential = new Credential("app", "key", "secret");
+        String etag = SignResult.etagOf(SignService.DTS_CREATE, credential, 1704110400L);
+
+        assertTrue(etag.matches("dts-create\\.1704110400\\.[0-9a-f]{16}"), etag);
+        assertEquals(etag, SignResult.etagOf(SignService.DTS_CREATE, new Credential("app", "key", "secret"), 1704110400L));
+        assertNotEquals(etag, SignResult.etagOf(SignService.DTS_CREATE, new Credential("app", "key", "rotated"), 1704110400L));
+        assertNotEquals(etag, SignResult.etagOf(SignService.DTS_QUERY, credential, 1704110400L));
+        assertFalse(etag.contains("secret"));
+
+        assertEquals(1704110400L, SignResult.issuedAtSecondOf(SignService.DTS_CREATE, etag));
+        assertEquals(-1, SignResult.issuedAtSecondOf(SignService.DTS_QUERY, etag));
+        assertEquals(-1, SignResult.issuedAtSecondOf(SignService.IAT, "iat.x.00"));
+        assertEquals(-1, SignResult.issuedAtSecondOf(SignService.IAT, "*"));
+    }
+
+    @Test
+    void isImmutable() {
+        SignResult ws = new SignResult.Ws("wss://iat-api.xfyun.cn/v2/iat", "app", 0, "");
+
+        assertThrows(UnsupportedOperationException.class, () -> ws.put("url", "x"));
+        assertThrows(UnsupportedOperationException.class, () -> ws.remove("url"));
+        assertThrows(UnsupportedOperationException.class, () -> ws.entrySet().iterator().next().setValue("x"));
+        assertEquals(4, ws.size());
+    }
+
+    @Test
+    void responseBytesAreSerializedOnceAsTheSuccessEnvelope() {
+        SignResult ws = new SignResult.Ws("wss://iat-api.xfyun.cn/v2/iat?authorization=a%2Bb&date=d", "应用\"1\"", 1, "");
+
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("errorCode", 0);
+        envelope.put("data", Collections.unmodifiableMap(new LinkedHashMap<>(ws)));
+        byte[] bytes = ws.responseBytes();
+        assertArrayEquals(SignJson.toBytes(envelope), bytes);
+        assertEquals("{\"errorCode\":0,\"data\":{\"url\":\"wss://iat-api.xfyun.cn/v2/iat?authorization=a%2Bb&date=d\","
+                + "\"appId\":\"应用\\\"1\\\"\",\"issuedAt\":1000,\"expiresAt\":301000}}", new String(bytes, StandardCharsets.UTF_8));
+        assertSame(bytes, ws.responseBytes());
+    }
+}
@@ -0,0 +1,77 @@
+package com.xfyun.webapi.sign;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignTraceTests {
+
+    @Test
+    void stageEventsAreOffUnlessARecordingEnablesThem() {
+        assertNull(SignTrace.begin(SignTrace.HMAC));
+
+        try (Recording recording = new Recording()) {
+            recording.enable(SignTrace.EVENT_NAME);
+            recording.start();
+            SignTrace.Stage stage = SignTrace.begin(SignTrace.HMAC);
+            assertTrue(stage instanceof SignStageEvent && ((SignStageEvent) stage).isEnabled());
+            SignTrace.end(stage, 1);
+        }
+
+        assertNull(SignTrace.begin(SignTrace.HMAC));
+    }
+
+    @Test
+    void signingStepsAreRecordedWithByteCounts() throws Exception {
+        Path file = Files.createTempFile("sign-trace", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(SignTrace.EVENT_NAME).withThreshold(Duration.ZERO);
+                recording.start();
+
+                String date = HttpDateClock.format(1704110400L);
+                SignEncoder.get().authorize(HmacEngine.create(HmacEngine.HMAC_SHA256, "secret").mac(),
+                        "iat-api.xfyun.cn", date, "GET", "/v2/iat", "key")
+                        .authorizedUrl("wss://iat-api.xfyun.cn/v2/iat", date, "iat-api.xfyun.cn");
+                SignEncoder.get().rtasrSigna(HmacEngine.create(HmacEngine.HMAC_SHA1, "key").mac(), "app", 1704110400L)
+                        .rtasrUrl("wss://rtasr.xfyun.cn/v1/ws", "app", 1704110400L);
+                new EncryptionKeyCache(1, 60_000, new MutableClock(0)).get("token")
+                        .encrypt("0123456789".getBytes(StandardCharsets.UTF_8));
+                new SignResult.Ws("wss://iat-api.xfyun.cn/v2/iat", "app", 1704110400L, "").responseBytes();
+
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Map<String, Integer> counts = new HashMap<>();
+            for (RecordedEvent event : events) {
+                assertEquals(SignTrace.EVENT_NAME, event.getEventType().getName());
+                assertTrue(event.getInt("bytes") > 0, event.toString());
+                counts.merge(event.getString("stage"), 1, Integer::sum);
+            }
+            assertEquals(1, counts.get(SignTrace.DATE));
+            assertEquals(2, counts.get(SignTrace.HMAC));
+            assertEquals(2, counts.get(SignTrace.BASE64));
+            assertEquals(2, counts.get(SignTrace.URL_ENCODE));
+            assertEquals(1, counts.get(SignTrace.MD5));
+            assertEquals(1, counts.get(SignTrace.AES));
+            assertEquals(1, counts.get(SignTrace.SERIALIZE));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
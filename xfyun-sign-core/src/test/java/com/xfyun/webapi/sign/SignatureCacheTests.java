@@ -0,0 +1,137 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignatureCacheTests {
+
+    private static final Credential CREDENTIAL = new Credential("app", "key", "secret");
+
+    @Test
+    void computesOncePerBucketAndCountsHits() throws Exception {
+        SignatureCache cache = new SignatureCache(5);
+        AtomicInteger calls = new AtomicInteger();
+        SignatureCache.Signer signer = second -> {
+            calls.incrementAndGet();
+            return Collections.singletonMap("ts", second);
+        };
+
+        Map<String, Object> first = cache.get(SignService.IAT, CREDENTIAL, 101, signer);
+        Map<String, Object> second = cache.get(SignService.IAT, CREDENTIAL, 104, signer);
+        assertSame(first, second);
+        assertEquals(100L, first.get("ts"));
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+
+        Map<String, Object> next = cache.get(SignService.IAT, CREDENTIAL, 105, signer);
+        assertNotSame(first, next);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void keysAreSeparatedByServiceAndCredential() throws Exception {
+        SignatureCache cache = new SignatureCache(1);
+        SignatureCache.Signer signer = second -> Collections.singletonMap("ts", second);
+
+        Map<String, Object> iat = cache.get(SignService.IAT, CREDENTIAL, 10, signer);
+        Map<String, Object> tts = cache.get(SignService.TTS, CREDENTIAL, 10, signer);
+        Map<String, Object> other = cache.get(SignService.IAT, new Credential("app", "key", "rotated"), 10, signer);
+        assertNotSame(iat, tts);
+        assertNotSame(iat, other);
+        assertEquals(3, cache.missCount());
+    }
+
+    @Test
+    void concurrentMissesInOneBucketSignOnce() throws Exception {
+        SignatureCache cache = new SignatureCache(1);
+        AtomicInteger calls = new AtomicInteger();
+        SignatureCache.Signer signer = second -> {
+            calls.incrementAndGet();
+            Thread.sleep(20);
+            return Collections.singletonMap("ts", second);
+        };
+
+        List<Map<String, Object>> results = SingleFlightTests.runConcurrently(256,
+                () -> cache.get(SignService.TTS, CREDENTIAL, 42, signer));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.missCount());
+        assertEquals(255, cache.hitCount() + cache.coalescedCount());
+        for (Map<String, Object> result : results) {
+            assertSame(results.get(0), result);
+        }
+    }
+
+    @Test
+    void inFlightSigningDoesNotBlockOtherKeys() throws Exception {
+        SignatureCache cache = new SignatureCache(1);
+        CountDownLatch otherKeySigned = new CountDownLatch(1);
+        SignatureCache.Signer slow = second -> {
+            assertTrue(otherKeySigned.await(10, TimeUnit.SECONDS));
+            return Collections.singletonMap("ts", second);
+        };
+        SignatureCache.Signer fast = second -> Collections.singletonMap("ts", second);
+        AtomicInteger sequence = new AtomicInteger();
+
+        List<Map<String, Object>> results = SingleFlightTests.runConcurrently(200, () -> {
+            if (sequence.getAndIncrement() % 2 == 0) {
+                return cache.get(SignService.IAT, CREDENTIAL, 7, slow);
+            }
+            Map<String, Object> signed = cache.get(SignService.TTS, CREDENTIAL, 7, fast);
+            otherKeySigned.countDown();
+            return signed;
+        });
+
+        assertEquals(200, results.size());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void uncachedSigningStillCoalescesWithinTheSecond() throws Exception {
+        SignatureCache cache = new SignatureCache(1);
+        AtomicInteger calls = new AtomicInteger();
+        SignatureCache.Signer signer = second -> {
+            if (calls.incrementAndGet() == 1) {
+                awaitCoalesced(cache, 255);
+            }
+            return Collections.singletonMap("ts", second);
+        };
+
+        List<Map<String, Object>> results = SingleFlightTests.runConcurrently(256,
+                () -> cache.coalesce(SignService.RTASR, CREDENTIAL, 9, signer));
+        assertEquals(1, calls.get());
+        for (Map<String, Object> result : results) {
+            assertSame(results.get(0), result);
+        }
+
+        assertNotSame(results.get(0), cache.coalesce(SignService.RTASR, CREDENTIAL, 9, signer));
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void rejectsWindowBeyondSkewTolerance() {
+        assertThrows(IllegalArgumentException.class, () -> new SignatureCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new SignatureCache(SignatureCache.MAX_REUSE_WINDOW_SECONDS + 1));
+    }
+
+    private static void awaitCoalesced(SignatureCache cache, long waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cache.coalescedCount() < waiters && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignaturePresignerTests {
+
+    private static final Credential CREDENTIAL = new Credential("app", "key", "secret");
+
+    @Test
+    void requestPathStaysALookupAcrossSecondBoundaries() throws Exception {
+        MutableClock clock = new MutableClock(1_700_000_000_000L);
+        HmacEngine mac = HmacEngine.create(HmacEngine.HMAC_SHA256, "secret");
+        AtomicInteger signs = new AtomicInteger();
+        SignatureCache.Signer signer = second -> {
+            signs.incrementAndGet();
+            return Collections.singletonMap("signature", mac.signBase64("date: " + second));
+        };
+        SignaturePresigner presigner = new SignaturePresigner(clock, 1,
+                () -> Collections.singletonList(new SignaturePresigner.Task(SignService.IAT, CREDENTIAL, 2, signer)));
+
+        List<Long> boundary = new ArrayList<>();
+        List<Long> midSecond = new ArrayList<>();
+        int misses = 0;
+        // 模拟 500 秒，每 200ms 刷新一次，每 10ms 一个请求
+        for (int tick = 0; tick < 50_000; tick++) {
+            if (tick % 20 == 0) {
+                presigner.refresh();
+            }
+            long start = System.nanoTime();
+            Map<String, Object> signed = presigner.lookup(SignService.IAT, CREDENTIAL, clock.millis() / 1000);
+            if (signed == null) {
+                misses++;
+                signed = signer.sign(clock.millis() / 1000);
+            }
+            long elapsed = System.nanoTime() - start;
+            assertNotNull(signed);
+            (clock.millis() % 1000 == 0 ? boundary : midSecond).add(elapsed);
+            clock.advance(10);
+        }
+
+        assertEquals(0, misses);
+        // 每秒只在后台签一次（首轮额外预签 2 秒）
+        assertEquals(500 + 2, signs.get());
+        long boundaryP99 = p99(boundary);
+        long midP99 = p99(midSecond);
+        assertTrue(boundaryP99 <= Math.max(midP99 * 10, 1_000_000L),
+                "boundary p99=" + boundaryP99 + "ns, mid-second p99=" + midP99 + "ns");
+    }
+
+    @Test
+    void credentialChangeIsAMissUntilNextRefresh() throws Exception {
+        MutableClock clock = new MutableClock(10_000L);
+        SignatureCache.Signer signer = second -> Collections.singletonMap("ts", second);
+        SignaturePresigner presigner = new SignaturePresigner(clock, 1,
+                () -> Collections.singletonList(new SignaturePresigner.Task(SignService.TTS, CREDENTIAL, 1, signer)));
+        presigner.refresh();
+
+        assertNotNull(presigner.lookup(SignService.TTS, CREDENTIAL, 10));
+        assertNotNull(presigner.lookup(SignService.TTS, CREDENTIAL, 11));
+        assertNull(presigner.lookup(SignService.TTS, CREDENTIAL, 12));
+        assertNull(presigner.lookup(SignService.TTS, new Credential("app", "key", "rotated"), 10));
+        assertNull(presigner.lookup(SignService.IAT, CREDENTIAL, 10));
+    }
+
+    private static long p99(List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+}
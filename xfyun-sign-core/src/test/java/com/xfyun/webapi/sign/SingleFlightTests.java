@@ -0,0 +1,101 @@
+package com.xfyun.webapi.sign;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SingleFlightTests {
+
+    private static final int THREADS = 256;
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        Callable<Object> call = () -> {
+            calls.incrementAndGet();
+            // 等所有其他线程都挂到在途计算上再返回
+            awaitShared(flight, THREADS - 1);
+            return new Object();
+        };
+
+        List<Object> results = runConcurrently(THREADS, () -> flight.execute("tts", call));
+
+        assertEquals(1, calls.get());
+        assertEquals(THREADS - 1, flight.sharedCount());
+        for (Object result : results) {
+            assertSame(results.get(0), result);
+        }
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndIsNotRemembered() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        Callable<Object> call = () -> {
+            calls.incrementAndGet();
+            awaitShared(flight, THREADS - 1);
+            throw new IllegalStateException("upstream");
+        };
+
+        List<Object> outcomes = runConcurrently(THREADS, () -> {
+            try {
+                return flight.execute("iat", call);
+            } catch (IllegalStateException e) {
+                return e;
+            }
+        });
+
+        for (Object outcome : outcomes) {
+            assertSame(outcomes.get(0), outcome);
+        }
+        assertEquals("upstream", ((Exception) outcomes.get(0)).getMessage());
+        assertEquals(1, calls.get());
+        assertEquals("ok", flight.execute("iat", () -> "ok"));
+    }
+
+    static void awaitShared(SingleFlight<?, ?> flight, long waiters) throws TimeoutException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (flight.sharedCount() < waiters) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new TimeoutException("waiters=" + flight.sharedCount());
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    static <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
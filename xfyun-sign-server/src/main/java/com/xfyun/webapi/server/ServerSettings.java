@@ -0,0 +1,168 @@
+package com.xfyun.webapi.server;
+
+import com.xfyun.webapi.sign.Credential;
+import com.xfyun.webapi.sign.CredentialRegistry;
+import com.xfyun.webapi.sign.EncryptionMode;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.TenantCredentials;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * 极简签名服务的配置
+ *
+ * 使用与 Spring 应用相同的键名（properties 格式），例如：
+ * <pre>
+ * server.port=8081
+ * xfyun.iat.app-id=xxx
+ * xfyun.iat.api-key=xxx
+ * xfyun.iat.api-secret=xxx
+ * xfyun.rtasr.app-id=xxx
+ * xfyun.rtasr.api-key=xxx
+ * xfyun.tenants.customer-a.iat.app-id=xxx
+ * xfyun.encryption.mode=none
+ * </pre>
+ * 每个服务只支持单个凭证；{@code -D} 系统属性覆盖文件中的同名配置。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class ServerSettings {
+
+    private static final String TENANTS_PREFIX = "xfyun.tenants.";
+
+    private final Properties properties;
+
+    public ServerSettings(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 读取配置文件（可为 null），再叠加系统属性
+     *
+     * @param file properties 文件
+     * @return 配置
+     * @throws IOException 读取失败
+     */
+    public static ServerSettings load(Path file) throws IOException {
+        Properties properties = new Properties();
+        if (file != null) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("xfyun.") || name.startsWith("server.")) {
+                properties.setProperty(name, System.getProperty(name));
+            }
+        }
+        return new ServerSettings(properties);
+    }
+
+    public int port() {
+        return intOf("server.port", 8081);
+    }
+
+    public int threads() {
+        return intOf("server.threads", Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public int reuseWindowSeconds() {
+        return intOf("xfyun.sign-cache.reuse-window-seconds", 1);
+    }
+
+    public boolean presignEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("xfyun.presign.enabled", "true"));
+    }
+
+    public long presignRefreshIntervalMillis() {
+        return intOf("xfyun.presign.refresh-interval-millis", 200);
+    }
+
+    /**
+     * 服务的预签名秒数，默认 iat/tts/rtasr 为2秒，其余不预签名
+     *
+     * @param service 服务类型
+     * @return 预签名秒数
+     */
+    public int presignAheadSeconds(SignService service) {
+        boolean byDefault = service == SignService.IAT || service == SignService.TTS || service == SignService.RTASR;
+        return Math.max(0, intOf("xfyun.presign.ahead-seconds." + service.tag(), byDefault ? 2 : 0));
+    }
+
+    public EncryptionMode encryptionMode() {
+        String mode = properties.getProperty("xfyun.encryption.mode", "none").trim();
+        return EncryptionMode.valueOf(mode.toUpperCase());
+    }
+
+    public int keyCacheSize() {
+        return intOf("xfyun.encryption.key-cache-size", 1024);
+    }
+
+    public long keyCacheTtlSeconds() {
+        return intOf("xfyun.encryption.key-cache-ttl-seconds", 600);
+    }
+
+    public String tenantHeader() {
+        return properties.getProperty("xfyun.tenant-header", "X-Xfyun-Tenant");
+    }
+
+    /**
+     * 构建租户快照，{@code xfyun.iat/tts/rtasr/dts} 为默认租户
+     *
+     * @param clock 凭证池统计在途数的时间来源
+     * @return 以租户标识为键的租户凭证
+     */
+    public Map<String, TenantCredentials> tenants(Clock clock) {
+        Map<String, TenantCredentials> tenants = new HashMap<>();
+        tenants.put(CredentialRegistry.DEFAULT_TENANT,
+                new TenantCredentials(CredentialRegistry.DEFAULT_TENANT, credentialsOf("xfyun."), clock));
+        TreeSet<String> ids = new TreeSet<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(TENANTS_PREFIX)) {
+                int end = name.indexOf('.', TENANTS_PREFIX.length());
+                if (end > 0) {
+                    ids.add(name.substring(TENANTS_PREFIX.length(), end));
+                }
+            }
+        }
+        for (String id : ids) {
+            if (CredentialRegistry.DEFAULT_TENANT.equals(id)) {
+                throw new IllegalArgumentException("租户标识 " + CredentialRegistry.DEFAULT_TENANT + " 保留给顶层配置");
+            }
+            tenants.put(id, new TenantCredentials(id, credentialsOf(TENANTS_PREFIX + id + "."), clock));
+        }
+        return tenants;
+    }
+
+    private Map<SignService, Credential> credentialsOf(String prefix) {
+        Map<SignService, Credential> credentials = new EnumMap<>(SignService.class);
+        credentials.put(SignService.IAT, credentialOf(prefix + "iat.", true));
+        credentials.put(SignService.TTS, credentialOf(prefix + "tts.", true));
+        credentials.put(SignService.RTASR, credentialOf(prefix + "rtasr.", false));
+        Credential dts = credentialOf(prefix + "dts.", true);
+        credentials.put(SignService.DTS_CREATE, dts);
+        credentials.put(SignService.DTS_QUERY, dts);
+        return credentials;
+    }
+
+    private Credential credentialOf(String prefix, boolean withSecret) {
+        return new Credential(properties.getProperty(prefix + "app-id"), properties.getProperty(prefix + "api-key"),
+                withSecret ? properties.getProperty(prefix + "api-secret") : null);
+    }
+
+    private int intOf(String name, int defaultValue) {
+        String value = properties.getProperty(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
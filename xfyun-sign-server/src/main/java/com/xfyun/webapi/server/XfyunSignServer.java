@@ -0,0 +1,183 @@
+package com.xfyun.webapi.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.xfyun.webapi.sign.CredentialPoolExhaustedException;
+import com.xfyun.webapi.sign.CredentialRegistry;
+import com.xfyun.webapi.sign.EncryptionKeyCache;
+import com.xfyun.webapi.sign.EncryptionMode;
+import com.xfyun.webapi.sign.HttpDateClock;
+import com.xfyun.webapi.sign.SignJson;
+import com.xfyun.webapi.sign.SignResult;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.SignatureCache;
+import com.xfyun.webapi.sign.XfyunSigner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * 基于 JDK {@link HttpServer} 的极简签名服务
+ *
+ * 不依赖 Spring，仅加载签名核心库，启动耗时在毫秒级，适合边车、批处理前置与函数计算。
+ * 接口与主应用的单项签名接口一致（响应格式相同）：
+ * <pre>
+ * GET /api/v1/xfyun/sign/{iat|tts|rtasr|dts/create|dts/query}
+ * GET /api/v1/xfyun/tenants/{tenant}/sign/...
+ * GET /health
+ * </pre>
+ * 启动：{@code java -jar xfyun-sign-server.jar [配置文件]}，配置见 {@link ServerSettings}。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class XfyunSignServer {
+
+    private static final Logger log = Logger.getLogger(XfyunSignServer.class.getName());
+
+    private static final String API_PREFIX = "/api/v1/xfyun";
+    private static final String SIGN_SEGMENT = "/sign/";
+    private static final String TENANTS_SEGMENT = "/tenants/";
+
+    private final ServerSettings settings;
+    private final XfyunSigner signer;
+    private final EncryptionMode encryptionMode;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public XfyunSignServer(ServerSettings settings) {
+        this.settings = settings;
+        HttpDateClock clock = HttpDateClock.systemUTC();
+        this.signer = new XfyunSigner(new CredentialRegistry(settings.tenants(clock.getClock())), clock,
+                new SignatureCache(settings.reuseWindowSeconds()),
+                new EncryptionKeyCache(settings.keyCacheSize(), TimeUnit.SECONDS.toMillis(settings.keyCacheTtlSeconds()), clock.getClock()));
+        this.encryptionMode = settings.encryptionMode();
+    }
+
+    public static void main(String[] args) throws IOException {
+        ServerSettings settings = ServerSettings.load(args.length > 0 ? Paths.get(args[0]) : null);
+        XfyunSignServer server = new XfyunSignServer(settings);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "xfyun-sign-server-shutdown"));
+        long uptime = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("xfyun-sign-server 已启动: 端口 " + server.getPort() + ", 耗时 " + uptime + " ms");
+    }
+
+    /**
+     * 启动监听与后台预签名
+     *
+     * @throws IOException 端口绑定失败
+     */
+    public synchronized void start() throws IOException {
+        if (settings.presignEnabled()) {
+            signer.startPresigner(settings::presignAheadSeconds, settings.presignRefreshIntervalMillis());
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(settings.threads(), r -> {
+            Thread thread = new Thread(r, "xfyun-sign-http-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(settings.port()), 0);
+        server.createContext(API_PREFIX + "/", this::handleSign);
+        server.createContext("/health", exchange -> write(exchange, 200, Collections.singletonMap("status", "UP")));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * 停止监听与后台预签名
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+        signer.stop();
+    }
+
+    /**
+     * 实际监听端口（配置为0时由系统分配）
+     *
+     * @return 端口
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleSign(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            write(exchange, 405, fail("仅支持 GET"));
+            return;
+        }
+        String path = exchange.getRequestURI().getPath().substring(API_PREFIX.length());
+        String tenantId = exchange.getRequestHeaders().getFirst(settings.tenantHeader());
+        if (path.startsWith(TENANTS_SEGMENT)) {
+            int end = path.indexOf('/', TENANTS_SEGMENT.length());
+            if (end < 0) {
+                write(exchange, 404, fail("未知的接口: " + path));
+                return;
+            }
+            tenantId = path.substring(TENANTS_SEGMENT.length(), end);
+            path = path.substring(end);
+        }
+        if (!path.startsWith(SIGN_SEGMENT)) {
+            write(exchange, 404, fail("未知的接口: " + path));
+            return;
+        }
+        try {
+            SignService service = SignService.fromTag(path.substring(SIGN_SEGMENT.length()).replace('/', '-'));
+            if (!signer.hasTenant(tenantId)) {
+                write(exchange, 200, fail("未知的租户: " + tenantId));
+                return;
+            }
+            Map<String, Object> signed = signer.encrypt(signer.sign(tenantId, service),
+                    exchange.getRequestHeaders().getFirst("Authorization"), encryptionMode);
+            if (signed instanceof SignResult) {
+                // 未加密时直接复用随签名缓存的响应字节
+                write(exchange, 200, ((SignResult) signed).responseBytes());
+                return;
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("errorCode", 0);
+            result.put("data", signed);
+            write(exchange, 200, result);
+        } catch (IllegalArgumentException | CredentialPoolExhaustedException e) {
+            write(exchange, 200, fail(e.getMessage()));
+        } catch (Exception e) {
+            write(exchange, 500, fail("签名失败: " + e.getMessage()));
+        }
+    }
+
+    private static Map<String, Object> fail(String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("errorCode", 1);
+        result.put("message", message);
+        return result;
+    }
+
+    private static void write(HttpExchange exchange, int status, Map<String, ?> body) throws IOException {
+        write(exchange, status, SignJson.toBytes(body));
+    }
+
+    private static void write(HttpExchange exchange, int status, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.xfyun.webapi.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XfyunSignServerTests {
+
+    private XfyunSignServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("server.port", "0");
+        properties.setProperty("xfyun.iat.app-id", "iat-app");
+        properties.setProperty("xfyun.iat.api-key", "iat-key");
+        properties.setProperty("xfyun.iat.api-secret", "iat-secret");
+        properties.setProperty("xfyun.dts.app-id", "dts-app");
+        properties.setProperty("xfyun.dts.api-key", "dts-key");
+        properties.setProperty("xfyun.dts.api-secret", "dts-secret");
+        properties.setProperty("xfyun.tenants.acme.rtasr.app-id", "acme-rtasr");
+        properties.setProperty("xfyun.tenants.acme.rtasr.api-key", "acme-rtasr-key");
+        server = new XfyunSignServer(new ServerSettings(properties));
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void signsWithTheSameResponseShapeAsTheApplication() throws IOException {
+        String iat = get("/api/v1/xfyun/sign/iat", null);
+        assertTrue(iat.startsWith("{\"errorCode\":0,\"data\":{"), iat);
+        assertTrue(iat.contains("\"url\":\"wss://iat-api.xfyun.cn/v2/iat?authorization="), iat);
+        assertTrue(iat.contains("\"appId\":\"iat-app\""), iat);
+
+        String dts = get("/api/v1/xfyun/sign/dts/create", null);
+        assertTrue(dts.contains("\"url\":\"https://api-dx.xf-yun.com/v1/private/dts_create?"), dts);
+
+        String rtasr = get("/api/v1/xfyun/tenants/acme/sign/rtasr", null);
+        assertTrue(rtasr.contains("\"appId\":\"acme-rtasr\""), rtasr);
+        String byHeader = get("/api/v1/xfyun/sign/rtasr", "acme");
+        assertTrue(byHeader.contains("\"appId\":\"acme-rtasr\""), byHeader);
+    }
+
+    @Test
+    void unknownTenantAndServiceAreReportedAsFailures() throws IOException {
+        assertEquals("{\"errorCode\":1,\"message\":\"未知的租户: nobody\"}", get("/api/v1/xfyun/sign/iat", "nobody"));
+        assertEquals("{\"errorCode\":1,\"message\":\"未知的签名服务: asr\"}", get("/api/v1/xfyun/sign/asr", null));
+        assertEquals("{\"status\":\"UP\"}", get("/health", null));
+    }
+
+    private String get(String path, String tenant) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        if (tenant != null) {
+            connection.setRequestProperty("X-Xfyun-Tenant", tenant);
+        }
+        try (InputStream in = connection.getInputStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
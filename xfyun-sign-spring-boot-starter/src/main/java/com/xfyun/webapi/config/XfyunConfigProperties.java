@@ -0,0 +1,664 @@
+package com.xfyun.webapi.config;
+
+import com.xfyun.webapi.sign.Credential;
+import com.xfyun.webapi.sign.CredentialPool;
+import com.xfyun.webapi.sign.CredentialRegistry;
+import com.xfyun.webapi.sign.EncryptionMode;
+import com.xfyun.webapi.sign.SignService;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 讯飞 IAT/TTS/RTASR/DTS 配置属性。
+ *
+ * <p>支持在 Spring 配置文件中使用前缀 {@code xfyun} 进行配置：
+ * <pre>
+ * xfyun:
+ *   iat:
+ *     app-id: xxx
+ *     api-key: xxx
+ *     api-secret: xxx
+ *     pool:
+ *       - app-id: xxx
+ *         api-key: xxx
+ *         api-secret: xxx
+ *         weight: 2
+ *         max-concurrency: 100
+ *   tts:
+ *     app-id: xxx
+ *     api-key: xxx
+ *     api-secret: xxx
+ *   rtasr:
+ *     app-id: xxx
+ *     api-key: xxx
+ *   dts:
+ *     app-id: xxx
+ *     api-key: xxx
+ *     api-secret: xxx
+ *   sign-cache:
+ *     enabled: true
+ *     reuse-window-seconds: 1
+ *     serialized-response: true
+ *   presign:
+ *     enabled: true
+ *     refresh-interval-millis: 200
+ *     ahead-seconds:
+ *       iat: 2
+ *       tts: 2
+ *       rtasr: 2
+ *   tenant-header: X-Xfyun-Tenant
+ *   tenants:
+ *     customer-a:
+ *       iat:
+ *         app-id: xxx
+ *         api-key: xxx
+ *         api-secret: xxx
+ *   reload:
+ *     credentials-file: /etc/xfyun/credentials.yml
+ *     watch: true
+ *   pooling:
+ *     strategy: least-outstanding
+ *     lease-seconds: 60
+ *   encryption:
+ *     mode: none
+ *     key-cache-size: 1024
+ *     key-cache-ttl-seconds: 600
+ * </pre>
+ * </p>
+ * 
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@ConfigurationProperties(prefix = "xfyun")
+public class XfyunConfigProperties {
+
+    private Iat iat = new Iat();
+    private Tts tts = new Tts();
+    private Rtasr rtasr = new Rtasr();
+    private Dts dts = new Dts();
+    private SignCache signCache = new SignCache();
+    private Presign presign = new Presign();
+    private Encryption encryption = new Encryption();
+    private Reload reload = new Reload();
+    private Pooling pooling = new Pooling();
+    private String tenantHeader = "X-Xfyun-Tenant";
+    private Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    public Iat getIat() {
+        return iat;
+    }
+
+    public void setIat(Iat iat) {
+        this.iat = iat;
+    }
+
+    public Tts getTts() {
+        return tts;
+    }
+
+    public void setTts(Tts tts) {
+        this.tts = tts;
+    }
+
+    public Rtasr getRtasr() {
+        return rtasr;
+    }
+
+    public void setRtasr(Rtasr rtasr) {
+        this.rtasr = rtasr;
+    }
+
+    public Dts getDts() {
+        return dts;
+    }
+
+    public void setDts(Dts dts) {
+        this.dts = dts;
+    }
+
+    public SignCache getSignCache() {
+        return signCache;
+    }
+
+    public void setSignCache(SignCache signCache) {
+        this.signCache = signCache;
+    }
+
+    public Presign getPresign() {
+        return presign;
+    }
+
+    public void setPresign(Presign presign) {
+        this.presign = presign;
+    }
+
+    public Reload getReload() {
+        return reload;
+    }
+
+    public void setReload(Reload reload) {
+        this.reload = reload;
+    }
+
+    public Pooling getPooling() {
+        return pooling;
+    }
+
+    public void setPooling(Pooling pooling) {
+        this.pooling = pooling;
+    }
+
+    public String getTenantHeader() {
+        return tenantHeader;
+    }
+
+    public void setTenantHeader(String tenantHeader) {
+        this.tenantHeader = tenantHeader;
+    }
+
+    public Map<String, Tenant> getTenants() {
+        return tenants;
+    }
+
+    public void setTenants(Map<String, Tenant> tenants) {
+        this.tenants = tenants;
+    }
+
+    /**
+     * 汇总所有租户的凭证池，顶层 iat/tts/rtasr/dts 作为默认租户
+     *
+     * <p>服务配置了 {@code pool} 时使用池中成员，否则以单个凭证组成权重为1、不限并发的池。</p>
+     *
+     * @return 以租户标识为键的各服务凭证池成员
+     */
+    public Map<String, Map<SignService, List<CredentialPool.Spec>>> tenantCredentials() {
+        Map<String, Map<SignService, List<CredentialPool.Spec>>> result = new LinkedHashMap<>();
+        result.put(CredentialRegistry.DEFAULT_TENANT, credentialsOf(iat, tts, rtasr, dts));
+        for (Map.Entry<String, Tenant> entry : tenants.entrySet()) {
+            if (CredentialRegistry.DEFAULT_TENANT.equals(entry.getKey())) {
+                throw new IllegalArgumentException("租户标识 " + CredentialRegistry.DEFAULT_TENANT + " 保留给顶层配置");
+            }
+            Tenant tenant = entry.getValue();
+            result.put(entry.getKey(), credentialsOf(tenant.getIat(), tenant.getTts(), tenant.getRtasr(), tenant.getDts()));
+        }
+        return result;
+    }
+
+    private static Map<SignService, List<CredentialPool.Spec>> credentialsOf(Iat iat, Tts tts, Rtasr rtasr, Dts dts) {
+        Map<SignService, List<CredentialPool.Spec>> credentials = new EnumMap<>(SignService.class);
+        credentials.put(SignService.IAT, specsOf(iat.getPool(), new Credential(iat.getAppId(), iat.getApiKey(), iat.getApiSecret()), true));
+        credentials.put(SignService.TTS, specsOf(tts.getPool(), new Credential(tts.getAppId(), tts.getApiKey(), tts.getApiSecret()), true));
+        credentials.put(SignService.RTASR, specsOf(rtasr.getPool(), new Credential(rtasr.getAppId(), rtasr.getApiKey(), null), false));
+        List<CredentialPool.Spec> dtsSpecs = specsOf(dts.getPool(), new Credential(dts.getAppId(), dts.getApiKey(), dts.getApiSecret()), true);
+        credentials.put(SignService.DTS_CREATE, dtsSpecs);
+        credentials.put(SignService.DTS_QUERY, dtsSpecs);
+        return credentials;
+    }
+
+    private static List<CredentialPool.Spec> specsOf(List<PoolMember> pool, Credential single, boolean withSecret) {
+        if (pool == null || pool.isEmpty()) {
+            return Collections.singletonList(new CredentialPool.Spec(single, 1, 0));
+        }
+        List<CredentialPool.Spec> specs = new ArrayList<>(pool.size());
+        for (PoolMember member : pool) {
+            Credential credential = new Credential(member.getAppId(), member.getApiKey(), withSecret ? member.getApiSecret() : null);
+            specs.add(new CredentialPool.Spec(credential, member.getWeight(), member.getMaxConcurrency()));
+        }
+        return specs;
+    }
+
+    public Encryption getEncryption() {
+        return encryption;
+    }
+
+    public void setEncryption(Encryption encryption) {
+        this.encryption = encryption;
+    }
+
+    /**
+     * IAT(语音听写) 配置。
+     */
+    public static class Iat {
+        private String appId;
+        private String apiKey;
+        private String apiSecret;
+        private List<PoolMember> pool = new ArrayList<>();
+
+        public String getAppId() {
+            return appId;
+        }
+
+        public void setAppId(String appId) {
+            this.appId = appId;
+        }
+
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        public void setApiKey(String apiKey) {
+            this.apiKey = apiKey;
+        }
+
+        public String getApiSecret() {
+            return apiSecret;
+        }
+
+        public void setApiSecret(String apiSecret) {
+            this.apiSecret = apiSecret;
+        }
+
+        public List<PoolMember> getPool() {
+            return pool;
+        }
+
+        public void setPool(List<PoolMember> pool) {
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * TTS(语音合成) 配置。
+     */
+    public static class Tts {
+        private String appId;
+        private String apiKey;
+        private String apiSecret;
+        private List<PoolMember> pool = new ArrayList<>();
+
+        public String getAppId() {
+            return appId;
+        }
+
+        public void setAppId(String appId) {
+            this.appId = appId;
+        }
+
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        public void setApiKey(String apiKey) {
+            this.apiKey = apiKey;
+        }
+
+        public String getApiSecret() {
+            return apiSecret;
+        }
+
+        public void setApiSecret(String apiSecret) {
+            this.apiSecret = apiSecret;
+        }
+
+        public List<PoolMember> getPool() {
+            return pool;
+        }
+
+        public void setPool(List<PoolMember> pool) {
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * RTASR(实时语音转写) 配置。
+     */
+    public static class Rtasr {
+        private String appId;
+        private String apiKey;
+        private List<PoolMember> pool = new ArrayList<>();
+
+        public String getAppId() {
+            return appId;
+        }
+
+        public void setAppId(String appId) {
+            this.appId = appId;
+        }
+
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        public void setApiKey(String apiKey) {
+            this.apiKey = apiKey;
+        }
+
+        public List<PoolMember> getPool() {
+            return pool;
+        }
+
+        public void setPool(List<PoolMember> pool) {
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * DTS(长文本语音合成) 配置。
+     */
+    public static class Dts {
+        private String appId;
+        private String apiKey;
+        private String apiSecret;
+        private List<PoolMember> pool = new ArrayList<>();
+
+        public String getAppId() {
+            return appId;
+        }
+
+        public void setAppId(String appId) {
+            this.appId = appId;
+        }
+
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        public void setApiKey(String apiKey) {
+            this.apiKey = apiKey;
+        }
+
+        public String getApiSecret() {
+            return apiSecret;
+        }
+
+        public void setApiSecret(String apiSecret) {
+            this.apiSecret = apiSecret;
+        }
+
+        public List<PoolMember> getPool() {
+            return pool;
+        }
+
+        public void setPool(List<PoolMember> pool) {
+            this.pool = pool;
+        }
+    }
+
+    /**
+     * 租户凭证配置。
+     *
+     * <p>结构与顶层 iat/tts/rtasr/dts 相同，请求通过租户请求头或 {@code /tenants/{tenant}/sign/...} 路径选择。</p>
+     */
+    public static class Tenant {
+        private Iat iat = new Iat();
+        private Tts tts = new Tts();
+        private Rtasr rtasr = new Rtasr();
+        private Dts dts = new Dts();
+
+        public Iat getIat() {
+            return iat;
+        }
+
+        public void setIat(Iat iat) {
+            this.iat = iat;
+        }
+
+        public Tts getTts() {
+            return tts;
+        }
+
+        public void setTts(Tts tts) {
+            this.tts = tts;
+        }
+
+        public Rtasr getRtasr() {
+            return rtasr;
+        }
+
+        public void setRtasr(Rtasr rtasr) {
+            this.rtasr = rtasr;
+        }
+
+        public Dts getDts() {
+            return dts;
+        }
+
+        public void setDts(Dts dts) {
+            this.dts = dts;
+        }
+    }
+
+    /**
+     * 凭证池成员配置。
+     *
+     * <p>RTASR 只使用 app-id 与 api-key；{@code max-concurrency} 为 0 表示不限。</p>
+     */
+    public static class PoolMember {
+        private String appId;
+        private String apiKey;
+        private String apiSecret;
+        private int weight = 1;
+        private int maxConcurrency;
+
+        public String getAppId() {
+            return appId;
+        }
+
+        public void setAppId(String appId) {
+            this.appId = appId;
+        }
+
+        public String getApiKey() {
+            return apiKey;
+        }
+
+        public void setApiKey(String apiKey) {
+            this.apiKey = apiKey;
+        }
+
+        public String getApiSecret() {
+            return apiSecret;
+        }
+
+        public void setApiSecret(String apiSecret) {
+            this.apiSecret = apiSecret;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    /**
+     * 凭证池选择配置。
+     *
+     * <p>{@code strategy} 取 round-robin（加权轮询）或 least-outstanding（加权最少在途）；
+     * 签名URL由客户端自行建连，一次签出在 {@code lease-seconds} 秒内计为该凭证的在途会话。</p>
+     */
+    public static class Pooling {
+        private CredentialPool.Strategy strategy = CredentialPool.Strategy.LEAST_OUTSTANDING;
+        private int leaseSeconds = 60;
+
+        public CredentialPool.Strategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(CredentialPool.Strategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public int getLeaseSeconds() {
+            return leaseSeconds;
+        }
+
+        public void setLeaseSeconds(int leaseSeconds) {
+            this.leaseSeconds = leaseSeconds;
+        }
+    }
+
+    /**
+     * 签名结果缓存配置。
+     *
+     * <p>同一服务、凭证在同一复用窗口内共享一份签名，窗口须在讯飞允许的时钟偏差之内。</p>
+     */
+    public static class SignCache {
+        private boolean enabled = true;
+        private int reuseWindowSeconds = 1;
+        /** 未加密时直接输出随签名缓存的响应 JSON 字节，跳过 Jackson 序列化 */
+        private boolean serializedResponse = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getReuseWindowSeconds() {
+            return reuseWindowSeconds;
+        }
+
+        public void setReuseWindowSeconds(int reuseWindowSeconds) {
+            this.reuseWindowSeconds = reuseWindowSeconds;
+        }
+
+        public boolean isSerializedResponse() {
+            return serializedResponse;
+        }
+
+        public void setSerializedResponse(boolean serializedResponse) {
+            this.serializedResponse = serializedResponse;
+        }
+    }
+
+    /**
+     * 后台预签名配置。
+     *
+     * <p>{@code ahead-seconds} 以服务标签（iat、tts、rtasr、dts-create、dts-query）为键，
+     * 表示提前签好的秒数；未列出或为 0 的服务不预签名。</p>
+     */
+    public static class Presign {
+        private boolean enabled = true;
+        private long refreshIntervalMillis = 200;
+        private Map<String, Integer> aheadSeconds = defaultAheadSeconds();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getRefreshIntervalMillis() {
+            return refreshIntervalMillis;
+        }
+
+        public void setRefreshIntervalMillis(long refreshIntervalMillis) {
+            this.refreshIntervalMillis = refreshIntervalMillis;
+        }
+
+        public Map<String, Integer> getAheadSeconds() {
+            return aheadSeconds;
+        }
+
+        public void setAheadSeconds(Map<String, Integer> aheadSeconds) {
+            this.aheadSeconds = aheadSeconds;
+        }
+
+        /**
+         * 获取指定服务的预签名秒数
+         *
+         * @param tag 服务标签
+         * @return 预签名秒数，未配置返回0
+         */
+        public int aheadSecondsOf(String tag) {
+            Integer value = aheadSeconds.get(tag);
+            return value == null ? 0 : Math.max(0, value);
+        }
+
+        private static Map<String, Integer> defaultAheadSeconds() {
+            Map<String, Integer> defaults = new LinkedHashMap<>();
+            defaults.put("iat", 2);
+            defaults.put("tts", 2);
+            defaults.put("rtasr", 2);
+            return defaults;
+        }
+    }
+
+    /**
+     * 响应加密配置。
+     *
+     * <p>{@code mode} 取值 none（不加密）、field（逐字段十六进制，兼容旧客户端）、
+     * envelope（整体一次加密，Base64 信封），运行时读取。</p>
+     * <p>按授权令牌缓存派生密钥与已初始化的 Cipher，条目写入后 {@code key-cache-ttl-seconds} 过期，
+     * 超过 {@code key-cache-size} 时淘汰最久未使用的条目。</p>
+     */
+    public static class Encryption {
+        private EncryptionMode mode = EncryptionMode.NONE;
+        private int keyCacheSize = 1024;
+        private long keyCacheTtlSeconds = 600;
+
+        public EncryptionMode getMode() {
+            return mode;
+        }
+
+        public void setMode(EncryptionMode mode) {
+            this.mode = mode == null ? EncryptionMode.NONE : mode;
+        }
+
+        public int getKeyCacheSize() {
+            return keyCacheSize;
+        }
+
+        public void setKeyCacheSize(int keyCacheSize) {
+            this.keyCacheSize = keyCacheSize;
+        }
+
+        public long getKeyCacheTtlSeconds() {
+            return keyCacheTtlSeconds;
+        }
+
+        public void setKeyCacheTtlSeconds(long keyCacheTtlSeconds) {
+            this.keyCacheTtlSeconds = keyCacheTtlSeconds;
+        }
+    }
+
+    /**
+     * 凭证热加载配置。
+     *
+     * <p>{@code credentials-file} 为 YAML 或 properties 文件，结构与 {@code xfyun} 前缀下的
+     * iat/tts/rtasr/dts/tenants 相同，其中的值覆盖应用配置。启动时加载一次，
+     * {@code watch} 开启时监听文件变化自动重新加载，也可调用刷新接口手动加载。</p>
+     */
+    public static class Reload {
+        private String credentialsFile;
+        private boolean watch = true;
+
+        public String getCredentialsFile() {
+            return credentialsFile;
+        }
+
+        public void setCredentialsFile(String credentialsFile) {
+            this.credentialsFile = credentialsFile;
+        }
+
+        public boolean isWatch() {
+            return watch;
+        }
+
+        public void setWatch(boolean watch) {
+            this.watch = watch;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.xfyun.webapi.config;
+
+import com.xfyun.webapi.sign.CredentialPool;
+import com.xfyun.webapi.sign.CredentialRegistry;
+import com.xfyun.webapi.sign.EncryptionKeyCache;
+import com.xfyun.webapi.sign.HttpDateClock;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.SignatureCache;
+import com.xfyun.webapi.sign.TenantCredentials;
+import com.xfyun.webapi.sign.XfyunSigner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 讯飞签名自动装配。
+ *
+ * <p>启用 {@link XfyunConfigProperties} 的属性绑定，并装配签名时钟、租户凭证、签名缓存、加密密钥缓存
+ * 与签名入口 {@link XfyunSigner}。缓存指标见 {@link XfyunMetricsConfiguration}。</p>
+ * 
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(XfyunConfigProperties.class)
+public class XfyunConfiguration {
+
+    /**
+     * 签名使用的秒级HTTP日期时钟；容器中存在 {@link Clock} 时以其为时间来源（测试可注入可调时钟）
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpDateClock httpDateClock(ObjectProvider<Clock> clock) {
+        return new HttpDateClock(clock.getIfAvailable(Clock::systemUTC));
+    }
+
+    /**
+     * 多租户凭证注册表，启动时为每个租户准备好签名状态
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public CredentialRegistry credentialRegistry(XfyunConfigProperties properties, HttpDateClock httpDateClock) {
+        return new CredentialRegistry(tenantsOf(properties, httpDateClock.getClock()));
+    }
+
+    /**
+     * 按配置构建租户快照
+     *
+     * @param properties 配置属性
+     * @param clock 凭证池统计在途数的时间来源
+     * @return 以租户标识为键的租户凭证
+     */
+    public static Map<String, TenantCredentials> tenantsOf(XfyunConfigProperties properties, Clock clock) {
+        XfyunConfigProperties.Pooling pooling = properties.getPooling();
+        Map<String, TenantCredentials> tenants = new HashMap<>();
+        for (Map.Entry<String, Map<SignService, List<CredentialPool.Spec>>> entry : properties.tenantCredentials().entrySet()) {
+            tenants.put(entry.getKey(), new TenantCredentials(entry.getKey(), entry.getValue(),
+                    pooling.getStrategy(), pooling.getLeaseSeconds(), clock));
+        }
+        return tenants;
+    }
+
+    /**
+     * 签名结果缓存
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SignatureCache signatureCache(XfyunConfigProperties properties) {
+        return new SignatureCache(properties.getSignCache().getReuseWindowSeconds());
+    }
+
+    /**
+     * 响应加密密钥缓存
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public EncryptionKeyCache encryptionKeyCache(XfyunConfigProperties properties, HttpDateClock httpDateClock) {
+        XfyunConfigProperties.Encryption encryption = properties.getEncryption();
+        return new EncryptionKeyCache(encryption.getKeyCacheSize(),
+                TimeUnit.SECONDS.toMillis(encryption.getKeyCacheTtlSeconds()), httpDateClock.getClock());
+    }
+
+    /**
+     * 签名入口：按配置开关签名缓存，并启动后台预签名，容器关闭时停止
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    public XfyunSigner xfyunSigner(XfyunConfigProperties properties, CredentialRegistry credentialRegistry, HttpDateClock httpDateClock,
+                                   SignatureCache signatureCache, EncryptionKeyCache encryptionKeyCache) {
+        XfyunSigner signer = new XfyunSigner(credentialRegistry, httpDateClock, signatureCache, encryptionKeyCache);
+        signer.setCacheEnabled(properties.getSignCache().isEnabled());
+        XfyunConfigProperties.Presign presign = properties.getPresign();
+        if (presign.isEnabled()) {
+            signer.startPresigner(service -> presign.aheadSecondsOf(service.tag()), presign.getRefreshIntervalMillis());
+        }
+        return signer;
+    }
+}
@@ -0,0 +1,68 @@
+package com.xfyun.webapi.config;
+
+import com.xfyun.webapi.sign.EncryptionKeyCache;
+import com.xfyun.webapi.sign.SignatureCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 讯飞签名缓存指标自动装配。
+ *
+ * <p>仅在类路径上存在 Micrometer 时生效，将签名缓存与加密密钥缓存的命中情况发布到 /actuator/metrics。</p>
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@AutoConfiguration(after = XfyunConfiguration.class)
+@ConditionalOnClass(MeterBinder.class)
+public class XfyunMetricsConfiguration {
+
+    /**
+     * 将签名缓存命中/未命中/合并次数发布到 /actuator/metrics
+     */
+    @Bean
+    public MeterBinder signatureCacheMetrics(SignatureCache signatureCache) {
+        return registry -> {
+            FunctionCounter.builder("xfyun.sign.cache.requests", signatureCache, SignatureCache::hitCount)
+                    .tag("result", "hit")
+                    .description("签名缓存命中次数")
+                    .register(registry);
+            FunctionCounter.builder("xfyun.sign.cache.requests", signatureCache, SignatureCache::missCount)
+                    .tag("result", "miss")
+                    .description("签名缓存未命中次数")
+                    .register(registry);
+            FunctionCounter.builder("xfyun.sign.cache.requests", signatureCache, SignatureCache::coalescedCount)
+                    .tag("result", "coalesced")
+                    .description("等待同键在途签名计算的次数")
+                    .register(registry);
+            Gauge.builder("xfyun.sign.cache.size", signatureCache, SignatureCache::size)
+                    .description("签名缓存当前条目数")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 将加密密钥缓存命中/未命中次数发布到 /actuator/metrics
+     */
+    @Bean
+    public MeterBinder encryptionKeyCacheMetrics(EncryptionKeyCache encryptionKeyCache) {
+        return registry -> {
+            FunctionCounter.builder("xfyun.encryption.key-cache.requests", encryptionKeyCache, EncryptionKeyCache::hitCount)
+                    .tag("result", "hit")
+                    .description("加密密钥缓存命中次数")
+                    .register(registry);
+            FunctionCounter.builder("xfyun.encryption.key-cache.requests", encryptionKeyCache, EncryptionKeyCache::missCount)
+                    .tag("result", "miss")
+                    .description("加密密钥缓存未命中次数")
+                    .register(registry);
+            Gauge.builder("xfyun.encryption.key-cache.size", encryptionKeyCache, EncryptionKeyCache::size)
+                    .description("加密密钥缓存当前条目数")
+                    .register(registry);
+        };
+    }
+}
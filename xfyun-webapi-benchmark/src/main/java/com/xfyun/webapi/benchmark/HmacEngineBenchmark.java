@@ -0,0 +1,84 @@
+package com.xfyun.webapi.benchmark;
+
+import com.xfyun.webapi.sign.HmacEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HMAC 引擎前后对比基准
+ *
+ * legacy* 为改造前每次 getInstance + init 的写法，engine* 为 {@link HmacEngine}。
+ * 运行：{@code mvn -Pbenchmark -pl xfyun-webapi-benchmark -am verify -DskipTests -Djmh.includes=HmacEngine}
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class HmacEngineBenchmark {
+
+    private static final String SECRET = "benchmark-api-secret-0123456789";
+    private static final String ORIGIN = "host: iat-api.xfyun.cn\ndate: Mon, 01 Jan 2024 12:00:00 GMT\nGET /v2/iat HTTP/1.1";
+
+    private HmacEngine sha256;
+    private HmacEngine sha1;
+
+    @Setup
+    public void setUp() throws Exception {
+        sha256 = HmacEngine.create(HmacEngine.HMAC_SHA256, SECRET);
+        sha1 = HmacEngine.create(HmacEngine.HMAC_SHA1, SECRET);
+    }
+
+    @Benchmark
+    public String legacySha256() throws Exception {
+        return legacy(HmacEngine.HMAC_SHA256);
+    }
+
+    @Benchmark
+    public String engineSha256() {
+        return sha256.signBase64(ORIGIN);
+    }
+
+    @Benchmark
+    public String legacySha1() throws Exception {
+        return legacy(HmacEngine.HMAC_SHA1);
+    }
+
+    @Benchmark
+    public String engineSha1() {
+        return sha1.signBase64(ORIGIN);
+    }
+
+    private static String legacy(String algorithm) throws Exception {
+        Mac mac = Mac.getInstance(algorithm);
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), algorithm));
+        return Base64.getEncoder().encodeToString(mac.doFinal(ORIGIN.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(HmacEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
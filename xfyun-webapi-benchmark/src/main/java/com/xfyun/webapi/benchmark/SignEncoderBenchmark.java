@@ -0,0 +1,96 @@
+package com.xfyun.webapi.benchmark;
+
+import com.xfyun.webapi.sign.HmacEngine;
+import com.xfyun.webapi.sign.SignEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 签名URL构建前后对比基准
+ *
+ * legacy* 为改造前 String.format + 拼接 + URLEncoder 的写法，encoder* 为 {@link SignEncoder}。
+ * 重点关注 {@code -prof gc} 输出的 gc.alloc.rate.norm（每次调用分配字节数）。
+ * 运行：{@code mvn -Pbenchmark -pl xfyun-webapi-benchmark -am verify -DskipTests -Djmh.includes=SignEncoder}
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SignEncoderBenchmark {
+
+    private static final String HOST = "iat-api.xfyun.cn";
+    private static final String PATH = "/v2/iat";
+    private static final String BASE_URL = "wss://" + HOST + PATH;
+    private static final String RTASR_URL = "wss://rtasr.xfyun.cn/v1/ws";
+    private static final String DATE = "Mon, 01 Jan 2024 12:00:00 GMT";
+    private static final String APP_ID = "benchmark-app-id";
+    private static final String API_KEY = "benchmark-api-key-0123456789abcdef";
+    private static final long TS = 1704110400L;
+
+    private HmacEngine sha256;
+    private HmacEngine sha1;
+
+    @Setup
+    public void setUp() throws Exception {
+        sha256 = HmacEngine.create(HmacEngine.HMAC_SHA256, "benchmark-api-secret-0123456789");
+        sha1 = HmacEngine.create(HmacEngine.HMAC_SHA1, API_KEY);
+    }
+
+    @Benchmark
+    public String legacyWsUrl() throws Exception {
+        String signatureOrigin = String.format("host: %s\ndate: %s\nGET %s HTTP/1.1", HOST, DATE, PATH);
+        String signature = sha256.signBase64(signatureOrigin);
+        String authorizationOrigin = String.format("api_key=\"%s\", algorithm=\"hmac-sha256\", headers=\"host date request-line\", signature=\"%s\"", API_KEY, signature);
+        String authB64 = Base64.getEncoder().encodeToString(authorizationOrigin.getBytes(StandardCharsets.UTF_8));
+        return BASE_URL + "?authorization=" + URLEncoder.encode(authB64, "UTF-8") + "&date=" + URLEncoder.encode(DATE, "UTF-8") + "&host=" + HOST;
+    }
+
+    @Benchmark
+    public String encoderWsUrl() {
+        return SignEncoder.get().authorize(sha256.mac(), HOST, DATE, "GET", PATH, API_KEY).authorizedUrl(BASE_URL, DATE, HOST);
+    }
+
+    @Benchmark
+    public String legacyRtasrUrl() throws Exception {
+        byte[] md5 = MessageDigest.getInstance("MD5").digest((APP_ID + TS).getBytes());
+        StringBuilder hex = new StringBuilder(md5.length * 2);
+        for (byte b : md5) {
+            hex.append(String.format("%02x", b));
+        }
+        String signa = sha1.signBase64(hex.toString());
+        return RTASR_URL + "?appid=" + URLEncoder.encode(APP_ID, "UTF-8") + "&ts=" + TS + "&signa=" + URLEncoder.encode(signa, "UTF-8") + "&pd=edu";
+    }
+
+    @Benchmark
+    public String encoderRtasrUrl() {
+        return SignEncoder.get().rtasrSigna(sha1.mac(), APP_ID, TS).rtasrUrl(RTASR_URL, APP_ID, TS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(SignEncoderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
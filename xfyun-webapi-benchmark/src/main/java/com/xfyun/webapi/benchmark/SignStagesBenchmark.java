@@ -0,0 +1,113 @@
+package com.xfyun.webapi.benchmark;
+
+import com.xfyun.webapi.sign.EncryptionKeyCache;
+import com.xfyun.webapi.sign.HmacEngine;
+import com.xfyun.webapi.sign.HttpDateClock;
+import com.xfyun.webapi.sign.SignUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 签名链路各阶段基准
+ *
+ * 日期格式化（每次格式化与按秒缓存）、HMAC、MD5、Base64、URL编码、十六进制与AES加密（每次初始化与按令牌缓存）分别测量，
+ * 配合 {@code -prof gc} 查看每次操作的分配字节数。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignStagesBenchmark {
+
+    private static final String ORIGIN = "host: iat-api.xfyun.cn\ndate: Mon, 01 Jan 2024 12:00:00 GMT\nGET /v2/iat HTTP/1.1";
+    private static final String AUTHORIZATION_ORIGIN = "api_key=\"benchmark-api-key\", algorithm=\"hmac-sha256\", "
+            + "headers=\"host date request-line\", signature=\"Zm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm8=\"";
+    private static final String KEY16 = "0123456789abcdef";
+
+    private HmacEngine sha256;
+    private HmacEngine sha1;
+    private String authB64;
+    private byte[] digest;
+    private long epochSecond;
+    private HttpDateClock httpDateClock;
+    private EncryptionKeyCache encryptionKeyCache;
+
+    @Setup
+    public void setUp() throws Exception {
+        sha256 = HmacEngine.create(HmacEngine.HMAC_SHA256, "benchmark-api-secret");
+        sha1 = HmacEngine.create(HmacEngine.HMAC_SHA1, "benchmark-api-key");
+        authB64 = SignUtils.base64(AUTHORIZATION_ORIGIN);
+        digest = sha256.sign(ORIGIN.getBytes(StandardCharsets.UTF_8));
+        epochSecond = System.currentTimeMillis() / 1000;
+        httpDateClock = HttpDateClock.systemUTC();
+        encryptionKeyCache = new EncryptionKeyCache(16, TimeUnit.MINUTES.toMillis(10), Clock.systemUTC());
+    }
+
+    @Benchmark
+    public String httpDateFormat() {
+        return HttpDateClock.format(epochSecond);
+    }
+
+    @Benchmark
+    public String httpDateCached() {
+        return httpDateClock.tick().getDate();
+    }
+
+    @Benchmark
+    public String hmacSha256() {
+        return sha256.signBase64(ORIGIN);
+    }
+
+    @Benchmark
+    public String hmacSha1() {
+        return sha1.signBase64(ORIGIN);
+    }
+
+    @Benchmark
+    public String md5() throws Exception {
+        return SignUtils.md5("benchmark-app-id" + epochSecond);
+    }
+
+    @Benchmark
+    public String base64() {
+        return SignUtils.base64(AUTHORIZATION_ORIGIN);
+    }
+
+    @Benchmark
+    public String urlEncode() {
+        return SignUtils.urlEncode(authB64);
+    }
+
+    @Benchmark
+    public String bytesToHex() {
+        return SignUtils.bytesToHex(digest);
+    }
+
+    @Benchmark
+    public String aesEncryptToHex() throws Exception {
+        return SignUtils.aesEncryptToHex(authB64, KEY16);
+    }
+
+    @Benchmark
+    public String aesCachedKeyToHex() throws Exception {
+        return encryptionKeyCache.get("Bearer benchmark-token").encryptToHex(authB64);
+    }
+}
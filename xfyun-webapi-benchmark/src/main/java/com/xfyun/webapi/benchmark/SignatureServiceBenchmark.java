@@ -0,0 +1,102 @@
+package com.xfyun.webapi.benchmark;
+
+import com.xfyun.webapi.XfyunWebapiApplication;
+import com.xfyun.webapi.service.XfyunSignatureService;
+import com.xfyun.webapi.sign.SignService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 签名服务公开方法的端到端基准
+ *
+ * cached=false 时关闭签名缓存与预签名，测量每次完整计算的开销；
+ * cached=true 为线上默认配置，测量请求路径的实际开销。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class SignatureServiceBenchmark {
+
+    private static final List<SignService> SESSION_SERVICES = Arrays.asList(SignService.IAT, SignService.TTS, SignService.RTASR);
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private ConfigurableApplicationContext context;
+    private XfyunSignatureService service;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(XfyunWebapiApplication.class)
+                .web(WebApplicationType.NONE)
+                // 以命令行参数传入，优先级高于 application.yml
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.xfyun.webapi=WARN",
+                        "--xfyun.sign-cache.enabled=" + cached,
+                        "--xfyun.presign.enabled=" + cached);
+        service = context.getBean(XfyunSignatureService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> iat() throws Exception {
+        return service.generateIatSignature(null);
+    }
+
+    @Benchmark
+    public Map<String, Object> tts() throws Exception {
+        return service.generateTtsSignature(null);
+    }
+
+    @Benchmark
+    public Map<String, Object> rtasr() throws Exception {
+        return service.generateRtasrSignature(null);
+    }
+
+    @Benchmark
+    public Map<String, Object> dtsCreate() throws Exception {
+        return service.generateDtsCreateSignature(null);
+    }
+
+    @Benchmark
+    public Map<String, Object> dtsQuery() throws Exception {
+        return service.generateDtsQuerySignature(null);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Object>> batch() throws Exception {
+        return service.generateBatchSignature(SESSION_SERVICES, null);
+    }
+}
@@ -1,7 +1,9 @@
 package com.xfyun.webapi;
 
+import com.xfyun.webapi.config.XfyunWebapiProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 /**
  * 科大讯飞WebAPI后端服务启动类
@@ -13,6 +15,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @since 2025-09-15
  */
 @SpringBootApplication
+@EnableConfigurationProperties(XfyunWebapiProperties.class)
 public class XfyunWebapiApplication {
 
     public static void main(String[] args) {
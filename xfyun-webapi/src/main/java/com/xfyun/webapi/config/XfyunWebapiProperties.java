@@ -0,0 +1,685 @@
+package com.xfyun.webapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 讯飞 WebAPI 服务自身功能的配置属性。
+ *
+ * <p>凭证、签名缓存、预签名、加密等签名相关配置由 starter 的 {@link XfyunConfigProperties} 提供；
+ * 这里只有本服务的预热、HTTP 缓存、签名推送、DTS 任务、语音合成与 WebSocket 中继等配置，
+ * 同样使用前缀 {@code xfyun}：
+ * <pre>
+ * xfyun:
+ *   warmup:
+ *     enabled: true
+ *     iterations: 2000
+ *     timeout-millis: 5000
+ *   http-cache:
+ *     enabled: true
+ *     margin-seconds: 60
+ *   stream:
+ *     refresh-margin-seconds: 60
+ *     heartbeat-seconds: 15
+ *     timeout-millis: 1800000
+ *     sender-threads: 4
+ *   dts-tasks:
+ *     min-poll-millis: 1000
+ *     max-poll-millis: 15000
+ *     backoff-multiplier: 1.5
+ *     query-concurrency: 8
+ *     webhook-hosts: [callback.example.com]
+ *   dts-pipeline:
+ *     chunk-chars: 2000
+ *     first-chunk-chars: 300
+ *     chunk-concurrency: 4
+ *     max-concurrent-chunks: 32
+ *   tts-synthesis:
+ *     default-vcn: xiaoyan
+ *     memory-max-bytes: 67108864
+ *     disk-directory: /var/cache/xfyun-tts
+ *     disk-max-bytes: 1073741824
+ *   relay:
+ *     enabled: false
+ *     max-sessions: 50000
+ *     buffer-bytes: 4096
+ *     pool-buffers: 16384
+ *     max-pending-bytes: 65536
+ * </pre>
+ * </p>
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@ConfigurationProperties(prefix = "xfyun")
+public class XfyunWebapiProperties {
+
+    private Warmup warmup = new Warmup();
+    private HttpCache httpCache = new HttpCache();
+    private Stream stream = new Stream();
+    private DtsTasks dtsTasks = new DtsTasks();
+    private DtsPipeline dtsPipeline = new DtsPipeline();
+    private TtsSynthesis ttsSynthesis = new TtsSynthesis();
+    private Relay relay = new Relay();
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Warmup warmup) {
+        this.warmup = warmup;
+    }
+
+    public HttpCache getHttpCache() {
+        return httpCache;
+    }
+
+    public void setHttpCache(HttpCache httpCache) {
+        this.httpCache = httpCache;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public void setStream(Stream stream) {
+        this.stream = stream;
+    }
+
+    public DtsTasks getDtsTasks() {
+        return dtsTasks;
+    }
+
+    public void setDtsTasks(DtsTasks dtsTasks) {
+        this.dtsTasks = dtsTasks;
+    }
+
+    public DtsPipeline getDtsPipeline() {
+        return dtsPipeline;
+    }
+
+    public void setDtsPipeline(DtsPipeline dtsPipeline) {
+        this.dtsPipeline = dtsPipeline;
+    }
+
+    public TtsSynthesis getTtsSynthesis() {
+        return ttsSynthesis;
+    }
+
+    public void setTtsSynthesis(TtsSynthesis ttsSynthesis) {
+        this.ttsSynthesis = ttsSynthesis;
+    }
+
+    public Relay getRelay() {
+        return relay;
+    }
+
+    public void setRelay(Relay relay) {
+        this.relay = relay;
+    }
+
+    /**
+     * 启动预热配置。
+     *
+     * <p>就绪状态切换为 ACCEPTING_TRAFFIC 之前，把每个已配置服务的签名、加密与响应序列化各执行
+     * {@code iterations} 轮，总耗时不超过 {@code timeout-millis}。</p>
+     */
+    public static class Warmup {
+        private boolean enabled = true;
+        private int iterations = 2000;
+        private long timeoutMillis = 5000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    /**
+     * 单项签名接口的HTTP缓存配置。
+     *
+     * <p>响应带 {@code Cache-Control: private, max-age} 与 {@code ETag}，max-age 为签名剩余有效期减去
+     * {@code margin-seconds}；携带 {@code If-None-Match} 且所持签名仍在有效期内时返回 304。</p>
+     */
+    public static class HttpCache {
+        private boolean enabled = true;
+        private int marginSeconds = 60;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMarginSeconds() {
+            return marginSeconds;
+        }
+
+        public void setMarginSeconds(int marginSeconds) {
+            this.marginSeconds = marginSeconds;
+        }
+    }
+
+    /**
+     * 签名推送流（SSE）配置。
+     *
+     * <p>签名剩余有效期不足 {@code refresh-margin-seconds} 时重新签名并推送给所有订阅者；
+     * 每 {@code heartbeat-seconds} 秒发送一次注释行保持连接；推送由 {@code sender-threads} 个线程以非阻塞输出写出，
+     * 连接不可写的慢客户端不占用线程。</p>
+     */
+    public static class Stream {
+        private int refreshMarginSeconds = 60;
+        private int heartbeatSeconds = 15;
+        private long timeoutMillis = 1_800_000;
+        private int senderThreads = 4;
+        private long tickMillis = 1000;
+
+        public int getRefreshMarginSeconds() {
+            return refreshMarginSeconds;
+        }
+
+        public void setRefreshMarginSeconds(int refreshMarginSeconds) {
+            this.refreshMarginSeconds = refreshMarginSeconds;
+        }
+
+        public int getHeartbeatSeconds() {
+            return heartbeatSeconds;
+        }
+
+        public void setHeartbeatSeconds(int heartbeatSeconds) {
+            this.heartbeatSeconds = heartbeatSeconds;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+
+        public long getTickMillis() {
+            return tickMillis;
+        }
+
+        public void setTickMillis(long tickMillis) {
+            this.tickMillis = tickMillis;
+        }
+    }
+
+    /**
+     * 服务端 DTS 任务管理配置。
+     *
+     * <p>任务由服务端创建并集中轮询：每 {@code sweep-millis} 执行一轮，只查询到期的任务，同一凭证每轮只签一次查询签名，
+     * 查询并发不超过 {@code query-concurrency}。任务未完成时轮询间隔从 {@code min-poll-millis} 起按
+     * {@code backoff-multiplier} 递增，上限 {@code max-poll-millis}；连续 {@code max-query-errors} 次查询失败视为任务失败。
+     * 任务结束后保留 {@code retention-seconds} 秒。{@code endpoint} 覆盖讯飞 DTS 地址（协议与主机），用于本地联调；
+     * 回调地址的主机须在 {@code webhook-hosts} 中，为空时不接受回调。</p>
+     */
+    public static class DtsTasks {
+        private String endpoint;
+        private String defaultVcn = "x4_yeting";
+        private long sweepMillis = 500;
+        private long minPollMillis = 1000;
+        private long maxPollMillis = 15000;
+        private double backoffMultiplier = 1.5;
+        private int queryConcurrency = 8;
+        private int maxQueryErrors = 5;
+        private int maxActiveTasks = 10000;
+        private long retentionSeconds = 3600;
+        private int connectTimeoutMillis = 3000;
+        private int readTimeoutMillis = 10000;
+        private long watchTimeoutMillis = 1_800_000;
+        private int notifierThreads = 2;
+        private int webhookAttempts = 3;
+        private List<String> webhookHosts = new ArrayList<>();
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getDefaultVcn() {
+            return defaultVcn;
+        }
+
+        public void setDefaultVcn(String defaultVcn) {
+            this.defaultVcn = defaultVcn;
+        }
+
+        public long getSweepMillis() {
+            return sweepMillis;
+        }
+
+        public void setSweepMillis(long sweepMillis) {
+            this.sweepMillis = sweepMillis;
+        }
+
+        public long getMinPollMillis() {
+            return minPollMillis;
+        }
+
+        public void setMinPollMillis(long minPollMillis) {
+            this.minPollMillis = minPollMillis;
+        }
+
+        public long getMaxPollMillis() {
+            return maxPollMillis;
+        }
+
+        public void setMaxPollMillis(long maxPollMillis) {
+            this.maxPollMillis = maxPollMillis;
+        }
+
+        public double getBackoffMultiplier() {
+            return backoffMultiplier;
+        }
+
+        public void setBackoffMultiplier(double backoffMultiplier) {
+            this.backoffMultiplier = backoffMultiplier;
+        }
+
+        public int getQueryConcurrency() {
+            return queryConcurrency;
+        }
+
+        public void setQueryConcurrency(int queryConcurrency) {
+            this.queryConcurrency = queryConcurrency;
+        }
+
+        public int getMaxQueryErrors() {
+            return maxQueryErrors;
+        }
+
+        public void setMaxQueryErrors(int maxQueryErrors) {
+            this.maxQueryErrors = maxQueryErrors;
+        }
+
+        public int getMaxActiveTasks() {
+            return maxActiveTasks;
+        }
+
+        public void setMaxActiveTasks(int maxActiveTasks) {
+            this.maxActiveTasks = maxActiveTasks;
+        }
+
+        public long getRetentionSeconds() {
+            return retentionSeconds;
+        }
+
+        public void setRetentionSeconds(long retentionSeconds) {
+            this.retentionSeconds = retentionSeconds;
+        }
+
+        public int getConnectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        public int getReadTimeoutMillis() {
+            return readTimeoutMillis;
+        }
+
+        public void setReadTimeoutMillis(int readTimeoutMillis) {
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        public long getWatchTimeoutMillis() {
+            return watchTimeoutMillis;
+        }
+
+        public void setWatchTimeoutMillis(long watchTimeoutMillis) {
+            this.watchTimeoutMillis = watchTimeoutMillis;
+        }
+
+        public int getNotifierThreads() {
+            return notifierThreads;
+        }
+
+        public void setNotifierThreads(int notifierThreads) {
+            this.notifierThreads = notifierThreads;
+        }
+
+        public int getWebhookAttempts() {
+            return webhookAttempts;
+        }
+
+        public void setWebhookAttempts(int webhookAttempts) {
+            this.webhookAttempts = webhookAttempts;
+        }
+
+        public List<String> getWebhookHosts() {
+            return webhookHosts;
+        }
+
+        public void setWebhookHosts(List<String> webhookHosts) {
+            this.webhookHosts = webhookHosts;
+        }
+    }
+
+    /**
+     * 分段并行长文本合成配置。
+     *
+     * <p>长文本按句切分，首段不超过 {@code first-chunk-chars} 字以尽早出声，其余每段不超过 {@code chunk-chars} 字；
+     * 单个请求同时进行的分段不超过 {@code chunk-concurrency}，全部请求合计不超过 {@code max-concurrent-chunks}，
+     * 等待全局名额超过 {@code budget-timeout-millis} 时失败。分段音频由 {@code download-threads} 个线程下载。</p>
+     */
+    public static class DtsPipeline {
+        private int chunkChars = 2000;
+        private int firstChunkChars = 300;
+        private int chunkConcurrency = 4;
+        private int maxConcurrentChunks = 32;
+        private long budgetTimeoutMillis = 30000;
+        private int downloadThreads = 8;
+        private int maxTextChars = 100_000;
+
+        public int getChunkChars() {
+            return chunkChars;
+        }
+
+        public void setChunkChars(int chunkChars) {
+            this.chunkChars = chunkChars;
+        }
+
+        public int getFirstChunkChars() {
+            return firstChunkChars;
+        }
+
+        public void setFirstChunkChars(int firstChunkChars) {
+            this.firstChunkChars = firstChunkChars;
+        }
+
+        public int getChunkConcurrency() {
+            return chunkConcurrency;
+        }
+
+        public void setChunkConcurrency(int chunkConcurrency) {
+            this.chunkConcurrency = chunkConcurrency;
+        }
+
+        public int getMaxConcurrentChunks() {
+            return maxConcurrentChunks;
+        }
+
+        public void setMaxConcurrentChunks(int maxConcurrentChunks) {
+            this.maxConcurrentChunks = maxConcurrentChunks;
+        }
+
+        public long getBudgetTimeoutMillis() {
+            return budgetTimeoutMillis;
+        }
+
+        public void setBudgetTimeoutMillis(long budgetTimeoutMillis) {
+            this.budgetTimeoutMillis = budgetTimeoutMillis;
+        }
+
+        public int getDownloadThreads() {
+            return downloadThreads;
+        }
+
+        public void setDownloadThreads(int downloadThreads) {
+            this.downloadThreads = downloadThreads;
+        }
+
+        public int getMaxTextChars() {
+            return maxTextChars;
+        }
+
+        public void setMaxTextChars(int maxTextChars) {
+            this.maxTextChars = maxTextChars;
+        }
+    }
+
+    /**
+     * 服务端 TTS 合成与音频缓存配置。
+     *
+     * <p>合成结果按 (文本, 发音人, 语速, 音量, 音高, 编码, 采样率) 的 SHA-256 寻址缓存，不区分租户。内存层保留最近合成的音频，
+     * 合计不超过 {@code memory-max-bytes}，单条超过 {@code memory-max-entry-bytes} 的只存磁盘；磁盘层位于
+     * {@code disk-directory}，合计超过 {@code disk-max-bytes} 时淘汰最久未访问的文件，淘汰的文件保留 {@code evicted-retain-millis}
+     * 后才删除，留给已返回的 sendfile 打开。磁盘命中且不小于 {@code sendfile-min-bytes} 时交给 Tomcat sendfile 输出，
+     * 否则以 {@code FileChannel.transferTo} 经堆缓冲分块写到响应流；磁盘命中不提升到内存层。</p>
+     */
+    public static class TtsSynthesis {
+        /** 覆盖讯飞 TTS 地址（协议与主机），用于本地联调 */
+        private String endpoint;
+        private String defaultVcn = "xiaoyan";
+        private int maxTextChars = 2000;
+        private long timeoutMillis = 30000;
+        private long memoryMaxBytes = 64L * 1024 * 1024;
+        private int memoryMaxEntryBytes = 1024 * 1024;
+        /** 为空时使用系统临时目录下的 xfyun-tts-cache */
+        private String diskDirectory;
+        private long diskMaxBytes = 1024L * 1024 * 1024;
+        private int sendfileMinBytes = 48 * 1024;
+        private long evictedRetainMillis = 60000;
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getDefaultVcn() {
+            return defaultVcn;
+        }
+
+        public void setDefaultVcn(String defaultVcn) {
+            this.defaultVcn = defaultVcn;
+        }
+
+        public int getMaxTextChars() {
+            return maxTextChars;
+        }
+
+        public void setMaxTextChars(int maxTextChars) {
+            this.maxTextChars = maxTextChars;
+        }
+
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+        public void setTimeoutMillis(long timeoutMillis) {
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        public long getMemoryMaxBytes() {
+            return memoryMaxBytes;
+        }
+
+        public void setMemoryMaxBytes(long memoryMaxBytes) {
+            this.memoryMaxBytes = memoryMaxBytes;
+        }
+
+        public int getMemoryMaxEntryBytes() {
+            return memoryMaxEntryBytes;
+        }
+
+        public void setMemoryMaxEntryBytes(int memoryMaxEntryBytes) {
+            this.memoryMaxEntryBytes = memoryMaxEntryBytes;
+        }
+
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        public long getDiskMaxBytes() {
+            return diskMaxBytes;
+        }
+
+        public void setDiskMaxBytes(long diskMaxBytes) {
+            this.diskMaxBytes = diskMaxBytes;
+        }
+
+        public int getSendfileMinBytes() {
+            return sendfileMinBytes;
+        }
+
+        public void setSendfileMinBytes(int sendfileMinBytes) {
+            this.sendfileMinBytes = sendfileMinBytes;
+        }
+
+        public long getEvictedRetainMillis() {
+            return evictedRetainMillis;
+        }
+
+        public void setEvictedRetainMillis(long evictedRetainMillis) {
+            this.evictedRetainMillis = evictedRetainMillis;
+        }
+    }
+
+    /**
+     * WebSocket 中继配置。
+     *
+     * <p>开启后客户端连接本服务的 {@code /ws/v1/xfyun/relay/{service}}（iat/tts/rtasr），由服务端签名并连接讯飞，双向转发帧。
+     * 同时中继的会话不超过 {@code max-sessions}。二进制帧复制到 {@code buffer-bytes} 大小的池化直接缓冲区后转发，
+     * 空闲缓冲区最多保留 {@code pool-buffers} 个；每个会话每个方向待发送的字节超过 {@code max-pending-bytes} 时
+     * 暂停读取来源连接，降到一半以下再恢复。单条消息不超过 {@code max-message-bytes}。</p>
+     */
+    public static class Relay {
+        private boolean enabled = false;
+        /** 覆盖讯飞 WebSocket 地址（协议与主机），用于本地联调 */
+        private String endpoint;
+        private int maxSessions = 50000;
+        private int bufferBytes = 4096;
+        private int poolBuffers = 16384;
+        private int maxPendingBytes = 65536;
+        private int maxMessageBytes = 65536;
+        private int connectThreads = 16;
+        private long connectTimeoutMillis = 5000;
+        private long idleTimeoutMillis = 60000;
+        private long sendTimeoutMillis = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public int getMaxSessions() {
+            return maxSessions;
+        }
+
+        public void setMaxSessions(int maxSessions) {
+            this.maxSessions = maxSessions;
+        }
+
+        public int getBufferBytes() {
+            return bufferBytes;
+        }
+
+        public void setBufferBytes(int bufferBytes) {
+            this.bufferBytes = bufferBytes;
+        }
+
+        public int getPoolBuffers() {
+            return poolBuffers;
+        }
+
+        public void setPoolBuffers(int poolBuffers) {
+            this.poolBuffers = poolBuffers;
+        }
+
+        public int getMaxPendingBytes() {
+            return maxPendingBytes;
+        }
+
+        public void setMaxPendingBytes(int maxPendingBytes) {
+            this.maxPendingBytes = maxPendingBytes;
+        }
+
+        public int getMaxMessageBytes() {
+            return maxMessageBytes;
+        }
+
+        public void setMaxMessageBytes(int maxMessageBytes) {
+            this.maxMessageBytes = maxMessageBytes;
+        }
+
+        public int getConnectThreads() {
+            return connectThreads;
+        }
+
+        public void setConnectThreads(int connectThreads) {
+            this.connectThreads = connectThreads;
+        }
+
+        public long getConnectTimeoutMillis() {
+            return connectTimeoutMillis;
+        }
+
+        public void setConnectTimeoutMillis(long connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+        }
+
+        public long getIdleTimeoutMillis() {
+            return idleTimeoutMillis;
+        }
+
+        public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+        }
+
+        public long getSendTimeoutMillis() {
+            return sendTimeoutMillis;
+        }
+
+        public void setSendTimeoutMillis(long sendTimeoutMillis) {
+            this.sendTimeoutMillis = sendTimeoutMillis;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.xfyun.webapi.controller;
+
+import com.xfyun.webapi.config.XfyunConfigProperties;
+import com.xfyun.webapi.domain.DtsTask;
+import com.xfyun.webapi.domain.DtsTaskRequest;
+import com.xfyun.webapi.domain.Result;
+import com.xfyun.webapi.service.DtsException;
+import com.xfyun.webapi.service.DtsPipeline;
+import com.xfyun.webapi.service.DtsTaskManager;
+import com.xfyun.webapi.service.SseChannel;
+import com.xfyun.webapi.sign.CredentialPoolExhaustedException;
+import com.xfyun.webapi.sign.SignJson;
+import com.xfyun.webapi.sign.XfyunSigner;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 服务端长文本语音合成(DTS)任务控制器
+ *
+ * 客户端提交文本，由服务端创建讯飞任务并集中轮询，客户端查询本地状态、订阅 SSE 或接收回调，
+ * 无需自行签名轮询 dts_query；长文本也可分段并行合成并以流式响应返回音频。租户选择方式与签名接口相同。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@RestController
+@RequestMapping(value = "/api/v1/xfyun", produces = MediaType.APPLICATION_JSON_VALUE)
+public class DtsTaskController {
+
+    private static final String AUDIO_MPEG_VALUE = "audio/mpeg";
+
+    @Resource
+    private DtsTaskManager dtsTaskManager;
+
+    @Resource
+    private DtsPipeline dtsPipeline;
+
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private XfyunConfigProperties xfyunConfigProperties;
+
+    /**
+     * 创建DTS任务
+     *
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param servletRequest 当前请求
+     * @param request 合成文本与参数
+     * @return 任务快照；参数无效、未知租户或讯飞返回错误时返回失败结果
+     * @throws Exception 签名异常
+     */
+    @PostMapping(value = {"/dts/tasks", "/tenants/{tenant}/dts/tasks"}, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Result<DtsTask> create(@PathVariable(required = false) String tenant, HttpServletRequest servletRequest,
+                                  @RequestBody DtsTaskRequest request) throws Exception {
+        String tenantId = tenantOf(tenant, servletRequest);
+        if (!xfyunSigner.hasTenant(tenantId)) {
+            return Result.fail(1, "未知的租户: " + tenantId);
+        }
+        try {
+            return Result.success(dtsTaskManager.create(tenantId, request));
+        } catch (IllegalArgumentException | CredentialPoolExhaustedException e) {
+            return Result.fail(1, e.getMessage());
+        } catch (IOException | DtsException e) {
+            return Result.fail(1, "DTS任务创建失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询DTS任务状态，只读服务端已轮询到的状态
+     *
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param taskId 任务ID
+     * @param request 当前请求
+     * @return 任务快照，任务不存在时返回失败结果
+     */
+    @GetMapping({"/dts/tasks/{taskId}", "/tenants/{tenant}/dts/tasks/{taskId}"})
+    public Result<DtsTask> get(@PathVariable(required = false) String tenant, @PathVariable String taskId,
+                               HttpServletRequest request) {
+        DtsTask task = dtsTaskManager.get(tenantOf(tenant, request), taskId);
+        return task == null ? Result.fail(1, "未知的任务: " + taskId) : Result.success(task);
+    }
+
+    /**
+     * 订阅DTS任务状态（SSE）
+     *
+     * 连接建立后立即收到当前状态，之后每次状态变化收到一次，事件名为状态（processing/succeeded/failed），
+     * 数据与查询接口的 data 相同；任务结束后连接关闭。任务不存在时发送一条 {@code error} 事件后关闭。
+     *
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param taskId 任务ID
+     * @param request 当前请求
+     * @param response 当前响应
+     * @return 连接结束时完成；已直接写出 {@code error} 事件时为 null
+     * @throws IOException 写出 {@code error} 事件失败
+     */
+    @GetMapping(value = {"/dts/tasks/{taskId}/events", "/tenants/{tenant}/dts/tasks/{taskId}/events"},
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public DeferredResult<Void> watch(@PathVariable(required = false) String tenant, @PathVariable String taskId,
+                                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        SseChannel<?> watcher = dtsTaskManager.watch(tenantOf(tenant, request), taskId, response);
+        if (watcher != null) {
+            return watcher.start(request);
+        }
+        SseChannel.sendOnce(response, "error", SignJson.toString(Result.fail(1, "未知的任务: " + taskId)));
+        return null;
+    }
+
+    /**
+     * 分段并行合成长文本并以流式响应返回音频
+     *
+     * 文本按句切分为多个DTS任务并行合成，按顺序写出各段音频，首段完成即开始返回（分块传输），客户端可边收边播。
+     * lame 编码返回 {@code audio/mpeg}，其他编码返回 {@code application/octet-stream}。
+     * 参数无效或未知租户时返回 JSON 失败结果；开始输出后出错则中断连接。
+     *
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param servletRequest 当前请求
+     * @param request 合成文本与参数，不支持 webhook
+     * @return 音频流或失败结果
+     */
+    @PostMapping(value = {"/dts/stream", "/tenants/{tenant}/dts/stream"}, consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {AUDIO_MPEG_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> stream(@PathVariable(required = false) String tenant, HttpServletRequest servletRequest,
+                                    @RequestBody DtsTaskRequest request) {
+        String tenantId = tenantOf(tenant, servletRequest);
+        if (!xfyunSigner.hasTenant(tenantId)) {
+            return failed("未知的租户: " + tenantId);
+        }
+        List<String> chunks;
+        try {
+            chunks = dtsPipeline.split(request);
+        } catch (IllegalArgumentException e) {
+            return failed(e.getMessage());
+        }
+        boolean mp3 = request.getEncoding() == null || "lame".equals(request.getEncoding());
+        StreamingResponseBody body = out -> dtsPipeline.stream(tenantId, request, chunks, out);
+        return ResponseEntity.ok()
+                .contentType(mp3 ? MediaType.parseMediaType(AUDIO_MPEG_VALUE) : MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Xfyun-Dts-Chunks", String.valueOf(chunks.size()))
+                .body(body);
+    }
+
+    /**
+     * 失败结果同样以 StreamingResponseBody 写出，返回值类型须为 ResponseEntity&lt;StreamingResponseBody&gt; 才会按流式处理
+     */
+    private static ResponseEntity<StreamingResponseBody> failed(String message) {
+        byte[] json = SignJson.toString(Result.fail(1, message)).getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out -> out.write(json));
+    }
+
+    private String tenantOf(String pathTenant, HttpServletRequest request) {
+        if (pathTenant != null && !pathTenant.isEmpty()) {
+            return pathTenant;
+        }
+        return request.getHeader(xfyunConfigProperties.getTenantHeader());
+    }
+}
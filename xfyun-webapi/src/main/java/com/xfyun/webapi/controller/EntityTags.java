@@ -0,0 +1,71 @@
+package com.xfyun.webapi.controller;
+
+import org.springframework.http.HttpHeaders;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * If-None-Match 请求头解析
+ *
+ * 请求头可重复出现，每个值是逗号分隔的实体标签列表；按弱比较处理，{@code W/} 前缀去掉，引号内的值即标签，
+ * 格式不符的项跳过。{@code *} 原样保留为 {@link #ANY}。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+final class EntityTags {
+
+    /** 匹配任意当前表示的 {@code If-None-Match: *} */
+    static final String ANY = "*";
+
+    private EntityTags() {
+    }
+
+    /**
+     * 取 If-None-Match 中的实体标签
+     *
+     * @param request 当前请求
+     * @return 去掉弱标记与引号的标签，可能含 {@link #ANY}；没有该请求头时为空
+     */
+    static List<String> ifNoneMatch(HttpServletRequest request) {
+        List<String> tags = new ArrayList<>();
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String etag = candidate.trim();
+                if (ANY.equals(etag)) {
+                    tags.add(ANY);
+                    continue;
+                }
+                if (etag.startsWith("W/")) {
+                    etag = etag.substring(2);
+                }
+                if (etag.length() < 2 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+                    continue;
+                }
+                tags.add(etag.substring(1, etag.length() - 1));
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * If-None-Match 是否匹配给定标签，列表、弱标签与 {@code *} 均按弱比较处理
+     *
+     * @param request 当前请求
+     * @param etag 当前表示的标签，不含引号
+     * @return 匹配时返回 true，应回 304
+     */
+    static boolean matchesIfNoneMatch(HttpServletRequest request, String etag) {
+        for (String tag : ifNoneMatch(request)) {
+            if (ANY.equals(tag) || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,176 @@
+package com.xfyun.webapi.controller;
+
+import com.xfyun.webapi.domain.Result;
+import com.xfyun.webapi.service.TtsClient;
+import com.xfyun.webapi.sign.SignJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 把讯飞 TTS 音频帧以非阻塞输出写给 HTTP 客户端
+ *
+ * 音频帧在讯飞连接的读线程上入队，输出可写时（{@link ServletOutputStream#isReady()}）立即写出并刷新，
+ * 不可写时等待容器回调 {@link #onWritePossible()}，等待期间不占用任何线程。入队、写出与回调在同一把锁内串行。
+ * 一次合成的文本有长度上限，队列随之有界。
+ *
+ * 全部写出后以空结果完成 {@link DeferredResult}，由 Spring 结束响应；尚未写出音频时失败则改为 JSON 失败结果；
+ * 已写出音频后失败则以异常完成，连接被中断而不是正常结束，客户端不会把残缺音频当作完整音频。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+final class TtsAudioStream implements TtsClient.AudioSink, WriteListener, DeferredResultProcessingInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(TtsAudioStream.class);
+
+    private final HttpServletResponse response;
+    private final DeferredResult<Void> result;
+    private final ArrayDeque<byte[]> queue = new ArrayDeque<>();
+    private ServletOutputStream out;
+    private CompletableFuture<Void> synthesis;
+    private boolean written;
+    private boolean unflushed;
+    private boolean finished;
+    private boolean closed;
+    private Throwable failure;
+
+    TtsAudioStream(HttpServletResponse response, DeferredResult<Void> result) {
+        this.response = response;
+        this.result = result;
+    }
+
+    /**
+     * 关联进行中的合成：合成结束时结束输出，请求结束（含超时、客户端断开）时中止合成
+     *
+     * @param synthesis {@link TtsClient#start} 返回的合成
+     */
+    void follow(CompletableFuture<Void> synthesis) {
+        synchronized (this) {
+            this.synthesis = synthesis;
+        }
+        synthesis.whenComplete((ignored, error) -> finish(error));
+        result.onCompletion(() -> synthesis.cancel(false));
+    }
+
+    /**
+     * 开始输出：异步处理已开始，注册写监听，容器随即回调 {@link #onWritePossible()}
+     *
+     * @throws IOException 获取输出流失败
+     */
+    @Override
+    public <T> void preProcess(NativeWebRequest request, DeferredResult<T> deferredResult) throws IOException {
+        ServletOutputStream stream = response.getOutputStream();
+        synchronized (this) {
+            // 注册写监听前输出流仍是阻塞模式，不能从讯飞连接的线程写入
+            stream.setWriteListener(this);
+            out = stream;
+        }
+    }
+
+    @Override
+    public void write(byte[] audio) throws IOException {
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("客户端已断开");
+            }
+            queue.add(audio);
+            drain();
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        synchronized (this) {
+            drain();
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        log.debug("TTS流式输出中断: {}", error.getMessage());
+        CompletableFuture<Void> running;
+        synchronized (this) {
+            closed = true;
+            queue.clear();
+            running = synthesis;
+        }
+        if (running != null) {
+            running.cancel(false);
+        }
+    }
+
+    private void finish(Throwable error) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            finished = true;
+            if (error != null && !written && !response.isCommitted()) {
+                // 尚未输出音频，改为返回失败结果
+                byte[] json = SignJson.toString(Result.fail(1, "TTS合成失败: " + messageOf(error)))
+                        .getBytes(StandardCharsets.UTF_8);
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setContentLength(json.length);
+                queue.clear();
+                queue.add(json);
+            } else {
+                failure = error;
+            }
+            drain();
+        }
+    }
+
+    /**
+     * 写出队列直到输出不可写；须持有锁
+     */
+    private void drain() {
+        if (out == null || closed) {
+            return;
+        }
+        try {
+            while (out.isReady()) {
+                byte[] next = queue.poll();
+                if (next != null) {
+                    out.write(next);
+                    written = true;
+                    unflushed = true;
+                } else if (unflushed) {
+                    // 每批写出后立即刷新，音频帧不在响应缓冲区中停留
+                    unflushed = false;
+                    out.flush();
+                } else {
+                    if (finished) {
+                        closed = true;
+                        if (failure == null) {
+                            result.setResult(null);
+                        } else {
+                            result.setErrorResult(failure);
+                        }
+                    }
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            closed = true;
+            queue.clear();
+            result.setErrorResult(e);
+        }
+    }
+
+    private static String messageOf(Throwable error) {
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,198 @@
+package com.xfyun.webapi.controller;
+
+import com.xfyun.webapi.config.XfyunConfigProperties;
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.domain.Result;
+import com.xfyun.webapi.domain.TtsRequest;
+import com.xfyun.webapi.service.TtsAudioCache;
+import com.xfyun.webapi.service.TtsClient;
+import com.xfyun.webapi.service.TtsException;
+import com.xfyun.webapi.sign.CredentialPoolExhaustedException;
+import com.xfyun.webapi.sign.SignJson;
+import com.xfyun.webapi.sign.XfyunSigner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.annotation.Resource;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 在线语音合成(TTS)控制器
+ *
+ * 由服务端签名并连接讯飞合成文本，供不便使用 WebSocket 的客户端以普通 HTTP 获取音频：完整音频按内容寻址缓存，
+ * 相同文本与参数的请求直接返回缓存音频；流式接口边合成边以分块传输返回。租户选择方式与签名接口相同。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@RestController
+@RequestMapping(value = "/api/v1/xfyun", produces = MediaType.APPLICATION_JSON_VALUE)
+public class TtsController {
+
+    private static final String AUDIO_MPEG_VALUE = "audio/mpeg";
+    private static final String CACHE_HEADER = "X-Xfyun-Tts-Cache";
+
+    /** Tomcat 的 sendfile 请求属性，见 org.apache.catalina.Globals */
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Resource
+    private TtsAudioCache ttsAudioCache;
+
+    @Resource
+    private TtsClient ttsClient;
+
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private XfyunConfigProperties xfyunConfigProperties;
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    /**
+     * 合成语音并返回完整音频
+     *
+     * lame 编码返回 {@code audio/mpeg}，raw 编码返回 {@code application/octet-stream}。ETag 为缓存键，只由请求参数决定，
+     * If-None-Match 含该 ETag（列表、弱标签或 {@code *}）时不查找缓存直接返回 304；{@code X-Xfyun-Tts-Cache} 头标明命中的层（memory/disk/miss）。
+     * 磁盘命中且不小于 {@code sendfile-min-bytes} 时由容器以 sendfile 发送，否则经 {@code FileChannel.transferTo} 以堆缓冲分块写到响应流。
+     * 参数无效、未知租户或合成失败时写出 JSON 失败结果。
+     *
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param servletRequest 当前请求
+     * @param response 当前响应
+     * @param request 合成文本与参数
+     * @throws Exception 签名异常
+     */
+    @PostMapping(value = {"/tts/synthesize", "/tenants/{tenant}/tts/synthesize"}, consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {AUDIO_MPEG_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public void synthesize(@PathVariable(required = false) String tenant, HttpServletRequest servletRequest,
+                           HttpServletResponse response, @RequestBody TtsRequest request) throws Exception {
+        String tenantId = tenantOf(tenant, servletRequest);
+        if (!xfyunSigner.hasTenant(tenantId)) {
+            failed(response, "未知的租户: " + tenantId);
+            return;
+        }
+        TtsRequest normalized;
+        try {
+            normalized = ttsClient.normalize(request);
+        } catch (IllegalArgumentException e) {
+            failed(response, e.getMessage());
+            return;
+        }
+        String key = TtsAudioCache.keyOf(normalized);
+        String etag = '"' + key + '"';
+        if (EntityTags.matchesIfNoneMatch(servletRequest, key)) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        TtsAudioCache.Audio audio;
+        try {
+            audio = ttsAudioCache.get(tenantId, normalized);
+        } catch (IllegalArgumentException | CredentialPoolExhaustedException e) {
+            failed(response, e.getMessage());
+            return;
+        } catch (IOException | TtsException e) {
+            failed(response, "TTS合成失败: " + e.getMessage());
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(CACHE_HEADER, audio.getSource());
+        response.setContentType(audio.getContentType());
+        response.setContentLengthLong(audio.getSize());
+        if (audio.getFile() != null && Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPPORTED))
+                && audio.getSize() >= xfyunWebapiProperties.getTtsSynthesis().getSendfileMinBytes()) {
+            // 方法返回后由连接器以 FileChannel.transferTo 发送
+            servletRequest.setAttribute(SENDFILE_FILENAME, audio.getFile().toAbsolutePath().toString());
+            servletRequest.setAttribute(SENDFILE_START, 0L);
+            servletRequest.setAttribute(SENDFILE_END, audio.getSize());
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        audio.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * 合成语音并以分块传输边合成边返回音频
+     *
+     * 讯飞返回一帧音频即写出一帧，首字节时间约为讯飞首帧时间，不必等整段合成完。等待音频期间请求线程已释放，
+     * 写出使用非阻塞输出。结果不进入缓存；反复合成的短文本请使用 {@code /tts/synthesize}。
+     * 未开始输出音频时失败返回 JSON 失败结果；已输出音频后失败则中断连接；整体超过 {@code timeout-millis} 时中止。
+     *
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param servletRequest 当前请求
+     * @param response 当前响应
+     * @param request 合成文本与参数
+     * @return 合成结束时完成；已直接写出失败结果时为 null
+     * @throws Exception 签名异常
+     */
+    @PostMapping(value = {"/tts/stream", "/tenants/{tenant}/tts/stream"}, consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {AUDIO_MPEG_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public DeferredResult<Void> stream(@PathVariable(required = false) String tenant, HttpServletRequest servletRequest,
+                                       HttpServletResponse response, @RequestBody TtsRequest request) throws Exception {
+        String tenantId = tenantOf(tenant, servletRequest);
+        if (!xfyunSigner.hasTenant(tenantId)) {
+            failed(response, "未知的租户: " + tenantId);
+            return null;
+        }
+        TtsRequest normalized;
+        try {
+            normalized = ttsClient.normalize(request);
+        } catch (IllegalArgumentException e) {
+            failed(response, e.getMessage());
+            return null;
+        }
+        DeferredResult<Void> result = new DeferredResult<>(xfyunWebapiProperties.getTtsSynthesis().getTimeoutMillis());
+        TtsAudioStream stream = new TtsAudioStream(response, result);
+        response.setContentType("lame".equals(normalized.getEncoding()) ? AUDIO_MPEG_VALUE : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        try {
+            // 连接讯飞在请求线程上完成，之后的音频帧先入队，开始异步处理后再写出
+            stream.follow(ttsClient.start(tenantId, normalized, stream));
+        } catch (CredentialPoolExhaustedException e) {
+            failed(response, e.getMessage());
+            return null;
+        } catch (IOException e) {
+            failed(response, "TTS合成失败: " + e.getMessage());
+            return null;
+        }
+        // 写监听须在异步处理开始后注册
+        WebAsyncUtils.getAsyncManager(servletRequest).registerDeferredResultInterceptor(stream, stream);
+        return result;
+    }
+
+    /**
+     * 直接写出 JSON 失败结果；produces 中音频类型在前，返回 {@link Result} 会按音频类型协商而无法序列化
+     */
+    private static void failed(HttpServletResponse response, String message) throws IOException {
+        byte[] json = SignJson.toString(Result.fail(1, message)).getBytes(StandardCharsets.UTF_8);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(json.length);
+        ServletOutputStream out = response.getOutputStream();
+        out.write(json);
+        out.flush();
+    }
+
+    private String tenantOf(String pathTenant, HttpServletRequest request) {
+        if (pathTenant != null && !pathTenant.isEmpty()) {
+            return pathTenant;
+        }
+        return request.getHeader(xfyunConfigProperties.getTenantHeader());
+    }
+}
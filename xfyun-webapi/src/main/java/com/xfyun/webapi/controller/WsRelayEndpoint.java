@@ -0,0 +1,90 @@
+package com.xfyun.webapi.controller;
+
+import com.xfyun.webapi.service.WsRelay;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.XfyunSigner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.websocket.CloseReason;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.Session;
+import java.io.IOException;
+
+/**
+ * WebSocket 中继端点
+ *
+ * 客户端连接 {@code /ws/v1/xfyun/relay/{service}} 或 {@code /ws/v1/xfyun/tenants/{tenant}/relay/{service}}
+ * （service 为 iat/tts/rtasr），之后按讯飞协议收发帧即可，签名与连接讯飞由 {@link WsRelay} 完成。
+ * 租户选择方式与签名接口相同；RTASR 的查询参数透传给讯飞。服务不支持时以 1003、租户未知时以 1008 关闭。
+ *
+ * 所有连接共用一个实例，会话状态保存在 {@link Session} 中。本类不是 Spring Bean：容器会对端点实例做注解注入，
+ * 由 {@link WsRelayRegistrar} 创建并注册。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public class WsRelayEndpoint extends Endpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(WsRelayEndpoint.class);
+
+    static final String PATH = "/ws/v1/xfyun/relay/{service}";
+    static final String TENANT_PATH = "/ws/v1/xfyun/tenants/{tenant}/relay/{service}";
+    static final String TENANT_PROPERTY = WsRelayEndpoint.class.getName() + ".tenant";
+
+    private final WsRelay wsRelay;
+    private final XfyunSigner xfyunSigner;
+
+    WsRelayEndpoint(WsRelay wsRelay, XfyunSigner xfyunSigner) {
+        this.wsRelay = wsRelay;
+        this.xfyunSigner = xfyunSigner;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        SignService service = relayed(session.getPathParameters().get("service"));
+        if (service == null) {
+            close(session, CloseReason.CloseCodes.CANNOT_ACCEPT, "unsupported service");
+            return;
+        }
+        String tenantId = session.getPathParameters().get("tenant");
+        if (tenantId == null) {
+            tenantId = (String) config.getUserProperties().get(TENANT_PROPERTY);
+        }
+        if (!xfyunSigner.hasTenant(tenantId)) {
+            close(session, CloseReason.CloseCodes.VIOLATED_POLICY, "unknown tenant");
+            return;
+        }
+        wsRelay.open(session, tenantId, service);
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        wsRelay.closed(session, closeReason);
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        log.debug("中继连接异常: {}", error.getMessage());
+        wsRelay.closed(session, new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "relay error"));
+    }
+
+    private static SignService relayed(String tag) {
+        try {
+            SignService service = SignService.fromTag(tag);
+            return service == SignService.IAT || service == SignService.TTS || service == SignService.RTASR ? service : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void close(Session session, CloseReason.CloseCode code, String reason) {
+        try {
+            session.close(new CloseReason(code, reason));
+        } catch (IOException e) {
+            log.debug("关闭连接失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.xfyun.webapi.controller;
+
+import com.xfyun.webapi.config.XfyunConfigProperties;
+import com.xfyun.webapi.service.WsRelay;
+import com.xfyun.webapi.sign.XfyunSigner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.servlet.ServletContext;
+import javax.websocket.DeploymentException;
+import javax.websocket.HandshakeResponse;
+import javax.websocket.server.HandshakeRequest;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+import java.util.List;
+
+/**
+ * 启动时把 {@link WsRelayEndpoint} 注册到 Servlet 容器的 WebSocket 容器
+ *
+ * 握手时把租户请求头记入会话属性。没有 WebSocket 容器（如 MockMvc 测试）时不注册。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+@ConditionalOnProperty(prefix = "xfyun.relay", name = "enabled", havingValue = "true")
+public class WsRelayRegistrar {
+
+    private static final Logger log = LoggerFactory.getLogger(WsRelayRegistrar.class);
+
+    @Resource
+    private WsRelay wsRelay;
+
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private XfyunConfigProperties xfyunConfigProperties;
+
+    @Resource
+    private ServletContext servletContext;
+
+    @PostConstruct
+    public void register() throws DeploymentException {
+        ServerContainer container = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            log.warn("当前环境没有 WebSocket 容器，未注册中继端点");
+            return;
+        }
+        WsRelayEndpoint endpoint = new WsRelayEndpoint(wsRelay, xfyunSigner);
+        String tenantHeader = xfyunConfigProperties.getTenantHeader();
+        ServerEndpointConfig.Configurator configurator = new ServerEndpointConfig.Configurator() {
+            @Override
+            public <T> T getEndpointInstance(Class<T> endpointClass) {
+                return endpointClass.cast(endpoint);
+            }
+
+            @Override
+            public void modifyHandshake(ServerEndpointConfig config, HandshakeRequest request, HandshakeResponse response) {
+                List<String> tenant = request.getHeaders().get(tenantHeader);
+                if (tenant != null && !tenant.isEmpty()) {
+                    config.getUserProperties().put(WsRelayEndpoint.TENANT_PROPERTY, tenant.get(0));
+                }
+            }
+        };
+        for (String path : new String[]{WsRelayEndpoint.PATH, WsRelayEndpoint.TENANT_PATH}) {
+            container.addEndpoint(ServerEndpointConfig.Builder.create(WsRelayEndpoint.class, path)
+                    .configurator(configurator)
+                    .build());
+        }
+        log.info("WebSocket 中继端点已注册: {}, {}", WsRelayEndpoint.PATH, WsRelayEndpoint.TENANT_PATH);
+    }
+}
@@ -0,0 +1,46 @@
+package com.xfyun.webapi.controller;
+
+import com.xfyun.webapi.domain.Result;
+import com.xfyun.webapi.service.CredentialReloader;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 凭证管理控制器
+ *
+ * 提供凭证热加载接口，轮换讯飞密钥时无需重启服务。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@RestController
+@RequestMapping(value = "/api/v1/xfyun/credentials", produces = MediaType.APPLICATION_JSON_VALUE)
+public class XfyunCredentialController {
+
+    @Resource
+    private CredentialReloader credentialReloader;
+
+    /**
+     * 从凭证文件重新加载凭证
+     *
+     * 新凭证整体替换旧凭证，已缓存的签名与预签名结果随之失效。
+     *
+     * @return 加载后的租户数；未配置凭证文件或加载失败时返回失败结果
+     */
+    @PostMapping("/refresh")
+    public Result<Map<String, Object>> refresh() {
+        try {
+            int tenants = credentialReloader.reload();
+            return Result.success(Collections.singletonMap("tenants", tenants));
+        } catch (Exception e) {
+            return Result.fail(1, "凭证加载失败: " + e.getMessage());
+        }
+    }
+}
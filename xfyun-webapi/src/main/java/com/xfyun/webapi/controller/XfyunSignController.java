@@ -0,0 +1,385 @@
+package com.xfyun.webapi.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import com.xfyun.webapi.config.XfyunConfigProperties;
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.service.SignMetrics;
+import com.xfyun.webapi.service.SignStream;
+import com.xfyun.webapi.service.SseChannel;
+import com.xfyun.webapi.service.XfyunSignatureService;
+import com.xfyun.webapi.sign.CredentialPoolExhaustedException;
+import com.xfyun.webapi.sign.EncryptionMode;
+import com.xfyun.webapi.sign.SignJson;
+import com.xfyun.webapi.sign.SignResult;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.domain.Result;
+import com.xfyun.webapi.domain.SignBatchRequest;
+
+import javax.annotation.Resource;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * 科大讯飞签名控制器
+ * 
+ * 提供讯飞各种AI服务的签名接口，包括：
+ * - 语音听写 (IAT)
+ * - 语音合成 (TTS)
+ * - 实时语音转写 (RTASR)
+ * - 长文本语音合成 (DTS)
+ * 
+ * 所有接口都通过后端统一管理API密钥，确保安全性。
+ * 多租户时通过 {@code /tenants/{tenant}/sign/...} 路径或租户请求头（默认 X-Xfyun-Tenant）选择凭证，
+ * 未指定时使用默认租户。
+ * 单项签名响应带 {@code ETag} 与 {@code Cache-Control}，客户端可在签名有效期内复用同一 URL，
+ * 携带 {@code If-None-Match} 重新验证时返回 304。
+ * 
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@RestController
+@RequestMapping(value = "/api/v1/xfyun", produces = MediaType.APPLICATION_JSON_VALUE)
+public class XfyunSignController {
+
+    @Resource
+    private XfyunSignatureService signatureService;
+
+    @Resource
+    private SignMetrics signMetrics;
+
+    @Resource
+    private XfyunConfigProperties xfyunConfigProperties;
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private SignStream signStream;
+
+    /**
+     * 获取语音听写(IAT)签名
+     * 
+     * 用于语音转文字服务，支持实时音频流识别
+     * 
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param request 当前请求
+     * @param response 当前响应，启用预序列化响应时直接写出
+     * @param authorization 授权头信息
+     * @return 包含WebSocket连接URL和应用ID的签名结果
+     * @throws Exception 签名生成异常
+     */
+    @GetMapping({"/sign/iat", "/tenants/{tenant}/sign/iat"})
+    public Result<Map<String, Object>> signIat(@PathVariable(required = false) String tenant, HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            @RequestHeader(value = "Authorization", required = false) String authorization) throws Exception {
+        return signSingle(SignService.IAT, tenant, null, request, response, authorization);
+    }
+
+    /**
+     * 获取语音合成(TTS)签名
+     * 
+     * 用于文字转语音服务，支持实时音频流合成
+     * 
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param request 当前请求
+     * @param response 当前响应，启用预序列化响应时直接写出
+     * @param authorization 授权头信息
+     * @return 包含WebSocket连接URL和应用ID的签名结果
+     * @throws Exception 签名生成异常
+     */
+    @GetMapping({"/sign/tts", "/tenants/{tenant}/sign/tts"})
+    public Result<Map<String, Object>> signTts(@PathVariable(required = false) String tenant, HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            @RequestHeader(value = "Authorization", required = false) String authorization) throws Exception {
+        return signSingle(SignService.TTS, tenant, null, request, response, authorization);
+    }
+
+    /**
+     * 获取实时语音转写(RTASR)签名
+     * 
+     * 用于长时间语音转文字服务，支持连续音频流识别
+     * 文档：https://www.xfyun.cn/doc/asr/rtasr/API.html
+     * 
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param request 当前请求
+     * @param response 当前响应，启用预序列化响应时直接写出
+     * @param authorization 授权头信息
+     * @return 包含WebSocket连接URL、应用ID、时间戳和签名的结果
+     * @throws Exception 签名生成异常
+     */
+    @GetMapping({"/sign/rtasr", "/tenants/{tenant}/sign/rtasr"})
+    public Result<Map<String, Object>> signRtasr(@PathVariable(required = false) String tenant, HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            @RequestHeader(value = "Authorization", required = false) String authorization) throws Exception {
+        return signSingle(SignService.RTASR, tenant, null, request, response, authorization);
+    }
+
+    /**
+     * 获取长文本语音合成(DTS)创建任务签名
+     * 
+     * 用于长文本语音合成任务创建，支持10万字左右的长文本
+     * 文档：https://www.xfyun.cn/doc/tts/long_text_tts/API.html
+     * 
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param request 当前请求
+     * @param response 当前响应，启用预序列化响应时直接写出
+     * @param authorization 授权头信息
+     * @return 包含完整API URL的签名结果，前端可直接调用
+     * @throws Exception 签名生成异常
+     */
+    @GetMapping({"/sign/dts/create", "/tenants/{tenant}/sign/dts/create"})
+    public Result<Map<String, Object>> signDtsCreate(@PathVariable(required = false) String tenant, HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            @RequestHeader(value = "Authorization", required = false) String authorization) throws Exception {
+        return signSingle(SignService.DTS_CREATE, tenant, null, request, response, authorization);
+    }
+
+    /**
+     * 获取长文本语音合成(DTS)查询任务签名
+     * 
+     * 用于查询长文本语音合成任务状态和结果。讯飞只允许以创建任务的凭证查询，DTS 配置了凭证池时须传入
+     * 创建签名返回的 {@code appId}，以同一凭证签名；未传时按凭证池选择。
+     * 文档：https://www.xfyun.cn/doc/tts/long_text_tts/API.html
+     * 
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param appId 创建任务时使用的凭证 appId，可选
+     * @param request 当前请求
+     * @param response 当前响应，启用预序列化响应时直接写出
+     * @param authorization 授权头信息
+     * @return 包含完整API URL的签名结果，前端可直接调用
+     * @throws Exception 签名生成异常
+     */
+    @GetMapping({"/sign/dts/query", "/tenants/{tenant}/sign/dts/query"})
+    public Result<Map<String, Object>> signDtsQuery(@PathVariable(required = false) String tenant,
+                                            @RequestParam(value = "appId", required = false) String appId,
+                                            HttpServletRequest request, HttpServletResponse response,
+                                            @RequestHeader(value = "Authorization", required = false) String authorization) throws Exception {
+        return signSingle(SignService.DTS_QUERY, tenant, appId, request, response, authorization);
+    }
+
+    /**
+     * 订阅签名推送流（SSE）
+     *
+     * 长连接客户端订阅一个或多个服务，连接建立后立即收到当前签名，之后在签名临近失效前收到新签名，
+     * 无需定时轮询。事件名为服务标签，事件ID为签名的 ETag，数据与单项签名接口的 data 相同。
+     * 参数无效时发送一条 {@code error} 事件（内容为失败结果）后关闭。连接以非阻塞输出写出，等待期间不占用请求线程。
+     *
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param request 当前请求
+     * @param response 当前响应
+     * @param authorization 授权头信息
+     * @param services 服务标签，逗号分隔或多次出现，如 {@code iat,rtasr}
+     * @return 连接结束时完成；已直接写出 {@code error} 事件时为 null
+     * @throws IOException 写出 {@code error} 事件失败
+     */
+    @GetMapping(value = {"/sign/stream", "/tenants/{tenant}/sign/stream"}, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public DeferredResult<Void> signStream(@PathVariable(required = false) String tenant, HttpServletRequest request,
+                                           HttpServletResponse response,
+                                           @RequestHeader(value = "Authorization", required = false) String authorization,
+                                           @RequestParam(value = "services", required = false) List<String> services) throws IOException {
+        String tenantId = tenantOf(tenant, request);
+        if (!signatureService.hasTenant(tenantId)) {
+            return failedStream(response, "未知的租户: " + tenantId);
+        }
+        if (services == null || services.isEmpty()) {
+            return failedStream(response, "services 不能为空");
+        }
+        Set<SignService> subscribed = new LinkedHashSet<>();
+        try {
+            for (String tag : services) {
+                subscribed.add(SignService.fromTag(tag.trim()));
+            }
+        } catch (IllegalArgumentException e) {
+            return failedStream(response, e.getMessage());
+        }
+        return signStream.subscribe(tenantId, subscribed, authorization, response).start(request);
+    }
+
+    private static DeferredResult<Void> failedStream(HttpServletResponse response, String message) throws IOException {
+        SseChannel.sendOnce(response, "error", SignJson.toString(Result.fail(1, message)));
+        return null;
+    }
+
+    /**
+     * 批量获取签名
+     * 
+     * 一次请求返回多个服务的签名（如会话开始时同时需要IAT、TTS、RTASR），
+     * 所有签名共用同一签名时间，重复的服务只返回一次
+     * 
+     * @param tenant 路径中的租户标识，缺省时取租户请求头，再缺省为默认租户
+     * @param servletRequest 当前请求
+     * @param authorization 授权头信息
+     * @param request 包含服务标签列表的请求体
+     * @return 以服务标签为键的签名结果
+     * @throws Exception 签名生成异常
+     */
+    @PostMapping(value = {"/sign/batch", "/tenants/{tenant}/sign/batch"}, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Result<Map<String, Map<String, Object>>> signBatch(@PathVariable(required = false) String tenant, HttpServletRequest servletRequest,
+                                                              @RequestHeader(value = "Authorization", required = false) String authorization,
+                                                              @RequestBody SignBatchRequest request) throws Exception {
+        if (request == null || request.getServices() == null || request.getServices().isEmpty()) {
+            signMetrics.countRequest(null, false, signatureService.isEncryptionEnabled());
+            return Result.fail(1, "services 不能为空");
+        }
+        Set<SignService> services = new LinkedHashSet<>();
+        try {
+            for (String tag : request.getServices()) {
+                services.add(SignService.fromTag(tag));
+            }
+        } catch (IllegalArgumentException e) {
+            signMetrics.countRequest(null, false, signatureService.isEncryptionEnabled());
+            return Result.fail(1, e.getMessage());
+        }
+        String tenantId = tenantOf(tenant, servletRequest);
+        return sign(null, tenantId, null, () -> signatureService.generateBatchSignature(tenantId, services, authorization));
+    }
+
+    /**
+     * 单项签名：按配置处理HTTP缓存头与条件请求
+     *
+     * 所持签名仍有效时返回 304，不计算签名、不占用凭证池在途数；否则签名并设置
+     * {@code ETag} 与 {@code Cache-Control: private, max-age}。加密模式不同时 ETag 不同。
+     *
+     * @param service 服务类型
+     * @param tenant 路径中的租户标识
+     * @param appId 指定凭证的 appId，为空时按凭证池选择
+     * @param request 当前请求
+     * @param response 当前响应
+     * @param authorization 授权头信息
+     * @return 签名结果，已直接写出响应或返回 304 时为 null
+     * @throws Exception 签名生成异常
+     */
+    private Result<Map<String, Object>> signSingle(SignService service, String tenant, String appId, HttpServletRequest request,
+                                                   HttpServletResponse response, String authorization) throws Exception {
+        String tenantId = tenantOf(tenant, request);
+        if (!xfyunWebapiProperties.getHttpCache().isEnabled()) {
+            return sign(service, tenantId, response, () -> signatureService.generateSignature(tenantId, service, appId, authorization, null));
+        }
+        String etagSuffix = etagSuffix();
+        if (signatureService.hasTenant(tenantId) && notModified(service, tenantId, appId, etagSuffix, request, response)) {
+            signMetrics.countRequest(service, true, signatureService.isEncryptionEnabled());
+            return null;
+        }
+        return sign(service, tenantId, response, () -> signatureService.generateSignature(tenantId, service, appId, authorization,
+                signed -> writeCacheHeaders(response, signed.getEtag() + etagSuffix, signatureService.remainingValidity(signed))));
+    }
+
+    /**
+     * 检查 If-None-Match 中是否有仍在有效期内的签名，有则写出 304
+     *
+     * @return 已写出 304 返回 true
+     */
+    private boolean notModified(SignService service, String tenantId, String appId, String etagSuffix,
+                                HttpServletRequest request, HttpServletResponse response) {
+        for (String etag : EntityTags.ifNoneMatch(request)) {
+            // 签名随时间失效，* 不能说明客户端持有的签名仍有效
+            if (EntityTags.ANY.equals(etag) || !etag.endsWith(etagSuffix)) {
+                continue;
+            }
+            long remaining = signatureService.remainingValidity(tenantId, service, appId,
+                    etag.substring(0, etag.length() - etagSuffix.length()));
+            if (remaining > 0) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                writeCacheHeaders(response, etag, remaining);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 当前加密模式对应的 ETag 后缀，未加密时为空
+     */
+    private String etagSuffix() {
+        EncryptionMode mode = signatureService.getEncryptionMode();
+        return mode == EncryptionMode.NONE ? "" : ";" + mode.name().toLowerCase(Locale.ROOT);
+    }
+
+    private void writeCacheHeaders(HttpServletResponse response, String etag, long maxAgeSeconds) {
+        response.setHeader(HttpHeaders.ETAG, '"' + etag + '"');
+        response.setHeader(HttpHeaders.CACHE_CONTROL, maxAgeSeconds > 0 ? "private, max-age=" + maxAgeSeconds : "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION + ", " + xfyunConfigProperties.getTenantHeader());
+    }
+
+    /**
+     * 解析租户：路径优先，其次为配置的租户请求头
+     *
+     * @param pathTenant 路径中的租户标识
+     * @param request 当前请求
+     * @return 租户标识，未指定时为 null（默认租户）
+     */
+    private String tenantOf(String pathTenant, HttpServletRequest request) {
+        if (pathTenant != null && !pathTenant.isEmpty()) {
+            return pathTenant;
+        }
+        return request.getHeader(xfyunConfigProperties.getTenantHeader());
+    }
+
+    /**
+     * 调用签名服务并记录请求指标
+     *
+     * @param service 服务类型，批量签名为 null
+     * @param tenantId 租户标识
+     * @param response 当前响应，非 null 且结果为未加密的 {@link SignResult} 时直接写出其预序列化字节
+     * @param call 签名调用
+     * @return 成功结果，未知租户或凭证池已满时返回失败结果；已直接写出响应时为 null
+     * @throws Exception 签名生成异常
+     */
+    private <T> Result<T> sign(SignService service, String tenantId, HttpServletResponse response, Callable<T> call) throws Exception {
+        if (!signatureService.hasTenant(tenantId)) {
+            signMetrics.countRequest(service, false, signatureService.isEncryptionEnabled());
+            return Result.fail(1, "未知的租户: " + tenantId);
+        }
+        boolean success = false;
+        try {
+            T data = call.call();
+            success = true;
+            if (response != null && data instanceof SignResult && xfyunConfigProperties.getSignCache().isSerializedResponse()) {
+                writeSerialized(response, ((SignResult) data).responseBytes());
+                return null;
+            }
+            return Result.success(data);
+        } catch (CredentialPoolExhaustedException e) {
+            return Result.fail(1, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            // 如指定了未配置的 appId
+            return Result.fail(1, e.getMessage());
+        } finally {
+            signMetrics.countRequest(service, success, signatureService.isEncryptionEnabled());
+        }
+    }
+
+    /**
+     * 输出预序列化的成功响应，与 Jackson 序列化 {@link Result} 的结果一致
+     *
+     * @param response 当前响应
+     * @param body 响应字节
+     * @throws IOException 写出异常
+     */
+    private static void writeSerialized(HttpServletResponse response, byte[] body) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        ServletOutputStream out = response.getOutputStream();
+        out.write(body);
+        out.flush();
+    }
+}
@@ -0,0 +1,86 @@
+package com.xfyun.webapi.domain;
+
+/**
+ * 服务端 DTS 任务的不可变快照
+ *
+ * 状态变化时整体替换，读取方与通知拿到的是同一时刻的一致视图。时间均为毫秒时间戳。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class DtsTask {
+
+    private final String taskId;
+    private final DtsTaskStatus status;
+    private final String upstreamStatus;
+    private final String audioUrl;
+    private final String message;
+    private final long createdAt;
+    private final long updatedAt;
+    private final int polls;
+
+    public DtsTask(String taskId, DtsTaskStatus status, String upstreamStatus, String audioUrl, String message,
+                   long createdAt, long updatedAt, int polls) {
+        this.taskId = taskId;
+        this.status = status;
+        this.upstreamStatus = upstreamStatus;
+        this.audioUrl = audioUrl;
+        this.message = message;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.polls = polls;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public DtsTaskStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * 讯飞返回的原始 task_status
+     *
+     * @return 状态码，尚未查询时为 null
+     */
+    public String getUpstreamStatus() {
+        return upstreamStatus;
+    }
+
+    /**
+     * 合成音频的下载地址
+     *
+     * @return 地址，未完成时为 null
+     */
+    public String getAudioUrl() {
+        return audioUrl;
+    }
+
+    /**
+     * 失败原因
+     *
+     * @return 原因，未失败时为 null
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * 已向讯飞查询的次数
+     *
+     * @return 次数
+     */
+    public int getPolls() {
+        return polls;
+    }
+}
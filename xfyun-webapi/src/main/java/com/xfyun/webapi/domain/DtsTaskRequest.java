@@ -0,0 +1,87 @@
+package com.xfyun.webapi.domain;
+
+/**
+ * 创建服务端 DTS 任务的请求
+ *
+ * 除 text 外均可省略：vcn 缺省为 {@code xfyun.dts-tasks.default-vcn}，语速、音量、音高缺省为 50，
+ * 音频缺省为 16k 采样的 lame(mp3)。webhook 为任务结束时回调的地址，主机须在 {@code xfyun.dts-tasks.webhook-hosts} 中。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public class DtsTaskRequest {
+
+    private String text;
+    private String vcn;
+    private Integer speed;
+    private Integer volume;
+    private Integer pitch;
+    private String encoding;
+    private Integer sampleRate;
+    private String webhook;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getVcn() {
+        return vcn;
+    }
+
+    public void setVcn(String vcn) {
+        this.vcn = vcn;
+    }
+
+    public Integer getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(Integer speed) {
+        this.speed = speed;
+    }
+
+    public Integer getVolume() {
+        return volume;
+    }
+
+    public void setVolume(Integer volume) {
+        this.volume = volume;
+    }
+
+    public Integer getPitch() {
+        return pitch;
+    }
+
+    public void setPitch(Integer pitch) {
+        this.pitch = pitch;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public Integer getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(Integer sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public String getWebhook() {
+        return webhook;
+    }
+
+    public void setWebhook(String webhook) {
+        this.webhook = webhook;
+    }
+}
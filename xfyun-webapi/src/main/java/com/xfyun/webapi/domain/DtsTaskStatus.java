@@ -0,0 +1,36 @@
+package com.xfyun.webapi.domain;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * 服务端 DTS 任务状态
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public enum DtsTaskStatus {
+
+    /** 已在讯飞创建，合成中 */
+    PROCESSING,
+    /** 合成完成，可下载音频 */
+    SUCCEEDED,
+    /** 任务派发失败或查询多次失败 */
+    FAILED;
+
+    /**
+     * 是否为终态
+     *
+     * @return 成功或失败时为 true
+     */
+    public boolean isTerminal() {
+        return this != PROCESSING;
+    }
+
+    @JsonValue
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,25 @@
+package com.xfyun.webapi.domain;
+
+import java.util.List;
+
+/**
+ * 批量签名请求
+ *
+ * services 取值为服务标签：iat、tts、rtasr、dts-create、dts-query
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public class SignBatchRequest {
+
+    private List<String> services;
+
+    public List<String> getServices() {
+        return services;
+    }
+
+    public void setServices(List<String> services) {
+        this.services = services;
+    }
+}
@@ -0,0 +1,78 @@
+package com.xfyun.webapi.domain;
+
+/**
+ * 服务端 TTS 合成请求
+ *
+ * 除 text 外均可省略：vcn 缺省为 {@code xfyun.tts-synthesis.default-vcn}，语速、音量、音高缺省为 50（0~100），
+ * encoding 为 lame(mp3，缺省) 或 raw(pcm)，sampleRate 为 16000（缺省）或 8000。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public class TtsRequest {
+
+    private String text;
+    private String vcn;
+    private Integer speed;
+    private Integer volume;
+    private Integer pitch;
+    private String encoding;
+    private Integer sampleRate;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getVcn() {
+        return vcn;
+    }
+
+    public void setVcn(String vcn) {
+        this.vcn = vcn;
+    }
+
+    public Integer getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(Integer speed) {
+        this.speed = speed;
+    }
+
+    public Integer getVolume() {
+        return volume;
+    }
+
+    public void setVolume(Integer volume) {
+        this.volume = volume;
+    }
+
+    public Integer getPitch() {
+        return pitch;
+    }
+
+    public void setPitch(Integer pitch) {
+        this.pitch = pitch;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public Integer getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(Integer sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
@@ -0,0 +1,178 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.config.XfyunConfigProperties;
+import com.xfyun.webapi.config.XfyunConfiguration;
+import com.xfyun.webapi.sign.HttpDateClock;
+import com.xfyun.webapi.sign.TenantCredentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 凭证热加载
+ *
+ * 从 {@code xfyun.reload.credentials-file} 读取凭证，覆盖在应用配置之上重新绑定，
+ * 构建新的租户快照后交给 {@link XfyunSignatureService#replaceCredentials} 原子替换。
+ * 文件监听使用 NIO {@link WatchService}，在独立的守护线程上运行，签名线程不参与加载。
+ * 加载失败时保留原有凭证。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class CredentialReloader {
+
+    private static final Logger log = LoggerFactory.getLogger(CredentialReloader.class);
+
+    @Resource
+    private XfyunConfigProperties xfyunConfigProperties;
+
+    @Resource
+    private XfyunSignatureService signatureService;
+
+    @Resource
+    private ConfigurableEnvironment environment;
+
+    @Resource
+    private HttpDateClock httpDateClock;
+
+    private volatile WatchService watchService;
+
+    /**
+     * 配置了凭证文件时加载一次，并按配置启动文件监听
+     */
+    @PostConstruct
+    public void init() {
+        Path file = credentialsFile();
+        if (file == null) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("凭证文件加载失败，继续使用应用配置: {}", e.getMessage());
+        }
+        if (xfyunConfigProperties.getReload().isWatch()) {
+            startWatching(file);
+        }
+    }
+
+    /**
+     * 停止文件监听
+     */
+    @PreDestroy
+    public void destroy() {
+        WatchService watcher = watchService;
+        watchService = null;
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                log.debug("关闭文件监听失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 从凭证文件重新加载并替换全部租户凭证
+     *
+     * @return 加载后的租户数
+     * @throws IOException 文件读取失败
+     * @throws IllegalStateException 未配置凭证文件
+     */
+    public synchronized int reload() throws IOException {
+        Path file = credentialsFile();
+        if (file == null) {
+            throw new IllegalStateException("未配置凭证文件 xfyun.reload.credentials-file");
+        }
+        MutablePropertySources sources = new MutablePropertySources(environment.getPropertySources());
+        for (PropertySource<?> source : load(file)) {
+            sources.addFirst(source);
+        }
+        XfyunConfigProperties loaded = new Binder(ConfigurationPropertySources.from(sources))
+                .bind("xfyun", XfyunConfigProperties.class)
+                .orElseGet(XfyunConfigProperties::new);
+        Map<String, TenantCredentials> tenants = XfyunConfiguration.tenantsOf(loaded, httpDateClock.getClock());
+        signatureService.replaceCredentials(tenants);
+        log.info("凭证已重新加载: 文件={}, 租户数={}", file, tenants.size());
+        return tenants.size();
+    }
+
+    private Path credentialsFile() {
+        String file = xfyunConfigProperties.getReload().getCredentialsFile();
+        return file == null || file.trim().isEmpty() ? null : Paths.get(file.trim()).toAbsolutePath();
+    }
+
+    private static List<PropertySource<?>> load(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        PropertySourceLoader loader = name.endsWith(".properties") ? new PropertiesPropertySourceLoader() : new YamlPropertySourceLoader();
+        return loader.load("xfyun-credentials", new FileSystemResource(file));
+    }
+
+    /**
+     * 监听凭证文件所在目录，文件被修改、创建时重新加载
+     */
+    private void startWatching(Path file) {
+        try {
+            WatchService watcher = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            watchService = watcher;
+            Thread thread = new Thread(() -> watch(watcher, file), "xfyun-credential-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (IOException e) {
+            log.warn("凭证文件监听启动失败: {}", e.getMessage());
+        }
+    }
+
+    private void watch(WatchService watcher, Path file) {
+        Path name = file.getFileName();
+        while (watchService == watcher) {
+            WatchKey key;
+            try {
+                key = watcher.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (name.equals(event.context())) {
+                    changed = true;
+                }
+            }
+            key.reset();
+            if (changed) {
+                try {
+                    reload();
+                } catch (Exception e) {
+                    log.warn("凭证文件重新加载失败，保留原有凭证: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.xfyun.webapi.service;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 后台线程池的线程工厂
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+final class DaemonThreads {
+
+    private DaemonThreads() {
+    }
+
+    /**
+     * 创建守护线程，名称为前缀加序号，应用关闭时不阻止 JVM 退出
+     *
+     * @param prefix 线程名前缀，如 {@code xfyun-dts-query}
+     * @return 线程工厂
+     */
+    static ThreadFactory named(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.xfyun.webapi.service;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 定长直接缓冲区池
+ *
+ * 中继转发的每一帧都要在容器读缓冲区被复用前换到自己的缓冲区里，逐帧分配会让堆外内存和 GC 随会话数一起涨。
+ * 本池按线程分条保留空闲的直接缓冲区：取用时优先取本条，空了才新分配；归还时放回本条，本条已满则丢弃交给 GC。
+ * 取用与归还通常在不同线程，缓冲区会在分条间流动，保留总数不超过 {@code maxPooled}。
+ * 超过定长的请求退回一次性的堆缓冲区，不入池。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class DirectBufferPool {
+
+    private final int bufferBytes;
+    private final ArrayBlockingQueue<ByteBuffer>[] stripes;
+    private final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * @param bufferBytes 每个缓冲区的容量
+     * @param maxPooled 最多保留的空闲缓冲区数
+     */
+    @SuppressWarnings("unchecked")
+    public DirectBufferPool(int bufferBytes, int maxPooled) {
+        if (bufferBytes < 1) {
+            throw new IllegalArgumentException("缓冲区容量须大于0: " + bufferBytes);
+        }
+        this.bufferBytes = bufferBytes;
+        int count = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 2, maxPooled));
+        stripes = new ArrayBlockingQueue[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ArrayBlockingQueue<>(Math.max(1, maxPooled / count));
+        }
+    }
+
+    /**
+     * 取一个至少能容纳 bytes 字节的缓冲区，position 为 0，limit 为 bytes
+     *
+     * @param bytes 需要的字节数
+     * @return 缓冲区，用完须 {@link #release}
+     */
+    public ByteBuffer acquire(int bytes) {
+        if (bytes > bufferBytes) {
+            return ByteBuffer.allocate(bytes);
+        }
+        ByteBuffer buffer = stripe().poll();
+        if (buffer == null) {
+            allocated.incrementAndGet();
+            buffer = ByteBuffer.allocateDirect(bufferBytes);
+        }
+        // 经 Buffer 调用：不用 JDK 9 起 ByteBuffer 上的协变重载，Java 8 上不会 NoSuchMethodError
+        ((Buffer) buffer).clear().limit(bytes);
+        return buffer;
+    }
+
+    /**
+     * 复制 source 剩余的内容到池化缓冲区，不改变 source 的 position
+     *
+     * @param source 来源，通常是容器即将复用的读缓冲区
+     * @return 可读的缓冲区，用完须 {@link #release}
+     */
+    public ByteBuffer copyOf(ByteBuffer source) {
+        ByteBuffer buffer = acquire(source.remaining());
+        ((Buffer) buffer.put(source.duplicate())).flip();
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区，非本池的缓冲区直接丢弃
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.isDirect() && buffer.capacity() == bufferBytes) {
+            stripe().offer(buffer);
+        }
+    }
+
+    /**
+     * @return 当前保留的空闲缓冲区数
+     */
+    public int pooled() {
+        int pooled = 0;
+        for (ArrayBlockingQueue<ByteBuffer> stripe : stripes) {
+            pooled += stripe.size();
+        }
+        return pooled;
+    }
+
+    /**
+     * @return 累计新分配的直接缓冲区数
+     */
+    public long allocated() {
+        return allocated.get();
+    }
+
+    private ArrayBlockingQueue<ByteBuffer> stripe() {
+        return stripes[(int) (Thread.currentThread().getId() % stripes.length)];
+    }
+}
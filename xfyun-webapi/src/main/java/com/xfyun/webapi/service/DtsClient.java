@@ -0,0 +1,224 @@
+package com.xfyun.webapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.domain.DtsTaskRequest;
+import com.xfyun.webapi.sign.SignResult;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 讯飞长文本语音合成（DTS）接口客户端
+ *
+ * 以已签名的 dts_create/dts_query URL 调用讯飞，签名信息都在查询参数中。配置了 {@code xfyun.dts-tasks.endpoint}
+ * 时把 URL 的协议与主机替换为该地址，签名时使用的 host 不变，用于本地联调与测试。
+ * 基于 {@link HttpURLConnection}，连接由 JDK 的 keep-alive 缓存复用。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class DtsClient {
+
+    /** 任务创建成功 */
+    public static final String TASK_CREATED = "1";
+    /** 任务派发失败 */
+    public static final String TASK_DISPATCH_FAILED = "2";
+    /** 结果处理中 */
+    public static final String TASK_PROCESSING = "4";
+    /** 结果处理完成 */
+    public static final String TASK_DONE = "5";
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    /**
+     * 创建合成任务
+     *
+     * @param signed dts-create 签名
+     * @param request 合成文本与参数
+     * @return 讯飞任务ID
+     * @throws IOException 网络或HTTP错误
+     * @throws DtsException 讯飞返回错误
+     */
+    public String create(SignResult.Dts signed, DtsTaskRequest request) throws IOException, DtsException {
+        XfyunWebapiProperties.DtsTasks config = xfyunWebapiProperties.getDtsTasks();
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("header").put("app_id", signed.getAppId());
+        ObjectNode dts = body.putObject("parameter").putObject("dts");
+        dts.put("vcn", request.getVcn() == null ? config.getDefaultVcn() : request.getVcn());
+        dts.put("language", "zh");
+        dts.put("speed", valueOr(request.getSpeed(), 50));
+        dts.put("volume", valueOr(request.getVolume(), 50));
+        dts.put("pitch", valueOr(request.getPitch(), 50));
+        dts.putObject("audio")
+                .put("encoding", request.getEncoding() == null ? "lame" : request.getEncoding())
+                .put("sample_rate", valueOr(request.getSampleRate(), 16000));
+        body.putObject("payload").putObject("text")
+                .put("encoding", "utf8")
+                .put("compress", "raw")
+                .put("format", "plain")
+                .put("text", Base64.getEncoder().encodeToString(request.getText().getBytes(StandardCharsets.UTF_8)));
+        JsonNode header = post(signed.getUrl(), body).path("header");
+        String taskId = header.path("task_id").asText(null);
+        if (taskId == null || taskId.isEmpty()) {
+            throw new DtsException(-1, "响应缺少 task_id");
+        }
+        return taskId;
+    }
+
+    /**
+     * 查询任务状态
+     *
+     * @param signed dts-query 签名，须与创建任务时的 appId 相同
+     * @param taskId 讯飞任务ID
+     * @return 任务状态与音频地址
+     * @throws IOException 网络或HTTP错误
+     * @throws DtsException 讯飞返回错误
+     */
+    public QueryResult query(SignResult.Dts signed, String taskId) throws IOException, DtsException {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.putObject("header").put("app_id", signed.getAppId()).put("task_id", taskId);
+        JsonNode response = post(signed.getUrl(), body);
+        String taskStatus = response.path("header").path("task_status").asText(null);
+        String audio = response.path("payload").path("audio").path("audio").asText(null);
+        String audioUrl = audio == null || audio.isEmpty()
+                ? null
+                : new String(Base64.getDecoder().decode(audio), StandardCharsets.UTF_8);
+        return new QueryResult(taskStatus, audioUrl);
+    }
+
+    /**
+     * 下载任务合成的音频
+     *
+     * @param audioUrl {@link QueryResult#getAudioUrl()}
+     * @return 音频字节
+     * @throws IOException 网络或HTTP错误
+     */
+    public byte[] download(String audioUrl) throws IOException {
+        HttpURLConnection connection = open(audioUrl);
+        int status = connection.getResponseCode();
+        if (status != HttpURLConnection.HTTP_OK) {
+            drain(connection);
+            throw new IOException("DTS音频下载失败: HTTP " + status);
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return readAll(in);
+        }
+    }
+
+    private JsonNode post(String signedUrl, JsonNode body) throws IOException, DtsException {
+        HttpURLConnection connection = open(target(signedUrl));
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        connection.setFixedLengthStreamingMode(bytes.length);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(bytes);
+        }
+        int status = connection.getResponseCode();
+        if (status != HttpURLConnection.HTTP_OK) {
+            drain(connection);
+            throw new IOException("DTS请求失败: HTTP " + status);
+        }
+        JsonNode response;
+        try (InputStream in = connection.getInputStream()) {
+            response = objectMapper.readTree(in);
+        }
+        JsonNode header = response.path("header");
+        int code = header.path("code").asInt(-1);
+        if (code != 0) {
+            throw new DtsException(code, header.path("message").asText(""));
+        }
+        return response;
+    }
+
+    private HttpURLConnection open(String url) throws IOException {
+        XfyunWebapiProperties.DtsTasks config = xfyunWebapiProperties.getDtsTasks();
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(config.getConnectTimeoutMillis());
+        connection.setReadTimeout(config.getReadTimeoutMillis());
+        return connection;
+    }
+
+    /**
+     * 按配置替换签名 URL 的协议与主机
+     */
+    String target(String signedUrl) {
+        return EndpointOverride.apply(signedUrl, xfyunWebapiProperties.getDtsTasks().getEndpoint());
+    }
+
+    /**
+     * 读完错误响应，使连接可被 keep-alive 复用
+     */
+    private static void drain(HttpURLConnection connection) {
+        try (InputStream err = connection.getErrorStream()) {
+            if (err != null) {
+                readAll(err);
+            }
+        } catch (IOException ignored) {
+            // 连接不再复用
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static int valueOr(Integer value, int defaultValue) {
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * dts_query 的结果
+     */
+    public static final class QueryResult {
+        private final String taskStatus;
+        private final String audioUrl;
+
+        public QueryResult(String taskStatus, String audioUrl) {
+            this.taskStatus = taskStatus;
+            this.audioUrl = audioUrl;
+        }
+
+        /**
+         * 讯飞 task_status：1 已创建，2 派发失败，4 处理中，5 完成
+         *
+         * @return 状态码
+         */
+        public String getTaskStatus() {
+            return taskStatus;
+        }
+
+        /**
+         * 音频下载地址（已从 Base64 解码）
+         *
+         * @return 地址，未完成时为 null
+         */
+        public String getAudioUrl() {
+            return audioUrl;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.xfyun.webapi.service;
+
+/**
+ * 讯飞 DTS 接口返回的业务错误（header.code 非 0）
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public class DtsException extends Exception {
+
+    private final int code;
+
+    public DtsException(int code, String message) {
+        super("DTS错误 " + code + ": " + message);
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,192 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.domain.DtsTask;
+import com.xfyun.webapi.domain.DtsTaskRequest;
+import com.xfyun.webapi.domain.DtsTaskStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分段并行长文本合成
+ *
+ * 整段长文本只建一个 DTS 任务时合成串行，首段音频要等全文合成完。本类按句切分（首段更短），把分段作为
+ * {@link DtsTaskManager} 的任务并行提交，按原文顺序输出各段音频：第一段完成即开始写出，客户端可边收边播。
+ *
+ * 并发受两级限制：单个请求最多 {@code chunk-concurrency} 个分段同时进行（滑动窗口，写出一段再提交下一段），
+ * 全部请求合计不超过 {@code max-concurrent-chunks} 个（信号量，分段音频下载完成后释放）。
+ * 任务的签名、轮询与退避由 {@link DtsTaskManager} 负责，本类只做编排。lame(mp3) 与 raw(pcm) 的分段可直接拼接。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class DtsPipeline {
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private DtsTaskManager dtsTaskManager;
+
+    @Resource
+    private DtsClient dtsClient;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private Semaphore budget;
+    private ExecutorService downloads;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        XfyunWebapiProperties.DtsPipeline config = xfyunWebapiProperties.getDtsPipeline();
+        budget = new Semaphore(Math.max(1, config.getMaxConcurrentChunks()));
+        downloads = Executors.newFixedThreadPool(Math.max(1, config.getDownloadThreads()), DaemonThreads.named("xfyun-dts-download"));
+        Gauge.builder("xfyun.dts.pipeline.chunks", inFlight, AtomicInteger::get)
+                .description("分段合成进行中的分段数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        downloads.shutdownNow();
+    }
+
+    /**
+     * 校验请求并切分文本
+     *
+     * @param request 合成文本与参数，webhook 不适用
+     * @return 分段
+     * @throws IllegalArgumentException 文本为空、超长或带有回调地址
+     */
+    public List<String> split(DtsTaskRequest request) {
+        XfyunWebapiProperties.DtsPipeline config = xfyunWebapiProperties.getDtsPipeline();
+        if (request == null || request.getText() == null || request.getText().trim().isEmpty()) {
+            throw new IllegalArgumentException("text 不能为空");
+        }
+        if (request.getText().length() > config.getMaxTextChars()) {
+            throw new IllegalArgumentException("text 超过 " + config.getMaxTextChars() + " 字");
+        }
+        if (request.getWebhook() != null && !request.getWebhook().isEmpty()) {
+            throw new IllegalArgumentException("分段合成不支持 webhook");
+        }
+        return DtsTextSplitter.split(request.getText(), config.getFirstChunkChars(),
+                Math.min(config.getChunkChars(), DtsTaskManager.MAX_TEXT_LENGTH));
+    }
+
+    /**
+     * 并行合成各分段并按顺序写出音频，每段写出后 flush
+     *
+     * 出错时停止写出并抛出异常，已提交的分段继续在后台完成并释放名额。
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param request 合成参数，文本以 chunks 为准
+     * @param chunks {@link #split} 的结果
+     * @param out 音频输出
+     * @throws IOException 写出失败、分段合成失败或等待名额超时
+     */
+    public void stream(String tenantId, DtsTaskRequest request, List<String> chunks, OutputStream out) throws IOException {
+        int window = Math.max(1, xfyunWebapiProperties.getDtsPipeline().getChunkConcurrency());
+        List<CompletableFuture<byte[]>> audio = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            while (audio.size() < chunks.size() && audio.size() < i + window) {
+                audio.add(submit(tenantId, request, chunks.get(audio.size())));
+            }
+            out.write(await(audio.get(i), i));
+            out.flush();
+            // 已写出的分段不再引用
+            audio.set(i, null);
+        }
+    }
+
+    /**
+     * 提交一个分段：占用全局名额，创建任务，任务结束后下载音频并释放名额
+     */
+    private CompletableFuture<byte[]> submit(String tenantId, DtsTaskRequest request, String text) throws IOException {
+        if (text.trim().isEmpty()) {
+            // 只含空白的分段没有音频
+            return CompletableFuture.completedFuture(new byte[0]);
+        }
+        XfyunWebapiProperties.DtsPipeline config = xfyunWebapiProperties.getDtsPipeline();
+        try {
+            if (!budget.tryAcquire(config.getBudgetTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("分段合成繁忙: 等待并发名额超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待并发名额被中断");
+        }
+        inFlight.incrementAndGet();
+        CompletableFuture<DtsTask> done;
+        try {
+            DtsTask task = dtsTaskManager.create(tenantId, chunkOf(request, text));
+            done = dtsTaskManager.completion(tenantId, task.getTaskId());
+        } catch (Exception e) {
+            release();
+            throw e instanceof IOException ? (IOException) e : new IOException("分段任务创建失败: " + e.getMessage(), e);
+        }
+        return done.thenApplyAsync(task -> {
+            try {
+                if (task.getStatus() != DtsTaskStatus.SUCCEEDED) {
+                    throw new CompletionException(new IOException("分段合成失败: " + task.getTaskId() + " " + task.getMessage()));
+                }
+                return dtsClient.download(task.getAudioUrl());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                release();
+            }
+        }, downloads);
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        budget.release();
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future, int index) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待第 " + (index + 1) + " 段被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    private static DtsTaskRequest chunkOf(DtsTaskRequest request, String text) {
+        DtsTaskRequest chunk = new DtsTaskRequest();
+        chunk.setText(text);
+        chunk.setVcn(request.getVcn());
+        chunk.setSpeed(request.getSpeed());
+        chunk.setVolume(request.getVolume());
+        chunk.setPitch(request.getPitch());
+        chunk.setEncoding(request.getEncoding());
+        chunk.setSampleRate(request.getSampleRate());
+        return chunk;
+    }
+}
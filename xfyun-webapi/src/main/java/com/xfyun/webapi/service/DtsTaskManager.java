@@ -0,0 +1,491 @@
+package com.xfyun.webapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.domain.DtsTask;
+import com.xfyun.webapi.domain.DtsTaskRequest;
+import com.xfyun.webapi.domain.DtsTaskStatus;
+import com.xfyun.webapi.sign.CredentialRegistry;
+import com.xfyun.webapi.sign.SignResult;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.XfyunSigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 服务端 DTS 任务管理
+ *
+ * 客户端提交文本后由服务端在讯飞创建任务，并集中轮询任务状态，客户端通过 SSE 或回调得到结果，不再各自签名轮询 dts_query。
+ *
+ * 轮询按轮（sweep）进行：单个调度线程每 {@code xfyun.dts-tasks.sweep-millis} 取出到期的任务，同一 (租户, appId)
+ * 每轮只取一次查询签名，查询在有界线程池中并发执行，本轮全部完成后才开始计时下一轮，同一任务不会并发查询。
+ * 任务未完成时轮询间隔按倍数递增到上限，查询失败同样退避；大量任务的到期时间落在同一轮中，合并为一批查询。
+ *
+ * 状态变化时整体替换任务快照并通知：SSE 订阅者为单槽位的 {@link SseChannel}，只保留最新快照，由通知线程池以非阻塞输出写出；
+ * 任务结束时向回调地址 POST 快照 JSON，失败按次数重试。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class DtsTaskManager {
+
+    private static final Logger log = LoggerFactory.getLogger(DtsTaskManager.class);
+
+    /** 讯飞 DTS 单个任务的文本上限（字符） */
+    public static final int MAX_TEXT_LENGTH = 100_000;
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private DtsClient dtsClient;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, Task> tasks = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong sweeps = new AtomicLong();
+    private ScheduledExecutorService sweeper;
+    private ExecutorService queries;
+    private ScheduledExecutorService notifier;
+    private Counter createSuccess;
+    private Counter createError;
+    private Counter querySuccess;
+    private Counter queryError;
+
+    @PostConstruct
+    public void init() {
+        XfyunWebapiProperties.DtsTasks config = xfyunWebapiProperties.getDtsTasks();
+        sweeper = Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("xfyun-dts-sweep"));
+        queries = Executors.newFixedThreadPool(Math.max(1, config.getQueryConcurrency()), DaemonThreads.named("xfyun-dts-query"));
+        notifier = Executors.newScheduledThreadPool(Math.max(1, config.getNotifierThreads()), DaemonThreads.named("xfyun-dts-notify"));
+        sweeper.scheduleWithFixedDelay(this::sweepSafely, config.getSweepMillis(), config.getSweepMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("xfyun.dts.tasks.active", active, AtomicInteger::get)
+                .description("服务端DTS未结束的任务数")
+                .register(meterRegistry);
+        createSuccess = requests("create", "success");
+        createError = requests("create", "error");
+        querySuccess = requests("query", "success");
+        queryError = requests("query", "error");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        sweeper.shutdownNow();
+        queries.shutdownNow();
+        notifier.shutdownNow();
+        for (Task task : tasks.values()) {
+            for (SseChannel<DtsTask> watcher : task.watchers) {
+                watcher.close();
+            }
+        }
+    }
+
+    private Counter requests(String operation, String outcome) {
+        return Counter.builder("xfyun.dts.requests")
+                .description("服务端DTS任务调用讯飞的次数")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 在讯飞创建任务并开始跟踪
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param request 合成文本与参数
+     * @return 任务快照
+     * @throws IllegalArgumentException 参数无效、回调主机未允许或任务数已达上限
+     * @throws Exception 签名或调用讯飞失败
+     */
+    public DtsTask create(String tenantId, DtsTaskRequest request) throws Exception {
+        XfyunWebapiProperties.DtsTasks config = xfyunWebapiProperties.getDtsTasks();
+        if (request == null || request.getText() == null || request.getText().trim().isEmpty()) {
+            throw new IllegalArgumentException("text 不能为空");
+        }
+        if (request.getText().length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("text 超过 " + MAX_TEXT_LENGTH + " 字");
+        }
+        URI webhook = webhookOf(request.getWebhook());
+        // 先占用名额再调用讯飞，并发创建不会超过上限；创建失败时归还
+        if (active.incrementAndGet() > config.getMaxActiveTasks()) {
+            active.decrementAndGet();
+            throw new IllegalArgumentException("进行中的DTS任务已达上限 " + config.getMaxActiveTasks());
+        }
+        boolean created = false;
+        try {
+            String tenant = tenantOf(tenantId);
+            SignResult.Dts signed = (SignResult.Dts) xfyunSigner.sign(tenant, SignService.DTS_CREATE);
+            String taskId;
+            try {
+                taskId = dtsClient.create(signed, request);
+                createSuccess.increment();
+            } catch (Exception e) {
+                createError.increment();
+                throw e;
+            }
+            long now = millis();
+            Task task = new Task(tenant, signed.getAppId(), webhook,
+                    new DtsTask(taskId, DtsTaskStatus.PROCESSING, null, null, null, now, now, 0));
+            task.interval = config.getMinPollMillis();
+            task.nextPollAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(task.interval);
+            tasks.put(taskId, task);
+            created = true;
+            return task.current;
+        } finally {
+            if (!created) {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 任务当前快照，只读本地状态，不调用讯飞
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param taskId 任务ID
+     * @return 快照，任务不存在或不属于该租户时为 null
+     */
+    public DtsTask get(String tenantId, String taskId) {
+        Task task = taskOf(tenantId, taskId);
+        return task == null ? null : task.current;
+    }
+
+    /**
+     * 订阅任务状态（SSE）
+     *
+     * 立即推送当前快照，之后每次状态变化推送一次，事件名为状态标签；任务结束后连接关闭。
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param taskId 任务ID
+     * @param response 当前响应
+     * @return SSE 连接，由控制器登记到异步处理；任务不存在或不属于该租户时为 null
+     */
+    public SseChannel<?> watch(String tenantId, String taskId, HttpServletResponse response) {
+        Task task = taskOf(tenantId, taskId);
+        if (task == null) {
+            return null;
+        }
+        SseChannel<DtsTask> watcher = new SseChannel<>(response, xfyunWebapiProperties.getDtsTasks().getWatchTimeoutMillis(),
+                1, notifier, this::encode);
+        watcher.onClose(() -> task.watchers.remove(watcher));
+        task.watchers.add(watcher);
+        // 先登记再取快照：与并发的状态变化之间至多多发一次同一快照
+        offer(watcher, task.current);
+        return watcher;
+    }
+
+    /**
+     * 任务结束时完成的 future，供服务端内部编排（如分段合成）使用
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param taskId 任务ID
+     * @return 以终态快照完成的 future，在轮询线程中回调；任务不存在或不属于该租户时为 null
+     */
+    public CompletableFuture<DtsTask> completion(String tenantId, String taskId) {
+        Task task = taskOf(tenantId, taskId);
+        return task == null ? null : task.done;
+    }
+
+    /**
+     * 进行中的任务数
+     *
+     * @return 任务数
+     */
+    public int activeCount() {
+        return active.get();
+    }
+
+    /**
+     * 已执行的轮询轮数
+     *
+     * @return 轮数
+     */
+    public long sweepCount() {
+        return sweeps.get();
+    }
+
+    /**
+     * 执行一轮轮询：查询所有到期任务，清理超过保留时间的已结束任务
+     */
+    void sweep() throws InterruptedException {
+        sweeps.incrementAndGet();
+        long now = System.nanoTime();
+        long retention = TimeUnit.SECONDS.toMillis(xfyunWebapiProperties.getDtsTasks().getRetentionSeconds());
+        long nowMillis = millis();
+        Map<String, List<Task>> due = new LinkedHashMap<>();
+        for (Iterator<Task> it = tasks.values().iterator(); it.hasNext(); ) {
+            Task task = it.next();
+            DtsTask current = task.current;
+            if (current.getStatus().isTerminal()) {
+                if (nowMillis - current.getUpdatedAt() >= retention) {
+                    it.remove();
+                }
+            } else if (now - task.nextPollAt >= 0) {
+                due.computeIfAbsent(task.tenantId + '\n' + task.appId, k -> new ArrayList<>()).add(task);
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        List<Future<?>> running = new ArrayList<>();
+        for (List<Task> group : due.values()) {
+            Task first = group.get(0);
+            SignResult.Dts signed;
+            try {
+                signed = (SignResult.Dts) xfyunSigner.signWith(first.tenantId, SignService.DTS_QUERY, first.appId);
+            } catch (Exception e) {
+                log.warn("DTS查询签名失败: {}/{}: {}", first.tenantId, first.appId, e.getMessage());
+                for (Task task : group) {
+                    failed(task, "查询签名失败: " + e.getMessage());
+                }
+                continue;
+            }
+            for (Task task : group) {
+                running.add(queries.submit(() -> poll(task, signed)));
+            }
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.warn("DTS任务查询异常: {}", e.getCause().toString());
+            }
+        }
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("DTS任务轮询失败: {}", e.getMessage());
+        }
+    }
+
+    private void poll(Task task, SignResult.Dts signed) {
+        DtsTask current = task.current;
+        int polls = current.getPolls() + 1;
+        DtsClient.QueryResult result;
+        try {
+            result = dtsClient.query(signed, current.getTaskId());
+            querySuccess.increment();
+        } catch (IOException | DtsException e) {
+            queryError.increment();
+            task.replace(new DtsTask(current.getTaskId(), current.getStatus(), current.getUpstreamStatus(), null,
+                    null, current.getCreatedAt(), current.getUpdatedAt(), polls));
+            failed(task, e.getMessage());
+            return;
+        }
+        task.errors = 0;
+        String status = result.getTaskStatus();
+        if (DtsClient.TASK_DONE.equals(status)) {
+            finish(task, new DtsTask(current.getTaskId(), DtsTaskStatus.SUCCEEDED, status, result.getAudioUrl(), null,
+                    current.getCreatedAt(), millis(), polls));
+        } else if (DtsClient.TASK_DISPATCH_FAILED.equals(status)) {
+            finish(task, new DtsTask(current.getTaskId(), DtsTaskStatus.FAILED, status, null, "任务派发失败",
+                    current.getCreatedAt(), millis(), polls));
+        } else {
+            boolean changed = status != null && !status.equals(current.getUpstreamStatus());
+            DtsTask next = new DtsTask(current.getTaskId(), DtsTaskStatus.PROCESSING, status, null, null,
+                    current.getCreatedAt(), changed ? millis() : current.getUpdatedAt(), polls);
+            if (changed) {
+                publish(task, next);
+            } else {
+                task.replace(next);
+            }
+            backOff(task);
+        }
+    }
+
+    /**
+     * 查询失败：退避重试，连续失败达到上限时任务失败
+     */
+    private void failed(Task task, String message) {
+        if (++task.errors < xfyunWebapiProperties.getDtsTasks().getMaxQueryErrors()) {
+            backOff(task);
+            return;
+        }
+        DtsTask current = task.current;
+        finish(task, new DtsTask(current.getTaskId(), DtsTaskStatus.FAILED, current.getUpstreamStatus(), null,
+                "查询失败: " + message, current.getCreatedAt(), millis(), current.getPolls()));
+    }
+
+    private void backOff(Task task) {
+        XfyunWebapiProperties.DtsTasks config = xfyunWebapiProperties.getDtsTasks();
+        task.interval = Math.min(config.getMaxPollMillis(),
+                Math.max(config.getMinPollMillis(), (long) (task.interval * config.getBackoffMultiplier())));
+        task.nextPollAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(task.interval);
+    }
+
+    private void finish(Task task, DtsTask last) {
+        active.decrementAndGet();
+        publish(task, last);
+        task.done.complete(last);
+        if (task.webhook != null) {
+            notifier.execute(() -> deliver(task.webhook, last, 1));
+        }
+    }
+
+    private void publish(Task task, DtsTask snapshot) {
+        task.replace(snapshot);
+        for (SseChannel<DtsTask> watcher : task.watchers) {
+            offer(watcher, snapshot);
+        }
+    }
+
+    /**
+     * 放入订阅者的唯一槽位，只保留最新快照；终态快照写出后连接关闭
+     */
+    private static void offer(SseChannel<DtsTask> watcher, DtsTask snapshot) {
+        if (snapshot.getStatus().isTerminal()) {
+            watcher.offerLast(0, snapshot);
+        } else {
+            watcher.offer(0, snapshot);
+        }
+    }
+
+    private String encode(DtsTask snapshot) throws IOException {
+        return SseChannel.event(snapshot.getStatus().tag(), null, objectMapper.writeValueAsString(snapshot));
+    }
+
+    /**
+     * 回调通知，失败时按 1、2、4… 秒退避重试
+     */
+    private void deliver(URI webhook, DtsTask snapshot, int attempt) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(snapshot);
+            XfyunWebapiProperties.DtsTasks config = xfyunWebapiProperties.getDtsTasks();
+            HttpURLConnection connection = (HttpURLConnection) new URL(webhook.toString()).openConnection();
+            connection.setConnectTimeout(config.getConnectTimeoutMillis());
+            connection.setReadTimeout(config.getReadTimeoutMillis());
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            int status = connection.getResponseCode();
+            try (InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+                while (in != null && in.read() != -1) {
+                    // 读完响应以复用连接
+                }
+            }
+            if (status / 100 != 2) {
+                throw new IOException("HTTP " + status);
+            }
+        } catch (IOException e) {
+            if (attempt >= xfyunWebapiProperties.getDtsTasks().getWebhookAttempts()) {
+                log.warn("DTS任务回调失败: {} {}: {}", snapshot.getTaskId(), webhook, e.getMessage());
+                return;
+            }
+            try {
+                notifier.schedule(() -> deliver(webhook, snapshot, attempt + 1), 1L << (attempt - 1), TimeUnit.SECONDS);
+            } catch (RuntimeException rejected) {
+                // 已关闭
+            }
+        }
+    }
+
+    private URI webhookOf(String webhook) {
+        if (webhook == null || webhook.isEmpty()) {
+            return null;
+        }
+        URI uri;
+        try {
+            uri = URI.create(webhook);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的回调地址: " + webhook);
+        }
+        String scheme = uri.getScheme();
+        if (!"http".equals(scheme) && !"https".equals(scheme)) {
+            throw new IllegalArgumentException("回调地址须为 http/https: " + webhook);
+        }
+        if (uri.getHost() == null || !xfyunWebapiProperties.getDtsTasks().getWebhookHosts().contains(uri.getHost())) {
+            throw new IllegalArgumentException("回调主机未在 xfyun.dts-tasks.webhook-hosts 中: " + uri.getHost());
+        }
+        return uri;
+    }
+
+    private Task taskOf(String tenantId, String taskId) {
+        Task task = taskId == null ? null : tasks.get(taskId);
+        return task != null && task.tenantId.equals(tenantOf(tenantId)) ? task : null;
+    }
+
+    private static String tenantOf(String tenantId) {
+        return tenantId == null || tenantId.isEmpty() ? CredentialRegistry.DEFAULT_TENANT : tenantId;
+    }
+
+    private long millis() {
+        return xfyunSigner.getHttpDateClock().getClock().millis();
+    }
+
+    /**
+     * 跟踪中的任务；调度字段只由轮询线程访问，同一任务同一时间至多一个查询
+     */
+    private static final class Task {
+        private final String tenantId;
+        private final String appId;
+        private final URI webhook;
+        private final Set<SseChannel<DtsTask>> watchers = ConcurrentHashMap.newKeySet();
+        private final CompletableFuture<DtsTask> done = new CompletableFuture<>();
+        private volatile DtsTask current;
+        private volatile long nextPollAt;
+        private volatile long interval;
+        private volatile int errors;
+
+        Task(String tenantId, String appId, URI webhook, DtsTask current) {
+            this.tenantId = tenantId;
+            this.appId = appId;
+            this.webhook = webhook;
+            this.current = current;
+        }
+
+        void replace(DtsTask snapshot) {
+            current = snapshot;
+        }
+    }
+}
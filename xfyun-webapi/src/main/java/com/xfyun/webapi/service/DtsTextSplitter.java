@@ -0,0 +1,91 @@
+package com.xfyun.webapi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 长文本按句切分
+ *
+ * 在句末标点（。！？；…、换行，以及后随空白的英文句点等）之后断开，紧随其后的右引号、右括号归入前一句；
+ * 整句按顺序装入分段直到长度上限。单句超过上限时退而在逗号、顿号或空白处断开，仍找不到时按上限硬切（不拆开代理对）。
+ * 各分段依次拼接与原文完全相同。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class DtsTextSplitter {
+
+    private static final String SENTENCE_END = "。！？；!?;…\n";
+    private static final String CLOSING = "”’」』）)】》\"'";
+    private static final String SOFT_BREAK = "，,、：: \t";
+
+    private DtsTextSplitter() {
+    }
+
+    /**
+     * 切分文本
+     *
+     * @param text 原文
+     * @param firstChunkChars 首段长度上限，用于缩短首段出声时间
+     * @param chunkChars 其余分段长度上限
+     * @return 分段，顺序拼接即原文；原文为空时为空列表
+     */
+    public static List<String> split(String text, int firstChunkChars, int chunkChars) {
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        int length = text.length();
+        while (start < length) {
+            int limit = Math.max(1, chunks.isEmpty() ? Math.min(firstChunkChars, chunkChars) : chunkChars);
+            if (length - start <= limit) {
+                chunks.add(text.substring(start));
+                break;
+            }
+            int end = lastBoundary(text, start, start + limit);
+            chunks.add(text.substring(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * (start, max] 内最后一个断点：优先句末，其次软断点，最后硬切
+     */
+    private static int lastBoundary(String text, int start, int max) {
+        int soft = -1;
+        for (int i = max; i > start; i--) {
+            if (isSentenceEnd(text, i)) {
+                return i;
+            }
+            if (soft < 0 && SOFT_BREAK.indexOf(text.charAt(i - 1)) >= 0) {
+                soft = i;
+            }
+        }
+        if (soft > 0) {
+            return soft;
+        }
+        return Character.isHighSurrogate(text.charAt(max - 1)) && max - 1 > start ? max - 1 : max;
+    }
+
+    /**
+     * 位置 i 之前是否为一句的结尾（含其后的右引号、右括号），且 i 处不再是右引号、右括号
+     */
+    private static boolean isSentenceEnd(String text, int i) {
+        if (i < text.length() && CLOSING.indexOf(text.charAt(i)) >= 0) {
+            return false;
+        }
+        int j = i - 1;
+        while (j >= 0 && CLOSING.indexOf(text.charAt(j)) >= 0) {
+            j--;
+        }
+        if (j < 0) {
+            return false;
+        }
+        char c = text.charAt(j);
+        if (SENTENCE_END.indexOf(c) >= 0) {
+            return true;
+        }
+        // 英文句点须后随空白，避免切开小数与缩写
+        return c == '.' && i < text.length() && Character.isWhitespace(text.charAt(i));
+    }
+}
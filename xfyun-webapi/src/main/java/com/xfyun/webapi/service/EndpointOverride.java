@@ -0,0 +1,31 @@
+package com.xfyun.webapi.service;
+
+/**
+ * 以配置的地址替换签名 URL 的协议与主机，路径与签名参数保持不变，用于本地联调与测试桩
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+final class EndpointOverride {
+
+    private static final String SCHEME_SEPARATOR = "://";
+
+    private EndpointOverride() {
+    }
+
+    /**
+     * @param signedUrl 签名 URL
+     * @param endpoint 替换的协议与主机，如 {@code ws://127.0.0.1:8081}；为空时不替换
+     * @return 替换后的 URL
+     */
+    static String apply(String signedUrl, String endpoint) {
+        int scheme = signedUrl.indexOf(SCHEME_SEPARATOR);
+        if (endpoint == null || endpoint.isEmpty() || scheme < 0) {
+            return signedUrl;
+        }
+        int path = signedUrl.indexOf('/', scheme + SCHEME_SEPARATOR.length());
+        String base = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        return path < 0 ? base : base + signedUrl.substring(path);
+    }
+}
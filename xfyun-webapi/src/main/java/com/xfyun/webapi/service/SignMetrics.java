@@ -0,0 +1,121 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.SignaturePresigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 签名监控指标
+ *
+ * 按 service、outcome、encryption 三个标签记录：
+ * - {@value #SIGN_LATENCY}：签名服务耗时，带百分位直方图，可直接用于 Prometheus 的 histogram_quantile
+ * - {@value #SIGN_REQUESTS}：签名接口请求次数
+ *
+ * 所有标签组合在启动时预先注册，记录时只做数组下标访问，不在请求路径上查找或创建 Meter。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class SignMetrics {
+
+    public static final String SIGN_LATENCY = "xfyun.sign.latency";
+    public static final String SIGN_REQUESTS = "xfyun.sign.requests";
+
+    /** 批量签名在指标中的服务标签 */
+    public static final String BATCH_TAG = "batch";
+
+    private static final String[] OUTCOMES = {"error", "success"};
+    private static final String[] ENCRYPTION = {"off", "on"};
+
+    private final MeterRegistry registry;
+    private final Timer[][][] latency;
+    private final Counter[][][] requests;
+
+    public SignMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        String[] services = serviceTags();
+        latency = new Timer[services.length][2][2];
+        requests = new Counter[services.length][2][2];
+        for (int s = 0; s < services.length; s++) {
+            for (int o = 0; o < 2; o++) {
+                for (int e = 0; e < 2; e++) {
+                    latency[s][o][e] = Timer.builder(SIGN_LATENCY)
+                            .description("签名生成耗时")
+                            .tags("service", services[s], "outcome", OUTCOMES[o], "encryption", ENCRYPTION[e])
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(Duration.ofNanos(500))
+                            .maximumExpectedValue(Duration.ofMillis(100))
+                            .register(registry);
+                    requests[s][o][e] = Counter.builder(SIGN_REQUESTS)
+                            .description("签名接口请求次数")
+                            .tags("service", services[s], "outcome", OUTCOMES[o], "encryption", ENCRYPTION[e])
+                            .register(registry);
+                }
+            }
+        }
+    }
+
+    /**
+     * 记录一次签名耗时
+     *
+     * @param service 服务类型，批量签名传 null
+     * @param success 是否成功
+     * @param encrypted 是否加密
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordSign(SignService service, boolean success, boolean encrypted, long nanos) {
+        latency[index(service)][success ? 1 : 0][encrypted ? 1 : 0].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次签名接口请求
+     *
+     * @param service 服务类型，批量签名传 null
+     * @param success 是否成功
+     * @param encrypted 是否加密
+     */
+    public void countRequest(SignService service, boolean success, boolean encrypted) {
+        requests[index(service)][success ? 1 : 0][encrypted ? 1 : 0].increment();
+    }
+
+    /**
+     * 将预签名窗口命中/未命中次数发布到 /actuator/metrics
+     *
+     * 预签名器由签名服务在启动时创建，因此在创建后绑定。
+     *
+     * @param presigner 预签名器
+     */
+    public void bindPresigner(SignaturePresigner presigner) {
+        FunctionCounter.builder("xfyun.sign.presign.requests", presigner, SignaturePresigner::hitCount)
+                .tag("result", "hit")
+                .description("预签名窗口命中次数")
+                .register(registry);
+        FunctionCounter.builder("xfyun.sign.presign.requests", presigner, SignaturePresigner::missCount)
+                .tag("result", "miss")
+                .description("预签名窗口未命中次数")
+                .register(registry);
+    }
+
+    private static int index(SignService service) {
+        return service == null ? SignService.values().length : service.ordinal();
+    }
+
+    private static String[] serviceTags() {
+        SignService[] values = SignService.values();
+        String[] tags = new String[values.length + 1];
+        for (int i = 0; i < values.length; i++) {
+            tags[i] = values[i].tag();
+        }
+        tags[values.length] = BATCH_TAG;
+        return tags;
+    }
+}
@@ -0,0 +1,294 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.config.XfyunConfigProperties;
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.sign.CredentialRegistry;
+import com.xfyun.webapi.sign.EncryptionMode;
+import com.xfyun.webapi.sign.SignJson;
+import com.xfyun.webapi.sign.SignResult;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.XfyunSigner;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 签名推送流（SSE）
+ *
+ * 客户端订阅 (租户, 服务)，服务端在签名剩余有效期不足 {@code xfyun.stream.refresh-margin-seconds} 前推送新签名，
+ * 取代客户端定时轮询。每个 (租户, 服务) 只由后台线程签一次，所有订阅者共享同一签名；未加密时连序列化结果也共享。
+ *
+ * 广播不阻塞：后台线程只把最新事件放入订阅者的 {@link SseChannel}（每个服务一个槽位，新事件覆盖未发出的旧事件），
+ * 由发送线程池以非阻塞输出写出。慢订阅者的输出不可写时不占用发送线程，积压的旧签名被合并，不会拖慢其他订阅者。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class SignStream {
+
+    private static final Logger log = LoggerFactory.getLogger(SignStream.class);
+
+    @Resource
+    private XfyunConfigProperties xfyunConfigProperties;
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Topic, TopicState> topics = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService ticker;
+    private ExecutorService senders;
+    /** 仅由 tick 线程访问 */
+    private long lastHeartbeat;
+
+    @PostConstruct
+    public void init() {
+        XfyunWebapiProperties.Stream config = xfyunWebapiProperties.getStream();
+        ticker = Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("xfyun-sign-stream"));
+        senders = Executors.newFixedThreadPool(Math.max(1, config.getSenderThreads()), DaemonThreads.named("xfyun-sign-stream-sender"));
+        lastHeartbeat = System.nanoTime();
+        ticker.scheduleWithFixedDelay(this::tickSafely, config.getTickMillis(), config.getTickMillis(), TimeUnit.MILLISECONDS);
+        Gauge.builder("xfyun.sign.stream.subscribers", subscribers, Set::size)
+                .description("签名推送流当前订阅者数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        ticker.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.channel.close();
+        }
+    }
+
+    /**
+     * 订阅服务的签名推送
+     *
+     * 订阅后立即推送各服务当前的签名，之后在签名临近失效前推送新签名。
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param services 订阅的服务
+     * @param authorization 授权头，加密模式下用于派生密钥
+     * @param response 当前响应
+     * @return SSE 连接，由控制器登记到异步处理
+     */
+    public SseChannel<?> subscribe(String tenantId, Collection<SignService> services, String authorization,
+                                   HttpServletResponse response) {
+        String tenant = tenantId == null || tenantId.isEmpty() ? CredentialRegistry.DEFAULT_TENANT : tenantId;
+        Subscriber subscriber = new Subscriber(authorization, response);
+        subscriber.channel.onClose(() -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        for (SignService service : services) {
+            TopicState state = topics.computeIfAbsent(new Topic(tenant, service), TopicState::new);
+            subscriber.states.add(state);
+            state.subscribers.add(subscriber);
+            Event current = state.current.get();
+            if (current == null || !isFresh(state, current)) {
+                refresh(state);
+                current = state.current.get();
+            }
+            if (current != null) {
+                subscriber.offer(current);
+            }
+        }
+        return subscriber.channel;
+    }
+
+    /**
+     * 当前订阅者数
+     *
+     * @return 订阅者数
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * 检查所有有订阅者的主题，签名临近失效或凭证已轮换时重新签名并广播；按间隔发送心跳
+     */
+    void tick() {
+        for (TopicState state : topics.values()) {
+            if (state.subscribers.isEmpty()) {
+                continue;
+            }
+            Event current = state.current.get();
+            if (current == null || !isFresh(state, current)) {
+                refresh(state);
+            }
+        }
+        long now = System.nanoTime();
+        if (now - lastHeartbeat >= TimeUnit.SECONDS.toNanos(xfyunWebapiProperties.getStream().getHeartbeatSeconds())) {
+            lastHeartbeat = now;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.channel.heartbeat();
+            }
+        }
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.warn("签名推送流刷新失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean isFresh(TopicState state, Event event) {
+        return xfyunSigner.remainingValidity(state.topic.tenantId, state.topic.service, event.signed.getEtag(),
+                xfyunWebapiProperties.getStream().getRefreshMarginSeconds()) > 0;
+    }
+
+    /**
+     * 重新签名并广播给主题的所有订阅者
+     *
+     * 签名经过签名缓存，同一时间桶内并发刷新拿到同一结果，只广播一次。
+     */
+    private void refresh(TopicState state) {
+        Map<String, Object> signed;
+        try {
+            signed = xfyunSigner.sign(state.topic.tenantId, state.topic.service);
+        } catch (Exception e) {
+            log.warn("签名推送流签名失败: {}/{}: {}", state.topic.tenantId, state.topic.service.tag(), e.getMessage());
+            return;
+        }
+        if (!(signed instanceof SignResult)) {
+            return;
+        }
+        Event previous = state.current.get();
+        if (previous != null && previous.signed == signed) {
+            return;
+        }
+        Event next = new Event(state.topic.service, (SignResult) signed);
+        if (!state.current.compareAndSet(previous, next)) {
+            return;
+        }
+        for (Subscriber subscriber : state.subscribers) {
+            subscriber.offer(next);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        for (TopicState state : subscriber.states) {
+            state.subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * 一次推送的签名，未加密时的 JSON 在订阅者间共享
+     */
+    private static final class Event {
+        private final SignService service;
+        private final SignResult signed;
+        /** 未加密时所有订阅者共用的事件文本 */
+        private final String frame;
+
+        Event(SignService service, SignResult signed) {
+            this.service = service;
+            this.signed = signed;
+            this.frame = SseChannel.event(service.tag(), signed.getEtag(), SignJson.toString(signed));
+        }
+    }
+
+    /**
+     * 订阅者：连接与授权头；同一事件只放入一次
+     */
+    private final class Subscriber {
+        private final String authorization;
+        private final Set<TopicState> states = ConcurrentHashMap.newKeySet();
+        private final AtomicReferenceArray<Event> offered = new AtomicReferenceArray<>(SignService.values().length);
+        private final SseChannel<Event> channel;
+
+        Subscriber(String authorization, HttpServletResponse response) {
+            this.authorization = authorization;
+            this.channel = new SseChannel<>(response, xfyunWebapiProperties.getStream().getTimeoutMillis(),
+                    SignService.values().length, senders, this::encode);
+        }
+
+        void offer(Event event) {
+            // 订阅时与广播可能送来同一事件
+            if (offered.getAndSet(event.service.ordinal(), event) != event) {
+                channel.offer(event.service.ordinal(), event);
+            }
+        }
+
+        String encode(Event event) throws Exception {
+            EncryptionMode mode = xfyunConfigProperties.getEncryption().getMode();
+            if (mode == EncryptionMode.NONE) {
+                return event.frame;
+            }
+            String data = SignJson.toString(xfyunSigner.encrypt(event.signed, authorization, mode));
+            return SseChannel.event(event.service.tag(), event.signed.getEtag(), data);
+        }
+    }
+
+    /**
+     * 订阅主题：(租户, 服务)
+     */
+    private static final class Topic {
+        private final String tenantId;
+        private final SignService service;
+
+        Topic(String tenantId, SignService service) {
+            this.tenantId = tenantId;
+            this.service = service;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Topic)) {
+                return false;
+            }
+            Topic topic = (Topic) o;
+            return service == topic.service && tenantId.equals(topic.tenantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, service);
+        }
+    }
+
+    /**
+     * 主题的订阅者与最近一次推送的签名
+     */
+    private static final class TopicState {
+        private final Topic topic;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicReference<Event> current = new AtomicReference<>();
+
+        TopicState(Topic topic) {
+            this.topic = topic;
+        }
+    }
+}
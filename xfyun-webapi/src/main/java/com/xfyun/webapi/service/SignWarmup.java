@@ -0,0 +1,169 @@
+package com.xfyun.webapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.domain.Result;
+import com.xfyun.webapi.sign.EncryptionMode;
+import com.xfyun.webapi.sign.SignResult;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.TenantCredentials;
+import com.xfyun.webapi.sign.XfyunSigner;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动预热
+ *
+ * 作为 {@link ApplicationRunner} 运行：Spring Boot 在所有 runner 执行完之后才把就绪状态切换为
+ * ACCEPTING_TRAFFIC，因此预热期间 /actuator/health/readiness 返回 OUT_OF_SERVICE，负载均衡不会转发流量。
+ *
+ * 每轮对每个已配置凭证的服务执行：签名计算（绕过缓存与预签名）、field/envelope 两种加密、
+ * {@link Result} 的 JSON 序列化与预序列化响应，覆盖 JCE 初始化、Jackson 序列化器创建与 JIT 编译。
+ * 预热直接调用 {@link XfyunSigner}，不计入签名指标与凭证池在途数。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class SignWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SignWarmup.class);
+
+    /** 预热加密使用的授权头，只占用密钥缓存中的一个条目 */
+    private static final String WARMUP_AUTHORIZATION = "Bearer xfyun-warmup";
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private volatile Report report;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        XfyunWebapiProperties.Warmup warmup = xfyunWebapiProperties.getWarmup();
+        if (!warmup.isEnabled() || warmup.getIterations() <= 0) {
+            return;
+        }
+        Report finished = warmUp(warmup.getIterations(), warmup.getTimeoutMillis());
+        report = finished;
+        TimeGauge.builder("xfyun.warmup.duration", finished, TimeUnit.MILLISECONDS, Report::getDurationMillis)
+                .description("启动预热耗时")
+                .register(meterRegistry);
+        Gauge.builder("xfyun.warmup.iterations", finished, Report::getIterations)
+                .description("启动预热完成的轮数")
+                .register(meterRegistry);
+        log.info("签名预热完成: {} 轮, 耗时 {} ms{}", finished.getIterations(), finished.getDurationMillis(),
+                finished.isTimedOut() ? "（达到时间上限提前结束）" : "");
+    }
+
+    /**
+     * 最近一次预热结果
+     *
+     * @return 预热结果，未执行时为 null
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    /**
+     * 执行预热，达到轮数或时间上限即停止
+     *
+     * @param iterations 轮数
+     * @param timeoutMillis 时间上限（毫秒）
+     * @return 预热结果
+     */
+    Report warmUp(int iterations, long timeoutMillis) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<SignService> services = configuredServices();
+        long sink = 0;
+        int completed = 0;
+        boolean timedOut = false;
+        try {
+            while (completed < iterations) {
+                if (System.nanoTime() - deadline >= 0) {
+                    timedOut = true;
+                    break;
+                }
+                for (SignService service : services) {
+                    Map<String, Object> signed = xfyunSigner.signUncached(null, service);
+                    sink += xfyunSigner.encrypt(signed, WARMUP_AUTHORIZATION, EncryptionMode.FIELD).size();
+                    sink += xfyunSigner.encrypt(signed, WARMUP_AUTHORIZATION, EncryptionMode.ENVELOPE).size();
+                    sink += objectMapper.writeValueAsBytes(Result.success(signed)).length;
+                    if (signed instanceof SignResult) {
+                        sink += ((SignResult) signed).responseBytes().length;
+                    }
+                }
+                completed++;
+            }
+        } catch (Exception e) {
+            // 预热失败不影响启动，真实请求会按原逻辑报错
+            log.warn("签名预热中断: {}", e.getMessage());
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (log.isDebugEnabled()) {
+            log.debug("签名预热服务: {}, 校验值: {}", services, sink);
+        }
+        return new Report(completed, durationMillis, timedOut);
+    }
+
+    private List<SignService> configuredServices() {
+        TenantCredentials tenant = xfyunSigner.getCredentialRegistry().getDefault();
+        List<SignService> services = new ArrayList<>();
+        for (SignService service : SignService.values()) {
+            if (tenant.get(service).isConfigured()) {
+                services.add(service);
+            }
+        }
+        return services;
+    }
+
+    /**
+     * 预热结果
+     */
+    public static final class Report {
+
+        private final int iterations;
+        private final long durationMillis;
+        private final boolean timedOut;
+
+        Report(int iterations, long durationMillis, boolean timedOut) {
+            this.iterations = iterations;
+            this.durationMillis = durationMillis;
+            this.timedOut = timedOut;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+    }
+}
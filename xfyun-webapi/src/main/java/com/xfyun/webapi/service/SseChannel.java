@@ -0,0 +1,329 @@
+package com.xfyun.webapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 非阻塞写出、按槽位合并事件的 SSE 连接
+ *
+ * 每个槽位只保留最新一条未写出的事件，新事件覆盖旧事件，慢客户端只会跳过过期的中间事件；事件在写出时才编码，
+ * 被覆盖的事件不做序列化与加密。写出在调用方提供的线程池中进行，同一连接最多一个写出任务；
+ * 输出不可写（{@link ServletOutputStream#isReady()} 为 false）时任务立即结束，容器回调 {@link #onWritePossible()}
+ * 后再继续，慢客户端不占用任何线程，固定大小的写出线程池不会被个别客户端拖住。
+ *
+ * 控制器返回 {@link #start(HttpServletRequest)} 的结果；异步处理开始后注册写监听并开始写出。
+ * 连接超时、客户端断开或写出失败后连接关闭，并回调 {@link #onClose(Runnable)} 登记的清理动作。
+ *
+ * @param <T> 事件类型
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public final class SseChannel<T> implements WriteListener, DeferredResultProcessingInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SseChannel.class);
+
+    private static final byte[] HEARTBEAT = ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 事件编码
+     *
+     * @param <T> 事件类型
+     */
+    public interface Encoder<T> {
+
+        /**
+         * @param event 事件
+         * @return 完整的 SSE 事件文本，见 {@link #event(String, String, String)}
+         * @throws Exception 编码失败，连接随之关闭
+         */
+        String encode(T event) throws Exception;
+    }
+
+    private final HttpServletResponse response;
+    private final DeferredResult<Void> result;
+    private final Executor executor;
+    private final Encoder<T> encoder;
+    private final AtomicReferenceArray<T> pending;
+    private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean resumed = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicReference<Runnable> onClose = new AtomicReference<>();
+    private volatile ServletOutputStream out;
+    private volatile boolean listening;
+    private volatile boolean finishing;
+    /** 仅由写出任务访问 */
+    private boolean unflushed;
+
+    /**
+     * @param response 当前响应
+     * @param timeoutMillis 连接超时，超时后正常结束响应
+     * @param slots 槽位数
+     * @param executor 写出线程池
+     * @param encoder 事件编码
+     */
+    public SseChannel(HttpServletResponse response, long timeoutMillis, int slots, Executor executor, Encoder<T> encoder) {
+        this.response = response;
+        this.result = new DeferredResult<>(timeoutMillis);
+        this.executor = executor;
+        this.encoder = encoder;
+        this.pending = new AtomicReferenceArray<>(slots);
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        result.onTimeout(this::close);
+        result.onCompletion(this::markClosed);
+        result.onError(error -> markClosed());
+    }
+
+    /**
+     * 登记到当前请求的异步处理
+     *
+     * @param request 当前请求
+     * @return 供控制器返回的异步结果，连接结束时完成
+     */
+    public DeferredResult<Void> start(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).registerDeferredResultInterceptor(this, this);
+        return result;
+    }
+
+    /**
+     * 连接关闭后执行的清理动作
+     *
+     * @param action 清理动作
+     */
+    public void onClose(Runnable action) {
+        onClose.set(action);
+        if (closed.get()) {
+            runOnClose();
+        }
+    }
+
+    /**
+     * 放入槽位，覆盖尚未写出的旧事件
+     *
+     * @param slot 槽位
+     * @param event 事件
+     */
+    public void offer(int slot, T event) {
+        pending.set(slot, event);
+        schedule();
+    }
+
+    /**
+     * 放入最后一个事件，写出后正常结束响应
+     *
+     * @param slot 槽位
+     * @param event 事件
+     */
+    public void offerLast(int slot, T event) {
+        pending.set(slot, event);
+        finishing = true;
+        schedule();
+    }
+
+    /**
+     * 发送一次心跳注释行
+     */
+    public void heartbeat() {
+        heartbeatPending.set(true);
+        schedule();
+    }
+
+    /**
+     * 立即正常结束响应，未写出的事件丢弃
+     */
+    public void close() {
+        if (markClosed()) {
+            result.setResult(null);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * 格式化一个 SSE 事件
+     *
+     * @param name 事件名
+     * @param id 事件ID，可为 null
+     * @param data 数据，多行时逐行输出
+     * @return SSE 事件文本
+     */
+    public static String event(String name, String id, String data) {
+        StringBuilder text = new StringBuilder(data.length() + 64).append("event:").append(name).append('\n');
+        if (id != null) {
+            text.append("id:").append(id).append('\n');
+        }
+        int start = 0;
+        for (int end; (end = data.indexOf('\n', start)) >= 0; start = end + 1) {
+            text.append("data:").append(data, start, end).append('\n');
+        }
+        return text.append("data:").append(data, start, data.length()).append("\n\n").toString();
+    }
+
+    /**
+     * 不建立推送连接，直接写出一个事件后结束响应，用于参数无效等情况
+     *
+     * @param response 当前响应
+     * @param name 事件名
+     * @param data 数据
+     * @throws IOException 写出失败
+     */
+    public static void sendOnce(HttpServletResponse response, String name, String data) throws IOException {
+        byte[] bytes = event(name, null, data).getBytes(StandardCharsets.UTF_8);
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(bytes.length);
+        ServletOutputStream stream = response.getOutputStream();
+        stream.write(bytes);
+        stream.flush();
+    }
+
+    /**
+     * 异步处理已开始，注册写监听
+     */
+    @Override
+    public <S> void preProcess(NativeWebRequest request, DeferredResult<S> deferredResult) throws IOException {
+        listen();
+    }
+
+    /**
+     * 注册写监听并开始写出；注册前输出流仍是阻塞模式，放入的事件只入槽
+     *
+     * @throws IOException 获取输出流失败
+     */
+    void listen() throws IOException {
+        ServletOutputStream stream = response.getOutputStream();
+        out = stream;
+        stream.setWriteListener(this);
+        listening = true;
+        schedule();
+    }
+
+    @Override
+    public void onWritePossible() {
+        // 写出任务可能刚因不可写而结束、尚未释放调度标记，由它看到此标记后继续
+        resumed.set(true);
+        schedule();
+    }
+
+    /**
+     * 客户端断开等输出错误；容器随后以异步错误结束请求
+     */
+    @Override
+    public void onError(Throwable error) {
+        log.debug("SSE输出中断: {}", error.getMessage());
+        markClosed();
+    }
+
+    private void schedule() {
+        if (listening && !closed.get() && scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        boolean again;
+        do {
+            resumed.set(false);
+            boolean waiting = false;
+            try {
+                waiting = !writeAvailable();
+            } catch (Exception e) {
+                // 连接已不可用，正常结束异步请求即可，不再作为请求异常处理
+                log.debug("SSE写出失败: {}", e.getMessage());
+                close();
+            }
+            scheduled.set(false);
+            again = !closed.get() && (waiting ? resumed.get() : hasPending()) && scheduled.compareAndSet(false, true);
+        } while (again);
+    }
+
+    /**
+     * 写出槽位中的事件直到写完或输出不可写
+     *
+     * @return 输出不可写、需等待容器回调时为 false
+     */
+    private boolean writeAvailable() throws Exception {
+        ServletOutputStream stream = out;
+        while (!closed.get()) {
+            if (!stream.isReady()) {
+                return false;
+            }
+            byte[] next = next();
+            if (next != null) {
+                stream.write(next);
+                unflushed = true;
+            } else if (unflushed) {
+                // 每批写出后立即刷新，事件不在响应缓冲区中停留
+                unflushed = false;
+                stream.flush();
+            } else {
+                if (finishing) {
+                    close();
+                }
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private byte[] next() throws Exception {
+        for (int i = 0; i < pending.length(); i++) {
+            T event = pending.getAndSet(i, null);
+            if (event != null) {
+                return encoder.encode(event).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return heartbeatPending.getAndSet(false) ? HEARTBEAT : null;
+    }
+
+    private boolean hasPending() {
+        for (int i = 0; i < pending.length(); i++) {
+            if (pending.get(i) != null) {
+                return true;
+            }
+        }
+        return heartbeatPending.get() || finishing;
+    }
+
+    /**
+     * @return 本次调用关闭了连接时为 true
+     */
+    private boolean markClosed() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        runOnClose();
+        return true;
+    }
+
+    private void runOnClose() {
+        Runnable action = onClose.getAndSet(null);
+        if (action != null) {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.domain.TtsRequest;
+import com.xfyun.webapi.sign.SignEncoder;
+import com.xfyun.webapi.sign.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 按内容寻址的 TTS 音频缓存
+ *
+ * 键为 (文本, 发音人, 语速, 音量, 音高, 编码, 采样率) 规范化后的 SHA-256，同样的参数合成出同样的音频，因此不区分租户。
+ * 两层：内存层保存最近访问的小音频，磁盘层保存全部音频，文件名即键，重启后扫描目录恢复。两层各自按总字节数上限
+ * 淘汰最久未访问的条目（访问顺序用递增序号记录，淘汰时排序快照，同一时刻只有一个线程淘汰）。
+ * 未命中时同一键的并发请求只合成一次。
+ *
+ * 磁盘层淘汰的文件先移出索引，保留 {@code evicted-retain-millis} 后才在之后的写入中删除：sendfile 在处理方法返回后才由连接器
+ * 按文件名打开，立即删除可能让刚返回的命中发送失败。保留期内同一键被重新写入时不再删除。
+ *
+ * 磁盘命中返回文件，不整体读入堆，也不提升到内存层：由调用方交给容器以 sendfile 发送（不经过堆），
+ * 或经 {@link Audio#writeTo} 分块复制到响应流；内存层只保存本次合成的音频。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class TtsAudioCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TtsAudioCache.class);
+
+    public static final String SOURCE_MEMORY = "memory";
+    public static final String SOURCE_DISK = "disk";
+    public static final String SOURCE_MISS = "miss";
+
+    private static final String AUDIO_MPEG = "audio/mpeg";
+    private static final String OCTET_STREAM = "application/octet-stream";
+    private static final Pattern FILE_NAME = Pattern.compile("[0-9a-f]{64}\\.(mp3|pcm)");
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private TtsClient ttsClient;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private Path directory;
+    private final ConcurrentHashMap<String, MemoryEntry> memory = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DiskEntry> disk = new ConcurrentHashMap<>();
+    private final AtomicLong memoryBytes = new AtomicLong();
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final AtomicLong accessSequence = new AtomicLong();
+    private final AtomicBoolean evictingMemory = new AtomicBoolean();
+    private final AtomicBoolean evictingDisk = new AtomicBoolean();
+    /** 已移出索引、等待删除的文件，按淘汰先后排列 */
+    private final ConcurrentLinkedQueue<Evicted> evicted = new ConcurrentLinkedQueue<>();
+    /** 写入缓存文件与删除淘汰文件互斥，避免删掉保留期内重新写入的同名文件 */
+    private final Object files = new Object();
+    private final SingleFlight<String, Audio> synthesis = new SingleFlight<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        String configured = xfyunWebapiProperties.getTtsSynthesis().getDiskDirectory();
+        directory = configured == null || configured.isEmpty()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "xfyun-tts-cache")
+                : Paths.get(configured);
+        Files.createDirectories(directory);
+        reload();
+        Gauge.builder("xfyun.tts.cache.bytes", memoryBytes, AtomicLong::get)
+                .description("TTS音频缓存占用字节数")
+                .tag("tier", SOURCE_MEMORY)
+                .register(meterRegistry);
+        Gauge.builder("xfyun.tts.cache.bytes", diskBytes, AtomicLong::get)
+                .description("TTS音频缓存占用字节数")
+                .tag("tier", SOURCE_DISK)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 取合成音频：内存层、磁盘层依次查找，都未命中时调用讯飞合成并写入缓存
+     *
+     * @param tenantId 租户标识，为空表示默认租户；仅用于未命中时签名
+     * @param request 合成文本与参数
+     * @return 音频
+     * @throws IllegalArgumentException 参数无效
+     * @throws Exception 签名异常；网络错误抛出 IOException；讯飞返回错误抛出 {@link TtsException}
+     */
+    public Audio get(String tenantId, TtsRequest request) throws Exception {
+        TtsRequest normalized = ttsClient.normalize(request);
+        String key = keyOf(normalized);
+        Audio audio = lookup(key);
+        if (audio == null) {
+            audio = synthesis.execute(key, () -> {
+                Audio cached = lookup(key);
+                return cached != null ? cached : store(key, normalized, ttsClient.synthesize(tenantId, normalized));
+            });
+        }
+        count(audio.getSource());
+        return audio;
+    }
+
+    /**
+     * 清空索引并重新扫描磁盘目录，删除未写完的临时文件
+     *
+     * @throws IOException 读取目录失败
+     */
+    void reload() throws IOException {
+        memory.clear();
+        disk.clear();
+        evicted.clear();
+        memoryBytes.set(0);
+        diskBytes.set(0);
+        List<DiskEntry> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                } else if (FILE_NAME.matcher(name).matches()) {
+                    found.add(new DiskEntry(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                }
+            }
+        }
+        // 按修改时间恢复访问顺序
+        found.sort(Comparator.comparingLong(entry -> entry.lastAccess));
+        for (DiskEntry entry : found) {
+            entry.lastAccess = accessSequence.incrementAndGet();
+            String name = entry.file.getFileName().toString();
+            disk.put(name.substring(0, name.indexOf('.')), entry);
+            diskBytes.addAndGet(entry.size);
+        }
+        log.info("TTS音频缓存目录: {}，{} 个文件，{} 字节", directory, found.size(), diskBytes.get());
+        evictDisk();
+    }
+
+    private Audio lookup(String key) {
+        MemoryEntry cached = memory.get(key);
+        if (cached != null) {
+            cached.lastAccess = accessSequence.incrementAndGet();
+            return new Audio(key, cached.contentType, cached.bytes, null, cached.bytes.length, SOURCE_MEMORY);
+        }
+        DiskEntry stored = disk.get(key);
+        if (stored == null) {
+            return null;
+        }
+        if (!Files.exists(stored.file)) {
+            // 目录被外部清理
+            if (disk.remove(key, stored)) {
+                diskBytes.addAndGet(-stored.size);
+            }
+            return null;
+        }
+        stored.lastAccess = accessSequence.incrementAndGet();
+        String contentType = stored.file.getFileName().toString().endsWith(".mp3") ? AUDIO_MPEG : OCTET_STREAM;
+        return new Audio(key, contentType, null, stored.file, stored.size, SOURCE_DISK);
+    }
+
+    private Audio store(String key, TtsRequest request, byte[] bytes) throws IOException {
+        XfyunWebapiProperties.TtsSynthesis config = xfyunWebapiProperties.getTtsSynthesis();
+        boolean mp3 = "lame".equals(request.getEncoding());
+        if (bytes.length <= config.getDiskMaxBytes()) {
+            Path file = directory.resolve(key + (mp3 ? ".mp3" : ".pcm"));
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            DiskEntry previous;
+            try {
+                Files.write(temp, bytes);
+                synchronized (files) {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    previous = disk.put(key, new DiskEntry(file, bytes.length, accessSequence.incrementAndGet()));
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            diskBytes.addAndGet(bytes.length - (previous == null ? 0 : previous.size));
+            evictDisk();
+        }
+        String contentType = mp3 ? AUDIO_MPEG : OCTET_STREAM;
+        remember(key, contentType, bytes);
+        return new Audio(key, contentType, bytes, null, bytes.length, SOURCE_MISS);
+    }
+
+    private void remember(String key, String contentType, byte[] bytes) {
+        XfyunWebapiProperties.TtsSynthesis config = xfyunWebapiProperties.getTtsSynthesis();
+        if (bytes.length > config.getMemoryMaxEntryBytes() || bytes.length > config.getMemoryMaxBytes()) {
+            return;
+        }
+        MemoryEntry previous = memory.put(key, new MemoryEntry(contentType, bytes, accessSequence.incrementAndGet()));
+        memoryBytes.addAndGet(bytes.length - (previous == null ? 0 : previous.bytes.length));
+        evictMemory();
+    }
+
+    /**
+     * 内存层超过上限时淘汰最久未访问的条目
+     */
+    private void evictMemory() {
+        long max = xfyunWebapiProperties.getTtsSynthesis().getMemoryMaxBytes();
+        if (memoryBytes.get() <= max || !evictingMemory.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<String, MemoryEntry>> snapshot = new ArrayList<>(memory.entrySet());
+            snapshot.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (int i = 0; i < snapshot.size() && memoryBytes.get() > max; i++) {
+                Map.Entry<String, MemoryEntry> oldest = snapshot.get(i);
+                if (memory.remove(oldest.getKey(), oldest.getValue())) {
+                    memoryBytes.addAndGet(-oldest.getValue().bytes.length);
+                }
+            }
+        } finally {
+            evictingMemory.set(false);
+        }
+    }
+
+    /**
+     * 磁盘层超过上限时把最久未访问的文件移出索引，并删除保留期已过的淘汰文件
+     */
+    private void evictDisk() {
+        if (!evictingDisk.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long max = xfyunWebapiProperties.getTtsSynthesis().getDiskMaxBytes();
+            if (diskBytes.get() > max) {
+                List<Map.Entry<String, DiskEntry>> snapshot = new ArrayList<>(disk.entrySet());
+                snapshot.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+                for (int i = 0; i < snapshot.size() && diskBytes.get() > max; i++) {
+                    Map.Entry<String, DiskEntry> oldest = snapshot.get(i);
+                    if (disk.remove(oldest.getKey(), oldest.getValue())) {
+                        diskBytes.addAndGet(-oldest.getValue().size);
+                        evicted.add(new Evicted(oldest.getKey(), oldest.getValue().file, System.nanoTime()));
+                    }
+                }
+            }
+            purgeEvicted(xfyunWebapiProperties.getTtsSynthesis().getEvictedRetainMillis());
+        } finally {
+            evictingDisk.set(false);
+        }
+    }
+
+    /**
+     * 删除淘汰超过保留期的文件；保留期内同一键已重新写入的跳过。只由持有淘汰标志的线程调用
+     *
+     * @param retainMillis 保留期（毫秒）
+     */
+    void purgeEvicted(long retainMillis) {
+        long now = System.nanoTime();
+        long retain = TimeUnit.MILLISECONDS.toNanos(retainMillis);
+        for (Evicted oldest; (oldest = evicted.peek()) != null && now - oldest.evictedAt >= retain; ) {
+            evicted.poll();
+            synchronized (files) {
+                if (disk.containsKey(oldest.key)) {
+                    continue;
+                }
+                try {
+                    Files.deleteIfExists(oldest.file);
+                } catch (IOException e) {
+                    log.warn("删除TTS缓存文件失败: {} {}", oldest.file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void count(String source) {
+        Counter.builder("xfyun.tts.cache.requests")
+                .description("TTS音频缓存请求次数")
+                .tag("result", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 缓存键，即 {@link Audio#getKey()}；只由请求参数决定，可在取音频前比对 ETag
+     *
+     * @param normalized {@link TtsClient#normalize} 补全后的请求
+     * @return SHA-256 十六进制串
+     */
+    public static String keyOf(TtsRequest normalized) {
+        String canonical = normalized.getText() + '\u0000' + normalized.getVcn() + '\u0000' + normalized.getSpeed()
+                + '\u0000' + normalized.getVolume() + '\u0000' + normalized.getPitch()
+                + '\u0000' + normalized.getEncoding() + '\u0000' + normalized.getSampleRate();
+        try {
+            return SignEncoder.hex(MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class MemoryEntry {
+        private final String contentType;
+        private final byte[] bytes;
+        private volatile long lastAccess;
+
+        private MemoryEntry(String contentType, byte[] bytes, long lastAccess) {
+            this.contentType = contentType;
+            this.bytes = bytes;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private static final class DiskEntry {
+        private final Path file;
+        private final long size;
+        private volatile long lastAccess;
+
+        private DiskEntry(Path file, long size, long lastAccess) {
+            this.file = file;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private static final class Evicted {
+        private final String key;
+        private final Path file;
+        private final long evictedAt;
+
+        private Evicted(String key, Path file, long evictedAt) {
+            this.key = key;
+            this.file = file;
+            this.evictedAt = evictedAt;
+        }
+    }
+
+    /**
+     * 缓存的音频：内存中的字节，或磁盘上的文件
+     */
+    public static final class Audio {
+        private final String key;
+        private final String contentType;
+        private final byte[] bytes;
+        private final Path file;
+        private final long size;
+        private final String source;
+
+        private Audio(String key, String contentType, byte[] bytes, Path file, long size, String source) {
+            this.key = key;
+            this.contentType = contentType;
+            this.bytes = bytes;
+            this.file = file;
+            this.size = size;
+            this.source = source;
+        }
+
+        /**
+         * @return 内容寻址的键，可作为强 ETag
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return 磁盘文件，音频在内存中时为 null
+         */
+        public Path getFile() {
+            return file;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return 命中的层：memory/disk，或 miss（本次合成）
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * @return mp3 为 audio/mpeg，pcm 为 application/octet-stream
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * 写出音频；磁盘文件经 {@link FileChannel#transferTo} 分块写出，不整体读入堆
+         *
+         * 输出流不是通道，每块仍经 {@link Channels#newChannel} 的 8 KB 堆缓冲复制一次；只有 sendfile 完全不经过堆。
+         *
+         * @param out 输出
+         * @throws IOException 读写失败，或文件在写出期间被截短
+         */
+        public void writeTo(OutputStream out) throws IOException {
+            if (bytes != null) {
+                out.write(bytes);
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                for (long position = 0; position < size; ) {
+                    long sent = channel.transferTo(position, size - position, target);
+                    if (sent <= 0) {
+                        throw new EOFException(file + " 在 " + position + " 字节处结束");
+                    }
+                    position += sent;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.xfyun.webapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.domain.TtsRequest;
+import com.xfyun.webapi.sign.SignResult;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.XfyunSigner;
+import org.apache.tomcat.websocket.Constants;
+import org.apache.tomcat.websocket.WsWebSocketContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.websocket.ClientEndpointConfig;
+import javax.websocket.CloseReason;
+import javax.websocket.DeploymentException;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.Session;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 讯飞在线语音合成(TTS) WebSocket 客户端
+ *
+ * 以服务端签名连接讯飞，发送一帧文本，按顺序接收 base64 音频帧直到 status=2。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+public class TtsClient {
+
+    /** 最后一帧 */
+    private static final int STATUS_LAST = 2;
+    private static final int MAX_FRAME_BYTES = 1024 * 1024;
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private ObjectMapper objectMapper;
+
+    private WsWebSocketContainer container;
+
+    /**
+     * 接收音频片段
+     */
+    @FunctionalInterface
+    public interface AudioSink {
+
+        /**
+         * @param audio 按讯飞返回顺序的一段音频
+         * @throws IOException 写出失败，合成随之中止
+         */
+        void write(byte[] audio) throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        container = new WsWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(MAX_FRAME_BYTES);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        container.destroy();
+    }
+
+    /**
+     * 合成并返回完整音频
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param request 合成文本与参数
+     * @return 音频字节
+     * @throws Exception 签名异常；网络错误或超时抛出 IOException；讯飞返回错误抛出 {@link TtsException}
+     */
+    public byte[] synthesize(String tenantId, TtsRequest request) throws Exception {
+        ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        await(start(tenantId, request, audio::write));
+        return audio.toByteArray();
+    }
+
+    /**
+     * 连接讯飞并发送合成请求，音频片段在连接的读线程上依次交给 sink
+     *
+     * 连接（含握手）在调用线程上完成，之后不阻塞。
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param request 合成文本与参数
+     * @param sink 音频片段接收方
+     * @return 收到最后一帧后完成；讯飞返回错误、连接中断或 sink 抛出异常时以该异常失败
+     * @throws Exception 签名或连接异常
+     */
+    public CompletableFuture<Void> start(String tenantId, TtsRequest request, AudioSink sink) throws Exception {
+        XfyunWebapiProperties.TtsSynthesis config = xfyunWebapiProperties.getTtsSynthesis();
+        SignResult signed = (SignResult) xfyunSigner.sign(tenantId, SignService.TTS);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        ClientEndpointConfig endpointConfig = ClientEndpointConfig.Builder.create().build();
+        endpointConfig.getUserProperties().put(Constants.IO_TIMEOUT_MS_PROPERTY, String.valueOf(config.getTimeoutMillis()));
+        Session session;
+        try {
+            session = container.connectToServer(new SynthesisEndpoint(done, sink), endpointConfig,
+                    URI.create(EndpointOverride.apply(signed.getUrl(), config.getEndpoint())));
+        } catch (DeploymentException e) {
+            throw new IOException("TTS连接失败: " + e.getMessage(), e);
+        }
+        session.setMaxIdleTimeout(config.getTimeoutMillis());
+        done.whenComplete((ignored, error) -> closeQuietly(session));
+        try {
+            session.getBasicRemote().sendText(objectMapper.writeValueAsString(frameOf(signed.getAppId(), request)));
+        } catch (IOException | RuntimeException e) {
+            // 调用方拿不到 future，在此结束合成并关闭连接
+            done.completeExceptionally(e);
+            throw e;
+        }
+        return done;
+    }
+
+    /**
+     * 等待合成结束，超过 {@code timeout-millis} 时中止
+     */
+    private void await(CompletableFuture<Void> done) throws Exception {
+        try {
+            done.get(xfyunWebapiProperties.getTtsSynthesis().getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done.cancel(false);
+            throw new InterruptedIOException("等待TTS合成被中断");
+        } catch (TimeoutException e) {
+            done.cancel(false);
+            throw new IOException("TTS合成超时");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new IOException(cause);
+        }
+    }
+
+    /**
+     * 补全缺省参数并校验；等价的请求补全后相同
+     *
+     * @param request 合成文本与参数
+     * @return 补全后的新请求
+     * @throws IllegalArgumentException 文本为空或超长、参数超出范围
+     */
+    public TtsRequest normalize(TtsRequest request) {
+        XfyunWebapiProperties.TtsSynthesis config = xfyunWebapiProperties.getTtsSynthesis();
+        if (request == null || request.getText() == null || request.getText().trim().isEmpty()) {
+            throw new IllegalArgumentException("text 不能为空");
+        }
+        if (request.getText().length() > config.getMaxTextChars()) {
+            throw new IllegalArgumentException("text 超过 " + config.getMaxTextChars() + " 字");
+        }
+        TtsRequest normalized = new TtsRequest();
+        normalized.setText(request.getText());
+        normalized.setVcn(request.getVcn() == null || request.getVcn().isEmpty() ? config.getDefaultVcn() : request.getVcn());
+        normalized.setSpeed(percent("speed", request.getSpeed()));
+        normalized.setVolume(percent("volume", request.getVolume()));
+        normalized.setPitch(percent("pitch", request.getPitch()));
+        String encoding = request.getEncoding() == null ? "lame" : request.getEncoding();
+        if (!"lame".equals(encoding) && !"raw".equals(encoding)) {
+            throw new IllegalArgumentException("encoding 须为 lame 或 raw: " + encoding);
+        }
+        normalized.setEncoding(encoding);
+        int sampleRate = request.getSampleRate() == null ? 16000 : request.getSampleRate();
+        if (sampleRate != 16000 && sampleRate != 8000) {
+            throw new IllegalArgumentException("sampleRate 须为 16000 或 8000: " + sampleRate);
+        }
+        normalized.setSampleRate(sampleRate);
+        return normalized;
+    }
+
+    private static int percent(String name, Integer value) {
+        if (value == null) {
+            return 50;
+        }
+        if (value < 0 || value > 100) {
+            throw new IllegalArgumentException(name + " 须在 0~100: " + value);
+        }
+        return value;
+    }
+
+    private ObjectNode frameOf(String appId, TtsRequest request) {
+        String encoding = request.getEncoding() == null ? "lame" : request.getEncoding();
+        ObjectNode frame = objectMapper.createObjectNode();
+        frame.putObject("common").put("app_id", appId);
+        ObjectNode business = frame.putObject("business");
+        business.put("aue", encoding);
+        if ("lame".equals(encoding)) {
+            // 流式返回 mp3
+            business.put("sfl", 1);
+        }
+        business.put("auf", "audio/L16;rate=" + (request.getSampleRate() == null ? 16000 : request.getSampleRate()));
+        business.put("vcn", request.getVcn() == null ? xfyunWebapiProperties.getTtsSynthesis().getDefaultVcn() : request.getVcn());
+        business.put("speed", request.getSpeed() == null ? 50 : request.getSpeed());
+        business.put("volume", request.getVolume() == null ? 50 : request.getVolume());
+        business.put("pitch", request.getPitch() == null ? 50 : request.getPitch());
+        business.put("tte", "UTF8");
+        frame.putObject("data")
+                .put("status", STATUS_LAST)
+                .put("text", Base64.getEncoder().encodeToString(request.getText().getBytes(StandardCharsets.UTF_8)));
+        return frame;
+    }
+
+    private static void closeQuietly(Session session) {
+        try {
+            if (session.isOpen()) {
+                session.close();
+            }
+        } catch (IOException | IllegalStateException ignored) {
+            // 连接已断开
+        }
+    }
+
+    /**
+     * 一次合成的连接
+     */
+    private final class SynthesisEndpoint extends Endpoint {
+        private final CompletableFuture<Void> done;
+        private final AudioSink sink;
+
+        private SynthesisEndpoint(CompletableFuture<Void> done, AudioSink sink) {
+            this.done = done;
+            this.sink = sink;
+        }
+
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(String.class, this::onMessage);
+        }
+
+        private void onMessage(String message) {
+            if (done.isDone()) {
+                return;
+            }
+            try {
+                JsonNode response = objectMapper.readTree(message);
+                int code = response.path("code").asInt(-1);
+                if (code != 0) {
+                    done.completeExceptionally(new TtsException(code, response.path("message").asText()));
+                    return;
+                }
+                JsonNode data = response.path("data");
+                String audio = data.path("audio").asText(null);
+                if (audio != null && !audio.isEmpty()) {
+                    sink.write(Base64.getDecoder().decode(audio));
+                }
+                if (data.path("status").asInt() == STATUS_LAST) {
+                    done.complete(null);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                done.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onClose(Session session, CloseReason closeReason) {
+            done.completeExceptionally(new IOException("TTS连接已关闭: " + closeReason.getCloseCode().getCode()
+                    + " " + closeReason.getReasonPhrase()));
+        }
+
+        @Override
+        public void onError(Session session, Throwable error) {
+            done.completeExceptionally(error);
+        }
+    }
+}
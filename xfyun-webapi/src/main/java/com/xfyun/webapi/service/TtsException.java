@@ -0,0 +1,22 @@
+package com.xfyun.webapi.service;
+
+/**
+ * 讯飞 TTS 接口返回的业务错误（code 非 0）
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+public class TtsException extends Exception {
+
+    private final int code;
+
+    public TtsException(int code, String message) {
+        super("TTS错误 " + code + ": " + message);
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+}
@@ -0,0 +1,534 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.sign.CredentialPoolExhaustedException;
+import com.xfyun.webapi.sign.SignResult;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.SignUtils;
+import com.xfyun.webapi.sign.XfyunSigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.tomcat.websocket.Constants;
+import org.apache.tomcat.websocket.WsSession;
+import org.apache.tomcat.websocket.WsWebSocketContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.websocket.ClientEndpointConfig;
+import javax.websocket.CloseReason;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * IAT/TTS/RTASR WebSocket 中继
+ *
+ * 客户端连接本服务后，由服务端签名并连接讯飞，双向转发文本帧与二进制帧，客户端不再直连讯飞、不再持有签名 URL。
+ * 二进制帧在容器读缓冲区被复用前复制到 {@link DirectBufferPool} 的池化直接缓冲区，随后原样交给对端异步发送，
+ * 发送完成即归还，转发路径上不再逐帧分配；文本帧由容器解码为 String 后原样转发。
+ *
+ * 每个会话的两个方向各有一个发送队列，同一时刻只有一帧在发送（容器不允许并发发送）。队列中待发送的字节超过
+ * {@code max-pending-bytes} 时暂停读取来源连接（{@link WsSession#suspend()}），TCP 窗口随之把背压传回发送方，
+ * 降到一半以下再恢复，单个会话占用的内存因此有上限。连接讯飞在独立线程池中进行，期间客户端的帧同样进入队列。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+@ConditionalOnProperty(prefix = "xfyun.relay", name = "enabled", havingValue = "true")
+public class WsRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(WsRelay.class);
+
+    private static final String RELAY_PROPERTY = WsRelay.class.getName();
+    private static final String UPSTREAM = "upstream";
+    private static final String DOWNSTREAM = "downstream";
+
+    /** 讯飞 RTASR 的业务参数；pd 由服务端按配置签入，不接受客户端覆盖 */
+    static final Set<String> RTASR_PARAMETERS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "lang", "punc", "vadMdn", "roleType", "engLangType", "transType", "transStrategy", "targetLang")));
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private WsWebSocketContainer container;
+    private ExecutorService connects;
+    private DirectBufferPool bufferPool;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final LongAdder pendingBytes = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        XfyunWebapiProperties.Relay config = xfyunWebapiProperties.getRelay();
+        container = new WsWebSocketContainer();
+        container.setDefaultMaxSessionIdleTimeout(config.getIdleTimeoutMillis());
+        container.setDefaultMaxBinaryMessageBufferSize(config.getMaxMessageBytes());
+        container.setDefaultMaxTextMessageBufferSize(config.getMaxMessageBytes());
+        container.setAsyncSendTimeout(config.getSendTimeoutMillis());
+        bufferPool = new DirectBufferPool(config.getBufferBytes(), config.getPoolBuffers());
+        connects = Executors.newFixedThreadPool(Math.max(1, config.getConnectThreads()), DaemonThreads.named("xfyun-relay-connect"));
+        Gauge.builder("xfyun.relay.sessions", sessions, AtomicInteger::get)
+                .description("WebSocket 中继当前会话数")
+                .register(meterRegistry);
+        Gauge.builder("xfyun.relay.pending.bytes", pendingBytes, LongAdder::sum)
+                .description("WebSocket 中继队列中待发送的字节数")
+                .register(meterRegistry);
+        Gauge.builder("xfyun.relay.buffers.pooled", bufferPool, DirectBufferPool::pooled)
+                .description("WebSocket 中继空闲的池化直接缓冲区数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        connects.shutdownNow();
+        container.destroy();
+    }
+
+    /**
+     * 接管客户端连接：签名并连接讯飞，之后双向转发
+     *
+     * @param client 客户端连接
+     * @param tenantId 租户标识，为空表示默认租户
+     * @param service 中继的服务，IAT/TTS/RTASR
+     */
+    public void open(Session client, String tenantId, SignService service) {
+        XfyunWebapiProperties.Relay config = xfyunWebapiProperties.getRelay();
+        if (sessions.incrementAndGet() > config.getMaxSessions()) {
+            sessions.decrementAndGet();
+            connected("rejected");
+            closeQuietly(client, new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "relay sessions exhausted"));
+            return;
+        }
+        client.setMaxIdleTimeout(config.getIdleTimeoutMillis());
+        client.setMaxBinaryMessageBufferSize(config.getMaxMessageBytes());
+        client.setMaxTextMessageBufferSize(config.getMaxMessageBytes());
+        client.getAsyncRemote().setSendTimeout(config.getSendTimeoutMillis());
+        RelaySession relay = new RelaySession(client);
+        client.getUserProperties().put(RELAY_PROPERTY, relay);
+        client.addMessageHandler(String.class, relay.up::offer);
+        client.addMessageHandler(ByteBuffer.class, buffer -> relay.up.offer(bufferPool.copyOf(buffer)));
+        try {
+            connects.execute(() -> connect(relay, tenantId, service, client.getQueryString()));
+        } catch (RejectedExecutionException e) {
+            relay.close(new CloseReason(CloseReason.CloseCodes.GOING_AWAY, "relay stopped"));
+        }
+    }
+
+    /**
+     * 客户端连接关闭，关闭对应的讯飞连接
+     *
+     * @param client 客户端连接
+     * @param reason 关闭原因
+     */
+    public void closed(Session client, CloseReason reason) {
+        RelaySession relay = (RelaySession) client.getUserProperties().get(RELAY_PROPERTY);
+        if (relay != null) {
+            relay.close(reason);
+        }
+    }
+
+    /**
+     * @return 当前会话数
+     */
+    public int sessionCount() {
+        return sessions.get();
+    }
+
+    /**
+     * @return 全部会话队列中待发送的字节数
+     */
+    public long pendingBytes() {
+        return pendingBytes.sum();
+    }
+
+    private void connect(RelaySession relay, String tenantId, SignService service, String query) {
+        XfyunWebapiProperties.Relay config = xfyunWebapiProperties.getRelay();
+        try {
+            SignResult signed = (SignResult) xfyunSigner.sign(tenantId, service);
+            String url = EndpointOverride.apply(signed.getUrl(), config.getEndpoint());
+            // RTASR 的业务参数在 URL 上，只透传允许的客户端查询参数；IAT/TTS 的参数在首帧中
+            if (service == SignService.RTASR) {
+                url = url + rtasrParameters(query);
+            }
+            ClientEndpointConfig endpointConfig = ClientEndpointConfig.Builder.create().build();
+            endpointConfig.getUserProperties().put(Constants.IO_TIMEOUT_MS_PROPERTY, String.valueOf(config.getConnectTimeoutMillis()));
+            Session upstream = container.connectToServer(relay.upstreamEndpoint(), endpointConfig, URI.create(url));
+            connected("success");
+            relay.attach(upstream);
+        } catch (CredentialPoolExhaustedException e) {
+            connected("error");
+            relay.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "credentials exhausted"));
+        } catch (Exception e) {
+            connected("error");
+            log.warn("连接讯飞失败: {} {}", service.tag(), e.getMessage());
+            relay.close(new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "upstream connect failed"));
+        }
+    }
+
+    /**
+     * 从客户端查询串中取出 {@link #RTASR_PARAMETERS} 中的参数，解码后重新编码
+     *
+     * 其他参数（包括 appid、ts、signa 等签名参数）一律丢弃，客户端无法覆盖服务端签名；无法解码的参数同样丢弃。
+     *
+     * @param query 客户端查询串，可为 null
+     * @return 以 {@code &} 开头的参数串，没有可透传的参数时为空串
+     */
+    static String rtasrParameters(String query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        StringBuilder parameters = new StringBuilder();
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name;
+            String value;
+            try {
+                name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8");
+                value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+                continue;
+            }
+            if (RTASR_PARAMETERS.contains(name)) {
+                parameters.append('&').append(name).append('=').append(SignUtils.urlEncode(value));
+            }
+        }
+        return parameters.toString();
+    }
+
+    private void connected(String outcome) {
+        Counter.builder("xfyun.relay.connects")
+                .description("WebSocket 中继连接讯飞次数")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 对端无法接收的关闭码换成可发送的等价值
+     */
+    private static CloseReason forwardable(CloseReason reason) {
+        int code = reason.getCloseCode().getCode();
+        if (code == CloseReason.CloseCodes.NO_STATUS_CODE.getCode()) {
+            return new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, reason.getReasonPhrase());
+        }
+        if (code == CloseReason.CloseCodes.CLOSED_ABNORMALLY.getCode() || code == CloseReason.CloseCodes.TLS_HANDSHAKE_FAILURE.getCode()) {
+            return new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "peer closed abnormally");
+        }
+        return reason;
+    }
+
+    private static void closeQuietly(Session session, CloseReason reason) {
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        try {
+            session.close(forwardable(reason));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("关闭连接失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 一对客户端与讯飞连接
+     */
+    private final class RelaySession {
+        private final Session client;
+        private final Pipe up;
+        private final Pipe down;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Session upstream;
+
+        private RelaySession(Session client) {
+            this.client = client;
+            this.up = new Pipe(this, UPSTREAM, client);
+            this.down = new Pipe(this, DOWNSTREAM, null);
+            down.attach(client);
+        }
+
+        private Endpoint upstreamEndpoint() {
+            return new Endpoint() {
+                @Override
+                public void onOpen(Session session, EndpointConfig config) {
+                    down.source(session);
+                    session.addMessageHandler(String.class, down::offer);
+                    session.addMessageHandler(ByteBuffer.class, buffer -> down.offer(bufferPool.copyOf(buffer)));
+                }
+
+                @Override
+                public void onClose(Session session, CloseReason reason) {
+                    close(reason);
+                }
+
+                @Override
+                public void onError(Session session, Throwable error) {
+                    close(new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "upstream error"));
+                }
+            };
+        }
+
+        private void attach(Session upstream) {
+            this.upstream = upstream;
+            if (closed.get()) {
+                closeQuietly(upstream, new CloseReason(CloseReason.CloseCodes.NORMAL_CLOSURE, null));
+                return;
+            }
+            up.attach(upstream);
+        }
+
+        private void close(CloseReason reason) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            sessions.decrementAndGet();
+            up.close();
+            down.close();
+            closeQuietly(client, reason);
+            closeQuietly(upstream, reason);
+        }
+    }
+
+    /**
+     * 单方向的发送队列
+     *
+     * 队列状态由 this 保护；发送在锁外进行。容器可能在发送调用内同步回调完成（客户端连接的写是阻塞的），
+     * pumping 保证此时不递归，由外层循环继续发送下一帧。
+     */
+    private final class Pipe implements SendHandler {
+        private final RelaySession relay;
+        private final Counter paused;
+        private final ArrayDeque<Object> queue = new ArrayDeque<>();
+        private Session source;
+        private Session target;
+        private long pending;
+        private boolean sending;
+        private boolean pumping;
+        /** 待发送字节超限，降到一半以下前不恢复读取 */
+        private boolean overLimit;
+        /** 来源已被本管道暂停读取，与超限分开记录，避免重复暂停 */
+        private boolean readPaused;
+        private boolean closed;
+        private Object current;
+        private int currentBytes;
+
+        private Pipe(RelaySession relay, String direction, Session source) {
+            this.relay = relay;
+            this.source = source;
+            this.paused = Counter.builder("xfyun.relay.paused")
+                    .description("WebSocket 中继因待发送字节超限暂停读取来源的次数")
+                    .tag("direction", direction)
+                    .register(meterRegistry);
+        }
+
+        private synchronized void source(Session source) {
+            this.source = source;
+        }
+
+        private void attach(Session target) {
+            synchronized (this) {
+                this.target = target;
+            }
+            pump();
+        }
+
+        private void offer(Object frame) {
+            boolean refused;
+            synchronized (this) {
+                if (closed) {
+                    discard(frame);
+                    return;
+                }
+                int bytes = bytes(frame);
+                queue.add(frame);
+                pending += bytes;
+                pendingBytes.add(bytes);
+                if (!overLimit && pending > xfyunWebapiProperties.getRelay().getMaxPendingBytes()) {
+                    overLimit = true;
+                    paused.increment();
+                }
+                // 暂停须在锁内完成：否则 onResult 可能先于暂停恢复读取，来源随后被暂停且不再恢复
+                refused = !pauseIfOverLimit();
+            }
+            if (refused) {
+                relay.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "relay buffer exceeded"));
+                return;
+            }
+            pump();
+        }
+
+        private void pump() {
+            synchronized (this) {
+                if (pumping) {
+                    return;
+                }
+                pumping = true;
+            }
+            while (true) {
+                Object frame;
+                Session to;
+                synchronized (this) {
+                    if (sending || closed || target == null || (frame = queue.poll()) == null) {
+                        pumping = false;
+                        return;
+                    }
+                    sending = true;
+                    current = frame;
+                    currentBytes = bytes(frame);
+                    to = target;
+                }
+                try {
+                    if (frame instanceof String) {
+                        to.getAsyncRemote().sendText((String) frame, this);
+                    } else {
+                        to.getAsyncRemote().sendBinary((ByteBuffer) frame, this);
+                    }
+                } catch (RuntimeException e) {
+                    onResult(new SendResult(e));
+                }
+            }
+        }
+
+        @Override
+        public void onResult(SendResult result) {
+            Session resume = null;
+            synchronized (this) {
+                discard(current);
+                current = null;
+                pending -= currentBytes;
+                pendingBytes.add(-currentBytes);
+                sending = false;
+                if (overLimit && !closed && pending <= xfyunWebapiProperties.getRelay().getMaxPendingBytes() / 2) {
+                    overLimit = false;
+                    if (readPaused) {
+                        readPaused = false;
+                        resume = source;
+                    }
+                }
+            }
+            if (!result.isOK()) {
+                relay.close(new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "relay send failed"));
+                return;
+            }
+            if (resume != null) {
+                // 恢复可能在当前线程上处理已缓冲的帧，须在锁外进行；其间超限时 offer 已暂停，这里只在它未暂停时补做
+                resume(resume);
+                boolean refused;
+                synchronized (this) {
+                    refused = !pauseIfOverLimit();
+                }
+                if (refused) {
+                    relay.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "relay buffer exceeded"));
+                    return;
+                }
+            }
+            pump();
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                for (Object frame; (frame = queue.poll()) != null; ) {
+                    discard(frame);
+                }
+                // 发送中的一帧在 onResult 中扣除
+                pendingBytes.add(-(pending - (sending ? currentBytes : 0)));
+                pending = sending ? currentBytes : 0;
+            }
+        }
+
+        /**
+         * 超限且来源尚未暂停时暂停读取，须持有锁调用
+         *
+         * @return 无法暂停时返回 false
+         */
+        private boolean pauseIfOverLimit() {
+            if (!overLimit || readPaused || closed) {
+                return true;
+            }
+            readPaused = true;
+            return suspend(source);
+        }
+
+        private void discard(Object frame) {
+            if (frame instanceof ByteBuffer) {
+                bufferPool.release((ByteBuffer) frame);
+            }
+        }
+
+        /**
+         * 帧发送时占用的字节数：二进制帧为剩余字节，文本帧为 UTF-8 编码后的字节
+         */
+        private int bytes(Object frame) {
+            if (frame instanceof ByteBuffer) {
+                return ((ByteBuffer) frame).remaining();
+            }
+            String text = (String) frame;
+            int bytes = text.length();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c >= 0x800) {
+                    // 代理对两个 char 共 4 字节，其余 3 字节
+                    bytes += Character.isSurrogate(c) ? 1 : 2;
+                } else if (c >= 0x80) {
+                    bytes++;
+                }
+            }
+            return bytes;
+        }
+
+        /**
+         * 暂停读取来源，只改变读状态，不回调也不做 I/O
+         *
+         * @return 无法暂停时返回 false
+         */
+        private boolean suspend(Session session) {
+            if (session instanceof WsSession) {
+                try {
+                    ((WsSession) session).suspend();
+                    return true;
+                } catch (IllegalStateException e) {
+                    log.debug("暂停读取失败: {}", e.getMessage());
+                }
+            }
+            return false;
+        }
+
+        private void resume(Session session) {
+            try {
+                ((WsSession) session).resume();
+            } catch (IllegalStateException e) {
+                log.debug("恢复读取失败: {}", e.getMessage());
+            }
+        }
+    }
+}
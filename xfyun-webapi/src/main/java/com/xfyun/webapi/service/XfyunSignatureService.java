@@ -0,0 +1,293 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.config.XfyunConfigProperties;
+import com.xfyun.webapi.config.XfyunWebapiProperties;
+import com.xfyun.webapi.sign.EncryptionMode;
+import com.xfyun.webapi.sign.SignResult;
+import com.xfyun.webapi.sign.SignService;
+import com.xfyun.webapi.sign.SignaturePresigner;
+import com.xfyun.webapi.sign.TenantCredentials;
+import com.xfyun.webapi.sign.XfyunSigner;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 科大讯飞签名服务
+ *
+ * 提供统一的签名生成和加密功能，支持多种讯飞API服务：
+ * - IAT (语音听写)
+ * - TTS (语音合成) 
+ * - RTASR (实时语音转写)
+ * - DTS (长文本语音合成)
+ *
+ * 签名计算由核心库的 {@link XfyunSigner} 完成，本类负责读取运行时加密模式并记录监控指标。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Service
+public class XfyunSignatureService {
+
+    @Resource
+    private XfyunConfigProperties xfyunConfigProperties;
+
+    @Resource
+    private XfyunWebapiProperties xfyunWebapiProperties;
+
+    // 签名核心，由 starter 按 xfyun.* 配置装配
+    @Resource
+    private XfyunSigner xfyunSigner;
+
+    @Resource
+    private SignMetrics signMetrics;
+
+    /**
+     * 将预签名命中情况发布到监控指标（预签名由 starter 按配置启动）
+     */
+    @PostConstruct
+    public void init() {
+        SignaturePresigner presigner = xfyunSigner.getPresigner();
+        if (presigner != null) {
+            signMetrics.bindPresigner(presigner);
+        }
+    }
+
+    /**
+     * 生成IAT签名
+     *
+     * @param authorizationHeader 授权头信息
+     * @return 包含url和appId的签名结果
+     * @throws Exception 签名生成异常
+     */
+    public Map<String, Object> generateIatSignature(String authorizationHeader) throws Exception {
+        return generateSignature(null, SignService.IAT, authorizationHeader);
+    }
+
+    /**
+     * 生成TTS签名
+     *
+     * @param authorizationHeader 授权头信息
+     * @return 包含url和appId的签名结果
+     * @throws Exception 签名生成异常
+     */
+    public Map<String, Object> generateTtsSignature(String authorizationHeader) throws Exception {
+        return generateSignature(null, SignService.TTS, authorizationHeader);
+    }
+
+    /**
+     * 生成RTASR签名
+     *
+     * @param authorizationHeader 授权头信息
+     * @return 包含url、appId、ts、signa的签名结果
+     * @throws Exception 签名生成异常
+     */
+    public Map<String, Object> generateRtasrSignature(String authorizationHeader) throws Exception {
+        return generateSignature(null, SignService.RTASR, authorizationHeader);
+    }
+
+    /**
+     * 生成DTS创建任务签名
+     *
+     * @param authorizationHeader 授权头信息
+     * @return 包含完整API URL的签名结果
+     * @throws Exception 签名生成异常
+     */
+    public Map<String, Object> generateDtsCreateSignature(String authorizationHeader) throws Exception {
+        return generateSignature(null, SignService.DTS_CREATE, authorizationHeader);
+    }
+
+    /**
+     * 生成DTS查询任务签名
+     *
+     * @param authorizationHeader 授权头信息
+     * @return 包含完整API URL的签名结果
+     * @throws Exception 签名生成异常
+     */
+    public Map<String, Object> generateDtsQuerySignature(String authorizationHeader) throws Exception {
+        return generateSignature(null, SignService.DTS_QUERY, authorizationHeader);
+    }
+
+    /**
+     * 为指定租户生成签名并按需加密
+     *
+     * @param tenantId 租户标识，为空时使用默认租户
+     * @param service 服务类型
+     * @param authorizationHeader 授权头
+     * @return 签名结果
+     * @throws Exception 签名异常，未知租户抛出 IllegalArgumentException
+     */
+    public Map<String, Object> generateSignature(String tenantId, SignService service, String authorizationHeader) throws Exception {
+        return generateSignature(tenantId, service, authorizationHeader, null);
+    }
+
+    /**
+     * 为指定租户生成签名并按需加密，加密前把原始签名交给回调（用于设置HTTP缓存头）
+     *
+     * @param tenantId 租户标识，为空时使用默认租户
+     * @param service 服务类型
+     * @param authorizationHeader 授权头
+     * @param onSigned 接收加密前的签名结果，可为 null
+     * @return 签名结果
+     * @throws Exception 签名异常，未知租户抛出 IllegalArgumentException
+     */
+    public Map<String, Object> generateSignature(String tenantId, SignService service, String authorizationHeader,
+                                                 Consumer<SignResult> onSigned) throws Exception {
+        return generateSignature(tenantId, service, null, authorizationHeader, onSigned);
+    }
+
+    /**
+     * 以指定 appId 的凭证生成签名并按需加密，不经过凭证池选择
+     *
+     * 用于须与先前请求使用同一凭证的后续请求，如查询以该 appId 创建的 DTS 任务。
+     *
+     * @param tenantId 租户标识，为空时使用默认租户
+     * @param service 服务类型
+     * @param appId 凭证的 appId，为空时按凭证池选择
+     * @param authorizationHeader 授权头
+     * @param onSigned 接收加密前的签名结果，可为 null
+     * @return 签名结果
+     * @throws Exception 签名异常，未知租户或该服务没有此 appId 的凭证时抛出 IllegalArgumentException
+     */
+    public Map<String, Object> generateSignature(String tenantId, SignService service, String appId, String authorizationHeader,
+                                                 Consumer<SignResult> onSigned) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        EncryptionMode mode = getEncryptionMode();
+        try {
+            Map<String, Object> signed = appId == null ? xfyunSigner.sign(tenantId, service) : xfyunSigner.signWith(tenantId, service, appId);
+            if (onSigned != null && signed instanceof SignResult) {
+                onSigned.accept((SignResult) signed);
+            }
+            Map<String, Object> result = xfyunSigner.encrypt(signed, authorizationHeader, mode);
+            success = true;
+            return result;
+        } finally {
+            signMetrics.recordSign(service, success, mode != EncryptionMode.NONE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 客户端所持签名的剩余可复用秒数，已扣除 {@code xfyun.http-cache.margin-seconds}
+     *
+     * @param tenantId 租户标识
+     * @param service 服务类型
+     * @param etag 不含引号的签名标识
+     * @return 剩余秒数，无效时为 0
+     */
+    public long remainingValidity(String tenantId, SignService service, String etag) {
+        return remainingValidity(tenantId, service, null, etag);
+    }
+
+    /**
+     * 客户端所持签名的剩余可复用秒数，只认指定 appId 的凭证签发的签名
+     *
+     * @param tenantId 租户标识
+     * @param service 服务类型
+     * @param appId 凭证的 appId，为空时不限
+     * @param etag 不含引号的签名标识
+     * @return 剩余秒数，无效时为 0
+     */
+    public long remainingValidity(String tenantId, SignService service, String appId, String etag) {
+        return xfyunSigner.remainingValidity(tenantId, service, appId, etag, xfyunWebapiProperties.getHttpCache().getMarginSeconds());
+    }
+
+    /**
+     * 签名的剩余可复用秒数，已扣除 {@code xfyun.http-cache.margin-seconds}
+     *
+     * @param signed 签名结果
+     * @return 剩余秒数，可能为负
+     */
+    public long remainingValidity(SignResult signed) {
+        return xfyunSigner.remainingSeconds(TimeUnit.MILLISECONDS.toSeconds(signed.getIssuedAt()),
+                xfyunWebapiProperties.getHttpCache().getMarginSeconds());
+    }
+
+    /**
+     * 批量生成签名
+     *
+     * 所有服务共用同一签名时间，加密开启时只取一次密钥；信封模式下每个服务各自成一个信封。
+     *
+     * @param services 服务类型，按顺序返回
+     * @param authorizationHeader 授权头信息
+     * @return 以服务标签为键的签名结果
+     * @throws Exception 签名生成异常
+     */
+    public Map<String, Map<String, Object>> generateBatchSignature(Collection<SignService> services, String authorizationHeader) throws Exception {
+        return generateBatchSignature(null, services, authorizationHeader);
+    }
+
+    /**
+     * 为指定租户批量生成签名
+     *
+     * @param tenantId 租户标识，为空时使用默认租户
+     * @param services 服务类型，按顺序返回
+     * @param authorizationHeader 授权头信息
+     * @return 以服务标签为键的签名结果
+     * @throws Exception 签名生成异常，未知租户抛出 IllegalArgumentException
+     */
+    public Map<String, Map<String, Object>> generateBatchSignature(String tenantId, Collection<SignService> services, String authorizationHeader) throws Exception {
+        long start = System.nanoTime();
+        boolean success = false;
+        EncryptionMode mode = getEncryptionMode();
+        try {
+            Map<String, Map<String, Object>> signed = xfyunSigner.encryptBatch(xfyunSigner.signBatch(tenantId, services), authorizationHeader, mode);
+            success = true;
+            return signed;
+        } finally {
+            signMetrics.recordSign(null, success, mode != EncryptionMode.NONE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 当前响应加密模式，每次请求读取配置
+     *
+     * @return 加密模式
+     */
+    public EncryptionMode getEncryptionMode() {
+        return xfyunConfigProperties.getEncryption().getMode();
+    }
+
+    /**
+     * 响应加密是否开启
+     *
+     * @return 开启返回 true
+     */
+    public boolean isEncryptionEnabled() {
+        return getEncryptionMode() != EncryptionMode.NONE;
+    }
+
+    /**
+     * 以新快照整体替换租户凭证，签名线程不阻塞，旧凭证的缓存签名与预签名随之失效
+     *
+     * @param tenants 新的租户快照，必须包含默认租户
+     */
+    public void replaceCredentials(Map<String, TenantCredentials> tenants) {
+        xfyunSigner.replaceCredentials(tenants);
+    }
+
+    /**
+     * 租户是否存在
+     *
+     * @param tenantId 租户标识，为空表示默认租户
+     * @return 存在返回 true
+     */
+    public boolean hasTenant(String tenantId) {
+        return xfyunSigner.hasTenant(tenantId);
+    }
+
+    /**
+     * 后台预签名器
+     *
+     * @return 预签名器，未启用时为 null
+     */
+    public SignaturePresigner getPresigner() {
+        return xfyunSigner.getPresigner();
+    }
+}
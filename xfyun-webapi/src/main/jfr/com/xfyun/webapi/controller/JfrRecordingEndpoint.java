@@ -0,0 +1,145 @@
+package com.xfyun.webapi.controller;
+
+import com.xfyun.webapi.sign.SignTrace;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JFR 录制端点 {@code /actuator/xfyunjfr}
+ *
+ * {@code GET /actuator/xfyunjfr?seconds=N} 以 JDK 默认录制配置加上签名步骤事件 {@value SignTrace#EVENT_NAME}
+ * 录制 N 秒（默认 {@value #DEFAULT_SECONDS}，最多 {@value #MAX_SECONDS}），返回 .jfr 文件，可用 JDK Mission Control
+ * 或 {@code jfr print --events com.xfyun.sign.Stage} 查看。同一时间只允许一个录制，其余请求返回 429。
+ *
+ * 默认配置中会带出环境变量、系统属性、JVM 启动参数与本机进程命令行的事件（见 {@link #SENSITIVE_EVENTS}）在录制中关闭，
+ * 录制文件不含凭证等配置。端点默认不暴露，需在 {@code management.endpoints.web.exposure.include} 中显式加入。
+ *
+ * 签名步骤事件只在录制期间启用，平时关闭；运行环境没有 JFR 时本端点不注册。本类依赖 {@code jdk.jfr}，放在 {@code src/main/jfr} 中单独编译。
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+@Component
+@WebEndpoint(id = "xfyunjfr")
+@ConditionalOnClass(name = "jdk.jfr.Recording")
+public class JfrRecordingEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordingEndpoint.class);
+
+    static final int DEFAULT_SECONDS = 10;
+    static final int MAX_SECONDS = 300;
+
+    /** 可能含凭证的事件：环境变量、系统属性、JVM 启动参数、本机进程命令行 */
+    static final String[] SENSITIVE_EVENTS = {
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation",
+            "jdk.SystemProcess"
+    };
+
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * 录制并返回 JFR 文件
+     *
+     * @param seconds 录制时长（秒），为空时使用默认值，超出范围时截断到 1~{@value #MAX_SECONDS}
+     * @return JFR 文件，正在录制时返回 429
+     * @throws Exception 录制异常
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable Integer seconds) throws Exception {
+        if (!lock.tryLock()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        try {
+            int duration = seconds == null ? DEFAULT_SECONDS : Math.max(1, Math.min(MAX_SECONDS, seconds));
+            Path file = Files.createTempFile("xfyun-", ".jfr");
+            try {
+                record(duration, file);
+            } catch (Exception e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return new WebEndpointResponse<>(new TemporaryFileSystemResource(file.toFile()), WebEndpointResponse.STATUS_OK);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(int seconds, Path file) throws Exception {
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.setName("xfyun-sign");
+            recording.enable(SignTrace.EVENT_NAME).withThreshold(Duration.ZERO);
+            for (String event : SENSITIVE_EVENTS) {
+                recording.disable(event);
+            }
+            recording.setToDisk(true);
+            recording.start();
+            log.info("开始JFR录制: {}秒", seconds);
+            try {
+                TimeUnit.SECONDS.sleep(seconds);
+            } finally {
+                recording.stop();
+            }
+            recording.dump(file);
+        }
+    }
+
+    /**
+     * 读取完毕后删除的临时文件
+     */
+    private static final class TemporaryFileSystemResource extends FileSystemResource {
+
+        TemporaryFileSystemResource(File file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            File file = getFile();
+            if (!file.exists()) {
+                throw new FileNotFoundException(file.getAbsolutePath());
+            }
+            return new FilterInputStream(new FileInputStream(file)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(file.toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // 避免框架按文件直接读取，绕过删除逻辑
+            return false;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.xfyun.webapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xfyun.webapi.config.XfyunConfigProperties;
+import com.xfyun.webapi.service.SignMetrics;
+import com.xfyun.webapi.sign.EncryptionMode;
+import com.xfyun.webapi.sign.MutableClock;
+import com.xfyun.webapi.sign.SignTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,prometheus,xfyunjfr",
+        "xfyun.tenants.acme.iat.app-id=acme-iat-app-id",
+        "xfyun.tenants.acme.iat.api-key=acme-iat-api-key",
+        "xfyun.tenants.acme.iat.api-secret=acme-iat-api-secret",
+        "xfyun.tenants.pooled.iat.pool[0].app-id=pool-a",
+        "xfyun.tenants.pooled.iat.pool[0].api-key=pool-a-key",
+        "xfyun.tenants.pooled.iat.pool[0].api-secret=pool-a-secret",
+        "xfyun.tenants.pooled.iat.pool[1].app-id=pool-b",
+        "xfyun.tenants.pooled.iat.pool[1].api-key=pool-b-key",
+        "xfyun.tenants.pooled.iat.pool[1].api-secret=pool-b-secret",
+        "xfyun.tenants.pooled.iat.pool[1].max-concurrency=1",
+        "xfyun.tenants.pooled.dts.pool[0].app-id=dts-a",
+        "xfyun.tenants.pooled.dts.pool[0].api-key=dts-a-key",
+        "xfyun.tenants.pooled.dts.pool[0].api-secret=dts-a-secret",
+        "xfyun.tenants.pooled.dts.pool[1].app-id=dts-b",
+        "xfyun.tenants.pooled.dts.pool[1].api-key=dts-b-key",
+        "xfyun.tenants.pooled.dts.pool[1].api-secret=dts-b-secret"
+})
+@AutoConfigureMockMvc
+class XfyunSignControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MutableClock clock;
+
+    @Autowired
+    private XfyunConfigProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TestConfiguration
+    static class ClockConfiguration {
+
+        @Bean
+        MutableClock clock() {
+            return new MutableClock(System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    void signIatReturnsSignedUrl() throws Exception {
+        mockMvc.perform(get("/api/v1/xfyun/sign/iat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(0))
+                .andExpect(jsonPath("$.data.url").value(startsWith("wss://iat-api.xfyun.cn/v2/iat?authorization=")))
+                .andExpect(jsonPath("$.data.appId").value("dev-iat-app-id"));
+    }
+
+    @Test
+    void tenantIsSelectedByPathOrHeader() throws Exception {
+        mockMvc.perform(get("/api/v1/xfyun/tenants/acme/sign/iat"))
+                .andExpect(jsonPath("$.errorCode").value(0))
+                .andExpect(jsonPath("$.data.appId").value("acme-iat-app-id"));
+        mockMvc.perform(get("/api/v1/xfyun/sign/iat").header("X-Xfyun-Tenant", "acme"))
+                .andExpect(jsonPath("$.data.appId").value("acme-iat-app-id"));
+        mockMvc.perform(get("/api/v1/xfyun/sign/iat").header("X-Xfyun-Tenant", "nobody"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(1))
+                .andExpect(jsonPath("$.message").value("未知的租户: nobody"));
+    }
+
+    @Test
+    void pooledCredentialIsReportedAndLimitEnforced() throws Exception {
+        Set<String> appIds = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            appIds.add(objectMapper.readTree(mockMvc.perform(get("/api/v1/xfyun/tenants/pooled/sign/iat"))
+                    .andExpect(jsonPath("$.errorCode").value(0))
+                    .andReturn().getResponse().getContentAsString()).path("data").path("appId").asText());
+        }
+        assertEquals(new HashSet<>(Arrays.asList("pool-a", "pool-b")), appIds);
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/xfyun/tenants/pooled/sign/iat"))
+                    .andExpect(jsonPath("$.data.appId").value("pool-a"));
+        }
+    }
+
+    @Test
+    void dtsQueryIsSignedWithTheRequestedAppId() throws Exception {
+        String etag = null;
+        for (int i = 0; i < 3; i++) {
+            etag = mockMvc.perform(get("/api/v1/xfyun/tenants/pooled/sign/dts/query").param("appId", "dts-b"))
+                    .andExpect(jsonPath("$.errorCode").value(0))
+                    .andExpect(jsonPath("$.data.appId").value("dts-b"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        }
+        // 另一凭证签发的签名不能在重新验证时充当本凭证的签名
+        mockMvc.perform(get("/api/v1/xfyun/tenants/pooled/sign/dts/query").param("appId", "dts-b")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/xfyun/tenants/pooled/sign/dts/query").param("appId", "dts-a")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.appId").value("dts-a"));
+        mockMvc.perform(get("/api/v1/xfyun/tenants/pooled/sign/dts/query").param("appId", "dts-c"))
+                .andExpect(jsonPath("$.errorCode").value(1))
+                .andExpect(jsonPath("$.message").value("未配置的凭证: dts-query/dts-c"));
+    }
+
+    @Test
+    void signBatchReturnsEachRequestedServiceOnce() throws Exception {
+        mockMvc.perform(post("/api/v1/xfyun/sign/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"services\":[\"iat\",\"tts\",\"rtasr\",\"iat\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(0))
+                .andExpect(jsonPath("$.data.iat.url").value(startsWith("wss://iat-api.xfyun.cn")))
+                .andExpect(jsonPath("$.data.tts.url").value(startsWith("wss://tts-api.xfyun.cn")))
+                .andExpect(jsonPath("$.data.rtasr.appId").value("dev-rtasr-app-id"))
+                .andExpect(jsonPath("$.data.length()").value(3));
+    }
+
+    @Test
+    void signBatchRejectsUnknownService() throws Exception {
+        mockMvc.perform(post("/api/v1/xfyun/sign/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"services\":[\"iat\",\"asr\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(1))
+                .andExpect(jsonPath("$.message").value("未知的签名服务: asr"));
+    }
+
+    @Test
+    void dtsDateFollowsInjectedClockAndIsReusedWithinTheSecond() throws Exception {
+        clock.set(1704110400_000L);
+        String first = mockMvc.perform(get("/api/v1/xfyun/sign/dts/create"))
+                .andExpect(jsonPath("$.data.date").value("Mon, 01 Jan 2024 12:00:00 GMT"))
+                .andReturn().getResponse().getContentAsString();
+
+        clock.advance(500);
+        mockMvc.perform(get("/api/v1/xfyun/sign/dts/create"))
+                .andExpect(content().string(first));
+
+        clock.advance(500);
+        mockMvc.perform(get("/api/v1/xfyun/sign/dts/create"))
+                .andExpect(jsonPath("$.data.date").value("Mon, 01 Jan 2024 12:00:01 GMT"));
+    }
+
+    @Test
+    void serializedResponseMatchesJacksonOutput() throws Exception {
+        clock.set(1704110460_000L);
+        String serialized = mockMvc.perform(get("/api/v1/xfyun/sign/rtasr"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(serialized.startsWith("{\"errorCode\":0,\"data\":{\"url\":"), serialized);
+        mockMvc.perform(get("/api/v1/xfyun/sign/rtasr"))
+                .andExpect(content().string(serialized));
+        try {
+            properties.getSignCache().setSerializedResponse(false);
+            String jackson = mockMvc.perform(get("/api/v1/xfyun/sign/rtasr"))
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            assertEquals(objectMapper.readTree(jackson), objectMapper.readTree(serialized));
+        } finally {
+            properties.getSignCache().setSerializedResponse(true);
+        }
+    }
+
+    @Test
+    void signedUrlCanBeReusedUntilShortlyBeforeExpiry() throws Exception {
+        clock.set(1704110520_000L);
+        MockHttpServletResponse first = mockMvc.perform(get("/api/v1/xfyun/sign/tts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.issuedAt").value(1704110520_000L))
+                .andExpect(jsonPath("$.data.expiresAt").value(1704110820_000L))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=240"))
+                .andExpect(header().string(HttpHeaders.VARY, "Authorization, X-Xfyun-Tenant"))
+                .andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.matches("\"tts\\.1704110520\\.[0-9a-f]{16}\""), etag);
+
+        clock.advance(200_000);
+        mockMvc.perform(get("/api/v1/xfyun/sign/tts").header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=40"))
+                .andExpect(content().string(""));
+        // 其他服务或租户的签名不能用于重新验证
+        String iatEtag = mockMvc.perform(get("/api/v1/xfyun/sign/iat").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/xfyun/tenants/acme/sign/iat").header(HttpHeaders.IF_NONE_MATCH, iatEtag))
+                .andExpect(status().isOk());
+
+        clock.advance(40_000);
+        mockMvc.perform(get("/api/v1/xfyun/sign/tts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.issuedAt").value(1704110760_000L))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=240"));
+
+        try {
+            properties.getEncryption().setMode(EncryptionMode.FIELD);
+            mockMvc.perform(get("/api/v1/xfyun/sign/tts").header("Authorization", "Bearer token"))
+                    .andExpect(jsonPath("$.data.expiresAt").value(1704111060_000L))
+                    .andExpect(header().string(HttpHeaders.ETAG, endsWith(";field\"")));
+        } finally {
+            properties.getEncryption().setMode(EncryptionMode.NONE);
+        }
+    }
+
+    @Test
+    void signStreamRejectsUnknownServices() throws Exception {
+        String rejected = mockMvc.perform(get("/api/v1/xfyun/sign/stream").param("services", "asr"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(rejected.contains("event:error\ndata:{\"errorCode\":1,\"message\":\"未知的签名服务: asr\"}"), rejected);
+    }
+
+    @Test
+    void encryptionModeSwitchesAtRuntime() throws Exception {
+        String key16 = "94a08da1fecbb6e8"; // md5("token") 前16位
+        try {
+            properties.getEncryption().setMode(EncryptionMode.FIELD);
+            String fieldUrl = objectMapper.readTree(mockMvc.perform(get("/api/v1/xfyun/sign/iat").header("Authorization", "Bearer token"))
+                    .andExpect(jsonPath("$.errorCode").value(0))
+                    .andReturn().getResponse().getContentAsString()).path("data").path("url").asText();
+            assertTrue(fieldUrl.matches("[0-9a-f]+"));
+
+            properties.getEncryption().setMode(EncryptionMode.ENVELOPE);
+            String envelope = objectMapper.readTree(mockMvc.perform(get("/api/v1/xfyun/sign/iat").header("Authorization", "Bearer token"))
+                    .andExpect(jsonPath("$.data.length()").value(1))
+                    .andReturn().getResponse().getContentAsString()).path("data").path("envelope").asText();
+            Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key16.getBytes(StandardCharsets.UTF_8), "AES"));
+            JsonNode payload = objectMapper.readTree(cipher.doFinal(Base64.getDecoder().decode(envelope)));
+            assertTrue(payload.path("url").asText().startsWith("wss://iat-api.xfyun.cn/v2/iat?authorization="));
+            assertTrue(envelope.length() < fieldUrl.length());
+        } finally {
+            properties.getEncryption().setMode(EncryptionMode.NONE);
+        }
+    }
+
+    @Test
+    void signingIsTimedPerServiceAndScrapeable() throws Exception {
+        mockMvc.perform(get("/api/v1/xfyun/sign/tts")).andExpect(status().isOk());
+
+        Timer timer = meterRegistry.get(SignMetrics.SIGN_LATENCY)
+                .tags("service", "tts", "outcome", "success", "encryption", "off")
+                .timer();
+        assertTrue(timer.count() >= 1);
+        assertTrue(meterRegistry.get(SignMetrics.SIGN_REQUESTS).tags("service", "tts", "outcome", "success", "encryption", "off").counter().count() >= 1);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("xfyun_sign_latency_seconds_bucket{")));
+    }
+
+    @Test
+    void jfrEndpointRecordsSigningStages() throws Exception {
+        AtomicBoolean recording = new AtomicBoolean(true);
+        Thread signer = new Thread(() -> {
+            while (recording.get()) {
+                try {
+                    mockMvc.perform(get("/api/v1/xfyun/sign/iat"));
+                } catch (Exception e) {
+                    return;
+                }
+            }
+        });
+        signer.start();
+        byte[] jfr;
+        try {
+            jfr = mockMvc.perform(get("/actuator/xfyunjfr").param("seconds", "1"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+        } finally {
+            recording.set(false);
+            signer.join();
+        }
+
+        Path file = Files.createTempFile("xfyun", ".jfr");
+        try {
+            Files.write(file, jfr);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            List<RecordedEvent> stages = events.stream()
+                    .filter(e -> SignTrace.EVENT_NAME.equals(e.getEventType().getName()))
+                    .collect(Collectors.toList());
+            assertTrue(stages.stream().anyMatch(e -> "sign".equals(e.getString("stage")) && "iat".equals(e.getString("service"))),
+                    stages.toString());
+            List<String> sensitive = Arrays.asList(JfrRecordingEndpoint.SENSITIVE_EVENTS);
+            assertTrue(events.stream().noneMatch(e -> sensitive.contains(e.getEventType().getName())));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.xfyun.webapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CredentialReloaderTests {
+
+    private static final Path FILE = createFile();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private XfyunSignatureService signatureService;
+
+    @DynamicPropertySource
+    static void credentialsFile(DynamicPropertyRegistry registry) {
+        registry.add("xfyun.reload.credentials-file", FILE::toString);
+    }
+
+    @AfterEach
+    void restore() throws Exception {
+        write("file-iat-app-id");
+        mockMvc.perform(post("/api/v1/xfyun/credentials/refresh"));
+    }
+
+    @Test
+    void fileIsLoadedAtStartupAndReloadedOnChange() throws Exception {
+        mockMvc.perform(get("/api/v1/xfyun/sign/iat"))
+                .andExpect(jsonPath("$.data.appId").value("file-iat-app-id"));
+
+        write("rotated-iat-app-id");
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20);
+        String appId;
+        do {
+            Thread.sleep(50);
+            appId = (String) signatureService.generateIatSignature(null).get("appId");
+        } while (!"rotated-iat-app-id".equals(appId) && System.currentTimeMillis() < deadline);
+        assertEquals("rotated-iat-app-id", appId);
+    }
+
+    @Test
+    void refreshEndpointSwapsCredentialsWhileSigningContinues() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> signers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            signers.add(pool.submit(() -> {
+                int count = 0;
+                while (running.get()) {
+                    Map<String, Object> signed = signatureService.generateIatSignature(null);
+                    String appId = (String) signed.get("appId");
+                    assertTrue(appId.startsWith("file-iat-app-id") || appId.startsWith("refreshed-"), appId);
+                    count++;
+                }
+                return count;
+            }));
+        }
+        for (int round = 0; round < 20; round++) {
+            write("refreshed-" + round);
+            mockMvc.perform(post("/api/v1/xfyun/credentials/refresh"))
+                    .andExpect(jsonPath("$.errorCode").value(0))
+                    .andExpect(jsonPath("$.data.tenants").value(1));
+            assertEquals("refreshed-" + round, signatureService.generateIatSignature(null).get("appId"));
+        }
+        running.set(false);
+        for (Future<Integer> signer : signers) {
+            assertTrue(signer.get(10, TimeUnit.SECONDS) > 0);
+        }
+        pool.shutdown();
+    }
+
+    private static void write(String iatAppId) {
+        write(FILE, iatAppId);
+    }
+
+    private static void write(Path file, String iatAppId) {
+        String yaml = "xfyun:\n"
+                + "  iat:\n"
+                + "    app-id: " + iatAppId + "\n"
+                + "    api-key: file-iat-api-key\n"
+                + "    api-secret: file-iat-api-secret-" + iatAppId + "\n";
+        try {
+            Path tmp = file.resolveSibling("credentials.yml.tmp");
+            Files.write(tmp, yaml.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path createFile() {
+        try {
+            Path file = Files.createTempDirectory("xfyun-credentials").resolve("credentials.yml");
+            write(file, "file-iat-app-id");
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
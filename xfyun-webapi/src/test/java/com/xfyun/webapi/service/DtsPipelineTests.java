@@ -0,0 +1,139 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.domain.DtsTaskRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "xfyun.dts-tasks.sweep-millis=5",
+        "xfyun.dts-tasks.min-poll-millis=10",
+        "xfyun.dts-tasks.max-poll-millis=20",
+        "xfyun.dts-pipeline.first-chunk-chars=10",
+        "xfyun.dts-pipeline.chunk-chars=40",
+        "xfyun.dts-pipeline.chunk-concurrency=3",
+        "xfyun.warmup.enabled=false"
+})
+@AutoConfigureMockMvc
+class DtsPipelineTests {
+
+    private static final String SLOW = "慢";
+
+    /** 首段最慢，其余分段先于首段完成 */
+    @RegisterExtension
+    static final DtsStubServer STUB = DtsStubServer.start(text -> text.contains(SLOW) ? 8 : 2);
+
+    @Autowired
+    private DtsPipeline dtsPipeline;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void stubEndpoint(DynamicPropertyRegistry registry) {
+        registry.add("xfyun.dts-tasks.endpoint", STUB::endpoint);
+    }
+
+    @Test
+    void chunksAreSynthesizedInParallelAndStreamedInOrder() throws Exception {
+        String text = longText();
+        DtsTaskRequest request = new DtsTaskRequest();
+        request.setText(text);
+        List<String> chunks = dtsPipeline.split(request);
+        assertTrue(chunks.size() >= 10, chunks.toString());
+        assertTrue(chunks.get(0).length() <= 10, chunks.get(0));
+
+        int createdBefore = STUB.created();
+        RecordingOutputStream out = new RecordingOutputStream(createdBefore);
+        dtsPipeline.stream(null, request, chunks, out);
+
+        assertEquals(text, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        // 首段写出时后续分段尚未全部提交，客户端无需等待全文
+        assertTrue(out.createdAtFirstWrite < chunks.size(), out.createdAtFirstWrite + "/" + chunks.size());
+        assertEquals(chunks.size(), STUB.created() - createdBefore);
+        assertEquals(chunks.size(), out.flushes);
+        assertTrue(STUB.maxInFlight() <= 3, String.valueOf(STUB.maxInFlight()));
+        assertTrue(STUB.maxInFlight() > 1, String.valueOf(STUB.maxInFlight()));
+    }
+
+    @Test
+    void audioIsStreamedOverHttp() throws Exception {
+        String text = longText();
+        MvcResult started = mockMvc.perform(post("/api/v1/xfyun/dts/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"" + text + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "audio/mpeg"))
+                .andExpect(header().exists("X-Xfyun-Dts-Chunks"))
+                .andExpect(content().bytes(text.getBytes(StandardCharsets.UTF_8)));
+
+        for (String invalid : new String[]{"{\"text\":\"\"}", "{\"text\":\"回调。\",\"webhook\":\"http://127.0.0.1/hook\"}"}) {
+            MvcResult rejected = mockMvc.perform(post("/api/v1/xfyun/dts/stream")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(invalid))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(rejected))
+                    .andExpect(header().string("Content-Type", MediaType.APPLICATION_JSON_VALUE))
+                    .andExpect(jsonPath("$.errorCode").value(1));
+        }
+    }
+
+    private static String longText() {
+        StringBuilder text = new StringBuilder(SLOW + "开头。");
+        for (int i = 0; i < 30; i++) {
+            text.append("这是第").append(i).append("句话，用来测试分段合成。");
+        }
+        return text.toString();
+    }
+
+    /**
+     * 记录首次写出时已创建的任务数与 flush 次数
+     */
+    private static final class RecordingOutputStream extends ByteArrayOutputStream {
+
+        private final int createdBefore;
+        private int createdAtFirstWrite = -1;
+        private int flushes;
+
+        RecordingOutputStream(int createdBefore) {
+            this.createdBefore = createdBefore;
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (createdAtFirstWrite < 0) {
+                createdAtFirstWrite = STUB.created() - createdBefore;
+            }
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.xfyun.webapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * 本地讯飞 DTS 接口桩
+ *
+ * dts_create 校验签名参数并分配任务ID；dts_query 前 {@code pollsUntilDone - 1} 次返回处理中，之后返回完成与音频地址。
+ * 完成所需的查询次数可按任务文本指定。文本含 {@code FAIL} 的任务返回派发失败，含 {@code ERROR} 的任务查询时返回错误码。
+ * 另提供 {@code /audio/{taskId}} 下载合成音频（内容为文本本身）与 {@code /hook} 回调接收。
+ *
+ * 以 {@code @RegisterExtension} 注册到测试类的静态字段，该类全部测试结束后关闭。
+ */
+final class DtsStubServer implements AutoCloseable, AfterAllCallback {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ToIntFunction<String> pollsUntilDone;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Map<String, String> texts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> queries = new ConcurrentHashMap<>();
+    private final AtomicInteger totalQueries = new AtomicInteger();
+    private final Set<String> queryAuthorizations = ConcurrentHashMap.newKeySet();
+    private final List<String> hooks = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * 启动桩
+     *
+     * @param pollsUntilDone 按任务文本决定第几次查询返回完成
+     * @return 已启动的桩
+     */
+    static DtsStubServer start(ToIntFunction<String> pollsUntilDone) {
+        try {
+            return new DtsStubServer(pollsUntilDone);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    DtsStubServer(int pollsUntilDone) throws IOException {
+        this(text -> pollsUntilDone);
+    }
+
+    /**
+     * @param pollsUntilDone 按任务文本决定第几次查询返回完成
+     */
+    DtsStubServer(ToIntFunction<String> pollsUntilDone) throws IOException {
+        this.pollsUntilDone = pollsUntilDone;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(16, r -> {
+            Thread thread = new Thread(r, "dts-stub");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.createContext("/v1/private/dts_create", this::create);
+        server.createContext("/v1/private/dts_query", this::query);
+        server.createContext("/audio/", this::audio);
+        server.createContext("/hook", this::hook);
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    int queries(String taskId) {
+        AtomicInteger count = queries.get(taskId);
+        return count == null ? 0 : count.get();
+    }
+
+    int totalQueries() {
+        return totalQueries.get();
+    }
+
+    Set<String> queryAuthorizations() {
+        return queryAuthorizations;
+    }
+
+    List<String> hooks() {
+        return hooks;
+    }
+
+    int created() {
+        return sequence.get();
+    }
+
+    /**
+     * 同时处于已创建、未完成状态的任务数峰值
+     */
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        if (!signed(exchange)) {
+            return;
+        }
+        JsonNode body = objectMapper.readTree(readAll(exchange.getRequestBody()));
+        String text = new String(Base64.getDecoder().decode(body.path("payload").path("text").path("text").asText()),
+                StandardCharsets.UTF_8);
+        String taskId = "task-" + sequence.incrementAndGet();
+        texts.put(taskId, text);
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putObject("header").put("code", 0).put("message", "success").put("task_id", taskId);
+        write(exchange, 200, objectMapper.writeValueAsBytes(response));
+    }
+
+    private void query(HttpExchange exchange) throws IOException {
+        if (!signed(exchange)) {
+            return;
+        }
+        queryAuthorizations.add(param(exchange, "authorization"));
+        totalQueries.incrementAndGet();
+        String taskId = objectMapper.readTree(readAll(exchange.getRequestBody())).path("header").path("task_id").asText();
+        String text = texts.get(taskId);
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode header = response.putObject("header").put("task_id", taskId);
+        if (text == null || text.contains("ERROR")) {
+            header.put("code", 10163).put("message", "task not found");
+        } else if (text.contains("FAIL")) {
+            header.put("code", 0).put("message", "success").put("task_status", "2");
+        } else if (queries.computeIfAbsent(taskId, k -> new AtomicInteger()).incrementAndGet() < pollsUntilDone.applyAsInt(text)) {
+            header.put("code", 0).put("message", "success").put("task_status", "4");
+        } else {
+            if (queries.get(taskId).get() == pollsUntilDone.applyAsInt(text)) {
+                inFlight.decrementAndGet();
+            }
+            header.put("code", 0).put("message", "success").put("task_status", "5");
+            String audioUrl = endpoint() + "/audio/" + taskId;
+            response.putObject("payload").putObject("audio").put("encoding", "lame")
+                    .put("audio", Base64.getEncoder().encodeToString(audioUrl.getBytes(StandardCharsets.UTF_8)));
+        }
+        write(exchange, 200, objectMapper.writeValueAsBytes(response));
+    }
+
+    private void audio(HttpExchange exchange) throws IOException {
+        String text = texts.get(exchange.getRequestURI().getPath().substring("/audio/".length()));
+        if (text == null) {
+            write(exchange, 404, new byte[0]);
+            return;
+        }
+        write(exchange, 200, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void hook(HttpExchange exchange) throws IOException {
+        hooks.add(new String(readAll(exchange.getRequestBody()), StandardCharsets.UTF_8));
+        write(exchange, 204, null);
+    }
+
+    /**
+     * 请求须带签名的 authorization/date/host，且 host 为讯飞域名
+     */
+    private boolean signed(HttpExchange exchange) throws IOException {
+        if (param(exchange, "authorization") == null || param(exchange, "date") == null
+                || !"api-dx.xf-yun.com".equals(param(exchange, "host"))) {
+            write(exchange, 401, new byte[0]);
+            return false;
+        }
+        return true;
+    }
+
+    private static String param(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return pair.substring(eq + 1);
+            }
+        }
+        return null;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static void write(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body == null ? -1 : body.length);
+        if (body != null) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        close();
+    }
+}
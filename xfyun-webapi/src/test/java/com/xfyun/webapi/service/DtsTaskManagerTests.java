@@ -0,0 +1,165 @@
+package com.xfyun.webapi.service;
+
+import com.jayway.jsonpath.JsonPath;
+import com.xfyun.webapi.domain.DtsTask;
+import com.xfyun.webapi.domain.DtsTaskRequest;
+import com.xfyun.webapi.domain.DtsTaskStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static com.xfyun.webapi.service.TestSupport.awaitTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "xfyun.dts-tasks.sweep-millis=10",
+        "xfyun.dts-tasks.min-poll-millis=20",
+        "xfyun.dts-tasks.max-poll-millis=80",
+        "xfyun.dts-tasks.backoff-multiplier=2",
+        "xfyun.dts-tasks.max-query-errors=3",
+        "xfyun.dts-tasks.webhook-hosts=127.0.0.1",
+        "xfyun.warmup.enabled=false"
+})
+@AutoConfigureMockMvc
+class DtsTaskManagerTests {
+
+    private static final int TASKS = 100;
+    private static final int POLLS_UNTIL_DONE = 3;
+
+    @RegisterExtension
+    static final DtsStubServer STUB = DtsStubServer.start(text -> POLLS_UNTIL_DONE);
+
+    @Autowired
+    private DtsTaskManager dtsTaskManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void stubEndpoint(DynamicPropertyRegistry registry) {
+        registry.add("xfyun.dts-tasks.endpoint", STUB::endpoint);
+    }
+
+    @Test
+    void tasksArePolledCentrallyInCoalescedSweepsUntilDone() throws Exception {
+        int queriesBefore = STUB.totalQueries();
+        int signaturesBefore = STUB.queryAuthorizations().size();
+        long sweepsBefore = dtsTaskManager.sweepCount();
+        List<DtsTask> created = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            created.add(dtsTaskManager.create(null, request("第" + i + "段长文本。", null)));
+        }
+
+        awaitTrue(() -> created.stream().allMatch(t -> dtsTaskManager.get(null, t.getTaskId()).getStatus() == DtsTaskStatus.SUCCEEDED));
+        for (DtsTask task : created) {
+            DtsTask done = dtsTaskManager.get(null, task.getTaskId());
+            assertEquals(POLLS_UNTIL_DONE, done.getPolls());
+            assertEquals(POLLS_UNTIL_DONE, STUB.queries(task.getTaskId()));
+            assertEquals(STUB.endpoint() + "/audio/" + task.getTaskId(), done.getAudioUrl());
+        }
+        // 每个任务恰好查询到完成为止；到期相同的任务合并在同一轮中
+        assertEquals(TASKS * POLLS_UNTIL_DONE, STUB.totalQueries() - queriesBefore);
+        assertTrue(dtsTaskManager.sweepCount() - sweepsBefore < TASKS * POLLS_UNTIL_DONE);
+        // 同一轮的查询共用一个签名
+        int signatures = STUB.queryAuthorizations().size() - signaturesBefore;
+        assertTrue(signatures <= dtsTaskManager.sweepCount() - sweepsBefore && signatures < TASKS, String.valueOf(signatures));
+        assertEquals(0, dtsTaskManager.activeCount());
+        assertNull(dtsTaskManager.get("acme", created.get(0).getTaskId()));
+
+        // 名额在调用讯飞前占用，创建失败时归还
+        assertThrows(IllegalArgumentException.class, () -> dtsTaskManager.create("unknown", request("未知租户。", null)));
+        assertEquals(0, dtsTaskManager.activeCount());
+    }
+
+    @Test
+    void watchersAndWebhooksAreNotifiedWhenTheTaskFinishes() throws Exception {
+        DtsTask task = dtsTaskManager.create(null, request("回调测试。", STUB.endpoint() + "/hook"));
+        TestSupport.SseRecorder recorder = new TestSupport.SseRecorder();
+        SseChannel<?> watcher = dtsTaskManager.watch(null, task.getTaskId(), recorder);
+        recorder.listen(watcher);
+
+        awaitTrue(watcher::isClosed);
+        assertEquals("processing", recorder.names.get(0));
+        assertTrue(recorder.events.get(0).contains("\"status\":\"processing\""), recorder.events.toString());
+        String last = recorder.events.get(recorder.events.size() - 1);
+        assertEquals("succeeded", recorder.names.get(recorder.names.size() - 1));
+        assertTrue(last.contains("\"status\":\"succeeded\""), last);
+
+        awaitTrue(() -> STUB.hooks().stream().anyMatch(h -> h.contains(task.getTaskId())));
+        String hook = STUB.hooks().stream().filter(h -> h.contains(task.getTaskId())).findFirst().get();
+        assertTrue(hook.contains("\"status\":\"succeeded\""), hook);
+        assertTrue(hook.contains("\"audioUrl\":\"" + STUB.endpoint() + "/audio/"), hook);
+
+        // 已结束的任务订阅后立即收到终态并关闭
+        TestSupport.SseRecorder late = new TestSupport.SseRecorder();
+        SseChannel<?> lateWatcher = dtsTaskManager.watch(null, task.getTaskId(), late);
+        late.listen(lateWatcher);
+        awaitTrue(lateWatcher::isClosed);
+        assertEquals(1, late.events.size());
+        assertNull(dtsTaskManager.watch("acme", task.getTaskId(), new TestSupport.SseRecorder()));
+    }
+
+    @Test
+    void dispatchFailureAndRepeatedQueryErrorsFailTheTask() throws Exception {
+        DtsTask dispatch = dtsTaskManager.create(null, request("FAIL", null));
+        DtsTask erroring = dtsTaskManager.create(null, request("ERROR", null));
+
+        awaitTrue(() -> dtsTaskManager.get(null, dispatch.getTaskId()).getStatus() == DtsTaskStatus.FAILED
+                && dtsTaskManager.get(null, erroring.getTaskId()).getStatus() == DtsTaskStatus.FAILED);
+        assertEquals("任务派发失败", dtsTaskManager.get(null, dispatch.getTaskId()).getMessage());
+        DtsTask failed = dtsTaskManager.get(null, erroring.getTaskId());
+        assertEquals(3, failed.getPolls());
+        assertTrue(failed.getMessage().contains("10163"), failed.getMessage());
+    }
+
+    @Test
+    void tasksAreCreatedAndReadOverHttp() throws Exception {
+        String taskId = JsonPath.read(mockMvc.perform(post("/api/v1/xfyun/dts/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"接口测试。\",\"vcn\":\"x4_mingge\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(0))
+                .andExpect(jsonPath("$.data.status").value("processing"))
+                .andReturn().getResponse().getContentAsString(), "$.data.taskId");
+
+        awaitTrue(() -> dtsTaskManager.get(null, taskId).getStatus() == DtsTaskStatus.SUCCEEDED);
+        mockMvc.perform(get("/api/v1/xfyun/dts/tasks/" + taskId))
+                .andExpect(jsonPath("$.data.status").value("succeeded"))
+                .andExpect(jsonPath("$.data.audioUrl").value(STUB.endpoint() + "/audio/" + taskId));
+        mockMvc.perform(get("/api/v1/xfyun/tenants/acme/dts/tasks/" + taskId))
+                .andExpect(jsonPath("$.errorCode").value(1));
+        mockMvc.perform(post("/api/v1/xfyun/dts/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"回调\",\"webhook\":\"http://evil.example.com/hook\"}"))
+                .andExpect(jsonPath("$.errorCode").value(1))
+                .andExpect(jsonPath("$.message", containsString("webhook-hosts")));
+        mockMvc.perform(post("/api/v1/xfyun/dts/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\" \"}"))
+                .andExpect(jsonPath("$.errorCode").value(1));
+    }
+
+    private static DtsTaskRequest request(String text, String webhook) {
+        DtsTaskRequest request = new DtsTaskRequest();
+        request.setText(text);
+        request.setWebhook(webhook);
+        return request;
+    }
+}
@@ -0,0 +1,37 @@
+package com.xfyun.webapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DtsTextSplitterTests {
+
+    @Test
+    void chunksEndAtSentenceBoundariesAndConcatenateToTheOriginal() {
+        String text = "第一句。第二句！“第三句？”他说。Fourth one. Pi is 3.14 here.\n第五句；第六句";
+
+        List<String> chunks = DtsTextSplitter.split(text, 6, 20);
+
+        assertEquals(text, String.join("", chunks));
+        assertEquals(Arrays.asList("第一句。", "第二句！“第三句？”他说。", "Fourth one.", " Pi is 3.14 here.\n", "第五句；第六句"), chunks);
+    }
+
+    @Test
+    void overlongSentencesFallBackToSoftBreaksThenHardCuts() {
+        String text = "一二三四五，六七八九十一二三四五六七八九十。" + "😀😀😀😀😀😀";
+
+        List<String> chunks = DtsTextSplitter.split(text, 8, 8);
+
+        assertEquals(text, String.join("", chunks));
+        assertEquals("一二三四五，", chunks.get(0));
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= 8, chunk);
+            assertTrue(!Character.isLowSurrogate(chunk.charAt(0)), chunk);
+        }
+        assertTrue(DtsTextSplitter.split("", 8, 8).isEmpty());
+    }
+}
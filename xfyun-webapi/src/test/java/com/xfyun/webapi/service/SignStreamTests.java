@@ -0,0 +1,124 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.sign.MutableClock;
+import com.xfyun.webapi.sign.SignService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.xfyun.webapi.service.TestSupport.awaitTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "xfyun.stream.tick-millis=3600000",
+        "xfyun.stream.sender-threads=" + SignStreamTests.SENDER_THREADS,
+        "xfyun.warmup.enabled=false"
+})
+class SignStreamTests {
+
+    static final int SENDER_THREADS = 2;
+    private static final int SUBSCRIBERS = 256;
+
+    @Autowired
+    private SignStream signStream;
+
+    @Autowired
+    private MutableClock clock;
+
+    @LocalServerPort
+    private int port;
+
+    @TestConfiguration
+    static class ClockConfiguration {
+
+        @Bean
+        MutableClock clock() {
+            return new MutableClock(System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    void oneSignaturePerRefreshIsSharedAndStalledSubscribersDoNotHoldSenders() throws Exception {
+        clock.set(1704110400_000L);
+        List<TestSupport.SseRecorder> stalled = new ArrayList<>();
+        List<TestSupport.SseRecorder> healthy = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            TestSupport.SseRecorder recorder = new TestSupport.SseRecorder();
+            (i < SENDER_THREADS * 2 ? stalled : healthy).add(recorder);
+            recorder.listen(signStream.subscribe(null, Collections.singleton(SignService.IAT), null, recorder));
+        }
+        awaitTrue(() -> stalled.stream().allMatch(r -> r.events.size() == 1) && healthy.stream().allMatch(r -> r.events.size() == 1));
+        stalled.forEach(TestSupport.SseRecorder::stall);
+
+        // 停滞的订阅者多于发送线程，其余订阅者照常收到两轮刷新
+        for (int round = 2; round <= 3; round++) {
+            clock.advance(241_000);
+            signStream.tick();
+            int expected = round;
+            awaitTrue(() -> healthy.stream().allMatch(r -> r.events.size() == expected));
+        }
+        String latest = healthy.get(0).events.get(2);
+        for (TestSupport.SseRecorder recorder : healthy) {
+            assertEquals(latest, recorder.events.get(2));
+        }
+        assertNotEquals(latest, healthy.get(0).events.get(1));
+        assertTrue(latest.contains("\"issuedAt\":1704110882000"), latest);
+        for (TestSupport.SseRecorder recorder : stalled) {
+            assertEquals(1, recorder.events.size());
+            assertTrue(recorder.isWaiting());
+        }
+
+        // 恢复可写后停滞的订阅者只补发最新一轮，中间一轮被合并
+        for (TestSupport.SseRecorder recorder : stalled) {
+            recorder.release();
+        }
+        awaitTrue(() -> stalled.stream().allMatch(r -> r.events.size() == 2));
+        for (TestSupport.SseRecorder recorder : stalled) {
+            assertEquals(healthy.get(0).events.get(0), recorder.events.get(0));
+            assertEquals(latest, recorder.events.get(1));
+        }
+
+        // 签名仍在有效期内时不重新推送
+        signStream.tick();
+        Thread.sleep(50);
+        assertEquals(3, healthy.get(0).events.size());
+    }
+
+    @Test
+    void streamIsServedOverHttp() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(
+                "http://127.0.0.1:" + port + "/api/v1/xfyun/sign/stream?services=iat,rtasr").openConnection();
+        connection.setReadTimeout(10_000);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            assertTrue(connection.getContentType().startsWith("text/event-stream"), connection.getContentType());
+            StringBuilder events = new StringBuilder();
+            // 订阅后立即推送两个服务的当前签名，各以空行结束
+            for (int blank = 0; blank < 2; ) {
+                String line = in.readLine();
+                assertTrue(line != null, events.toString());
+                blank += line.isEmpty() ? 1 : 0;
+                events.append(line).append('\n');
+            }
+            String text = events.toString();
+            assertTrue(text.contains("event:iat\nid:iat."), text);
+            assertTrue(text.contains("data:{\"url\":\"wss://iat-api.xfyun.cn/v2/iat?authorization="), text);
+            assertTrue(text.contains("event:rtasr\nid:rtasr."), text);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.xfyun.webapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@SpringBootTest(properties = {
+        "xfyun.warmup.iterations=100000000",
+        "xfyun.warmup.timeout-millis=300"
+})
+@AutoConfigureMockMvc
+class SignWarmupTests {
+
+    private static final AtomicBoolean WARM_WHEN_READY = new AtomicBoolean();
+
+    @Autowired
+    private SignWarmup signWarmup;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @TestConfiguration
+    static class ReadinessConfiguration {
+
+        @Bean
+        ApplicationListener<AvailabilityChangeEvent<ReadinessState>> readinessRecorder(ObjectProvider<SignWarmup> warmup) {
+            return event -> {
+                if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                    WARM_WHEN_READY.set(warmup.getObject().getReport() != null);
+                }
+            };
+        }
+    }
+
+    @Test
+    void readinessFlipsOnlyAfterATimeBoundedWarmup() throws Exception {
+        SignWarmup.Report report = signWarmup.getReport();
+        assertNotNull(report);
+        assertTrue(WARM_WHEN_READY.get());
+        assertTrue(report.isTimedOut());
+        // 只断言下限：上限取决于机器负载
+        assertTrue(report.getDurationMillis() >= 300, String.valueOf(report.getDurationMillis()));
+
+        assertEquals(report.getDurationMillis(), meterRegistry.get("xfyun.warmup.duration").timeGauge().value(TimeUnit.MILLISECONDS), 1.0);
+        assertEquals(0, meterRegistry.get(SignMetrics.SIGN_REQUESTS).counters().stream().mapToDouble(c -> c.count()).sum());
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}
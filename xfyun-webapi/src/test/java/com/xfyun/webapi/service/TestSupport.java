@@ -0,0 +1,160 @@
+package com.xfyun.webapi.service;
+
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 服务层测试共用的等待与 SSE 记录工具
+ *
+ * @author xfyun-webapi
+ * @version 1.0
+ * @since 2025-09-15
+ */
+final class TestSupport {
+
+    private TestSupport() {
+    }
+
+    /**
+     * 等待条件成立，10 秒内不成立则失败
+     *
+     * @param condition 条件
+     * @throws InterruptedException 等待被中断
+     */
+    static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() - deadline < 0, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * 记录 {@link SseChannel} 写出的事件的响应
+     *
+     * 输出流支持非阻塞写出；{@link #stall()} 后输出不可写，模拟不读数据的慢客户端，{@link #release()} 后回调写监听继续写出。
+     */
+    static final class SseRecorder extends MockHttpServletResponse {
+
+        /** 各事件的数据，多行数据以换行连接 */
+        final List<String> events = new CopyOnWriteArrayList<>();
+        /** 各事件的事件名 */
+        final List<String> names = new CopyOnWriteArrayList<>();
+        private final Output output = new Output();
+
+        /**
+         * 注册写监听并开始写出，相当于容器开始异步处理
+         *
+         * @param channel 以本响应创建的连接
+         * @return 本响应
+         * @throws Exception 注册失败
+         */
+        SseRecorder listen(SseChannel<?> channel) throws Exception {
+            channel.listen();
+            return this;
+        }
+
+        /**
+         * 此后输出不可写
+         */
+        void stall() {
+            output.stall();
+        }
+
+        /**
+         * 恢复可写，写出任务曾因不可写而等待时回调写监听
+         */
+        void release() throws IOException {
+            output.release();
+        }
+
+        /**
+         * @return 写出任务正等待可写回调
+         */
+        boolean isWaiting() {
+            return output.isWaiting();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return output;
+        }
+
+        private final class Output extends ServletOutputStream {
+
+            private WriteListener listener;
+            private boolean stalled;
+            private boolean owed;
+
+            @Override
+            public synchronized boolean isReady() {
+                if (stalled) {
+                    owed = true;
+                    return false;
+                }
+                return true;
+            }
+
+            @Override
+            public synchronized void setWriteListener(WriteListener writeListener) {
+                listener = writeListener;
+            }
+
+            synchronized void stall() {
+                stalled = true;
+            }
+
+            synchronized boolean isWaiting() {
+                return owed;
+            }
+
+            void release() throws IOException {
+                WriteListener callback;
+                synchronized (this) {
+                    stalled = false;
+                    callback = owed ? listener : null;
+                    owed = false;
+                }
+                if (callback != null) {
+                    callback.onWritePossible();
+                }
+            }
+
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // SseChannel 每次写出一个完整事件
+                String frame = new String(b, off, len, StandardCharsets.UTF_8);
+                if (frame.startsWith(":")) {
+                    return;
+                }
+                String name = null;
+                StringBuilder data = null;
+                for (String line : frame.split("\n")) {
+                    if (line.startsWith("event:")) {
+                        name = line.substring(6);
+                    } else if (line.startsWith("data:")) {
+                        data = data == null ? new StringBuilder() : data.append('\n');
+                        data.append(line, 5, line.length());
+                    }
+                }
+                names.add(name);
+                events.add(data == null ? "" : data.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.xfyun.webapi.service;
+
+import com.xfyun.webapi.domain.TtsRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "xfyun.tts-synthesis.max-text-chars=4000",
+        "xfyun.tts-synthesis.memory-max-entry-bytes=2048",
+        "xfyun.tts-synthesis.memory-max-bytes=8192",
+        "xfyun.tts-synthesis.disk-max-bytes=" + TtsAudioCacheTests.DISK_MAX_BYTES,
+        "xfyun.tts-synthesis.sendfile-min-bytes=1024",
+        "xfyun.warmup.enabled=false"
+})
+class TtsAudioCacheTests {
+
+    static final int DISK_MAX_BYTES = 20000;
+    private static final int LARGE_BYTES = 3000;
+
+    @RegisterExtension
+    static final WsStubServer STUB = WsStubServer.start();
+    private static final Path DIRECTORY = createDirectory();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TtsAudioCache ttsAudioCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void stubEndpoint(DynamicPropertyRegistry registry) {
+        registry.add("xfyun.tts-synthesis.endpoint", STUB::endpoint);
+        registry.add("xfyun.tts-synthesis.disk-directory", DIRECTORY::toString);
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("tts-cache");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void repeatedRequestsAreServedFromMemoryWithoutReconnecting() throws Exception {
+        TtsAudioCache.Audio miss = ttsAudioCache.get(null, request("你好，世界"));
+        assertEquals(TtsAudioCache.SOURCE_MISS, miss.getSource());
+        assertEquals("audio/mpeg", miss.getContentType());
+        assertArrayEquals("你好，世界".getBytes(StandardCharsets.UTF_8), bytesOf(miss));
+
+        // 显式给出缺省参数的请求与之等价
+        TtsRequest explicit = request("你好，世界");
+        explicit.setVcn("xiaoyan");
+        explicit.setSpeed(50);
+        explicit.setSampleRate(16000);
+        TtsAudioCache.Audio hit = ttsAudioCache.get(null, explicit);
+        assertEquals(TtsAudioCache.SOURCE_MEMORY, hit.getSource());
+        assertEquals(miss.getKey(), hit.getKey());
+        assertEquals(1, STUB.syntheses("你好，世界"));
+
+        TtsRequest faster = request("你好，世界");
+        faster.setSpeed(80);
+        TtsAudioCache.Audio other = ttsAudioCache.get(null, faster);
+        assertEquals(TtsAudioCache.SOURCE_MISS, other.getSource());
+        assertNotEquals(miss.getKey(), other.getKey());
+        assertEquals(2, STUB.syntheses("你好，世界"));
+        assertTrue(meterRegistry.get("xfyun.tts.cache.requests").tag("result", "memory").counter().count() > 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TtsAudioCache.Audio>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> ttsAudioCache.get(null, request("并发合成同一句"))));
+            }
+            for (Future<TtsAudioCache.Audio> result : results) {
+                assertArrayEquals("并发合成同一句".getBytes(StandardCharsets.UTF_8), bytesOf(result.get()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, STUB.syntheses("并发合成同一句"));
+
+        assertThrows(IllegalArgumentException.class, () -> ttsAudioCache.get(null, request(" ")));
+        TtsException failed = assertThrows(TtsException.class, () -> ttsAudioCache.get(null, request("FAIL 不缓存")));
+        assertEquals(10160, failed.getCode());
+        assertThrows(TtsException.class, () -> ttsAudioCache.get(null, request("FAIL 不缓存")));
+        assertEquals(2, STUB.syntheses("FAIL 不缓存"));
+    }
+
+    @Test
+    void largeAudioIsMappedFromDiskAndSurvivesReload() throws Exception {
+        String text = large("disk-");
+        TtsAudioCache.Audio miss = ttsAudioCache.get(null, request(text));
+        assertEquals(TtsAudioCache.SOURCE_MISS, miss.getSource());
+
+        // 超过内存层单条上限，只在磁盘层
+        TtsAudioCache.Audio hit = ttsAudioCache.get(null, request(text));
+        assertEquals(TtsAudioCache.SOURCE_DISK, hit.getSource());
+        assertEquals(LARGE_BYTES, hit.getSize());
+        assertEquals(DIRECTORY.resolve(miss.getKey() + ".mp3"), hit.getFile());
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), bytesOf(hit));
+
+        ttsAudioCache.get(null, request("重启后在磁盘"));
+        Files.write(DIRECTORY.resolve("interrupted.tmp"), new byte[16]);
+        ttsAudioCache.reload();
+        assertFalse(Files.exists(DIRECTORY.resolve("interrupted.tmp")));
+        assertEquals(TtsAudioCache.SOURCE_DISK, ttsAudioCache.get(null, request(text)).getSource());
+        assertEquals(1, STUB.syntheses(text));
+
+        // 小音频的磁盘命中同样不读入内存层
+        for (int i = 0; i < 2; i++) {
+            TtsAudioCache.Audio small = ttsAudioCache.get(null, request("重启后在磁盘"));
+            assertEquals(TtsAudioCache.SOURCE_DISK, small.getSource());
+            assertArrayEquals("重启后在磁盘".getBytes(StandardCharsets.UTF_8), bytesOf(small));
+        }
+    }
+
+    @Test
+    void diskTierEvictsLeastRecentlyUsedFiles() throws Exception {
+        String kept = large("kept-");
+        ttsAudioCache.get(null, request(kept));
+        Path keptFile = ttsAudioCache.get(null, request(kept)).getFile();
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            TtsAudioCache.Audio audio = ttsAudioCache.get(null, request(large("evict-" + i + "-")));
+            files.add(DIRECTORY.resolve(audio.getKey() + ".mp3"));
+            // 持续访问的条目不被淘汰
+            assertEquals(TtsAudioCache.SOURCE_DISK, ttsAudioCache.get(null, request(kept)).getSource());
+        }
+        assertTrue(meterRegistry.get("xfyun.tts.cache.bytes").tag("tier", "disk").gauge().value() <= DISK_MAX_BYTES);
+        assertTrue(Files.exists(keptFile));
+        // 淘汰的文件移出索引，保留期内仍留在磁盘上供已返回的 sendfile 打开
+        assertTrue(Files.exists(files.get(0)));
+        assertEquals(TtsAudioCache.SOURCE_MISS, ttsAudioCache.get(null, request(large("evict-0-"))).getSource());
+        assertEquals(2, STUB.syntheses(large("evict-0-")));
+
+        // 保留期过后删除，保留期内重新写入的不删除
+        ttsAudioCache.purgeEvicted(0);
+        assertTrue(Files.exists(files.get(0)));
+        assertFalse(Files.exists(files.get(1)));
+    }
+
+    @Test
+    void httpEndpointServesCachedAudioWithEtag() throws Exception {
+        String body = "{\"text\":\"" + large("http-") + "\"}";
+        Response miss = post("/api/v1/xfyun/tts/synthesize", body, null);
+        assertEquals(200, miss.status);
+        assertEquals("miss", miss.connection.getHeaderField("X-Xfyun-Tts-Cache"));
+        assertEquals("audio/mpeg", miss.connection.getContentType());
+        assertArrayEquals(large("http-").getBytes(StandardCharsets.UTF_8), miss.body);
+
+        // 磁盘命中，大于 sendfile-min-bytes 时由连接器直接发送文件
+        Response disk = post("/api/v1/xfyun/tts/synthesize", body, null);
+        assertEquals("disk", disk.connection.getHeaderField("X-Xfyun-Tts-Cache"));
+        assertEquals(LARGE_BYTES, disk.connection.getContentLengthLong());
+        assertArrayEquals(miss.body, disk.body);
+
+        // ETag 只由请求参数决定，If-None-Match 相同时不查找缓存
+        String etag = disk.connection.getHeaderField("ETag");
+        double lookups = cacheRequests();
+        Response notModified = post("/api/v1/xfyun/tts/synthesize", body, etag);
+        assertEquals(304, notModified.status);
+        assertEquals(etag, notModified.connection.getHeaderField("ETag"));
+        // 列表、弱标签与 * 同样命中
+        assertEquals(304, post("/api/v1/xfyun/tts/synthesize", body, "\"other\", W/" + etag).status);
+        assertEquals(304, post("/api/v1/xfyun/tts/synthesize", body, "*").status);
+        assertEquals(lookups, cacheRequests());
+        assertEquals(200, post("/api/v1/xfyun/tts/synthesize", body, "\"other\"").status);
+
+        Response small = post("/api/v1/xfyun/tts/synthesize", "{\"text\":\"短句\",\"encoding\":\"raw\"}", null);
+        post("/api/v1/xfyun/tts/synthesize", "{\"text\":\"短句\",\"encoding\":\"raw\"}", null);
+        Response memory = post("/api/v1/xfyun/tts/synthesize", "{\"text\":\"短句\",\"encoding\":\"raw\"}", null);
+        assertEquals("application/octet-stream", small.connection.getContentType());
+        assertEquals("memory", memory.connection.getHeaderField("X-Xfyun-Tts-Cache"));
+        assertArrayEquals("短句".getBytes(StandardCharsets.UTF_8), memory.body);
+
+        Response tenant = post("/api/v1/xfyun/tenants/nobody/tts/synthesize", body, null);
+        assertTrue(new String(tenant.body, StandardCharsets.UTF_8).contains("未知的租户"));
+        Response failed = post("/api/v1/xfyun/tts/synthesize", "{\"text\":\"FAIL http\"}", null);
+        assertTrue(new String(failed.body, StandardCharsets.UTF_8).contains("TTS合成失败"));
+        assertNull(failed.connection.getHeaderField("ETag"));
+    }
+
+    private double cacheRequests() {
+        return meterRegistry.find("xfyun.tts.cache.requests").counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static TtsRequest request(String text) {
+        TtsRequest request = new TtsRequest();
+        request.setText(text);
+        return request;
+    }
+
+    /**
+     * @return 以 prefix 开头、共 {@link #LARGE_BYTES} 字节的 ASCII 文本
+     */
+    private static String large(String prefix) {
+        char[] text = new char[LARGE_BYTES];
+        Arrays.fill(text, 'x');
+        prefix.getChars(0, prefix.length(), text, 0);
+        return new String(text);
+    }
+
+    private static byte[] bytesOf(TtsAudioCache.Audio audio) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        audio.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private Response post(String path, String json, String ifNoneMatch) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        if (ifNoneMatch != null) {
+            connection.setRequestProperty("If-None-Match", ifNoneMatch);
+        }
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        Response response = new Response();
+        response.connection = connection;
+        response.status = connection.getResponseCode();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (response.status == 200) {
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[4096];
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    body.write(buffer, 0, read);
+                }
+            }
+        }
+        response.body = body.toByteArray();
+        return response;
+    }
+
+    private static final class Response {
+        private HttpURLConnection connection;
+        private int status;
+        private byte[] body;
+    }
+}
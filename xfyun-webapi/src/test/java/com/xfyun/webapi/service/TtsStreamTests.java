@@ -0,0 +1,164 @@
+package com.xfyun.webapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "xfyun.tts-synthesis.max-text-chars=10000",
+        "server.tomcat.threads.max=" + TtsStreamTests.REQUEST_THREADS,
+        "server.tomcat.threads.min-spare=1",
+        "xfyun.warmup.enabled=false"
+})
+class TtsStreamTests {
+
+    static final int REQUEST_THREADS = 4;
+    /** 6 帧音频，讯飞桩返回全部帧约需 5 * SLOW_FRAME_MILLIS */
+    private static final int SLOW_FRAMES = 6;
+    private static final long SLOW_TOTAL_MILLIS = (SLOW_FRAMES - 1) * WsStubServer.SLOW_FRAME_MILLIS;
+
+    @RegisterExtension
+    static final WsStubServer STUB = WsStubServer.start();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void stubEndpoint(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("xfyun.tts-synthesis.endpoint", STUB::endpoint);
+        // 对照用的整段合成不能命中上次运行留下的缓存
+        String directory = Files.createTempDirectory("tts-stream").toString();
+        registry.add("xfyun.tts-synthesis.disk-directory", () -> directory);
+    }
+
+    @Test
+    void firstByteArrivesWithTheFirstUpstreamFrame() throws Exception {
+        // 预热：分派器初始化与首次连接不计入
+        post("/api/v1/xfyun/tts/stream", "预热", null);
+        String text = slow("ttfb-");
+        Timed streamed = post("/api/v1/xfyun/tts/stream", text, null);
+        assertEquals("chunked", streamed.connection.getHeaderField("Transfer-Encoding"));
+        assertEquals("audio/mpeg", streamed.connection.getContentType());
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), streamed.body);
+        assertTrue(streamed.totalMillis >= SLOW_TOTAL_MILLIS, String.valueOf(streamed.totalMillis));
+        assertTrue(streamed.firstByteMillis < SLOW_TOTAL_MILLIS / 2,
+                "ttfb " + streamed.firstByteMillis + "ms, total " + streamed.totalMillis + "ms");
+
+        // 对照：整段合成后返回的接口首字节要等全部帧
+        Timed buffered = post("/api/v1/xfyun/tts/synthesize", slow("buffered-"), null);
+        assertTrue(buffered.firstByteMillis >= SLOW_TOTAL_MILLIS, String.valueOf(buffered.firstByteMillis));
+    }
+
+    @Test
+    void waitingStreamsDoNotHoldRequestThreads() throws Exception {
+        int streams = REQUEST_THREADS * 2;
+        CountDownLatch started = new CountDownLatch(streams);
+        ExecutorService executor = Executors.newFixedThreadPool(streams);
+        try {
+            List<Future<Timed>> results = new ArrayList<>();
+            for (int i = 0; i < streams; i++) {
+                String text = slow("parallel-" + i + "-");
+                results.add(executor.submit(() -> post("/api/v1/xfyun/tts/stream", text, started)));
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            // 所有流都在等待后续帧，请求线程数只有一半，仍能处理新请求
+            Timed quick = post("/api/v1/xfyun/tts/stream", "短句", null);
+            assertArrayEquals("短句".getBytes(StandardCharsets.UTF_8), quick.body);
+            assertTrue(quick.totalMillis < SLOW_TOTAL_MILLIS, String.valueOf(quick.totalMillis));
+            for (int i = 0; i < streams; i++) {
+                assertArrayEquals(slow("parallel-" + i + "-").getBytes(StandardCharsets.UTF_8), results.get(i).get().body);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failuresBeforeAudioReturnJsonAndLaterFailuresAbortTheResponse() throws Exception {
+        Timed failed = post("/api/v1/xfyun/tts/stream", "FAIL stream", null);
+        assertEquals("application/json", failed.connection.getContentType());
+        assertTrue(new String(failed.body, StandardCharsets.UTF_8).contains("TTS错误 10160"));
+
+        Timed invalid = post("/api/v1/xfyun/tts/stream", "", null);
+        assertTrue(new String(invalid.body, StandardCharsets.UTF_8).contains("text 不能为空"));
+
+        // 已输出一帧音频后失败，连接中断而不是以完整响应结束
+        char[] text = new char[WsStubServer.TTS_FRAME_BYTES * 2];
+        Arrays.fill(text, 'x');
+        "BREAK".getChars(0, 5, text, 0);
+        assertThrows(IOException.class, () -> post("/api/v1/xfyun/tts/stream", new String(text), null));
+    }
+
+    /**
+     * @return 以 prefix 开头、{@link #SLOW_FRAMES} 帧的慢速合成文本
+     */
+    private static String slow(String prefix) {
+        char[] text = new char[WsStubServer.TTS_FRAME_BYTES * SLOW_FRAMES];
+        Arrays.fill(text, 'x');
+        ("SLOW-" + prefix).getChars(0, prefix.length() + 5, text, 0);
+        return new String(text);
+    }
+
+    private Timed post(String path, String text, CountDownLatch firstByte) throws IOException {
+        long start = System.nanoTime();
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(("{\"text\":\"" + text + "\"}").getBytes(StandardCharsets.UTF_8));
+        }
+        Timed timed = new Timed();
+        timed.connection = connection;
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            int first = in.read();
+            timed.firstByteMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (firstByte != null) {
+                firstByte.countDown();
+            }
+            if (first != -1) {
+                body.write(first);
+                byte[] buffer = new byte[4096];
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    body.write(buffer, 0, read);
+                }
+            }
+        }
+        timed.totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        timed.body = body.toByteArray();
+        return timed;
+    }
+
+    private static final class Timed {
+        private HttpURLConnection connection;
+        private long firstByteMillis;
+        private long totalMillis;
+        private byte[] body;
+    }
+}
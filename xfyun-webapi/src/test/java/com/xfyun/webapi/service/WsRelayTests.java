@@ -0,0 +1,165 @@
+package com.xfyun.webapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.tomcat.websocket.WsSession;
+import org.apache.tomcat.websocket.WsWebSocketContainer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.websocket.ClientEndpointConfig;
+import javax.websocket.CloseReason;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.Session;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.xfyun.webapi.service.TestSupport.awaitTrue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "xfyun.relay.enabled=true",
+        "xfyun.relay.buffer-bytes=1024",
+        "xfyun.relay.max-pending-bytes=" + WsRelayTests.MAX_PENDING_BYTES,
+        "xfyun.warmup.enabled=false"
+})
+class WsRelayTests {
+
+    static final int MAX_PENDING_BYTES = 65536;
+    private static final int FLOOD_MESSAGES = 2000;
+    private static final int FLOOD_CHARS = 16384;
+
+    @RegisterExtension
+    static final WsStubServer STUB = WsStubServer.start();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WsRelay wsRelay;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final WsWebSocketContainer container = new WsWebSocketContainer();
+
+    @DynamicPropertySource
+    static void stubEndpoint(DynamicPropertyRegistry registry) {
+        registry.add("xfyun.relay.endpoint", STUB::endpoint);
+    }
+
+    @Test
+    void textAndBinaryFramesAreRelayedWithServerSideSignatures() throws Exception {
+        Client iat = connect("/ws/v1/xfyun/relay/iat");
+        iat.session.getBasicRemote().sendText("{\"common\":{}}");
+        assertEquals("echo:{\"common\":{}}", iat.texts.poll(10, TimeUnit.SECONDS));
+        assertTrue(STUB.query("/v2/iat").contains("host=iat-api.xfyun.cn"), STUB.query("/v2/iat"));
+
+        // 签名参数与未知参数不透传，允许的参数重新编码
+        Client rtasr = connect("/ws/v1/xfyun/relay/rtasr?appid=evil&signa=forged&lang=cn&x=1&targetLang=zh%20cn");
+        // 小于与大于池化缓冲区的帧
+        for (int size : new int[]{640, 3000}) {
+            byte[] audio = new byte[size];
+            Arrays.fill(audio, (byte) size);
+            rtasr.session.getBasicRemote().sendBinary(ByteBuffer.wrap(audio));
+            ByteBuffer echoed = rtasr.binaries.poll(10, TimeUnit.SECONDS);
+            assertNotNull(echoed);
+            byte[] received = new byte[echoed.remaining()];
+            echoed.get(received);
+            assertArrayEquals(audio, received);
+        }
+        String query = STUB.query("/v1/ws");
+        assertTrue(query.contains("signa=") && query.endsWith("&lang=cn&targetLang=zh+cn"), query);
+        assertFalse(query.contains("evil") || query.contains("forged") || query.contains("x=1"), query);
+
+        iat.session.close();
+        rtasr.session.close();
+        awaitTrue(() -> wsRelay.sessionCount() == 0);
+        assertEquals(0, wsRelay.pendingBytes());
+    }
+
+    @Test
+    void slowClientsPauseTheUpstreamInsteadOfBufferingWithoutBound() throws Exception {
+        Client client = connect("/ws/v1/xfyun/relay/tts");
+        ((WsSession) client.session).suspend();
+        client.session.getBasicRemote().sendText("flood:" + FLOOD_MESSAGES + ":" + FLOOD_CHARS);
+
+        // 客户端不读时，中继的积压停在上限附近，讯飞侧被暂停读取
+        long peak = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (System.nanoTime() - deadline < 0) {
+            peak = Math.max(peak, wsRelay.pendingBytes());
+            Thread.sleep(1);
+        }
+        assertTrue(peak > 0);
+        assertTrue(peak <= MAX_PENDING_BYTES + 3 * FLOOD_CHARS, String.valueOf(peak));
+        assertTrue(meterRegistry.get("xfyun.relay.paused").tag("direction", "downstream").counter().count() > 0);
+
+        ((WsSession) client.session).resume();
+        for (int i = 0; i < FLOOD_MESSAGES; i++) {
+            String message = client.texts.poll(10, TimeUnit.SECONDS);
+            assertNotNull(message, "message " + i);
+            assertEquals(String.format("%08d", i), message.substring(0, 8));
+            assertEquals(FLOOD_CHARS, message.length());
+        }
+        client.session.close();
+        awaitTrue(() -> wsRelay.sessionCount() == 0);
+    }
+
+    @Test
+    void unsupportedServicesAndUnknownTenantsAreRefused() throws Exception {
+        Client dts = connect("/ws/v1/xfyun/relay/dts-create");
+        assertEquals(CloseReason.CloseCodes.CANNOT_ACCEPT.getCode(), dts.closed.get(10, TimeUnit.SECONDS).getCloseCode().getCode());
+        Client tenant = connect("/ws/v1/xfyun/tenants/nobody/relay/iat");
+        assertEquals(CloseReason.CloseCodes.VIOLATED_POLICY.getCode(), tenant.closed.get(10, TimeUnit.SECONDS).getCloseCode().getCode());
+        assertEquals(0, wsRelay.sessionCount());
+    }
+
+    private Client connect(String path) throws Exception {
+        container.setDefaultMaxTextMessageBufferSize(FLOOD_CHARS * 2);
+        Client client = new Client();
+        client.session = container.connectToServer(client, ClientEndpointConfig.Builder.create().build(),
+                URI.create("ws://127.0.0.1:" + port + path));
+        return client;
+    }
+
+    /**
+     * 记录收到的帧与关闭原因
+     */
+    private static final class Client extends Endpoint {
+
+        private final BlockingQueue<String> texts = new LinkedBlockingQueue<>();
+        private final BlockingQueue<ByteBuffer> binaries = new LinkedBlockingQueue<>();
+        private final CompletableFuture<CloseReason> closed = new CompletableFuture<>();
+        private Session session;
+
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(String.class, texts::add);
+            session.addMessageHandler(ByteBuffer.class, buffer -> {
+                ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+                copy.put(buffer).flip();
+                binaries.add(copy);
+            });
+        }
+
+        @Override
+        public void onClose(Session session, CloseReason closeReason) {
+            closed.complete(closeReason);
+        }
+    }
+}
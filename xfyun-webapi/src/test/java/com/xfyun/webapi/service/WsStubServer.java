@@ -0,0 +1,226 @@
+package com.xfyun.webapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.websocket.CloseReason;
+import javax.websocket.DeploymentException;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.Session;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地讯飞 WebSocket 接口桩
+ *
+ * 在 {@code /v2/iat}、{@code /v2/tts}、{@code /v1/ws}(RTASR) 上校验签名参数并记录查询串；文本帧回复 {@code echo:} 加原文，
+ * 二进制帧原样回送。文本帧 {@code flood:N:SIZE} 让桩以阻塞发送连续推送 N 条 SIZE 字符的文本，每条以 8 位序号开头，
+ * 用于验证中继的背压。{@code /v2/tts} 上的 JSON 帧按讯飞合成协议应答：音频为文本的 UTF-8 字节，分多帧 base64 返回，
+ * 文本以 {@code FAIL} 开头时返回错误码，以 {@code BREAK} 开头时返回一帧音频、间隔后返回错误码；以 {@code SLOW} 开头时首帧立即返回，
+ * 之后每帧间隔 {@link #SLOW_FRAME_MILLIS} 毫秒。
+ *
+ * 以 {@code @RegisterExtension} 注册到测试类的静态字段，该类全部测试结束后关闭。
+ */
+final class WsStubServer implements AutoCloseable, AfterAllCallback {
+
+    static final int TTS_FRAME_BYTES = 1000;
+    static final int SLOW_FRAME_MILLIS = 200;
+
+    private final Tomcat tomcat = new Tomcat();
+    private final Map<String, String> queries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> syntheses = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService flooders = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "ws-stub-flood");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 启动桩
+     *
+     * @return 已启动的桩
+     */
+    static WsStubServer start() {
+        try {
+            return new WsStubServer();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    WsStubServer() throws IOException, LifecycleException {
+        tomcat.setBaseDir(Files.createTempDirectory("ws-stub").toString());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        connector.setProperty("address", "127.0.0.1");
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        context.addServletContainerInitializer(new WsSci(), null);
+        context.addServletContainerInitializer((classes, servletContext) -> {
+            ServerContainer container = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+            // 长文本合成请求的首帧超过默认的 8K
+            container.setDefaultMaxTextMessageBufferSize(64 * 1024);
+            try {
+                for (String path : new String[]{"/v2/iat", "/v2/tts", "/v1/ws"}) {
+                    container.addEndpoint(ServerEndpointConfig.Builder.create(StubEndpoint.class, path)
+                            .configurator(new ServerEndpointConfig.Configurator() {
+                                @Override
+                                public <T> T getEndpointInstance(Class<T> endpointClass) {
+                                    return endpointClass.cast(new StubEndpoint());
+                                }
+                            })
+                            .build());
+                }
+            } catch (DeploymentException e) {
+                throw new ServletException(e);
+            }
+        }, null);
+        Tomcat.addServlet(context, "default", new HttpServlet() {
+        });
+        context.addServletMappingDecoded("/", "default");
+        tomcat.start();
+    }
+
+    String endpoint() {
+        return "ws://127.0.0.1:" + tomcat.getConnector().getLocalPort();
+    }
+
+    /**
+     * @return 该路径最近一次连接的查询串
+     */
+    String query(String path) {
+        return queries.get(path);
+    }
+
+    /**
+     * @return 该文本被合成的次数
+     */
+    int syntheses(String text) {
+        AtomicInteger count = syntheses.get(text);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void close() throws LifecycleException {
+        flooders.shutdownNow();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        close();
+    }
+
+    private final class StubEndpoint extends Endpoint {
+
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            String path = session.getRequestURI().getPath();
+            String query = session.getQueryString();
+            queries.put(path, query == null ? "" : query);
+            boolean signed = "/v1/ws".equals(path)
+                    ? query != null && query.contains("appid=") && query.contains("signa=")
+                    : query != null && query.contains("authorization=") && query.contains("date=") && query.contains("host=");
+            if (!signed) {
+                try {
+                    session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "unsigned"));
+                } catch (IOException ignored) {
+                    // 连接已断开
+                }
+                return;
+            }
+            session.addMessageHandler(String.class, text -> {
+                if (text.startsWith("flood:")) {
+                    String[] parts = text.split(":");
+                    flooders.execute(() -> flood(session, Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                    return;
+                }
+                if ("/v2/tts".equals(path) && text.startsWith("{") && text.contains("\"business\"")) {
+                    flooders.execute(() -> synthesize(session, text));
+                    return;
+                }
+                try {
+                    session.getBasicRemote().sendText("echo:" + text);
+                } catch (IOException ignored) {
+                    // 连接已断开
+                }
+            });
+            session.addMessageHandler(ByteBuffer.class, buffer -> {
+                try {
+                    session.getBasicRemote().sendBinary(buffer);
+                } catch (IOException ignored) {
+                    // 连接已断开
+                }
+            });
+        }
+
+        private void synthesize(Session session, String frame) {
+            try {
+                JsonNode request = objectMapper.readTree(frame);
+                String text = new String(Base64.getDecoder().decode(request.path("data").path("text").asText()), StandardCharsets.UTF_8);
+                syntheses.computeIfAbsent(text, key -> new AtomicInteger()).incrementAndGet();
+                if (text.startsWith("FAIL")) {
+                    session.getBasicRemote().sendText("{\"code\":10160,\"message\":\"illegal text\",\"sid\":\"tts0\"}");
+                    return;
+                }
+                byte[] audio = text.getBytes(StandardCharsets.UTF_8);
+                for (int offset = 0; offset < audio.length; offset += TTS_FRAME_BYTES) {
+                    if (offset > 0 && text.startsWith("BREAK")) {
+                        Thread.sleep(SLOW_FRAME_MILLIS);
+                        session.getBasicRemote().sendText("{\"code\":10163,\"message\":\"engine error\",\"sid\":\"tts0\"}");
+                        return;
+                    }
+                    if (offset > 0 && text.startsWith("SLOW")) {
+                        Thread.sleep(SLOW_FRAME_MILLIS);
+                    }
+                    int end = Math.min(audio.length, offset + TTS_FRAME_BYTES);
+                    ObjectNode response = objectMapper.createObjectNode().put("code", 0).put("sid", "tts0");
+                    response.putObject("data")
+                            .put("audio", Base64.getEncoder().encodeToString(Arrays.copyOfRange(audio, offset, end)))
+                            .put("status", end == audio.length ? 2 : 1);
+                    session.getBasicRemote().sendText(objectMapper.writeValueAsString(response));
+                }
+            } catch (IOException | InterruptedException ignored) {
+                // 连接已断开或桩已停止
+            }
+        }
+
+        private void flood(Session session, int count, int size) {
+            char[] body = new char[size];
+            Arrays.fill(body, 'x');
+            try {
+                for (int i = 0; i < count; i++) {
+                    String sequence = String.format("%08d", i);
+                    sequence.getChars(0, sequence.length(), body, 0);
+                    session.getBasicRemote().sendText(new String(body));
+                }
+            } catch (IOException ignored) {
+                // 连接已断开
+            }
+        }
+    }
+}